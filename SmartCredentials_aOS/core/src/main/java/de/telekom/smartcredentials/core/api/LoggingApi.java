@@ -17,6 +17,9 @@
 package de.telekom.smartcredentials.core.api;
 
 import java.io.File;
+import java.util.List;
+
+import de.telekom.smartcredentials.core.model.logging.LogRotationPolicy;
 
 /**
  * Created by Alex.Graur@endava.com at 2/19/2020
@@ -36,4 +39,52 @@ public interface LoggingApi {
      */
     @SuppressWarnings("unused")
     void persistLog(File rootDirectory, String directory, String name, boolean appendDate, String extension, String log);
-}
\ No newline at end of file
+
+    /**
+     * Queue a log to be persisted in background, in the same file {@link #persistLog} would use.
+     * Queued logs are written in batches by a single writer thread; when logs are queued faster
+     * than they can be written, the oldest queued ones are dropped.
+     *
+     * @param rootDirectory of the folder containing the file
+     * @param directory     containing the log file
+     * @param name          of the file
+     * @param appendDate    <code>true</code> if you want to append the current date to the file name,
+     *                      <code>false</code> otherwise
+     * @param extension     of the file
+     * @param log           to be persisted in the file
+     */
+    @SuppressWarnings("unused")
+    void persistLogAsync(File rootDirectory, String directory, String name, boolean appendDate, String extension, String log);
+
+    /**
+     * Block until every log queued with {@link #persistLogAsync} has been written.
+     */
+    @SuppressWarnings("unused")
+    void flushLogs();
+
+    /**
+     * Set the retention rules applied to every directory logs are persisted in. Files are closed
+     * as segments once they reach the size limit or their date suffix changes; closed segments are
+     * gzip compressed in background and deleted when too old or when the directory grows too big.
+     * By default {@link LogRotationPolicy#NONE} is used and log files are never closed or deleted.
+     *
+     * @param policy to apply from now on
+     */
+    @SuppressWarnings("unused")
+    void setLogRotationPolicy(LogRotationPolicy policy);
+
+    /**
+     * Get the log files of a directory which may hold logs persisted at or after the given time,
+     * oldest first, e.g. to export or upload the logs of the last hours. Logs queued with
+     * {@link #persistLogAsync} are written before the files are looked up. The files are picked
+     * from an index kept in memory, so older files are neither listed nor opened. Closed segments
+     * end with <code>.gz</code> once compressed.
+     *
+     * @param rootDirectory of the folder containing the files
+     * @param directory     containing the log files
+     * @param sinceMillis   earliest time of interest, in milliseconds since epoch
+     * @return log files, oldest first
+     */
+    @SuppressWarnings("unused")
+    List<File> getLogFiles(File rootDirectory, String directory, long sinceMillis);
+}
@@ -22,6 +22,7 @@ import androidx.annotation.NonNull;
 import de.telekom.smartcredentials.core.model.request.RequestParams;
 import de.telekom.smartcredentials.core.networking.ServerSocket;
 import de.telekom.smartcredentials.core.networking.ServiceCallback;
+import de.telekom.smartcredentials.core.networking.StreamingServiceCallback;
 import de.telekom.smartcredentials.core.responses.RootedThrowable;
 import de.telekom.smartcredentials.core.responses.SmartCredentialsApiResponse;
 
@@ -36,7 +37,9 @@ public interface NetworkingApi {
      *
      * @param context         to use for the checking the storage permission and internet connectivity
      * @param requestParams   contains the information needed for creating the request
-     * @param serviceCallback {@link ServiceCallback} for retrieving success or failure events
+     * @param serviceCallback {@link ServiceCallback} for retrieving success or failure events; a
+     *                        {@link StreamingServiceCallback} receives the response body as a
+     *                        stream instead
      * @return {@link SmartCredentialsApiResponse} stating if request creating was successful
      * or {@link RootedThrowable} if device is rooted
      */
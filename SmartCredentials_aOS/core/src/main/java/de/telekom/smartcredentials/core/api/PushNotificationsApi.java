@@ -16,6 +16,8 @@
 
 package de.telekom.smartcredentials.core.api;
 
+import java.util.List;
+
 import de.telekom.smartcredentials.core.pushnotifications.callbacks.PushNotificationRetrieveTokenCallback;
 import de.telekom.smartcredentials.core.pushnotifications.callbacks.PushNotificationsCallback;
 import de.telekom.smartcredentials.core.pushnotifications.callbacks.PushNotificationsMessageCallback;
@@ -76,6 +78,32 @@ public interface PushNotificationsApi {
      */
     SmartCredentialsApiResponse<Void> unsubscribeFromTopic(String topic, PushNotificationsCallback callback);
 
+    /**
+     * Method used to subscribe to several topics at once. The callback is called once, after all
+     * topics were handled, with a failure if any of them could not be subscribed.
+     *
+     * @param callback {@link PushNotificationsCallback} for retrieving the subscribe success or failure event
+     * @param topics   the subscribe topics
+     * @return {@link SmartCredentialsApiResponse} containing a {@link Void} if the response was returned on callback
+     * or {@link RootedThrowable} if the device is rooted
+     * or {@link FeatureNotSupportedThrowable} if the subscribe to topic method is not supported
+     * on device (get reason by calling getError().getMessage() on response object)
+     */
+    SmartCredentialsApiResponse<Void> subscribeToTopics(List<String> topics, PushNotificationsCallback callback);
+
+    /**
+     * Method used to unsubscribe from several topics at once. The callback is called once, after
+     * all topics were handled, with a failure if any of them could not be unsubscribed.
+     *
+     * @param callback {@link PushNotificationsCallback} for retrieving the unsubscribe success or failure event
+     * @param topics   the unsubscribe topics
+     * @return {@link SmartCredentialsApiResponse} containing a {@link Void} if the response was returned on callback
+     * or {@link RootedThrowable} if the device is rooted
+     * or {@link FeatureNotSupportedThrowable} if the unsubscribe to topic method is not supported
+     * on device (get reason by calling getError().getMessage() on response object)
+     */
+    SmartCredentialsApiResponse<Void> unsubscribeFromTopics(List<String> topics, PushNotificationsCallback callback);
+
     /**
      * Method used to retrieve the firebase token.
      *
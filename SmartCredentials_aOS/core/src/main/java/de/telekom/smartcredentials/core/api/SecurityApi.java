@@ -19,6 +19,8 @@ package de.telekom.smartcredentials.core.api;
 import java.security.Key;
 import java.security.PublicKey;
 
+import javax.crypto.Mac;
+
 import de.telekom.smartcredentials.core.exceptions.EncryptionException;
 import de.telekom.smartcredentials.core.model.EncryptionAlgorithm;
 import de.telekom.smartcredentials.core.responses.SmartCredentialsApiResponse;
@@ -84,6 +86,17 @@ public interface SecurityApi {
      */
     byte[] hmac_sha(String crypto, byte[] keyBytes, byte[] text) throws EncryptionException;
 
+    /**
+     * Method used to obtain a {@link Mac} initialised for a given HMAC algorithm and key, which can
+     * be reused to sign any number of messages with that key.
+     *
+     * @param crypto   represents the HMAC algorithm used
+     * @param keyBytes used in the HMAC algorithm
+     * @return the initialised {@link Mac}
+     * @throws EncryptionException if the algorithm is not available or the key is invalid
+     */
+    Mac getHmac(String crypto, byte[] keyBytes) throws EncryptionException;
+
     /**
      * Method used to fetch the {@link EncryptionStrategy}.
      *
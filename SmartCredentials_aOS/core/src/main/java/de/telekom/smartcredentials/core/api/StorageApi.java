@@ -87,6 +87,15 @@ public interface StorageApi {
      */
     SmartCredentialsApiResponse<Integer> putItem(ItemDomainModel itemDomainModel);
 
+    /**
+     * Saves a list of {@link ItemDomainModel}s. Items are encrypted one after another and then
+     * written to each repository in a single transaction.
+     *
+     * @param itemDomainModels to be saved
+     * @return an integer representing the number of rows saved
+     */
+    SmartCredentialsApiResponse<Integer> putItems(List<ItemDomainModel> itemDomainModels);
+
     /**
      * Updates an ItemEnvelope based on its id
      *
@@ -105,6 +114,14 @@ public interface StorageApi {
      */
     SmartCredentialsApiResponse<Integer> deleteItem(@NonNull SmartCredentialsFilter smartCredentialsFilter);
 
+    /**
+     * Deletes the items matching the provided filters, using a single transaction per repository.
+     *
+     * @param smartCredentialsFilters - filters, each one identifying an item to be deleted
+     * @return SmartCredentialsApiResponse specifying the count of deleted items or returns an error if not
+     */
+    SmartCredentialsApiResponse<Integer> deleteItems(@NonNull List<SmartCredentialsFilter> smartCredentialsFilters);
+
     /**
      * Deletes items based on item type information provided.
      *
@@ -16,6 +16,8 @@
 
 package de.telekom.smartcredentials.core.api.rx;
 
+import java.util.List;
+
 import de.telekom.smartcredentials.core.pushnotifications.models.SmartCredentialsRemoteMessage;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
@@ -60,6 +62,24 @@ public interface RxPushNotificationsApi {
     @SuppressWarnings("unused")
     Completable unsubscribeFromTopic(String topic);
 
+    /**
+     * Method used to subscribe to several topics at once.
+     *
+     * @param topics the subscribe topics
+     * @return {@link Completable} that emits the success or failure of the subscribe
+     */
+    @SuppressWarnings("unused")
+    Completable subscribeToTopics(List<String> topics);
+
+    /**
+     * Method used to unsubscribe from several topics at once.
+     *
+     * @param topics the unsubscribe topics
+     * @return {@link Completable} that emits the success or failure of the unsubscribe
+     */
+    @SuppressWarnings("unused")
+    Completable unsubscribeFromTopics(List<String> topics);
+
     /**
      * Method used to retrieve the token used for initializing the Firebase client.
      *
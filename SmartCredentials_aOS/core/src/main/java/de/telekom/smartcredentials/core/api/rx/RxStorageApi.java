@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2021 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.api.rx;
+
+import androidx.annotation.NonNull;
+
+import de.telekom.smartcredentials.core.filter.SmartCredentialsFilter;
+import de.telekom.smartcredentials.core.itemdatamodel.ItemEnvelope;
+import io.reactivex.Observable;
+
+public interface RxStorageApi {
+
+    /**
+     * Streams all items matching the filtering information provided. Items are decrypted in
+     * parallel but emitted in storage order, each one as soon as it and the ones before it are
+     * decrypted, so the first items can be shown before the whole list is ready.
+     *
+     * @param smartCredentialsFilter - filter contains filtering information
+     * @return {@link Observable} emitting the found items, or an error if the device is rooted,
+     * storage is not supported or an item could not be decrypted
+     */
+    @SuppressWarnings("unused")
+    Observable<ItemEnvelope> observeAllItemsByItemType(@NonNull SmartCredentialsFilter smartCredentialsFilter);
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.blacklisting;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+
+/**
+ * Immutable snapshot of the features blocked for a single device model, built once from the
+ * device blacklist JSON so that feature checks do not touch the file system.
+ */
+final class DeviceBlacklistIndex {
+
+    private static final String TAG = "DeviceBlacklistIndex";
+
+    static final DeviceBlacklistIndex EMPTY = new DeviceBlacklistIndex(EnumSet.noneOf(SmartCredentialsFeatureSet.class));
+
+    private final Set<SmartCredentialsFeatureSet> mBlockedFeatures;
+
+    private DeviceBlacklistIndex(Set<SmartCredentialsFeatureSet> blockedFeatures) {
+        mBlockedFeatures = blockedFeatures;
+    }
+
+    @NonNull
+    static DeviceBlacklistIndex from(@Nullable JSONObject blackListJSON, String deviceModel) {
+        if (blackListJSON == null) {
+            return EMPTY;
+        }
+
+        Set<SmartCredentialsFeatureSet> blockedFeatures = EnumSet.noneOf(SmartCredentialsFeatureSet.class);
+        for (SmartCredentialsFeatureSet feature : SmartCredentialsFeatureSet.values()) {
+            if (!blackListJSON.has(feature.name())) {
+                continue;
+            }
+            try {
+                JSONArray jsonArray = blackListJSON.getJSONArray(feature.name());
+                for (int index = 0; index < jsonArray.length(); index++) {
+                    if (jsonArray.getString(index).equalsIgnoreCase(deviceModel)) {
+                        blockedFeatures.add(feature);
+                        break;
+                    }
+                }
+            } catch (JSONException e) {
+                ApiLoggerResolver.logError(TAG, e.getMessage());
+            }
+        }
+        return new DeviceBlacklistIndex(blockedFeatures);
+    }
+
+    boolean isBlocked(SmartCredentialsFeatureSet feature) {
+        return mBlockedFeatures.contains(feature);
+    }
+}
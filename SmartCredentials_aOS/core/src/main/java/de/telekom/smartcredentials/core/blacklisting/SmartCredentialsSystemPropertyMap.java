@@ -35,6 +35,22 @@ import de.telekom.smartcredentials.core.utils.SystemPropertyMapper;
 public class SmartCredentialsSystemPropertyMap {
 
     private static final String TAG = "SmartCredentialsSystemPropertyMap";
+    private static final Object INDEX_LOCK = new Object();
+
+    private static volatile DeviceBlacklistIndex sIndex;
+
+    /**
+     * Replaces the in-memory blacklist index of the current device with one built from the
+     * given blacklist JSON.
+     *
+     * @param blackListJSON device blacklist, as persisted in internal storage
+     */
+    public static void updateBlacklistIndex(JSONObject blackListJSON) {
+        DeviceBlacklistIndex index = DeviceBlacklistIndex.from(blackListJSON, Build.MODEL);
+        synchronized (INDEX_LOCK) {
+            sIndex = index;
+        }
+    }
 
     public static void restrictCurrentDeviceOnFeature(Context context, SmartCredentialsFeatureSet feature) {
         JSONObject blackListJSON = FilesManager.readDeviceBlackListJSON(context, SystemPropertyMapper.BLACKLIST_FILE_NAME);
@@ -59,6 +75,7 @@ public class SmartCredentialsSystemPropertyMap {
                 blackListJSON.getJSONArray(feature.name()).put(Build.MODEL);
             }
             FilesManager.writeDeviceBlacklistJSON(context, SystemPropertyMapper.BLACKLIST_FILE_NAME, blackListJSON);
+            updateBlacklistIndex(blackListJSON);
         } catch (IOException | JSONException e) {
             ApiLoggerResolver.logError(TAG, e.getMessage());
         }
@@ -83,35 +100,25 @@ public class SmartCredentialsSystemPropertyMap {
                 }
             }
             FilesManager.writeDeviceBlacklistJSON(context, SystemPropertyMapper.BLACKLIST_FILE_NAME, blackListJSON);
+            updateBlacklistIndex(blackListJSON);
         } catch (JSONException | IOException e) {
             ApiLoggerResolver.logError(TAG, e.getMessage());
         }
     }
 
     public static boolean isFeatureBlockedOnCurrentDevice(Context context, SmartCredentialsFeatureSet feature) {
-        JSONObject blackListJSON = FilesManager.readDeviceBlackListJSON(context, SystemPropertyMapper.BLACKLIST_FILE_NAME);
-
-        if (blackListJSON == null) {
-            return false;
-        }
-
-        if (!blackListJSON.has(feature.name())) {
-            return false;
-        }
-
-        try {
-            JSONArray jsonArray = blackListJSON.getJSONArray(feature.name());
-            for (int index = 0; index < jsonArray.length(); index++) {
-                String device = jsonArray.getString(index);
-                if (device.equalsIgnoreCase(Build.MODEL)) {
-                    return true;
+        DeviceBlacklistIndex index = sIndex;
+        if (index == null) {
+            synchronized (INDEX_LOCK) {
+                index = sIndex;
+                if (index == null) {
+                    index = DeviceBlacklistIndex.from(FilesManager.readDeviceBlackListJSON(context,
+                            SystemPropertyMapper.BLACKLIST_FILE_NAME), Build.MODEL);
+                    sIndex = index;
                 }
             }
-        } catch (JSONException e) {
-            ApiLoggerResolver.logError(TAG, e.getMessage());
         }
-
-        return false;
+        return index.isBlocked(feature);
     }
 
 }
@@ -23,6 +23,7 @@ import java.util.Objects;
 import java.util.Set;
 
 import de.telekom.smartcredentials.core.logger.ApiLogger;
+import de.telekom.smartcredentials.core.rootdetector.CachedRootDetectionController;
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionOption;
 
 /**
@@ -35,6 +36,7 @@ public class SmartCredentialsConfiguration {
     private final String mUserId;
     private final ApiLogger mLogger;
     private final Set<RootDetectionOption> mRootDetectionOptions;
+    private final long mRootCheckVerdictTtl;
 
     private SmartCredentialsConfiguration(Builder builder) {
         mContext = builder.context;
@@ -42,6 +44,7 @@ public class SmartCredentialsConfiguration {
         mAppAlias = builder.appAlias;
         mLogger = builder.logger;
         mRootDetectionOptions = builder.mRootDetectionOptions;
+        mRootCheckVerdictTtl = builder.mRootCheckVerdictTtl;
     }
 
     public static class Builder {
@@ -55,6 +58,7 @@ public class SmartCredentialsConfiguration {
         private String appAlias = "";
         private ApiLogger logger;
         private Set<RootDetectionOption> mRootDetectionOptions = RootDetectionOption.ALL;
+        private long mRootCheckVerdictTtl = CachedRootDetectionController.DEFAULT_VERDICT_TTL_MILLIS;
 
         /**
          * Creates a builder for a {@link SmartCredentialsConfiguration} that uses the default settings.
@@ -117,6 +121,22 @@ public class SmartCredentialsConfiguration {
             return this;
         }
 
+        /**
+         * Sets for how long the result of a root check is reused by the library operations before
+         * the root detection strategies are executed again. The result is also refreshed in
+         * background and discarded whenever an application is installed, updated or removed.
+         * A value lower or equal to 0 disables caching, running the root check on every call.
+         * <p>
+         * Default is 1 minute.
+         *
+         * @param ttlMillis validity of a root check result, in milliseconds
+         * @return this {@link Builder} object to allow for chaining of calls to set methods
+         */
+        public Builder setRootCheckVerdictTtl(long ttlMillis) {
+            this.mRootCheckVerdictTtl = ttlMillis;
+            return this;
+        }
+
         /**
          * Creates a {@link SmartCredentialsConfiguration} with the arguments supplied to this builder.
          *
@@ -165,4 +185,11 @@ public class SmartCredentialsConfiguration {
     public Set<RootDetectionOption> getRootDetectionOptions() {
         return mRootDetectionOptions;
     }
+
+    /**
+     * Returns for how long, in milliseconds, a root check result is reused.
+     */
+    public long getRootCheckVerdictTtl() {
+        return mRootCheckVerdictTtl;
+    }
 }
@@ -22,6 +22,7 @@ import androidx.annotation.NonNull;
 import java.util.Set;
 
 import de.telekom.smartcredentials.core.controllers.CoreController;
+import de.telekom.smartcredentials.core.rootdetector.CachedRootDetectionController;
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionApi;
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionController;
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionOption;
@@ -36,23 +37,32 @@ public class ObjectGraphCreator {
     private final Context mContext;
     private final boolean mRootCheckerEnabled;
     private final Set<RootDetectionOption> mRootDetectionOptions;
+    private final long mRootCheckVerdictTtl;
+    private CachedRootDetectionController mRootDetectionApi;
 
     private ObjectGraphCreator(Context context, boolean rootCheckerEnabled,
-                               Set<RootDetectionOption> rootDetectionOptions) {
+                               Set<RootDetectionOption> rootDetectionOptions,
+                               long rootCheckVerdictTtl) {
         mContext = context;
         mRootCheckerEnabled = rootCheckerEnabled;
         mRootDetectionOptions = rootDetectionOptions;
+        mRootCheckVerdictTtl = rootCheckVerdictTtl;
     }
 
     public static ObjectGraphCreator getInstance(Context context, boolean rootCheckerEnabled,
-                                                 Set<RootDetectionOption> rootDetectionOptions) {
+                                                 Set<RootDetectionOption> rootDetectionOptions,
+                                                 long rootCheckVerdictTtl) {
         if (sInstance == null) {
-            sInstance = new ObjectGraphCreator(context, rootCheckerEnabled, rootDetectionOptions);
+            sInstance = new ObjectGraphCreator(context, rootCheckerEnabled, rootDetectionOptions,
+                    rootCheckVerdictTtl);
         }
         return sInstance;
     }
 
     public static void destroy() {
+        if (sInstance != null && sInstance.mRootDetectionApi != null) {
+            sInstance.mRootDetectionApi.release();
+        }
         sInstance = null;
     }
 
@@ -65,7 +75,11 @@ public class ObjectGraphCreator {
     @Provides
     @NonNull
     private RootDetectionApi provideRootDetectionApi(Context context) {
-        return new RootDetectionController(context);
+        if (mRootDetectionApi == null) {
+            mRootDetectionApi = new CachedRootDetectionController(context,
+                    new RootDetectionController(context), mRootCheckVerdictTtl);
+        }
+        return mRootDetectionApi;
     }
 
     public Context getContext() {
@@ -51,7 +51,8 @@ public class SmartCredentialsCoreFactory {
         initiateBlacklisting(context);
         ApiLoggerResolver.setApiLogger(configuration.getLogger());
         sCoreApi = ObjectGraphCreator.getInstance(context, configuration.isRootCheckerEnabled(),
-                configuration.getRootDetectionOptions()).provideCoreController(context);
+                configuration.getRootDetectionOptions(), configuration.getRootCheckVerdictTtl())
+                .provideCoreController(context);
         ((CoreController) sCoreApi).setUserId(configuration.getUserId());
         ((CoreController) sCoreApi).setAppAlias(configuration.getAppAlias());
         return sCoreApi;
@@ -16,6 +16,8 @@
 
 package de.telekom.smartcredentials.core.model;
 
+import java.util.List;
+
 import de.telekom.smartcredentials.core.model.item.ItemDomainMetadata;
 import de.telekom.smartcredentials.core.model.item.ItemDomainModel;
 
@@ -25,6 +27,7 @@ public class ModelValidator {
 
     public static final String NULL_PARAMETER_EXCEPTION_MSG = "Domain model cannot be null.";
     public static final String NO_METADATA_EXCEPTION_MSG = "Metadata cannot be null.";
+    public static final String NULL_LIST_EXCEPTION_MSG = "Domain model list cannot be null.";
 
     private ModelValidator() {
         // required empty constructor
@@ -36,6 +39,12 @@ public class ModelValidator {
         }
     }
 
+    public static void checkParamNotNull(List<ItemDomainModel> itemDomainModels) {
+        if (itemDomainModels == null) {
+            throw new DomainModelException(NULL_LIST_EXCEPTION_MSG);
+        }
+    }
+
     public static void checkParamNotNull(ItemDomainMetadata itemDomainMetadata) {
         if (itemDomainMetadata == null) {
             throw new DomainModelException(NO_METADATA_EXCEPTION_MSG);
@@ -61,6 +61,18 @@ public class ItemDomainData {
         mIdentifier = encryptionStrategy.encrypt(mIdentifier, isSensitive);
     }
 
+    boolean isLegacyEncryptedWith(EncryptionStrategy encryptionStrategy) {
+        if (isEmpty(mIdentifier) && isEmpty(mPrivateData)) {
+            return false;
+        }
+        return (isEmpty(mIdentifier) || encryptionStrategy.isLegacyEncrypted(mIdentifier))
+                && (isEmpty(mPrivateData) || encryptionStrategy.isLegacyEncrypted(mPrivateData));
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+
     void decryptWith(EncryptionStrategy encryptionStrategy) throws EncryptionException {
         mIdentifier = encryptionStrategy.decrypt(mIdentifier);
         mPrivateData = encryptionStrategy.decrypt(mPrivateData);
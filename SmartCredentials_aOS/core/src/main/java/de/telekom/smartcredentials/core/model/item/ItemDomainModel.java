@@ -81,6 +81,14 @@ public class ItemDomainModel {
         return this;
     }
 
+    /**
+     * Checks, before decryption, whether the encrypted data was written in a legacy format and
+     * should be encrypted and saved again.
+     */
+    public boolean isLegacyEncrypted(EncryptionStrategy encryptionStrategy) {
+        return mData != null && mData.isLegacyEncryptedWith(encryptionStrategy);
+    }
+
     public ItemDomainModel decryptData(EncryptionStrategy encryptionStrategy)
             throws EncryptionException {
         mData.decryptWith(encryptionStrategy);
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.model.logging;
+
+/**
+ * Retention rules for persisted logs. When a log file grows over {@link #getMaxFileBytes()}, or
+ * its date suffix changes, it is closed as a segment; closed segments are compressed in background
+ * and the oldest ones are deleted once they are older than {@link #getMaxAgeMillis()} or the
+ * directory holds more than {@link #getMaxTotalBytes()}. A limit lower or equal to 0 is disabled.
+ */
+public class LogRotationPolicy {
+
+    public static final LogRotationPolicy NONE = new Builder().build();
+
+    private final long mMaxFileBytes;
+    private final long mMaxTotalBytes;
+    private final long mMaxAgeMillis;
+    private final boolean mCompressSegments;
+
+    private LogRotationPolicy(Builder builder) {
+        mMaxFileBytes = builder.mMaxFileBytes;
+        mMaxTotalBytes = builder.mMaxTotalBytes;
+        mMaxAgeMillis = builder.mMaxAgeMillis;
+        mCompressSegments = builder.mCompressSegments;
+    }
+
+    public long getMaxFileBytes() {
+        return mMaxFileBytes;
+    }
+
+    public long getMaxTotalBytes() {
+        return mMaxTotalBytes;
+    }
+
+    public long getMaxAgeMillis() {
+        return mMaxAgeMillis;
+    }
+
+    public boolean compressesSegments() {
+        return mCompressSegments;
+    }
+
+    public boolean isEnabled() {
+        return mMaxFileBytes > 0 || mMaxTotalBytes > 0 || mMaxAgeMillis > 0;
+    }
+
+    public static final class Builder {
+        private long mMaxFileBytes;
+        private long mMaxTotalBytes;
+        private long mMaxAgeMillis;
+        private boolean mCompressSegments;
+
+        public Builder() {
+            mMaxFileBytes = 0;
+            mMaxTotalBytes = 0;
+            mMaxAgeMillis = 0;
+            mCompressSegments = true;
+        }
+
+        /**
+         * Size after which the file being written is closed as a segment and a new one is started.
+         */
+        public Builder setMaxFileBytes(long maxFileBytes) {
+            mMaxFileBytes = maxFileBytes;
+            return this;
+        }
+
+        /**
+         * Size of all log files of a directory after which the oldest segments are deleted.
+         */
+        public Builder setMaxTotalBytes(long maxTotalBytes) {
+            mMaxTotalBytes = maxTotalBytes;
+            return this;
+        }
+
+        /**
+         * Age after which a closed segment is deleted, counted from the moment it was closed.
+         */
+        public Builder setMaxAgeMillis(long maxAgeMillis) {
+            mMaxAgeMillis = maxAgeMillis;
+            return this;
+        }
+
+        /**
+         * Whether closed segments are gzip compressed; enabled by default.
+         */
+        public Builder setCompressSegments(boolean compressSegments) {
+            mCompressSegments = compressSegments;
+            return this;
+        }
+
+        public LogRotationPolicy build() {
+            return new LogRotationPolicy(this);
+        }
+    }
+}
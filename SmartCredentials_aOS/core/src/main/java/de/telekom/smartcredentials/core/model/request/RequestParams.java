@@ -40,7 +40,11 @@ public class RequestParams {
     private final List mInterceptorList;
     private final Object mDns;
     private final InputStream mTrustCertificate;
+    private final boolean mHasTrustCertificate;
     private final HostnameVerifier mHostnameVerifier;
+    private final InputStream mRequestBodyStream;
+    private final long mRequestBodyLength;
+    private final long mMaxResponseBytes;
 
     protected RequestParams(de.telekom.smartcredentials.core.model.request.RequestParams requestParams) {
         mEndpoint = requestParams.getEndpoint();
@@ -56,7 +60,11 @@ public class RequestParams {
         mInterceptorList = requestParams.getInterceptorList();
         mDns = requestParams.getDns();
         mTrustCertificate = requestParams.getTrustCertificate();
+        mHasTrustCertificate = requestParams.hasTrustCertificate();
         mHostnameVerifier = requestParams.getHostnameVerifier();
+        mRequestBodyStream = requestParams.getRequestBodyStream();
+        mRequestBodyLength = requestParams.getRequestBodyLength();
+        mMaxResponseBytes = requestParams.getMaxResponseBytes();
     }
 
     private RequestParams(Builder builder) {
@@ -73,7 +81,11 @@ public class RequestParams {
         mInterceptorList = builder.mInterceptorList;
         mDns = builder.mDns;
         mTrustCertificate = builder.mTrustCertificate;
+        mHasTrustCertificate = builder.mHasTrustCertificate;
         mHostnameVerifier = builder.mHostnameVerifier;
+        mRequestBodyStream = builder.mRequestBodyStream;
+        mRequestBodyLength = builder.mRequestBodyLength;
+        mMaxResponseBytes = builder.mMaxResponseBytes;
     }
 
     public String getEndpoint() {
@@ -132,10 +144,34 @@ public class RequestParams {
         return mTrustCertificate;
     }
 
+    /**
+     * @return true if a trust certificate was set on the builder; the stream itself cannot tell,
+     * since it may be read only once and may not know how many bytes it holds
+     */
+    public boolean hasTrustCertificate() {
+        return mHasTrustCertificate;
+    }
+
     public HostnameVerifier getHostnameVerifier() {
         return mHostnameVerifier;
     }
 
+    public InputStream getRequestBodyStream() {
+        return mRequestBodyStream;
+    }
+
+    public boolean hasRequestBodyStream() {
+        return mRequestBodyStream != null;
+    }
+
+    public long getRequestBodyLength() {
+        return mRequestBodyLength;
+    }
+
+    public long getMaxResponseBytes() {
+        return mMaxResponseBytes;
+    }
+
     public static final class Builder {
         private String mEndpoint;
         private Map<String, String> mHeaders;
@@ -150,7 +186,11 @@ public class RequestParams {
         private List mInterceptorList;
         private Object mDns;
         private InputStream mTrustCertificate;
+        private boolean mHasTrustCertificate;
         private HostnameVerifier mHostnameVerifier;
+        private InputStream mRequestBodyStream;
+        private long mRequestBodyLength;
+        private long mMaxResponseBytes;
 
         public Builder() {
             mEndpoint = "";
@@ -171,6 +211,8 @@ public class RequestParams {
                 }
             };
             mHostnameVerifier = HttpsURLConnection.getDefaultHostnameVerifier();
+            mRequestBodyLength = -1;
+            mMaxResponseBytes = 0;
         }
 
         public Builder setEndpoint(String endpoint) {
@@ -235,6 +277,7 @@ public class RequestParams {
 
         public Builder setTrustCertificate(InputStream trustCertificate) {
             mTrustCertificate = trustCertificate;
+            mHasTrustCertificate = trustCertificate != null;
             return this;
         }
 
@@ -243,6 +286,30 @@ public class RequestParams {
             return this;
         }
 
+        /**
+         * Sends the request body straight from the given stream instead of the string body, so
+         * that large uploads are never held in memory. The stream is read once and closed after
+         * the request body was written.
+         *
+         * @param requestBodyStream stream providing the request body
+         * @param contentLength     number of bytes the stream provides, or -1 if unknown
+         */
+        public Builder setRequestBodyStream(InputStream requestBodyStream, long contentLength) {
+            mRequestBodyStream = requestBodyStream;
+            mRequestBodyLength = contentLength;
+            return this;
+        }
+
+        /**
+         * Limits the size of the response body. Responses announcing a bigger body are failed
+         * before the body is read and streamed responses stop with an {@link java.io.IOException}
+         * once the limit is passed. A value lower or equal to 0 means no limit.
+         */
+        public Builder setMaxResponseBytes(long maxResponseBytes) {
+            mMaxResponseBytes = maxResponseBytes;
+            return this;
+        }
+
         public RequestParams build() {
             return new RequestParams(this);
         }
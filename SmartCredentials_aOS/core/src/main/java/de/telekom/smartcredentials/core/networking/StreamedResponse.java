@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.networking;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response delivered to a {@link StreamingServiceCallback}. The body is not read in advance; it
+ * is pulled from the connection as the caller reads {@link #getBody()}, so reading slower simply
+ * slows down the transfer. The response must be closed once the body is no longer needed in order
+ * to release the underlying connection.
+ */
+public class StreamedResponse implements Closeable {
+
+    private final int mCode;
+    private final String mMessage;
+    private final Map<String, List<String>> mHeaders;
+    private final long mContentLength;
+    private final InputStream mBody;
+
+    public StreamedResponse(int code, String message, Map<String, List<String>> headers,
+                            long contentLength, InputStream body) {
+        mCode = code;
+        mMessage = message;
+        mHeaders = headers != null ? Collections.unmodifiableMap(headers) : Collections.emptyMap();
+        mContentLength = contentLength;
+        mBody = body;
+    }
+
+    public int getCode() {
+        return mCode;
+    }
+
+    public boolean isSuccessful() {
+        return mCode >= 200 && mCode < 300;
+    }
+
+    public String getMessage() {
+        return mMessage;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return mHeaders;
+    }
+
+    /**
+     * @return the announced body size in bytes, or -1 if the server did not send it
+     */
+    public long getContentLength() {
+        return mContentLength;
+    }
+
+    public InputStream getBody() {
+        return mBody;
+    }
+
+    @Override
+    public void close() throws IOException {
+        mBody.close();
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.networking;
+
+/**
+ * {@link ServiceCallback} which receives the response body as a stream instead of a fully
+ * materialised response. {@link #onResponse(Object)} is called on the networking thread as soon as
+ * the response headers arrived; the callback either consumes the body there or hands the
+ * {@link StreamedResponse} over to another thread, and closes it when done.
+ */
+public abstract class StreamingServiceCallback extends ServiceCallback<StreamedResponse> {
+
+}
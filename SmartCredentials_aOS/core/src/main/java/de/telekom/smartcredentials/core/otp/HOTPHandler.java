@@ -27,4 +27,30 @@ public interface HOTPHandler {
      *                            algorithm retrieved from the Otp QR code. Ex. "SHA256"}
      */
     void generateHOTP(HOTPCallback otpCallback, String defaultMacAlgorithm);
+
+    /**
+     * Generates the HOTP values of the current counter and of the following ones, without
+     * advancing the stored counter.
+     *
+     * @param windowSize          number of consecutive values to generate
+     * @param otpCallback         {@link HOTPWindowCallback} implementation whose methods will be used
+     *                            to return the generated values, in counter order
+     * @param defaultMacAlgorithm {String value of mac algorithm that will be used in case there is no
+     *                            algorithm retrieved from the Otp QR code. Ex. "SHA256"}
+     */
+    void generateHOTPWindow(int windowSize, HOTPWindowCallback otpCallback, String defaultMacAlgorithm);
+
+    /**
+     * Looks for the given value among the values of the current counter and of the following ones
+     * and, if found, stores the counter following the matching one.
+     *
+     * @param otpValue            HOTP value to resynchronise with; a null value is reported with
+     *                            {@link OTPPluginError#INVALID_OTP_VALUE}
+     * @param lookAheadWindow     number of consecutive counters to check
+     * @param resyncCallback      {@link HOTPResyncCallback} implementation notified with the outcome
+     * @param defaultMacAlgorithm {String value of mac algorithm that will be used in case there is no
+     *                            algorithm retrieved from the Otp QR code. Ex. "SHA256"}
+     */
+    void resynchronize(String otpValue, int lookAheadWindow, HOTPResyncCallback resyncCallback,
+                       String defaultMacAlgorithm);
 }
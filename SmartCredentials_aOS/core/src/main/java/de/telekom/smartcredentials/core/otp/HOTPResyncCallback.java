@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.otp;
+
+import de.telekom.smartcredentials.core.plugins.callbacks.BasePluginCallback;
+
+/**
+ * Callback used to return the outcome of a HOTP counter resynchronisation.
+ */
+public abstract class HOTPResyncCallback extends BasePluginCallback {
+
+    /**
+     * Called when the given value matched one of the look-ahead counters; the stored counter now
+     * points right after the matching one.
+     *
+     * @param counter the counter which produced the given value
+     */
+    public abstract void onResynchronized(long counter);
+
+    /**
+     * Called when none of the look-ahead counters produced the given value; the stored counter is
+     * left unchanged.
+     */
+    public abstract void onNoMatch();
+
+    /**
+     * Called when something went wrong
+     *
+     * @param otpPluginError the wrapper over the error message
+     */
+    public abstract void onFailed(OTPPluginError otpPluginError);
+}
@@ -20,7 +20,8 @@ package de.telekom.smartcredentials.core.otp;
 public enum OTPPluginError {
 
     ALGORITHM_ERROR("Unable to get SHA bytes."),
-    DECODING_ERROR("Unable to decode secret key.");
+    DECODING_ERROR("Unable to decode secret key."),
+    INVALID_OTP_VALUE("The OTP value is missing.");
 
     private final String mDesc;
 
@@ -17,9 +17,11 @@
 package de.telekom.smartcredentials.core.pushnotifications.configuration;
 
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
 
 import de.telekom.smartcredentials.core.pushnotifications.enums.ServiceType;
 import de.telekom.smartcredentials.core.pushnotifications.enums.TpnsEnvironment;
+import de.telekom.smartcredentials.core.pushnotifications.enums.TpnsLogLevel;
 
 /**
  * Created by gabriel.blaj@endava.com at 5/14/2020
@@ -37,6 +39,7 @@ public class PushNotificationsConfiguration {
     private final String mTpnsApplicationKey;
     private final TpnsEnvironment mTpnsEnvironment;
     private final boolean mAutoSubscribeState;
+    private final TpnsLogLevel mTpnsLogLevel;
 
     private PushNotificationsConfiguration(ConfigurationBuilder builder) {
         mContext = builder.context;
@@ -50,6 +53,7 @@ public class PushNotificationsConfiguration {
         mTpnsApplicationKey = builder.tpnsApplicationKey;
         mTpnsEnvironment = builder.tpnsEnvironment;
         mAutoSubscribeState = builder.autoSubscribeState;
+        mTpnsLogLevel = builder.tpnsLogLevel;
     }
 
     public Context getContext() {
@@ -96,6 +100,19 @@ public class PushNotificationsConfiguration {
         return mAutoSubscribeState;
     }
 
+    /**
+     * @return the configured TPNS log level or, if none was set, {@link TpnsLogLevel#BODY} for
+     * debuggable applications and {@link TpnsLogLevel#NONE} otherwise
+     */
+    public TpnsLogLevel getTpnsLogLevel() {
+        if (mTpnsLogLevel != null) {
+            return mTpnsLogLevel;
+        }
+        boolean debuggable = mContext != null
+                && (mContext.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        return debuggable ? TpnsLogLevel.BODY : TpnsLogLevel.NONE;
+    }
+
     public static class ConfigurationBuilder {
         private Context context;
         private String apiKey;
@@ -108,6 +125,7 @@ public class PushNotificationsConfiguration {
         private ServiceType serviceType;
         private TpnsEnvironment tpnsEnvironment = TpnsEnvironment.PRODUCTION;
         private boolean autoSubscribeState = true;
+        private TpnsLogLevel tpnsLogLevel;
 
         public ConfigurationBuilder(Context context, String apikey, String projectId,
                                     String databaseUrl, String applicationId, String gcmSenderId,
@@ -137,6 +155,11 @@ public class PushNotificationsConfiguration {
             return this;
         }
 
+        public ConfigurationBuilder setTpnsLogLevel(TpnsLogLevel tpnsLogLevel) {
+            this.tpnsLogLevel = tpnsLogLevel;
+            return this;
+        }
+
         public PushNotificationsConfiguration build() {
             return new PushNotificationsConfiguration(this);
         }
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.pushnotifications.enums;
+
+/**
+ * How much of the TPNS traffic is written to the log. {@link #BODY} buffers and formats every
+ * request and response body and should only be used while debugging.
+ */
+public enum TpnsLogLevel {
+    NONE,
+    BASIC,
+    HEADERS,
+    BODY
+}
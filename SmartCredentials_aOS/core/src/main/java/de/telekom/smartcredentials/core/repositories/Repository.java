@@ -24,6 +24,8 @@ public interface Repository {
 
     int saveData(ItemDomainModel itemDomainModel);
 
+    int saveData(List<ItemDomainModel> itemDomainModels);
+
     int updateItem(ItemDomainModel itemDomainModel);
 
     List<ItemDomainModel> retrieveItemsFilteredByType(ItemDomainModel itemDomainModel);
@@ -36,6 +38,8 @@ public interface Repository {
 
     int deleteItem(ItemDomainModel itemDomainModel);
 
+    int deleteItems(List<ItemDomainModel> itemDomainModels);
+
     int deleteItemsByType(ItemDomainModel itemDomainModel);
 
     String getTag();
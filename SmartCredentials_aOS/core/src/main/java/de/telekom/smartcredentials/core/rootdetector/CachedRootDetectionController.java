@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.rootdetector;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+
+/**
+ * {@link RootDetectionApi} decorator that keeps the last security verdict in memory for a
+ * configurable amount of time, so that API calls only read a volatile field instead of running
+ * every root detection strategy. While the verdict is being read, it is refreshed in background
+ * twice per TTL, so that it is replaced before it expires; once nobody reads it, the refresh stops
+ * until the next detection. The verdict is invalidated whenever a package is installed, replaced
+ * or removed, and a detection running at that moment is not cached. A verdict caused by a failed
+ * check is returned but never cached.
+ */
+public class CachedRootDetectionController implements RootDetectionApi {
+
+    public static final long DEFAULT_VERDICT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final String TAG = "CachedRootDetectionController";
+    private static final String PACKAGE_SCHEME = "package";
+
+    private final Context mContext;
+    private final RootDetectionApi mDelegate;
+    private final long mTtlMillis;
+    private final Object mLock = new Object();
+    private final Object mRecheckLock = new Object();
+    private final AtomicLong mGeneration = new AtomicLong();
+
+    private volatile Verdict mVerdict;
+    private volatile boolean mVerdictRead;
+    private volatile boolean mRecheckRunning;
+    private ScheduledExecutorService mScheduler;
+    private ScheduledFuture<?> mRecheckFuture;
+    private BroadcastReceiver mPackageReceiver;
+
+    /**
+     * @param context   application {@link Context} used to listen for package changes
+     * @param delegate  {@link RootDetectionApi} performing the actual detection
+     * @param ttlMillis how long a verdict is considered valid; a value lower or equal to 0
+     *                  disables caching and every call is forwarded to the delegate
+     */
+    public CachedRootDetectionController(Context context, RootDetectionApi delegate, long ttlMillis) {
+        mContext = context;
+        mDelegate = delegate;
+        mTtlMillis = ttlMillis;
+    }
+
+    @Override
+    public boolean isSecurityCompromised(Set<RootDetectionOption> rootDetectionOptions) {
+        return detect(rootDetectionOptions).isCompromised();
+    }
+
+    @NonNull
+    @Override
+    public RootDetectionResult detect(Set<RootDetectionOption> rootDetectionOptions) {
+        if (mTtlMillis <= 0) {
+            return mDelegate.detect(rootDetectionOptions);
+        }
+
+        Verdict verdict = mVerdict;
+        if (verdict != null && verdict.isValidFor(rootDetectionOptions, mTtlMillis, mGeneration.get())) {
+            onVerdictRead();
+            return verdict.mResult;
+        }
+
+        RootDetectionResult result;
+        synchronized (mLock) {
+            verdict = mVerdict;
+            if (verdict != null && verdict.isValidFor(rootDetectionOptions, mTtlMillis, mGeneration.get())) {
+                result = verdict.mResult;
+            } else {
+                result = computeVerdict(rootDetectionOptions);
+            }
+        }
+        startBackgroundRecheck();
+        return result;
+    }
+
+    /**
+     * Drops the cached verdict, forcing the next call to run the detection again. A detection
+     * already running is not cached either, since it may predate the change.
+     */
+    public void invalidate() {
+        mGeneration.incrementAndGet();
+        mVerdict = null;
+    }
+
+    /**
+     * Stops the background re-check and unregisters the package change listener.
+     */
+    public void release() {
+        synchronized (mRecheckLock) {
+            stopBackgroundRecheck();
+            if (mPackageReceiver != null) {
+                try {
+                    mContext.unregisterReceiver(mPackageReceiver);
+                } catch (IllegalArgumentException e) {
+                    ApiLoggerResolver.logError(TAG, "package receiver already unregistered");
+                }
+                mPackageReceiver = null;
+            }
+        }
+        invalidate();
+    }
+
+    /**
+     * Runs the detection and caches its result, unless it failed or the verdict was invalidated
+     * in the meantime. Must be called while holding {@link #mLock}.
+     */
+    @NonNull
+    private RootDetectionResult computeVerdict(Set<RootDetectionOption> rootDetectionOptions) {
+        long generation = mGeneration.get();
+        RootDetectionResult result = mDelegate.detect(rootDetectionOptions);
+
+        if (!result.isConclusive()) {
+            ApiLoggerResolver.logError(TAG, "root detection failed, verdict not cached");
+        } else if (mGeneration.get() != generation) {
+            ApiLoggerResolver.logInfo("Security verdict invalidated during detection, not cached");
+        } else {
+            mVerdictRead = false;
+            mVerdict = new Verdict(rootDetectionOptions, result, generation, SystemClock.elapsedRealtime());
+        }
+        return result;
+    }
+
+    private void onVerdictRead() {
+        if (!mVerdictRead) {
+            mVerdictRead = true;
+            if (!mRecheckRunning) {
+                startBackgroundRecheck();
+            }
+        }
+    }
+
+    private void startBackgroundRecheck() {
+        synchronized (mRecheckLock) {
+            if (mScheduler == null) {
+                mScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, TAG);
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+                long refreshMillis = Math.max(1, mTtlMillis / 2);
+                mRecheckFuture = mScheduler.scheduleWithFixedDelay(this::recheck,
+                        refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+                mRecheckRunning = true;
+            }
+            if (mPackageReceiver == null) {
+                registerPackageReceiver();
+            }
+        }
+    }
+
+    private void stopBackgroundRecheck() {
+        mRecheckRunning = false;
+        if (mRecheckFuture != null) {
+            mRecheckFuture.cancel(false);
+            mRecheckFuture = null;
+        }
+        if (mScheduler != null) {
+            mScheduler.shutdown();
+            mScheduler = null;
+        }
+    }
+
+    /**
+     * Refreshes the verdict if it was read since the last refresh, otherwise stops refreshing
+     * until the verdict is read again.
+     */
+    private void recheck() {
+        synchronized (mRecheckLock) {
+            // cleared first, so that a concurrent first read either is seen here or restarts us
+            mRecheckRunning = false;
+            if (!mVerdictRead) {
+                stopBackgroundRecheck();
+                return;
+            }
+            mRecheckRunning = true;
+        }
+        Verdict verdict = mVerdict;
+        if (verdict != null) {
+            synchronized (mLock) {
+                computeVerdict(verdict.mOptions);
+            }
+        }
+    }
+
+    void registerPackageReceiver() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addDataScheme(PACKAGE_SCHEME);
+        mPackageReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                ApiLoggerResolver.logInfo("Security verdict invalidated by " + intent.getAction());
+                invalidate();
+            }
+        };
+        mContext.registerReceiver(mPackageReceiver, filter);
+    }
+
+    private static final class Verdict {
+
+        private final Set<RootDetectionOption> mSource;
+        private final Set<RootDetectionOption> mOptions;
+        private final RootDetectionResult mResult;
+        private final long mGeneration;
+        private final long mTimestamp;
+
+        private Verdict(Set<RootDetectionOption> options, RootDetectionResult result, long generation,
+                        long timestamp) {
+            mSource = options;
+            mOptions = new HashSet<>(options);
+            mResult = result;
+            mGeneration = generation;
+            mTimestamp = timestamp;
+        }
+
+        private boolean isValidFor(Set<RootDetectionOption> options, long ttlMillis, long generation) {
+            return mGeneration == generation
+                    && SystemClock.elapsedRealtime() - mTimestamp < ttlMillis
+                    && (mSource == options || mOptions.equals(options));
+        }
+    }
+}
@@ -22,4 +22,10 @@ import java.util.Set;
 public interface RootDetectionApi {
 
     boolean isSecurityCompromised(Set<RootDetectionOption> rootDetectionOptions);
+
+    /**
+     * Same as {@link #isSecurityCompromised(Set)}, but also tells whether every check completed,
+     * so that a positive result caused by a failure is not kept as a verdict.
+     */
+    RootDetectionResult detect(Set<RootDetectionOption> rootDetectionOptions);
 }
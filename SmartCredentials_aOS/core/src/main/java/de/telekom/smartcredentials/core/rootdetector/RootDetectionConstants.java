@@ -18,32 +18,151 @@ package de.telekom.smartcredentials.core.rootdetector;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
 
+/**
+ * Immutable table of the root detection constants defined in the
+ * <code>root_detection_constants.json</code> asset. The asset is parsed once per process and the
+ * resulting table is shared by all root detection strategies.
+ */
 public class RootDetectionConstants {
 
     private static final String TAG = "RootDetectionConstants";
+    private static final String MAP_KEY = "package";
+    private static final String MAP_VALUE = "index";
+
+    private static volatile RootDetectionConstants sInstance;
+
+    private final Map<RootDetectionConstantsSet, List<String>> mLists;
+    private final Map<RootDetectionConstantsSet, Map<String, String>> mMaps;
+    private final Set<String> mPathsThatShouldNotBeWritable;
+    private final String[] mSuPaths;
+
+    private RootDetectionConstants(@Nullable JSONObject rootConstantsJSON) {
+        Map<RootDetectionConstantsSet, List<String>> lists = new EnumMap<>(RootDetectionConstantsSet.class);
+        Map<RootDetectionConstantsSet, Map<String, String>> maps = new EnumMap<>(RootDetectionConstantsSet.class);
+        for (RootDetectionConstantsSet constantName : RootDetectionConstantsSet.values()) {
+            if (constantName == RootDetectionConstantsSet.DANGEROUS_SYSTEM_PROPERTIES_MAP) {
+                maps.put(constantName, Collections.unmodifiableMap(parseMap(rootConstantsJSON, constantName)));
+            } else {
+                lists.put(constantName, Collections.unmodifiableList(parseList(rootConstantsJSON, constantName)));
+            }
+        }
+        mLists = Collections.unmodifiableMap(lists);
+        mMaps = Collections.unmodifiableMap(maps);
+
+        Set<String> pathsThatShouldNotBeWritable = new HashSet<>();
+        for (String path : getList(RootDetectionConstantsSet.PATHS_THAT_SHOULD_NOT_BE_WRITABLE)) {
+            pathsThatShouldNotBeWritable.add(path.toLowerCase(Locale.ROOT));
+        }
+        mPathsThatShouldNotBeWritable = Collections.unmodifiableSet(pathsThatShouldNotBeWritable);
+
+        List<String> suPaths = getList(RootDetectionConstantsSet.SU_PATHS);
+        mSuPaths = suPaths.toArray(new String[0]);
+    }
+
+    /**
+     * Returns the shared constants table, parsing the assets file on first access.
+     *
+     * @param context {@link Context} used to open the assets file
+     * @return the root detection constants table
+     */
+    @NonNull
+    public static RootDetectionConstants getInstance(Context context) {
+        RootDetectionConstants instance = sInstance;
+        if (instance == null) {
+            synchronized (RootDetectionConstants.class) {
+                instance = sInstance;
+                if (instance == null) {
+                    JSONObject rootConstantsJSON = AssetsReader.readRootDetectionConstantsJSON(context);
+                    instance = new RootDetectionConstants(rootConstantsJSON);
+                    if (rootConstantsJSON != null) {
+                        sInstance = instance;
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    @NonNull
+    public List<String> getList(RootDetectionConstantsSet constantName) {
+        List<String> list = mLists.get(constantName);
+        return list == null ? Collections.emptyList() : list;
+    }
+
+    @Nullable
+    public String getFirst(RootDetectionConstantsSet constantName) {
+        List<String> list = getList(constantName);
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    @NonNull
+    public Map<String, String> getMap(RootDetectionConstantsSet constantName) {
+        Map<String, String> map = mMaps.get(constantName);
+        return map == null ? Collections.emptyMap() : map;
+    }
+
+    /**
+     * Returns the paths in which binaries are searched for, each one ending with a separator.
+     */
+    @NonNull
+    public String[] getSuPaths() {
+        return mSuPaths.clone();
+    }
+
+    /**
+     * Checks, ignoring case, if the given mount point should never be mounted as writable.
+     */
+    public boolean isPathThatShouldNotBeWritable(String mountPoint) {
+        return mPathsThatShouldNotBeWritable.contains(mountPoint.toLowerCase(Locale.ROOT));
+    }
 
     public static Map<String, String> getJSONConstantsMap(Context context, RootDetectionConstantsSet constantName) {
-        JSONObject rootConstantsJSON = AssetsReader.readRootDetectionConstantsJSON(context);
+        return new HashMap<>(getInstance(context).getMap(constantName));
+    }
+
+    public static ArrayList<String> getJSONConstantsList(Context context, RootDetectionConstantsSet constantName) {
+        return new ArrayList<>(getInstance(context).getList(constantName));
+    }
+
+    public static String[] convertArrayListToStringArray(ArrayList<String> pathsArrayList) {
+        String[] stringArray = new String[pathsArrayList.size()];
+        for (int i = 0; i < pathsArrayList.size(); i++) {
+            stringArray[i] = pathsArrayList.get(i);
+        }
+        return stringArray;
+    }
 
+    @NonNull
+    private static Map<String, String> parseMap(@Nullable JSONObject rootConstantsJSON,
+                                                RootDetectionConstantsSet constantName) {
         Map<String, String> pathsMap = new HashMap<>();
 
-        if (rootConstantsJSON.has(constantName.name())) {
+        if (rootConstantsJSON != null && rootConstantsJSON.has(constantName.name())) {
             try {
                 JSONArray jsonArray = rootConstantsJSON.getJSONArray(constantName.name());
 
                 for (int index = 0; index < jsonArray.length(); index++) {
                     JSONObject jsonMapObject = jsonArray.getJSONObject(index);
-                    pathsMap.put(jsonMapObject.getString("package"), jsonMapObject.getString("index"));
+                    pathsMap.put(jsonMapObject.getString(MAP_KEY), jsonMapObject.getString(MAP_VALUE));
                 }
             } catch (JSONException e) {
                 ApiLoggerResolver.logError(TAG, e.getMessage());
@@ -53,12 +172,12 @@ public class RootDetectionConstants {
         return pathsMap;
     }
 
-    public static ArrayList<String> getJSONConstantsList(Context context, RootDetectionConstantsSet constantName) {
-        JSONObject rootConstantsJSON = AssetsReader.readRootDetectionConstantsJSON(context);
-
-        ArrayList<String> pathsArrayList = new ArrayList<>();
+    @NonNull
+    private static List<String> parseList(@Nullable JSONObject rootConstantsJSON,
+                                          RootDetectionConstantsSet constantName) {
+        List<String> pathsArrayList = new ArrayList<>();
 
-        if (rootConstantsJSON.has(constantName.name())) {
+        if (rootConstantsJSON != null && rootConstantsJSON.has(constantName.name())) {
             try {
                 JSONArray jsonArray = rootConstantsJSON.getJSONArray(constantName.name());
 
@@ -72,12 +191,4 @@ public class RootDetectionConstants {
 
         return pathsArrayList;
     }
-
-    public static String[] convertArrayListToStringArray(ArrayList<String> pathsArrayList) {
-        String[] stringArray = new String[pathsArrayList.size()];
-        for (int i = 0; i < pathsArrayList.size(); i++) {
-            stringArray[i] = pathsArrayList.get(i);
-        }
-        return stringArray;
-    }
 }
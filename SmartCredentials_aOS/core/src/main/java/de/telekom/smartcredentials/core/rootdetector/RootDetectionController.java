@@ -22,8 +22,22 @@ import androidx.annotation.NonNull;
 
 import org.jetbrains.annotations.Contract;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
 import de.telekom.smartcredentials.core.rootdetector.strategy.BusyBoxBinaryFilesStrategy;
 import de.telekom.smartcredentials.core.rootdetector.strategy.DangerousApplicationsStrategy;
 import de.telekom.smartcredentials.core.rootdetector.strategy.DangerousSystemPropertiesStrategy;
@@ -36,8 +50,20 @@ import de.telekom.smartcredentials.core.rootdetector.strategy.RootNativeStrategy
 import de.telekom.smartcredentials.core.rootdetector.strategy.SuExistsStrategy;
 import de.telekom.smartcredentials.core.rootdetector.strategy.SuperUserBinaryFilesStrategy;
 
+/**
+ * Runs the requested root detection strategies concurrently on a bounded executor, submitting
+ * the cheapest ones first and cancelling the outstanding checks as soon as one of them reports
+ * the device as rooted. A strategy which fails, or a detection which is interrupted, counts as a
+ * positive result: the device is never reported as safe without every check having passed.
+ */
 public class RootDetectionController implements RootDetectionApi {
 
+    private static final String TAG = "RootDetectionController";
+    private static final int MAX_PARALLEL_CHECKS = 3;
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 30;
+
+    private static final ThreadPoolExecutor sExecutor = createExecutor();
+
     private final Context mContext;
 
     public RootDetectionController(Context context) {
@@ -46,17 +72,91 @@ public class RootDetectionController implements RootDetectionApi {
 
     @Override
     public boolean isSecurityCompromised(Set<RootDetectionOption> rootDetectionOptions) {
-        boolean isDeviceRooted = false;
-        for (RootDetectionOption option : rootDetectionOptions) {
-            isDeviceRooted |= provideRootDetectionStrategy(mContext, option).check();
+        return detect(rootDetectionOptions).isCompromised();
+    }
+
+    @NonNull
+    @Override
+    public RootDetectionResult detect(Set<RootDetectionOption> rootDetectionOptions) {
+        List<RootDetectionOption> options = new ArrayList<>(rootDetectionOptions);
+        Collections.sort(options, (first, second) -> Integer.compare(first.getCost(), second.getCost()));
+        Map<RootDetectionOption, Long> timings = Collections.synchronizedMap(
+                new EnumMap<>(RootDetectionOption.class));
+
+        RootDetectionResult result = options.size() == 1
+                ? runSingleCheck(options.get(0), timings)
+                : runChecksInParallel(options, timings);
+
+        ApiLoggerResolver.logInfo(TAG + " timings (ms): " + timings);
+        return result;
+    }
+
+    private RootDetectionResult runSingleCheck(RootDetectionOption option, Map<RootDetectionOption, Long> timings) {
+        try {
+            return runCheck(option, timings) ? RootDetectionResult.COMPROMISED : RootDetectionResult.NOT_COMPROMISED;
+        } catch (RuntimeException e) {
+            ApiLoggerResolver.logError(TAG, "root detection strategy failed: " + e);
+            return RootDetectionResult.FAILED;
         }
-        return isDeviceRooted;
+    }
+
+    private RootDetectionResult runChecksInParallel(List<RootDetectionOption> options,
+                                                    Map<RootDetectionOption, Long> timings) {
+        CompletionService<Boolean> completionService = new ExecutorCompletionService<>(sExecutor);
+        List<Future<Boolean>> futures = new ArrayList<>(options.size());
+        for (RootDetectionOption option : options) {
+            futures.add(completionService.submit(() -> runCheck(option, timings)));
+        }
+
+        boolean failed = false;
+        try {
+            for (int completed = 0; completed < futures.size(); completed++) {
+                try {
+                    if (completionService.take().get()) {
+                        return RootDetectionResult.COMPROMISED;
+                    }
+                } catch (ExecutionException e) {
+                    ApiLoggerResolver.logError(TAG, "root detection strategy failed: " + e.getCause());
+                    failed = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            ApiLoggerResolver.logError(TAG, "root detection interrupted");
+            Thread.currentThread().interrupt();
+            return RootDetectionResult.FAILED;
+        } finally {
+            for (Future<Boolean> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return failed ? RootDetectionResult.FAILED : RootDetectionResult.NOT_COMPROMISED;
+    }
+
+    private boolean runCheck(RootDetectionOption option, Map<RootDetectionOption, Long> timings) {
+        long start = System.nanoTime();
+        boolean result = provideRootDetectionStrategy(mContext, option).check();
+        timings.put(option, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return result;
+    }
+
+    @NonNull
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_PARALLEL_CHECKS, MAX_PARALLEL_CHECKS,
+                IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, TAG + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @NonNull
     @Contract("_, _ -> new")
-    private RootDetectionStrategy provideRootDetectionStrategy(Context context,
-                                                               @NonNull RootDetectionOption option) {
+    RootDetectionStrategy provideRootDetectionStrategy(Context context,
+                                                       @NonNull RootDetectionOption option) {
         switch (option) {
             case CHECK_BUSY_BOX_BINARY_FILES:
                 return new BusyBoxBinaryFilesStrategy(context);
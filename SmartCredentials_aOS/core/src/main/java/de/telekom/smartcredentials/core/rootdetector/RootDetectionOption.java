@@ -21,15 +21,15 @@ import java.util.HashSet;
 import java.util.Set;
 
 public enum RootDetectionOption {
-    CHECK_SUPER_USER_BINARY_FILES,
-    CHECK_BUSY_BOX_BINARY_FILES,
-    DANGEROUS_APPLICATIONS_EXISTS,
-    DANGEROUS_SYSTEM_PROPERTIES_EXISTS,
-    DETECT_TEST_KEYS,
-    READ_WRITE_PERMISSIONS_CHANGED,
-    ROOT_MANAGEMENT_APPLICATIONS_EXISTS,
-    ROOT_NATIVE_EXISTS,
-    SU_EXISTS;
+    CHECK_SUPER_USER_BINARY_FILES(1),
+    CHECK_BUSY_BOX_BINARY_FILES(1),
+    DANGEROUS_APPLICATIONS_EXISTS(2),
+    DANGEROUS_SYSTEM_PROPERTIES_EXISTS(3),
+    DETECT_TEST_KEYS(0),
+    READ_WRITE_PERMISSIONS_CHANGED(3),
+    ROOT_MANAGEMENT_APPLICATIONS_EXISTS(2),
+    ROOT_NATIVE_EXISTS(1),
+    SU_EXISTS(3);
 
     public final static Set<RootDetectionOption> ALL = new HashSet<>(Arrays.asList(
             CHECK_SUPER_USER_BINARY_FILES,
@@ -44,4 +44,18 @@ public enum RootDetectionOption {
 
     @SuppressWarnings("unused")
     public final static Set<RootDetectionOption> NONE = new HashSet<>();
+
+    private final int mCost;
+
+    RootDetectionOption(int cost) {
+        mCost = cost;
+    }
+
+    /**
+     * Returns the relative cost of the check: 0 for in-memory checks, 1 for file system lookups,
+     * 2 for package manager queries and 3 for checks that spawn a process.
+     */
+    public int getCost() {
+        return mCost;
+    }
 }
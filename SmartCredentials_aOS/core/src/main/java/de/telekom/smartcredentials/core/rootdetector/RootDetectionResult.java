@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.rootdetector;
+
+/**
+ * Outcome of a root detection. A failed detection reports the device as compromised but is not
+ * conclusive, so it must not be kept as a verdict.
+ */
+public final class RootDetectionResult {
+
+    public static final RootDetectionResult COMPROMISED = new RootDetectionResult(true, true);
+    public static final RootDetectionResult NOT_COMPROMISED = new RootDetectionResult(false, true);
+    public static final RootDetectionResult FAILED = new RootDetectionResult(true, false);
+
+    private final boolean mCompromised;
+    private final boolean mConclusive;
+
+    private RootDetectionResult(boolean compromised, boolean conclusive) {
+        mCompromised = compromised;
+        mConclusive = conclusive;
+    }
+
+    public boolean isCompromised() {
+        return mCompromised;
+    }
+
+    public boolean isConclusive() {
+        return mConclusive;
+    }
+}
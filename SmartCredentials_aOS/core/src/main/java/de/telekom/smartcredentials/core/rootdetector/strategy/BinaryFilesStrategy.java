@@ -20,11 +20,6 @@ import android.content.Context;
 
 import java.io.File;
 
-import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstantsSet;
-
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.convertArrayListToStringArray;
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.getJSONConstantsList;
-
 public abstract class BinaryFilesStrategy extends RootDetectionStrategy {
 
     private String mFilename;
@@ -36,8 +31,11 @@ public abstract class BinaryFilesStrategy extends RootDetectionStrategy {
 
     @Override
     public boolean check() {
-        String[] suPathsArray = convertArrayListToStringArray(getJSONConstantsList(mContext, RootDetectionConstantsSet.SU_PATHS));
-        for (String suPath : suPathsArray) {
+        if (mFilename == null) {
+            throw missingConstant(getClass().getSimpleName() + " file name");
+        }
+
+        for (String suPath : requireSuPaths()) {
             File suFile = new File(suPath + mFilename);
             if (suFile.exists()) {
                 return true;
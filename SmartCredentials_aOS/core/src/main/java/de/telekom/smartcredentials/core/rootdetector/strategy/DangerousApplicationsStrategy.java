@@ -22,8 +22,6 @@ import java.util.List;
 
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstantsSet;
 
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.getJSONConstantsList;
-
 public class DangerousApplicationsStrategy extends RootDetectionStrategy {
 
     public DangerousApplicationsStrategy(Context context) {
@@ -32,7 +30,7 @@ public class DangerousApplicationsStrategy extends RootDetectionStrategy {
 
     @Override
     public boolean check() {
-        List<String> packages = getJSONConstantsList(mContext, RootDetectionConstantsSet.DANGEROUS_APPLICATIONS_PACKAGES);
+        List<String> packages = requireList(RootDetectionConstantsSet.DANGEROUS_APPLICATIONS_PACKAGES);
         return existsPackageInstalled(packages);
     }
 }
@@ -23,9 +23,6 @@ import java.util.Map;
 import de.telekom.smartcredentials.core.rootdetector.CommandStreamScanner;
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstantsSet;
 
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.getJSONConstantsList;
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.getJSONConstantsMap;
-
 public class DangerousSystemPropertiesStrategy extends RootDetectionStrategy {
 
     public DangerousSystemPropertiesStrategy(Context context) {
@@ -34,14 +31,15 @@ public class DangerousSystemPropertiesStrategy extends RootDetectionStrategy {
 
     @Override
     public boolean check() {
-        String systemPropsCommand = getJSONConstantsList(mContext, RootDetectionConstantsSet.SYSTEM_PROPS_COMMAND).get(0);
+        String systemPropsCommand = requireFirst(RootDetectionConstantsSet.SYSTEM_PROPS_COMMAND);
+        Map<String, String> dangerousSystemPropsMap =
+                requireMap(RootDetectionConstantsSet.DANGEROUS_SYSTEM_PROPERTIES_MAP);
+
         String[] systemProperties = CommandStreamScanner.getCommand(systemPropsCommand);
         if (systemProperties == null || systemProperties.length == 0) {
             return false;
         }
 
-        Map<String, String> dangerousSystemPropsMap =
-                getJSONConstantsMap(mContext, RootDetectionConstantsSet.DANGEROUS_SYSTEM_PROPERTIES_MAP);
         for (String systemProperty : systemProperties) {
             for (Map.Entry<String, String> dangerousSystemPropertyEntry : dangerousSystemPropsMap.entrySet()) {
                 if (systemProperty.contains(dangerousSystemPropertyEntry.getKey())) {
@@ -20,8 +20,6 @@ import android.content.Context;
 
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstantsSet;
 
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.getJSONConstantsList;
-
 public class DetectTestKeysStrategy extends RootDetectionStrategy {
 
     public DetectTestKeysStrategy(Context context) {
@@ -30,7 +28,7 @@ public class DetectTestKeysStrategy extends RootDetectionStrategy {
 
     @Override
     public boolean check() {
-        String testKeysTag = getJSONConstantsList(mContext, RootDetectionConstantsSet.TEST_KEYS_TAG).get(0);
+        String testKeysTag = requireFirst(RootDetectionConstantsSet.TEST_KEYS_TAG);
         String buildTags = android.os.Build.TAGS;
         return buildTags != null && buildTags.contains(testKeysTag);
     }
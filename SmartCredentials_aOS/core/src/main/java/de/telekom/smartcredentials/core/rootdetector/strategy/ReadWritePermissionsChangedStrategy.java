@@ -19,11 +19,9 @@ package de.telekom.smartcredentials.core.rootdetector.strategy;
 import android.content.Context;
 
 import de.telekom.smartcredentials.core.rootdetector.CommandStreamScanner;
+import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants;
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstantsSet;
 
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.convertArrayListToStringArray;
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.getJSONConstantsList;
-
 public class ReadWritePermissionsChangedStrategy extends RootDetectionStrategy {
 
     private static final String COMMA_DELIMITER = ",";
@@ -34,7 +32,10 @@ public class ReadWritePermissionsChangedStrategy extends RootDetectionStrategy {
 
     @Override
     public boolean check() {
-        String mountCommand = getJSONConstantsList(mContext, RootDetectionConstantsSet.MOUNT_COMMAND).get(0);
+        String mountCommand = requireFirst(RootDetectionConstantsSet.MOUNT_COMMAND);
+        String readWriteOption = requireFirst(RootDetectionConstantsSet.READ_WRITE_OPTION);
+        RootDetectionConstants constants = getConstants();
+
         String[] lines = CommandStreamScanner.getCommand(mountCommand);
         if (lines == null || lines.length == 0) {
             return false;
@@ -50,16 +51,10 @@ public class ReadWritePermissionsChangedStrategy extends RootDetectionStrategy {
             String mountPoint = args[1];
             String mountOptions = args[3];
 
-            String[] pathsThatShouldNotBeWritable =
-                    convertArrayListToStringArray(getJSONConstantsList(mContext, RootDetectionConstantsSet.PATHS_THAT_SHOULD_NOT_BE_WRITABLE));
-            String readWriteOption = getJSONConstantsList(mContext, RootDetectionConstantsSet.READ_WRITE_OPTION).get(0);
-
-            for (String pathToCheck : pathsThatShouldNotBeWritable) {
-                if (mountPoint.equalsIgnoreCase(pathToCheck)) {
-                    for (String option : mountOptions.split(COMMA_DELIMITER)) {
-                        if (option.equalsIgnoreCase(readWriteOption)) {
-                            return true;
-                        }
+            if (constants.isPathThatShouldNotBeWritable(mountPoint)) {
+                for (String option : mountOptions.split(COMMA_DELIMITER)) {
+                    if (option.equalsIgnoreCase(readWriteOption)) {
+                        return true;
                     }
                 }
             }
@@ -19,7 +19,14 @@ package de.telekom.smartcredentials.core.rootdetector.strategy;
 import android.content.Context;
 import android.content.pm.PackageManager;
 
+import androidx.annotation.NonNull;
+
 import java.util.List;
+import java.util.Map;
+
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants;
+import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstantsSet;
 
 public abstract class RootDetectionStrategy {
 
@@ -33,6 +40,70 @@ public abstract class RootDetectionStrategy {
 
     public abstract boolean check();
 
+    /**
+     * Returns the root detection constants table shared by all strategies.
+     */
+    RootDetectionConstants getConstants() {
+        return RootDetectionConstants.getInstance(mContext);
+    }
+
+    /**
+     * Returns the first value of the given constant. A check which misses one of its constants
+     * cannot tell whether the device is rooted, so it fails instead of reporting it as safe.
+     *
+     * @throws IllegalStateException if the constant is missing
+     */
+    @NonNull
+    String requireFirst(RootDetectionConstantsSet constantName) {
+        String value = getConstants().getFirst(constantName);
+        if (value == null) {
+            throw missingConstant(constantName.name());
+        }
+        return value;
+    }
+
+    /**
+     * @throws IllegalStateException if the constant is missing or empty
+     */
+    @NonNull
+    List<String> requireList(RootDetectionConstantsSet constantName) {
+        List<String> list = getConstants().getList(constantName);
+        if (list.isEmpty()) {
+            throw missingConstant(constantName.name());
+        }
+        return list;
+    }
+
+    /**
+     * @throws IllegalStateException if the constant is missing or empty
+     */
+    @NonNull
+    Map<String, String> requireMap(RootDetectionConstantsSet constantName) {
+        Map<String, String> map = getConstants().getMap(constantName);
+        if (map.isEmpty()) {
+            throw missingConstant(constantName.name());
+        }
+        return map;
+    }
+
+    /**
+     * @throws IllegalStateException if no su path is configured
+     */
+    @NonNull
+    String[] requireSuPaths() {
+        String[] suPaths = getConstants().getSuPaths();
+        if (suPaths.length == 0) {
+            throw missingConstant(RootDetectionConstantsSet.SU_PATHS.name());
+        }
+        return suPaths;
+    }
+
+    IllegalStateException missingConstant(String constantName) {
+        String message = "missing root detection constant " + constantName;
+        ApiLoggerResolver.logError(TAG, message);
+        return new IllegalStateException(message);
+    }
+
     /**
      * Check if one or more packages from list is installed in system.
      *
@@ -22,8 +22,6 @@ import java.util.List;
 
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstantsSet;
 
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.getJSONConstantsList;
-
 public class RootManagementApplicationStrategy extends RootDetectionStrategy {
 
     public RootManagementApplicationStrategy(Context context) {
@@ -33,7 +31,7 @@ public class RootManagementApplicationStrategy extends RootDetectionStrategy {
     @Override
     public boolean check() {
         List<String> generalRootApplicationsPackagesList =
-                getJSONConstantsList(mContext, RootDetectionConstantsSet.GENERAL_ROOT_APPLICATIONS_PACKAGES);
+                requireList(RootDetectionConstantsSet.GENERAL_ROOT_APPLICATIONS_PACKAGES);
         return existsPackageInstalled(generalRootApplicationsPackagesList);
     }
 }
@@ -21,9 +21,6 @@ import android.content.Context;
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstantsSet;
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionNative;
 
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.convertArrayListToStringArray;
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.getJSONConstantsList;
-
 public class RootNativeStrategy extends RootDetectionStrategy {
 
     public RootNativeStrategy(Context context) {
@@ -36,8 +33,8 @@ public class RootNativeStrategy extends RootDetectionStrategy {
             return false;
         }
 
-        String[] suPathsArray = convertArrayListToStringArray(getJSONConstantsList(mContext, RootDetectionConstantsSet.SU_PATHS));
-        String superUserFileName = getJSONConstantsList(mContext, RootDetectionConstantsSet.SUPER_USER_FILENAME).get(0);
+        String[] suPathsArray = requireSuPaths();
+        String superUserFileName = requireFirst(RootDetectionConstantsSet.SUPER_USER_FILENAME);
 
         String[] paths = new String[suPathsArray.length];
         for (int i = 0; i < paths.length; i++) {
@@ -26,8 +26,6 @@ import java.nio.charset.Charset;
 import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstantsSet;
 
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.getJSONConstantsList;
-
 public class SuExistsStrategy extends RootDetectionStrategy {
 
     public SuExistsStrategy(Context context) {
@@ -39,8 +37,8 @@ public class SuExistsStrategy extends RootDetectionStrategy {
         Process process = null;
         BufferedReader in = null;
 
-        String whichFileName = getJSONConstantsList(mContext, RootDetectionConstantsSet.WHICH_FILENAME).get(0);
-        String superUserFileName = getJSONConstantsList(mContext, RootDetectionConstantsSet.SUPER_USER_FILENAME).get(0);
+        String whichFileName = requireFirst(RootDetectionConstantsSet.WHICH_FILENAME);
+        String superUserFileName = requireFirst(RootDetectionConstantsSet.SUPER_USER_FILENAME);
 
         try {
             process = Runtime.getRuntime().exec(new String[]{whichFileName, superUserFileName});
@@ -18,13 +18,12 @@ package de.telekom.smartcredentials.core.rootdetector.strategy;
 
 import android.content.Context;
 
+import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants;
 import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstantsSet;
 
-import static de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants.getJSONConstantsList;
-
 public class SuperUserBinaryFilesStrategy extends BinaryFilesStrategy {
 
     public SuperUserBinaryFilesStrategy(Context context) {
-        super(context, getJSONConstantsList(context, RootDetectionConstantsSet.SUPER_USER_FILENAME).get(0));
+        super(context, RootDetectionConstants.getInstance(context).getFirst(RootDetectionConstantsSet.SUPER_USER_FILENAME));
     }
 }
@@ -36,4 +36,6 @@ public interface EncryptionStrategy {
     String decrypt(String encryptedText, EncryptionAlgorithm algorithm) throws EncryptionException;
 
     PublicKey getPublicKey(String alias) throws EncryptionException;
+
+    boolean isLegacyEncrypted(String encryptedText);
 }
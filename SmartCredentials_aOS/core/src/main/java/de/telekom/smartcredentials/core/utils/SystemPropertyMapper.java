@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.util.Iterator;
 
 import de.telekom.smartcredentials.core.blacklisting.FilesManager;
+import de.telekom.smartcredentials.core.blacklisting.SmartCredentialsSystemPropertyMap;
 
 /**
  * Created by Lucian Iacob on February 01, 2019.
@@ -40,20 +41,21 @@ public class SystemPropertyMapper {
 
         try {
             if (blacklistExistsInInternalStorage(context)) {
-                syncBlacklists(context, defaultBlackListJSON);
+                SmartCredentialsSystemPropertyMap.updateBlacklistIndex(syncBlacklists(context, defaultBlackListJSON));
             } else {
                 FilesManager.writeDeviceBlacklistJSON(context, BLACKLIST_FILE_NAME, defaultBlackListJSON);
+                SmartCredentialsSystemPropertyMap.updateBlacklistIndex(defaultBlackListJSON);
             }
         } catch (JSONException | IOException e) {
             e.printStackTrace();
         }
     }
 
-    private static void syncBlacklists(Context context, JSONObject defaultBlackListJson) throws JSONException, IOException {
+    private static JSONObject syncBlacklists(Context context, JSONObject defaultBlackListJson) throws JSONException, IOException {
         JSONObject storageBlackList = FilesManager.readDeviceBlackListJSON(context, BLACKLIST_FILE_NAME);
 
         if (defaultBlackListJson == null || storageBlackList == null) {
-            return;
+            return storageBlackList;
         }
 
         Iterator<String> defaultBlackListIterator = defaultBlackListJson.keys();
@@ -69,6 +71,7 @@ public class SystemPropertyMapper {
         }
 
         FilesManager.writeDeviceBlacklistJSON(context, BLACKLIST_FILE_NAME, storageBlackList);
+        return storageBlackList;
     }
 
     private static JSONArray solveExistingKey(JSONArray assetsDeviceArray, JSONArray storageDeviceArray) throws JSONException {
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.blacklisting;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DeviceBlacklistIndexTest {
+
+    private static final String DEVICE_MODEL = "Pixel 3";
+
+    @Test
+    public void fromNullJSONReturnsEmptyIndex() {
+        assertSame(DeviceBlacklistIndex.EMPTY, DeviceBlacklistIndex.from(null, DEVICE_MODEL));
+    }
+
+    @Test
+    public void featureIsBlockedWhenDeviceModelMatchesIgnoringCase() throws JSONException {
+        JSONObject blacklist = new JSONObject();
+        blacklist.put(SmartCredentialsFeatureSet.OCR.name(), new JSONArray().put("pixel 3"));
+
+        DeviceBlacklistIndex index = DeviceBlacklistIndex.from(blacklist, DEVICE_MODEL);
+
+        assertTrue(index.isBlocked(SmartCredentialsFeatureSet.OCR));
+        assertFalse(index.isBlocked(SmartCredentialsFeatureSet.QR));
+    }
+
+    @Test
+    public void featureIsNotBlockedForOtherDeviceModels() throws JSONException {
+        JSONObject blacklist = new JSONObject();
+        blacklist.put(SmartCredentialsFeatureSet.STORAGE.name(), new JSONArray().put("Nexus 5"));
+        blacklist.put("UNKNOWN_FEATURE", new JSONArray().put(DEVICE_MODEL));
+
+        DeviceBlacklistIndex index = DeviceBlacklistIndex.from(blacklist, DEVICE_MODEL);
+
+        for (SmartCredentialsFeatureSet feature : SmartCredentialsFeatureSet.values()) {
+            assertFalse(index.isBlocked(feature));
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package de.telekom.smartcredentials.core.model.item;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.when;
@@ -172,4 +174,21 @@ public class ItemDomainDataTest {
 
         mItemDomainData.partiallyEncryptWith(mEncryptionStrategy, false);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void isLegacyEncryptedWithRequiresAllEncryptedFieldsToBeLegacy() {
+        when(mEncryptionStrategy.isLegacyEncrypted(mIdentifier)).thenReturn(true);
+        when(mEncryptionStrategy.isLegacyEncrypted(mPrivateData)).thenReturn(false);
+
+        assertFalse(mItemDomainData.isLegacyEncryptedWith(mEncryptionStrategy));
+
+        when(mEncryptionStrategy.isLegacyEncrypted(mPrivateData)).thenReturn(true);
+
+        assertTrue(mItemDomainData.isLegacyEncryptedWith(mEncryptionStrategy));
+    }
+
+    @Test
+    public void isLegacyEncryptedWithIgnoresEmptyData() {
+        assertFalse(new ItemDomainData().isLegacyEncryptedWith(mEncryptionStrategy));
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.rootdetector;
+
+import android.content.Context;
+import android.os.SystemClock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(SystemClock.class)
+public class CachedRootDetectionControllerTest {
+
+    private static final long TTL_MILLIS = 60_000;
+    private static final Set<RootDetectionOption> OPTIONS =
+            EnumSet.of(RootDetectionOption.SU_EXISTS, RootDetectionOption.DETECT_TEST_KEYS);
+
+    private RootDetectionApi mDelegate;
+    private CachedRootDetectionController mController;
+
+    @Before
+    public void setUp() {
+        PowerMockito.mockStatic(SystemClock.class);
+        when(SystemClock.elapsedRealtime()).thenReturn(0L);
+
+        mDelegate = Mockito.mock(RootDetectionApi.class);
+        when(mDelegate.detect(any())).thenReturn(RootDetectionResult.NOT_COMPROMISED);
+        mController = new TestController(mDelegate, TTL_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        mController.release();
+    }
+
+    @Test
+    public void verdictIsServedFromCacheWithinTtl() {
+        when(mDelegate.detect(OPTIONS)).thenReturn(RootDetectionResult.COMPROMISED);
+
+        assertTrue(mController.isSecurityCompromised(OPTIONS));
+        when(SystemClock.elapsedRealtime()).thenReturn(TTL_MILLIS - 1);
+        assertTrue(mController.isSecurityCompromised(EnumSet.copyOf(OPTIONS)));
+
+        verify(mDelegate, times(1)).detect(OPTIONS);
+    }
+
+    @Test
+    public void verdictIsRecomputedAfterTtl() {
+        assertFalse(mController.isSecurityCompromised(OPTIONS));
+        when(SystemClock.elapsedRealtime()).thenReturn(TTL_MILLIS);
+        assertFalse(mController.isSecurityCompromised(OPTIONS));
+
+        verify(mDelegate, times(2)).detect(OPTIONS);
+    }
+
+    @Test
+    public void verdictIsRecomputedForOtherOptions() {
+        Set<RootDetectionOption> otherOptions = EnumSet.of(RootDetectionOption.SU_EXISTS);
+
+        mController.isSecurityCompromised(OPTIONS);
+        mController.isSecurityCompromised(otherOptions);
+
+        verify(mDelegate).detect(OPTIONS);
+        verify(mDelegate).detect(otherOptions);
+    }
+
+    @Test
+    public void verdictIsRefreshedInBackgroundBeforeItExpires() {
+        mController.release();
+        mController = new TestController(mDelegate, 200);
+
+        mController.isSecurityCompromised(OPTIONS);
+        mController.isSecurityCompromised(OPTIONS);
+
+        verify(mDelegate, timeout(190).times(2)).detect(OPTIONS);
+    }
+
+    @Test
+    public void verdictIsNotRefreshedWhenNotRead() throws InterruptedException {
+        mController.release();
+        mController = new TestController(mDelegate, 200);
+
+        mController.isSecurityCompromised(OPTIONS);
+        Thread.sleep(350);
+
+        verify(mDelegate, times(1)).detect(OPTIONS);
+    }
+
+    @Test
+    public void invalidateForcesNewDetection() {
+        mController.isSecurityCompromised(OPTIONS);
+        mController.invalidate();
+        mController.isSecurityCompromised(OPTIONS);
+
+        verify(mDelegate, times(2)).detect(OPTIONS);
+    }
+
+    @Test
+    public void verdictComputedDuringInvalidationIsNotCached() {
+        when(mDelegate.detect(OPTIONS)).thenAnswer(invocation -> {
+            mController.invalidate();
+            return RootDetectionResult.NOT_COMPROMISED;
+        });
+
+        mController.isSecurityCompromised(OPTIONS);
+        mController.isSecurityCompromised(OPTIONS);
+
+        verify(mDelegate, times(2)).detect(OPTIONS);
+    }
+
+    @Test
+    public void failedDetectionIsNotCached() {
+        when(mDelegate.detect(OPTIONS)).thenReturn(RootDetectionResult.FAILED);
+
+        assertTrue(mController.isSecurityCompromised(OPTIONS));
+        assertTrue(mController.isSecurityCompromised(OPTIONS));
+
+        verify(mDelegate, times(2)).detect(OPTIONS);
+    }
+
+    @Test
+    public void disabledCacheAlwaysForwardsToDelegate() {
+        mController = new TestController(mDelegate, 0);
+
+        mController.isSecurityCompromised(OPTIONS);
+        mController.isSecurityCompromised(OPTIONS);
+
+        verify(mDelegate, times(2)).detect(OPTIONS);
+    }
+
+    private static class TestController extends CachedRootDetectionController {
+
+        TestController(RootDetectionApi delegate, long ttlMillis) {
+            super(Mockito.mock(Context.class), delegate, ttlMillis);
+        }
+
+        @Override
+        void registerPackageReceiver() {
+            // package broadcasts are not available in unit tests
+        }
+    }
+}
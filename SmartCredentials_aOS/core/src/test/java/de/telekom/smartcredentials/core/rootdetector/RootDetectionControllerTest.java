@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.rootdetector;
+
+import android.content.Context;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import de.telekom.smartcredentials.core.rootdetector.strategy.RootDetectionStrategy;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RootDetectionControllerTest {
+
+    @Test
+    public void passingChecksReportDeviceAsSafe() {
+        TestController controller = new TestController();
+        controller.mResults.put(RootDetectionOption.SU_EXISTS, false);
+        controller.mResults.put(RootDetectionOption.DETECT_TEST_KEYS, false);
+
+        RootDetectionResult result = controller.detect(
+                EnumSet.of(RootDetectionOption.SU_EXISTS, RootDetectionOption.DETECT_TEST_KEYS));
+
+        assertFalse(result.isCompromised());
+        assertTrue(result.isConclusive());
+    }
+
+    @Test
+    public void positiveCheckReportsDeviceAsCompromised() {
+        TestController controller = new TestController();
+        controller.mResults.put(RootDetectionOption.SU_EXISTS, true);
+        controller.mResults.put(RootDetectionOption.DETECT_TEST_KEYS, false);
+
+        RootDetectionResult result = controller.detect(
+                EnumSet.of(RootDetectionOption.SU_EXISTS, RootDetectionOption.DETECT_TEST_KEYS));
+
+        assertTrue(result.isCompromised());
+        assertTrue(result.isConclusive());
+    }
+
+    @Test
+    public void failingCheckIsTreatedAsCompromised() {
+        TestController controller = new TestController();
+        controller.mResults.put(RootDetectionOption.DETECT_TEST_KEYS, false);
+
+        RootDetectionResult result = controller.detect(
+                EnumSet.of(RootDetectionOption.SU_EXISTS, RootDetectionOption.DETECT_TEST_KEYS));
+
+        assertTrue(result.isCompromised());
+        assertFalse(result.isConclusive());
+        assertTrue(controller.isSecurityCompromised(EnumSet.of(RootDetectionOption.SU_EXISTS)));
+    }
+
+    @Test
+    public void interruptedDetectionIsTreatedAsCompromisedAndKeepsInterruptFlag() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TestController controller = new TestController();
+        controller.mBlocking = release;
+        AtomicBoolean interrupted = new AtomicBoolean();
+        RootDetectionResult[] result = new RootDetectionResult[1];
+
+        Thread caller = new Thread(() -> {
+            result[0] = controller.detect(
+                    EnumSet.of(RootDetectionOption.SU_EXISTS, RootDetectionOption.DETECT_TEST_KEYS));
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        caller.start();
+        caller.interrupt();
+        caller.join(5000);
+        release.countDown();
+
+        assertTrue(result[0].isCompromised());
+        assertFalse(result[0].isConclusive());
+        assertTrue(interrupted.get());
+    }
+
+    private static class TestController extends RootDetectionController {
+
+        private final Map<RootDetectionOption, Boolean> mResults = new ConcurrentHashMap<>();
+        private volatile CountDownLatch mBlocking;
+
+        TestController() {
+            super(null);
+        }
+
+        @Override
+        RootDetectionStrategy provideRootDetectionStrategy(Context context, RootDetectionOption option) {
+            return new RootDetectionStrategy(context) {
+                @Override
+                public boolean check() {
+                    if (mBlocking != null) {
+                        try {
+                            mBlocking.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    Boolean result = mResults.get(option);
+                    if (result == null) {
+                        throw new IllegalStateException("check failed for " + option);
+                    }
+                    return result;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.core.rootdetector.strategy;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+
+import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstants;
+import de.telekom.smartcredentials.core.rootdetector.RootDetectionConstantsSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+public class RootDetectionStrategyTest {
+
+    private RootDetectionConstants mConstants;
+
+    @Before
+    public void setUp() {
+        mConstants = Mockito.mock(RootDetectionConstants.class);
+        when(mConstants.getList(Mockito.any())).thenReturn(Collections.emptyList());
+        when(mConstants.getMap(Mockito.any())).thenReturn(Collections.emptyMap());
+        when(mConstants.getSuPaths()).thenReturn(new String[0]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void missingSystemPropertiesCommandFailsCheck() {
+        new DangerousSystemPropertiesStrategy(null) {
+            @Override
+            RootDetectionConstants getConstants() {
+                return mConstants;
+            }
+        }.check();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void missingTestKeysTagFailsCheck() {
+        new DetectTestKeysStrategy(null) {
+            @Override
+            RootDetectionConstants getConstants() {
+                return mConstants;
+            }
+        }.check();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void missingMountOptionFailsCheck() {
+        when(mConstants.getFirst(RootDetectionConstantsSet.MOUNT_COMMAND)).thenReturn("mount");
+
+        new ReadWritePermissionsChangedStrategy(null) {
+            @Override
+            RootDetectionConstants getConstants() {
+                return mConstants;
+            }
+        }.check();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void missingPackagesFailCheck() {
+        new RootManagementApplicationStrategy(null) {
+            @Override
+            RootDetectionConstants getConstants() {
+                return mConstants;
+            }
+        }.check();
+    }
+
+    @Test
+    public void requireFirstReturnsConfiguredValue() {
+        when(mConstants.getFirst(RootDetectionConstantsSet.WHICH_FILENAME)).thenReturn("which");
+        RootDetectionStrategy strategy = new DefaultRootDetectionStrategy(null) {
+            @Override
+            RootDetectionConstants getConstants() {
+                return mConstants;
+            }
+        };
+
+        assertEquals("which", strategy.requireFirst(RootDetectionConstantsSet.WHICH_FILENAME));
+    }
+}
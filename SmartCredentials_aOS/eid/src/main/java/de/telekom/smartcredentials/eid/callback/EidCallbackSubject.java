@@ -22,5 +22,7 @@ public interface EidCallbackSubject {
 
     void attach(EidCallbackObserver observer);
 
+    void detach(EidCallbackObserver observer);
+
     void notify(EidMessageReceivedCallback callback);
 }
\ No newline at end of file
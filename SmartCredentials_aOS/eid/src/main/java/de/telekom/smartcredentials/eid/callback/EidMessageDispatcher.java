@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.eid.callback;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import de.telekom.smartcredentials.core.eid.callbacks.EidMessageReceivedCallback;
+import de.telekom.smartcredentials.core.eid.messages.EidMessage;
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+
+/**
+ * Decouples the thread receiving eID messages, usually the binder thread, from the callback of
+ * the application. Messages and failures are queued in a bounded queue and delivered in order from
+ * a single dispatcher thread; once the queue is full the {@link OverflowPolicy} decides which
+ * message is dropped, so a slow consumer never blocks the sender. Failures are never dropped.
+ * <p>
+ * Once {@link #dispose()} returns, nothing is delivered to the callback anymore. A delivery that
+ * is in progress on another thread is awaited, so the callback must not block on the thread
+ * disposing the dispatcher.
+ */
+public class EidMessageDispatcher implements EidMessageReceivedCallback {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final String TAG = "EidMessageDispatcher";
+    private static final String ERROR_DROPPED_MESSAGES = "Dropped %d eID messages, the message queue is full";
+    private static final ExecutorService sExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, TAG);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        DROP_NEWEST
+    }
+
+    private final EidMessageReceivedCallback mCallback;
+    private final int mCapacity;
+    private final OverflowPolicy mOverflowPolicy;
+    private final ArrayDeque<Event> mQueue;
+    private final Object mLock = new Object();
+    private final ReentrantLock mDeliveryLock = new ReentrantLock();
+
+    private boolean mDisposed;
+    private boolean mDrainScheduled;
+    private int mQueuedMessages;
+    private int mDroppedCount;
+
+    public EidMessageDispatcher(EidMessageReceivedCallback callback) {
+        this(callback, DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    public EidMessageDispatcher(EidMessageReceivedCallback callback, int capacity, OverflowPolicy overflowPolicy) {
+        mCallback = callback;
+        mCapacity = capacity;
+        mOverflowPolicy = overflowPolicy;
+        mQueue = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public <M extends EidMessage> void onMessageReceived(M message) {
+        synchronized (mLock) {
+            if (mDisposed) {
+                return;
+            }
+            if (mQueuedMessages >= mCapacity) {
+                mDroppedCount++;
+                if (mOverflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                    return;
+                }
+                removeOldestMessage();
+            }
+            enqueue(new Event(message, null));
+        }
+    }
+
+    @Override
+    public void onFailed(Throwable throwable) {
+        synchronized (mLock) {
+            if (mDisposed) {
+                return;
+            }
+            enqueue(new Event(null, throwable));
+        }
+    }
+
+    public EidMessageReceivedCallback getCallback() {
+        return mCallback;
+    }
+
+    /**
+     * Drops the queued messages and stops delivering to the callback. Waits for a delivery which is
+     * in progress on the dispatcher thread.
+     */
+    public void dispose() {
+        synchronized (mLock) {
+            mDisposed = true;
+            mQueue.clear();
+            mQueuedMessages = 0;
+        }
+        // the dispatcher thread checks mDisposed before each delivery, so at most one is running
+        mDeliveryLock.lock();
+        mDeliveryLock.unlock();
+    }
+
+    public boolean isDisposed() {
+        synchronized (mLock) {
+            return mDisposed;
+        }
+    }
+
+    // called while holding mLock
+    private void enqueue(Event event) {
+        mQueue.addLast(event);
+        if (event.message != null) {
+            mQueuedMessages++;
+        }
+        if (!mDrainScheduled) {
+            mDrainScheduled = true;
+            sExecutor.execute(this::drain);
+        }
+    }
+
+    // called while holding mLock, failures are kept
+    private void removeOldestMessage() {
+        Iterator<Event> iterator = mQueue.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().message != null) {
+                iterator.remove();
+                mQueuedMessages--;
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            int dropped;
+            synchronized (mLock) {
+                dropped = mDroppedCount;
+                mDroppedCount = 0;
+            }
+            if (dropped > 0) {
+                ApiLoggerResolver.logError(TAG, String.format(ERROR_DROPPED_MESSAGES, dropped));
+            }
+            mDeliveryLock.lock();
+            try {
+                Event event;
+                synchronized (mLock) {
+                    event = mDisposed ? null : mQueue.pollFirst();
+                    if (event == null) {
+                        mDrainScheduled = false;
+                        return;
+                    }
+                    if (event.message != null) {
+                        mQueuedMessages--;
+                    }
+                }
+                if (event.message != null) {
+                    mCallback.onMessageReceived(event.message);
+                } else {
+                    mCallback.onFailed(event.failure);
+                }
+            } finally {
+                mDeliveryLock.unlock();
+            }
+        }
+    }
+
+    private static final class Event {
+
+        private final EidMessage message;
+        private final Throwable failure;
+
+        private Event(EidMessage message, Throwable failure) {
+            this.message = message;
+            this.failure = failure;
+        }
+    }
+}
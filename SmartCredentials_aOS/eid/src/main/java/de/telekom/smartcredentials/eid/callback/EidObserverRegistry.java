@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.eid.callback;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import de.telekom.smartcredentials.core.eid.callbacks.EidMessageReceivedCallback;
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+
+/**
+ * Thread-safe, bounded set of {@link EidCallbackObserver}s. Observers are kept once, even when
+ * attached again, and the oldest one is detached when {@link #MAX_OBSERVERS} is reached, so the
+ * registry cannot grow across repeated sessions.
+ */
+public class EidObserverRegistry implements EidCallbackSubject {
+
+    static final int MAX_OBSERVERS = 16;
+
+    private static final String TAG = "EidObserverRegistry";
+
+    private final List<EidCallbackObserver> mObservers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public synchronized void attach(EidCallbackObserver observer) {
+        if (observer == null || mObservers.contains(observer)) {
+            return;
+        }
+        if (mObservers.size() >= MAX_OBSERVERS) {
+            EidCallbackObserver eldest = mObservers.remove(0);
+            ApiLoggerResolver.logError(TAG, "Too many eID observers, detached " + eldest.getClass().getSimpleName());
+        }
+        mObservers.add(observer);
+    }
+
+    @Override
+    public void detach(EidCallbackObserver observer) {
+        mObservers.remove(observer);
+    }
+
+    @Override
+    public void notify(EidMessageReceivedCallback callback) {
+        for (EidCallbackObserver observer : mObservers) {
+            observer.update(callback);
+        }
+    }
+
+    public int size() {
+        return mObservers.size();
+    }
+}
@@ -23,9 +23,6 @@ import android.os.RemoteException;
 
 import com.google.gson.Gson;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import de.telekom.smartcredentials.core.api.EidApi;
 import de.telekom.smartcredentials.core.blacklisting.SmartCredentialsFeatureSet;
 import de.telekom.smartcredentials.core.controllers.CoreController;
@@ -44,6 +41,8 @@ import de.telekom.smartcredentials.core.responses.SmartCredentialsResponse;
 import de.telekom.smartcredentials.eid.callback.AusweisCallback;
 import de.telekom.smartcredentials.eid.callback.EidCallbackObserver;
 import de.telekom.smartcredentials.eid.callback.EidCallbackSubject;
+import de.telekom.smartcredentials.eid.callback.EidMessageDispatcher;
+import de.telekom.smartcredentials.eid.callback.EidObserverRegistry;
 import de.telekom.smartcredentials.eid.messages.parser.MessageParser;
 import de.telekom.smartcredentials.eid.rest.RetrofitClient;
 import de.telekom.smartcredentials.eid.serviceconnection.AusweisServiceConnection;
@@ -61,17 +60,19 @@ public class EidController implements EidApi, EidCallbackSubject {
     private final CoreController mCoreController;
     private final Gson mGson;
     private final CompositeDisposable mCompositeDisposable;
-    private final List<EidCallbackObserver> mObservers;
+    private final EidObserverRegistry mObserverRegistry;
+    private final Object mCallbackLock = new Object();
+    private MessageParser mMessageParser;
     private AusweisServiceConnection mServiceConnection;
     private AusweisCallback mAusweisCallback;
-    private EidMessageReceivedCallback mMessageReceivedCallback;
+    private EidMessageDispatcher mMessageReceivedCallback;
     private EidConfiguration mEidConfiguration;
 
     public EidController(CoreController coreController) {
         mCoreController = coreController;
         mGson = new Gson();
         mCompositeDisposable = new CompositeDisposable();
-        mObservers = new ArrayList<>();
+        mObserverRegistry = new EidObserverRegistry();
     }
 
     public void setConfiguration(EidConfiguration configuration) {
@@ -97,7 +98,8 @@ public class EidController implements EidApi, EidCallbackSubject {
 
         Intent intent = new Intent(AUSWEIS_APP_ACTION);
         intent.setPackage(appPackage);
-        MessageParser mMessageParser = new MessageParser(mMessageReceivedCallback);
+        detachSession();
+        mMessageParser = new MessageParser(mMessageReceivedCallback);
         attach(mMessageParser);
         mAusweisCallback = new AusweisCallback(mMessageParser, mMessageReceivedCallback);
         attach(mAusweisCallback);
@@ -122,8 +124,8 @@ public class EidController implements EidApi, EidCallbackSubject {
 
         if (mServiceConnection != null) {
             context.unbindService(mServiceConnection);
-            mServiceConnection = null;
         }
+        detachSession();
         return new SmartCredentialsResponse<>();
     }
 
@@ -142,8 +144,31 @@ public class EidController implements EidApi, EidCallbackSubject {
             return;
         }
 
-        mMessageReceivedCallback = callback;
-        notify(callback);
+        EidMessageDispatcher dispatcher = new EidMessageDispatcher(callback);
+        EidMessageDispatcher previous;
+        synchronized (mCallbackLock) {
+            previous = mMessageReceivedCallback;
+            mMessageReceivedCallback = dispatcher;
+        }
+        disposeDispatcher(previous);
+        notify(dispatcher);
+    }
+
+    /**
+     * Stops delivering messages to the given callback, if it is the current one. Called when an
+     * Rx subscriber of the messages is disposed; once this returns the callback receives nothing.
+     */
+    public void removeMessageReceiverCallback(EidMessageReceivedCallback callback) {
+        EidMessageDispatcher removed;
+        synchronized (mCallbackLock) {
+            if (mMessageReceivedCallback == null || mMessageReceivedCallback.getCallback() != callback) {
+                return;
+            }
+            removed = mMessageReceivedCallback;
+            mMessageReceivedCallback = null;
+        }
+        disposeDispatcher(removed);
+        notify(null);
     }
 
     @Override
@@ -215,7 +240,7 @@ public class EidController implements EidApi, EidCallbackSubject {
             return;
         }
 
-        RetrofitClient retrofitClient = new RetrofitClient(mEidConfiguration);
+        RetrofitClient retrofitClient = RetrofitClient.getInstance(mEidConfiguration);
         mCompositeDisposable.add(retrofitClient.getRx2EidService(isProduction).getError(jwt)
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
@@ -236,7 +261,7 @@ public class EidController implements EidApi, EidCallbackSubject {
             callback.onFailed(new FeatureNotSupportedThrowable(errorMessage));
             return;
         }
-        RetrofitClient retrofitClient = new RetrofitClient(mEidConfiguration);
+        RetrofitClient retrofitClient = RetrofitClient.getInstance(mEidConfiguration);
         mCompositeDisposable.add(retrofitClient.getRx2EidService(isProduction).checkPatchLevel(version)
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
@@ -251,17 +276,42 @@ public class EidController implements EidApi, EidCallbackSubject {
 
     @Override
     public void attach(EidCallbackObserver observer) {
-        mObservers.add(observer);
+        mObserverRegistry.attach(observer);
+    }
+
+    @Override
+    public void detach(EidCallbackObserver observer) {
+        mObserverRegistry.detach(observer);
     }
 
     @Override
     public void notify(EidMessageReceivedCallback callback) {
-        for (EidCallbackObserver observer : mObservers) {
-            observer.update(callback);
-        }
+        mObserverRegistry.notify(callback);
     }
 
     public void destroy() {
         mCompositeDisposable.clear();
+        RetrofitClient.releaseInstance();
+        EidMessageDispatcher removed;
+        synchronized (mCallbackLock) {
+            removed = mMessageReceivedCallback;
+            mMessageReceivedCallback = null;
+        }
+        disposeDispatcher(removed);
+    }
+
+    // disposing waits for a running delivery, so it must not happen while holding mCallbackLock
+    private void disposeDispatcher(EidMessageDispatcher dispatcher) {
+        if (dispatcher != null) {
+            dispatcher.dispose();
+        }
+    }
+
+    // the observers of a previous session must not keep receiving callbacks
+    private void detachSession() {
+        detach(mMessageParser);
+        detach(mAusweisCallback);
+        detach(mServiceConnection);
+        mServiceConnection = null;
     }
 }
@@ -69,13 +69,13 @@ public class Rx2EidController implements Rx2EidApi {
 
     @Override
     public Observable<String> observeLoadingErrorCode(String jwt, boolean isProduction) {
-        RetrofitClient retrofitClient = new RetrofitClient(eidController.getEidConfiguration());
+        RetrofitClient retrofitClient = RetrofitClient.getInstance(eidController.getEidConfiguration());
         return retrofitClient.getRx2EidService(isProduction).getError(jwt);
     }
 
     @Override
     public Observable<Boolean> observeCheckPatchLevel(String version, boolean isProduction) {
-        RetrofitClient retrofitClient = new RetrofitClient(eidController.getEidConfiguration());
+        RetrofitClient retrofitClient = RetrofitClient.getInstance(eidController.getEidConfiguration());
         return retrofitClient.getRx2EidService(isProduction).checkPatchLevel(version);
     }
 }
@@ -69,13 +69,13 @@ public class Rx3EidController implements Rx3EidApi {
 
     @Override
     public Observable<String> observeLoadingErrorCode(String jwt, boolean isProduction) {
-        RetrofitClient retrofitClient = new RetrofitClient(eidController.getEidConfiguration());
+        RetrofitClient retrofitClient = RetrofitClient.getInstance(eidController.getEidConfiguration());
         return retrofitClient.getRx3EidService(isProduction).getError(jwt);
     }
 
     @Override
     public Observable<Boolean> observeCheckPatchLevel(String version, boolean isProduction) {
-        RetrofitClient retrofitClient = new RetrofitClient(eidController.getEidConfiguration());
+        RetrofitClient retrofitClient = RetrofitClient.getInstance(eidController.getEidConfiguration());
         return retrofitClient.getRx3EidService(isProduction).checkPatchLevel(version);
     }
 }
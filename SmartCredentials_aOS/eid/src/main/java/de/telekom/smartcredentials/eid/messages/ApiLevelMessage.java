@@ -28,9 +28,6 @@ import java.util.List;
  */
 public class ApiLevelMessage extends SmartEidMessage {
 
-    @SerializedName("msg")
-    @Expose
-    private String mMsg;
     @SerializedName("error")
     @Expose
     private String mError;
@@ -42,11 +39,11 @@ public class ApiLevelMessage extends SmartEidMessage {
     private int mCurrent;
 
     public String getMsg() {
-        return mMsg;
+        return getMessageType();
     }
 
     public void setMsg(String msg) {
-        this.mMsg = msg;
+        setMessageType(msg);
     }
 
     public String getError() {
@@ -77,7 +74,7 @@ public class ApiLevelMessage extends SmartEidMessage {
     @Override
     public String toString() {
         return "ApiLevelMessage{" +
-                "mMsg='" + mMsg + '\'' +
+                "mMsg='" + getMessageType() + '\'' +
                 ", mError='" + mError + '\'' +
                 ", mAvailable=" + mAvailable +
                 ", mCurrent=" + mCurrent +
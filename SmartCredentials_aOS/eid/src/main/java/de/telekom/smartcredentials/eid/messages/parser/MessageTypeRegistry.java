@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.eid.messages.parser;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.telekom.smartcredentials.eid.messages.AccessRightsMessage;
+import de.telekom.smartcredentials.eid.messages.ApiLevelMessage;
+import de.telekom.smartcredentials.eid.messages.AuthMessage;
+import de.telekom.smartcredentials.eid.messages.BadStateMessage;
+import de.telekom.smartcredentials.eid.messages.CertificateMessage;
+import de.telekom.smartcredentials.eid.messages.ChangePinMessage;
+import de.telekom.smartcredentials.eid.messages.EnterCanMessage;
+import de.telekom.smartcredentials.eid.messages.EnterNewPinMessage;
+import de.telekom.smartcredentials.eid.messages.EnterPinMessage;
+import de.telekom.smartcredentials.eid.messages.EnterPukMessage;
+import de.telekom.smartcredentials.eid.messages.InfoMessage;
+import de.telekom.smartcredentials.eid.messages.InsertCardMessage;
+import de.telekom.smartcredentials.eid.messages.InternalErrorMessage;
+import de.telekom.smartcredentials.eid.messages.InvalidMessage;
+import de.telekom.smartcredentials.eid.messages.ReaderListMessage;
+import de.telekom.smartcredentials.eid.messages.ReaderMessage;
+import de.telekom.smartcredentials.eid.messages.SmartEidMessage;
+import de.telekom.smartcredentials.eid.messages.StatusMessage;
+import de.telekom.smartcredentials.eid.messages.UnknownCommandMessage;
+import de.telekom.smartcredentials.eid.messages.types.EidMessageType;
+
+/**
+ * Maps the "msg" value of an AusweisApp2 message to the {@link TypeAdapter} of its concrete
+ * class. The adapter of a type is resolved the first time such a message arrives and kept, so
+ * parsing a message only looks up the adapter and binds the JSON; types without a registered
+ * class are bound as {@link SmartEidMessage}.
+ */
+public class MessageTypeRegistry {
+
+    private static MessageTypeRegistry sDefaultRegistry;
+
+    private final Gson mGson;
+    private final Map<String, Class<? extends SmartEidMessage>> mMessageClasses;
+    private final Map<String, TypeAdapter<? extends SmartEidMessage>> mAdapters;
+    private final TypeAdapter<SmartEidMessage> mFallbackAdapter;
+
+    public MessageTypeRegistry(Gson gson) {
+        mGson = gson;
+        mMessageClasses = new ConcurrentHashMap<>();
+        mAdapters = new ConcurrentHashMap<>();
+        mFallbackAdapter = gson.getAdapter(SmartEidMessage.class);
+    }
+
+    /**
+     * Returns the shared registry holding every message type known by the SDK.
+     */
+    public static synchronized MessageTypeRegistry getDefault() {
+        if (sDefaultRegistry == null) {
+            sDefaultRegistry = new MessageTypeRegistry(new Gson())
+                    .register(EidMessageType.ACCESS_RIGHTS, AccessRightsMessage.class)
+                    .register(EidMessageType.API_LEVEL, ApiLevelMessage.class)
+                    .register(EidMessageType.AUTH, AuthMessage.class)
+                    .register(EidMessageType.BAD_STATE, BadStateMessage.class)
+                    .register(EidMessageType.CERTIFICATE, CertificateMessage.class)
+                    .register(EidMessageType.ENTER_CAN, EnterCanMessage.class)
+                    .register(EidMessageType.ENTER_PIN, EnterPinMessage.class)
+                    .register(EidMessageType.ENTER_NEW_PIN, EnterNewPinMessage.class)
+                    .register(EidMessageType.ENTER_PUK, EnterPukMessage.class)
+                    .register(EidMessageType.INFO, InfoMessage.class)
+                    .register(EidMessageType.INSERT_CARD, InsertCardMessage.class)
+                    .register(EidMessageType.INTERNAL_ERROR, InternalErrorMessage.class)
+                    .register(EidMessageType.INVALID, InvalidMessage.class)
+                    .register(EidMessageType.READER, ReaderMessage.class)
+                    .register(EidMessageType.READER_LIST, ReaderListMessage.class)
+                    .register(EidMessageType.CHANGE_PIN, ChangePinMessage.class)
+                    .register(EidMessageType.UNKNOWN_COMMAND, UnknownCommandMessage.class)
+                    .register(EidMessageType.STATUS, StatusMessage.class);
+        }
+        return sDefaultRegistry;
+    }
+
+    public MessageTypeRegistry register(EidMessageType messageType, Class<? extends SmartEidMessage> messageClass) {
+        return register(messageType.getMessageType(), messageClass);
+    }
+
+    public MessageTypeRegistry register(String messageType, Class<? extends SmartEidMessage> messageClass) {
+        mMessageClasses.put(messageType, messageClass);
+        mAdapters.remove(messageType);
+        return this;
+    }
+
+    TypeAdapter<? extends SmartEidMessage> getAdapter(String messageType) {
+        if (messageType == null) {
+            return mFallbackAdapter;
+        }
+        TypeAdapter<? extends SmartEidMessage> adapter = mAdapters.get(messageType);
+        if (adapter == null) {
+            Class<? extends SmartEidMessage> messageClass = mMessageClasses.get(messageType);
+            if (messageClass == null) {
+                return mFallbackAdapter;
+            }
+            adapter = mGson.getAdapter(messageClass);
+            mAdapters.put(messageType, adapter);
+        }
+        return adapter;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.eid.rest;
+
+import io.reactivex.Observable;
+
+/**
+ * {@link Rx2EidService} answering repeated lookups from the {@link EidResponseCache} and only
+ * calling the backend on a miss.
+ */
+class CachingRx2EidService implements Rx2EidService {
+
+    private final Rx2EidService mService;
+    private final String mBaseUrl;
+    private final EidResponseCache mCache;
+
+    CachingRx2EidService(Rx2EidService service, String baseUrl, EidResponseCache cache) {
+        mService = service;
+        mBaseUrl = baseUrl;
+        mCache = cache;
+    }
+
+    @Override
+    public Observable<String> getError(String errorCode) {
+        return Observable.defer(() -> {
+            String error = mCache.getError(mBaseUrl, errorCode);
+            if (error != null) {
+                return Observable.just(error);
+            }
+            return mService.getError(errorCode).doOnNext(value -> mCache.putError(mBaseUrl, errorCode, value));
+        });
+    }
+
+    @Override
+    public Observable<Boolean> checkPatchLevel(String version) {
+        return Observable.defer(() -> {
+            Boolean isSupported = mCache.getPatchLevel(mBaseUrl, version);
+            if (isSupported != null) {
+                return Observable.just(isSupported);
+            }
+            return mService.checkPatchLevel(version).doOnNext(value -> mCache.putPatchLevel(mBaseUrl, version, value));
+        });
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.eid.rest;
+
+/**
+ * Error code and patch level answers of the eID backends, kept for a fixed time. Shared by the
+ * Rx2 and Rx3 services of {@link RetrofitClient}; entries are keyed by the base URL of the
+ * backend, so production and test answers never mix.
+ */
+class EidResponseCache {
+
+    private static final String KEY_SEPARATOR = "\n";
+
+    private final TtlCache<String, String> mErrors;
+    private final TtlCache<String, Boolean> mPatchLevels;
+
+    EidResponseCache(long ttlMillis, int maxEntries) {
+        mErrors = new TtlCache<>(ttlMillis, maxEntries);
+        mPatchLevels = new TtlCache<>(ttlMillis, maxEntries);
+    }
+
+    String getError(String baseUrl, String errorCode) {
+        return mErrors.get(getKey(baseUrl, errorCode));
+    }
+
+    void putError(String baseUrl, String errorCode, String error) {
+        mErrors.put(getKey(baseUrl, errorCode), error);
+    }
+
+    Boolean getPatchLevel(String baseUrl, String version) {
+        return mPatchLevels.get(getKey(baseUrl, version));
+    }
+
+    void putPatchLevel(String baseUrl, String version, Boolean isSupported) {
+        mPatchLevels.put(getKey(baseUrl, version), isSupported);
+    }
+
+    void clear() {
+        mErrors.clear();
+        mPatchLevels.clear();
+    }
+
+    private static String getKey(String baseUrl, String value) {
+        return baseUrl + KEY_SEPARATOR + value;
+    }
+}
@@ -17,6 +17,7 @@
 package de.telekom.smartcredentials.eid.rest;
 
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 import de.telekom.smartcredentials.core.eid.EidConfiguration;
 import de.telekom.smartcredentials.eid.mapper.TlsConfigurationMapper;
@@ -27,38 +28,109 @@ import retrofit2.Retrofit;
 import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
 import retrofit2.converter.scalars.ScalarsConverterFactory;
 
+/**
+ * Process-wide HTTP client of the eID backend. A single {@link OkHttpClient} is shared by all
+ * services, so connections and TLS sessions are reused across calls, and the services are created
+ * once per backend. Error code and patch level answers are cached for
+ * {@link #CACHE_TTL_MILLIS}, so repeated eID flows within a session hit the backend once.
+ */
 public class RetrofitClient {
 
+    static final long CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private static final int MAX_CACHE_ENTRIES = 32;
+
+    private static RetrofitClient sInstance;
+
     private final EidConfiguration mEidConfiguration;
-    private final ConnectionSpec mConnectionSpec;
+    private final OkHttpClient mOkHttpClient;
+    private final EidResponseCache mResponseCache;
+    private Rx2EidService mProductionRx2EidService;
+    private Rx2EidService mTestRx2EidService;
+    private Rx3EidService mProductionRx3EidService;
+    private Rx3EidService mTestRx3EidService;
 
-    public RetrofitClient(EidConfiguration configuration) {
+    private RetrofitClient(EidConfiguration configuration) {
         mEidConfiguration = configuration;
         TlsConfigurationMapper tlsConfigurationMapper = new TlsConfigurationMapper();
-        mConnectionSpec = tlsConfigurationMapper.map(configuration.getTlsConfiguration());
+        ConnectionSpec connectionSpec = tlsConfigurationMapper.map(configuration.getTlsConfiguration());
+        mOkHttpClient = new OkHttpClient
+                .Builder()
+                .connectionSpecs(Collections.singletonList(connectionSpec))
+                .build();
+        mResponseCache = new EidResponseCache(CACHE_TTL_MILLIS, MAX_CACHE_ENTRIES);
+    }
+
+    /**
+     * Returns the client of the given configuration, which is only built again when the
+     * configuration changes.
+     */
+    public static synchronized RetrofitClient getInstance(EidConfiguration configuration) {
+        if (sInstance == null || sInstance.mEidConfiguration != configuration) {
+            sInstance = new RetrofitClient(configuration);
+        }
+        return sInstance;
+    }
+
+    public synchronized Rx3EidService getRx3EidService(boolean isProduction) {
+        if (isProduction) {
+            if (mProductionRx3EidService == null) {
+                mProductionRx3EidService = createRx3EidService(true);
+            }
+            return mProductionRx3EidService;
+        }
+        if (mTestRx3EidService == null) {
+            mTestRx3EidService = createRx3EidService(false);
+        }
+        return mTestRx3EidService;
+    }
+
+    public synchronized Rx2EidService getRx2EidService(boolean isProduction) {
+        if (isProduction) {
+            if (mProductionRx2EidService == null) {
+                mProductionRx2EidService = createRx2EidService(true);
+            }
+            return mProductionRx2EidService;
+        }
+        if (mTestRx2EidService == null) {
+            mTestRx2EidService = createRx2EidService(false);
+        }
+        return mTestRx2EidService;
+    }
+
+    /**
+     * Drops the client together with its cached error codes and patch level answers. Called when
+     * the eID module is destroyed.
+     */
+    public static synchronized void releaseInstance() {
+        if (sInstance != null) {
+            sInstance.mResponseCache.clear();
+            sInstance = null;
+        }
     }
 
-    public Rx3EidService getRx3EidService(boolean isProduction) {
-        return getRetrofitClientBuilder(isProduction)
+    private Rx3EidService createRx3EidService(boolean isProduction) {
+        Rx3EidService service = getRetrofitClientBuilder(isProduction)
                 .addCallAdapterFactory(RxJava3CallAdapterFactory.create())
                 .build().create(Rx3EidService.class);
+        return new CachingRx3EidService(service, getBaseUrl(isProduction), mResponseCache);
     }
 
-    public Rx2EidService getRx2EidService(boolean isProduction) {
-        return getRetrofitClientBuilder(isProduction)
+    private Rx2EidService createRx2EidService(boolean isProduction) {
+        Rx2EidService service = getRetrofitClientBuilder(isProduction)
                 .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
                 .build().create(Rx2EidService.class);
+        return new CachingRx2EidService(service, getBaseUrl(isProduction), mResponseCache);
+    }
+
+    private String getBaseUrl(boolean isProduction) {
+        return isProduction ? mEidConfiguration.getProductionUrl() : mEidConfiguration.getTestUrl();
     }
 
     private Retrofit.Builder getRetrofitClientBuilder(boolean isProduction) {
-        String baseUrl = isProduction ? mEidConfiguration.getProductionUrl() : mEidConfiguration.getTestUrl();
-        OkHttpClient okHttpClient = new OkHttpClient
-                .Builder()
-                .connectionSpecs(Collections.singletonList(mConnectionSpec))
-                .build();
         return new Retrofit.Builder()
-                .baseUrl(baseUrl)
-                .client(okHttpClient)
+                .baseUrl(getBaseUrl(isProduction))
+                .client(mOkHttpClient)
                 .addConverterFactory(ScalarsConverterFactory.create());
     }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2021 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.eid.rest;
+
+import android.os.SystemClock;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small LRU map whose entries expire a fixed time after they were stored. Used to remember the
+ * answers of the eID backend for the duration of a session.
+ */
+class TtlCache<K, V> {
+
+    private final long mTtlMillis;
+    private final Map<K, Entry<V>> mEntries;
+
+    TtlCache(long ttlMillis, int maxEntries) {
+        mTtlMillis = ttlMillis;
+        mEntries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized V get(K key) {
+        Entry<V> entry = mEntries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (SystemClock.elapsedRealtime() - entry.mTimestamp >= mTtlMillis) {
+            mEntries.remove(key);
+            return null;
+        }
+        return entry.mValue;
+    }
+
+    synchronized void put(K key, V value) {
+        if (mTtlMillis > 0 && value != null) {
+            mEntries.put(key, new Entry<>(value, SystemClock.elapsedRealtime()));
+        }
+    }
+
+    synchronized void clear() {
+        mEntries.clear();
+    }
+
+    private static final class Entry<V> {
+
+        private final V mValue;
+        private final long mTimestamp;
+
+        private Entry(V value, long timestamp) {
+            mValue = value;
+            mTimestamp = timestamp;
+        }
+    }
+}
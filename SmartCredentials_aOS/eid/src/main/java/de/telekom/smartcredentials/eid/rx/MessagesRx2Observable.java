@@ -36,7 +36,7 @@ public class MessagesRx2Observable implements ObservableOnSubscribe<EidMessage>
 
     @Override
     public void subscribe(@NonNull ObservableEmitter<EidMessage> emitter) {
-        eidController.setMessageReceiverCallback(new EidMessageReceivedCallback() {
+        EidMessageReceivedCallback callback = new EidMessageReceivedCallback() {
             @Override
             public <M extends EidMessage> void onMessageReceived(M message) {
                 emitter.onNext(message);
@@ -46,6 +46,8 @@ public class MessagesRx2Observable implements ObservableOnSubscribe<EidMessage>
             public void onFailed(Throwable throwable) {
                 emitter.onError(throwable);
             }
-        });
+        };
+        emitter.setCancellable(() -> eidController.removeMessageReceiverCallback(callback));
+        eidController.setMessageReceiverCallback(callback);
     }
 }
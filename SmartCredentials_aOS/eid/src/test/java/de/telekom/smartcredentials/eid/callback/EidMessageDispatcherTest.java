@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.eid.callback;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import de.telekom.smartcredentials.core.eid.callbacks.EidMessageReceivedCallback;
+import de.telekom.smartcredentials.core.eid.messages.EidMessage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EidMessageDispatcherTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private RecordingCallback mCallback;
+
+    @Before
+    public void setUp() {
+        mCallback = new RecordingCallback();
+    }
+
+    @Test
+    public void deliversMessagesAndFailuresInOrder() throws InterruptedException {
+        EidMessageDispatcher dispatcher = new EidMessageDispatcher(mCallback);
+        Throwable failure = new Exception("failed");
+
+        dispatcher.onMessageReceived(new TestMessage("first"));
+        dispatcher.onFailed(failure);
+        dispatcher.onMessageReceived(new TestMessage("second"));
+
+        mCallback.awaitEvents(3);
+        assertEquals(3, mCallback.mEvents.size());
+        assertEquals("first", mCallback.mEvents.get(0));
+        assertEquals(failure, mCallback.mEvents.get(1));
+        assertEquals("second", mCallback.mEvents.get(2));
+    }
+
+    @Test
+    public void dropOldestKeepsNewestMessages() throws InterruptedException {
+        EidMessageDispatcher dispatcher = new EidMessageDispatcher(mCallback, 2,
+                EidMessageDispatcher.OverflowPolicy.DROP_OLDEST);
+        blockDispatcherThread(dispatcher);
+
+        for (int i = 1; i <= 5; i++) {
+            dispatcher.onMessageReceived(new TestMessage("message" + i));
+        }
+        mCallback.mRelease.countDown();
+
+        mCallback.awaitEvents(3);
+        assertEquals(3, mCallback.mEvents.size());
+        assertEquals("message4", mCallback.mEvents.get(1));
+        assertEquals("message5", mCallback.mEvents.get(2));
+    }
+
+    @Test
+    public void dropNewestKeepsOldestMessages() throws InterruptedException {
+        EidMessageDispatcher dispatcher = new EidMessageDispatcher(mCallback, 2,
+                EidMessageDispatcher.OverflowPolicy.DROP_NEWEST);
+        blockDispatcherThread(dispatcher);
+
+        for (int i = 1; i <= 5; i++) {
+            dispatcher.onMessageReceived(new TestMessage("message" + i));
+        }
+        mCallback.mRelease.countDown();
+
+        mCallback.awaitEvents(3);
+        assertEquals(3, mCallback.mEvents.size());
+        assertEquals("message1", mCallback.mEvents.get(1));
+        assertEquals("message2", mCallback.mEvents.get(2));
+    }
+
+    @Test
+    public void failuresAreNotDroppedWhenQueueIsFull() throws InterruptedException {
+        EidMessageDispatcher dispatcher = new EidMessageDispatcher(mCallback, 1,
+                EidMessageDispatcher.OverflowPolicy.DROP_OLDEST);
+        Throwable failure = new Exception("failed");
+        blockDispatcherThread(dispatcher);
+
+        dispatcher.onFailed(failure);
+        dispatcher.onMessageReceived(new TestMessage("message1"));
+        dispatcher.onMessageReceived(new TestMessage("message2"));
+        mCallback.mRelease.countDown();
+
+        mCallback.awaitEvents(3);
+        assertEquals(3, mCallback.mEvents.size());
+        assertEquals(failure, mCallback.mEvents.get(1));
+        assertEquals("message2", mCallback.mEvents.get(2));
+    }
+
+    @Test
+    public void nothingIsDeliveredAfterDisposeReturns() throws InterruptedException {
+        EidMessageDispatcher dispatcher = new EidMessageDispatcher(mCallback);
+        blockDispatcherThread(dispatcher);
+        dispatcher.onMessageReceived(new TestMessage("queued"));
+        dispatcher.onFailed(new Exception("queued"));
+
+        Thread disposer = new Thread(dispatcher::dispose);
+        disposer.start();
+        // dispose waits for the delivery in progress
+        disposer.join(200);
+        assertTrue(disposer.isAlive());
+
+        mCallback.mRelease.countDown();
+        disposer.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertFalse(disposer.isAlive());
+        assertTrue(dispatcher.isDisposed());
+        dispatcher.onMessageReceived(new TestMessage("late"));
+        dispatcher.onFailed(new Exception("late"));
+
+        flushDispatcherThread();
+        assertEquals(Collections.singletonList("blocking"), mCallback.mEvents);
+    }
+
+    @Test
+    public void disposeFromCallbackDoesNotBlock() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        EidMessageDispatcher[] dispatcher = new EidMessageDispatcher[1];
+        dispatcher[0] = new EidMessageDispatcher(new EidMessageReceivedCallback() {
+            @Override
+            public <M extends EidMessage> void onMessageReceived(M message) {
+                received.add(message.getMessageType());
+                dispatcher[0].dispose();
+                delivered.countDown();
+            }
+
+            @Override
+            public void onFailed(Throwable throwable) {
+                received.add(throwable.getMessage());
+            }
+        });
+
+        dispatcher[0].onMessageReceived(new TestMessage("first"));
+        dispatcher[0].onMessageReceived(new TestMessage("second"));
+
+        assertTrue(delivered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        flushDispatcherThread();
+        assertEquals(Collections.singletonList("first"), received);
+    }
+
+    private void blockDispatcherThread(EidMessageDispatcher dispatcher) throws InterruptedException {
+        mCallback.mBlock = true;
+        dispatcher.onMessageReceived(new TestMessage("blocking"));
+        assertTrue(mCallback.mBlocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    // the dispatcher thread is shared, so a second dispatcher only runs once the first is drained
+    private void flushDispatcherThread() throws InterruptedException {
+        RecordingCallback flushCallback = new RecordingCallback();
+        new EidMessageDispatcher(flushCallback).onMessageReceived(new TestMessage("flush"));
+        flushCallback.awaitEvents(1);
+    }
+
+    private static class RecordingCallback implements EidMessageReceivedCallback {
+
+        private final List<Object> mEvents = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch mBlocked = new CountDownLatch(1);
+        private final CountDownLatch mRelease = new CountDownLatch(1);
+        private volatile boolean mBlock;
+
+        @Override
+        public <M extends EidMessage> void onMessageReceived(M message) {
+            mEvents.add(message.getMessageType());
+            if (mBlock) {
+                mBlock = false;
+                mBlocked.countDown();
+                try {
+                    mRelease.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void onFailed(Throwable throwable) {
+            mEvents.add(throwable);
+        }
+
+        private void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+            while (mEvents.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static class TestMessage extends EidMessage {
+
+        private final String mType;
+
+        private TestMessage(String type) {
+            mType = type;
+        }
+
+        @Override
+        public String getMessageType() {
+            return mType;
+        }
+    }
+}
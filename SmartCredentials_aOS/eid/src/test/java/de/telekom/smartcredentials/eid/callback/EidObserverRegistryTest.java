@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.eid.callback;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import de.telekom.smartcredentials.core.eid.callbacks.EidMessageReceivedCallback;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class EidObserverRegistryTest {
+
+    private EidObserverRegistry mRegistry;
+
+    @Before
+    public void setUp() {
+        mRegistry = new EidObserverRegistry();
+    }
+
+    @Test
+    public void attachIgnoresNullAndDuplicateObservers() {
+        EidCallbackObserver observer = Mockito.mock(EidCallbackObserver.class);
+
+        mRegistry.attach(observer);
+        mRegistry.attach(observer);
+        mRegistry.attach(null);
+
+        assertEquals(1, mRegistry.size());
+    }
+
+    @Test
+    public void attachDetachesEldestObserverWhenCapIsReached() {
+        EidCallbackObserver[] observers = new EidCallbackObserver[EidObserverRegistry.MAX_OBSERVERS + 1];
+        for (int i = 0; i < observers.length; i++) {
+            observers[i] = Mockito.mock(EidCallbackObserver.class);
+            mRegistry.attach(observers[i]);
+        }
+        EidMessageReceivedCallback callback = Mockito.mock(EidMessageReceivedCallback.class);
+
+        mRegistry.notify(callback);
+
+        assertEquals(EidObserverRegistry.MAX_OBSERVERS, mRegistry.size());
+        verify(observers[0], never()).update(callback);
+        for (int i = 1; i < observers.length; i++) {
+            verify(observers[i], times(1)).update(callback);
+        }
+    }
+
+    @Test
+    public void detachedObserverIsNotNotified() {
+        EidCallbackObserver observer = Mockito.mock(EidCallbackObserver.class);
+        EidMessageReceivedCallback callback = Mockito.mock(EidMessageReceivedCallback.class);
+        mRegistry.attach(observer);
+
+        mRegistry.detach(observer);
+        mRegistry.notify(callback);
+
+        verify(observer, never()).update(callback);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.eid.messages.parser;
+
+import com.google.gson.Gson;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+
+import de.telekom.smartcredentials.core.eid.callbacks.EidMessageReceivedCallback;
+import de.telekom.smartcredentials.eid.messages.ApiLevelMessage;
+import de.telekom.smartcredentials.eid.messages.InsertCardMessage;
+import de.telekom.smartcredentials.eid.messages.SmartEidMessage;
+import de.telekom.smartcredentials.eid.messages.types.EidMessageType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class MessageParserTest {
+
+    private EidMessageReceivedCallback mCallback;
+    private MessageParser mMessageParser;
+
+    @Before
+    public void setUp() {
+        mCallback = Mockito.mock(EidMessageReceivedCallback.class);
+        mMessageParser = new MessageParser(mCallback);
+    }
+
+    @Test
+    public void parseBindsRegisteredType() {
+        SmartEidMessage message = mMessageParser.parse("{\"msg\":\"INSERT_CARD\"}");
+
+        assertTrue(message instanceof InsertCardMessage);
+        assertEquals(EidMessageType.INSERT_CARD.getMessageType(), message.getMessageType());
+    }
+
+    @Test
+    public void parseFindsTypeAfterOtherFields() {
+        SmartEidMessage message = mMessageParser.parse(
+                "{\"error\":null,\"available\":[1,2],\"nested\":{\"msg\":\"AUTH\"},\"current\":2,\"msg\":\"API_LEVEL\"}");
+
+        assertTrue(message instanceof ApiLevelMessage);
+    }
+
+    @Test
+    public void parseBindsApiLevelMessageWithInheritedTypeField() {
+        SmartEidMessage message = mMessageParser.parse(
+                "{\"msg\":\"API_LEVEL\",\"available\":[1,2],\"current\":2}");
+
+        ApiLevelMessage apiLevelMessage = (ApiLevelMessage) message;
+        assertEquals(EidMessageType.API_LEVEL.getMessageType(), apiLevelMessage.getMsg());
+        assertEquals(Arrays.asList(1, 2), apiLevelMessage.getAvailable());
+        assertEquals(2, apiLevelMessage.getCurrent());
+    }
+
+    @Test
+    public void parseFallsBackToSmartEidMessageForUnknownType() {
+        SmartEidMessage message = mMessageParser.parse("{\"msg\":\"NOT_A_TYPE\",\"value\":1}");
+
+        assertEquals(SmartEidMessage.class, message.getClass());
+        assertEquals("NOT_A_TYPE", message.getMessageType());
+    }
+
+    @Test
+    public void parseFallsBackToSmartEidMessageWithoutType() {
+        SmartEidMessage message = mMessageParser.parse("{\"value\":1}");
+
+        assertEquals(SmartEidMessage.class, message.getClass());
+        assertNull(message.getMessageType());
+    }
+
+    @Test
+    public void parseReturnsNullForMalformedMessage() {
+        assertNull(mMessageParser.parse("[\"msg\",\"INSERT_CARD\"]"));
+        assertNull(mMessageParser.parse("{\"msg\":\"API_LEVEL\",\"current\":\"none\"}"));
+        assertNull(mMessageParser.parse(""));
+    }
+
+    @Test
+    public void parseMessageDropsMalformedMessage() {
+        mMessageParser.parseMessage("{\"msg\":");
+
+        verify(mCallback, never()).onMessageReceived(any());
+    }
+
+    @Test
+    public void parseMessageDeliversParsedMessage() {
+        mMessageParser.parseMessage("{\"msg\":\"INSERT_CARD\"}");
+
+        verify(mCallback).onMessageReceived(any(InsertCardMessage.class));
+    }
+
+    @Test
+    public void registryKeepsAdapterOfType() {
+        MessageTypeRegistry registry = new MessageTypeRegistry(new Gson())
+                .register(EidMessageType.INSERT_CARD, InsertCardMessage.class);
+
+        assertSame(registry.getAdapter("INSERT_CARD"), registry.getAdapter("INSERT_CARD"));
+        assertSame(registry.getAdapter(null), registry.getAdapter("UNKNOWN"));
+    }
+
+    @Test
+    public void registerReplacesAdapterOfType() {
+        MessageTypeRegistry registry = new MessageTypeRegistry(new Gson())
+                .register(EidMessageType.API_LEVEL, SmartEidMessage.class);
+        MessageParser parser = new MessageParser(mCallback, registry);
+        assertEquals(SmartEidMessage.class, parser.parse("{\"msg\":\"API_LEVEL\"}").getClass());
+
+        registry.register(EidMessageType.API_LEVEL, ApiLevelMessage.class);
+
+        assertEquals(ApiLevelMessage.class, parser.parse("{\"msg\":\"API_LEVEL\"}").getClass());
+    }
+}
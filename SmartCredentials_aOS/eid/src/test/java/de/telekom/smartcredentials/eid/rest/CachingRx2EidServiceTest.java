@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.eid.rest;
+
+import android.os.SystemClock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import io.reactivex.Observable;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(SystemClock.class)
+public class CachingRx2EidServiceTest {
+
+    private static final long TTL_MILLIS = 1000;
+    private static final String PRODUCTION_URL = "https://production/";
+    private static final String TEST_URL = "https://test/";
+    private static final String ERROR_CODE = "code";
+    private static final String VERSION = "1.0";
+
+    private Rx2EidService mService;
+    private EidResponseCache mCache;
+
+    @Before
+    public void setUp() {
+        PowerMockito.mockStatic(SystemClock.class);
+        when(SystemClock.elapsedRealtime()).thenReturn(0L);
+
+        mService = Mockito.mock(Rx2EidService.class);
+        when(mService.getError(ERROR_CODE)).thenReturn(Observable.just("error"));
+        when(mService.checkPatchLevel(VERSION)).thenReturn(Observable.just(true));
+        mCache = new EidResponseCache(TTL_MILLIS, 4);
+    }
+
+    @Test
+    public void repeatedLookupsAreServedFromCache() {
+        CachingRx2EidService cachingService = new CachingRx2EidService(mService, PRODUCTION_URL, mCache);
+
+        cachingService.getError(ERROR_CODE).test().assertValue("error");
+        cachingService.getError(ERROR_CODE).test().assertValue("error");
+        cachingService.checkPatchLevel(VERSION).test().assertValue(true);
+        cachingService.checkPatchLevel(VERSION).test().assertValue(true);
+
+        verify(mService, times(1)).getError(ERROR_CODE);
+        verify(mService, times(1)).checkPatchLevel(VERSION);
+    }
+
+    @Test
+    public void lookupIsRepeatedAfterTtl() {
+        CachingRx2EidService cachingService = new CachingRx2EidService(mService, PRODUCTION_URL, mCache);
+
+        cachingService.getError(ERROR_CODE).test().assertValue("error");
+        when(SystemClock.elapsedRealtime()).thenReturn(TTL_MILLIS);
+        cachingService.getError(ERROR_CODE).test().assertValue("error");
+
+        verify(mService, times(2)).getError(ERROR_CODE);
+    }
+
+    @Test
+    public void backendsDoNotShareAnswers() {
+        new CachingRx2EidService(mService, PRODUCTION_URL, mCache).getError(ERROR_CODE).test();
+        new CachingRx2EidService(mService, TEST_URL, mCache).getError(ERROR_CODE).test();
+
+        verify(mService, times(2)).getError(ERROR_CODE);
+    }
+
+    @Test
+    public void failuresAreNotCached() {
+        when(mService.checkPatchLevel(VERSION)).thenReturn(Observable.error(new Exception()));
+        CachingRx2EidService cachingService = new CachingRx2EidService(mService, PRODUCTION_URL, mCache);
+
+        cachingService.checkPatchLevel(VERSION).test().assertError(Exception.class);
+        cachingService.checkPatchLevel(VERSION).test().assertError(Exception.class);
+
+        verify(mService, times(2)).checkPatchLevel(VERSION);
+    }
+
+    @Test
+    public void clearDropsCachedAnswers() {
+        CachingRx2EidService cachingService = new CachingRx2EidService(mService, PRODUCTION_URL, mCache);
+
+        cachingService.getError(ERROR_CODE).test();
+        mCache.clear();
+        cachingService.getError(ERROR_CODE).test();
+
+        verify(mService, times(2)).getError(ERROR_CODE);
+    }
+}
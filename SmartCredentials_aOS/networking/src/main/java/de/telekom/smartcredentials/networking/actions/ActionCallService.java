@@ -35,11 +35,9 @@ import de.telekom.smartcredentials.core.model.item.ItemDomainModel;
 import de.telekom.smartcredentials.core.model.request.FailedRequest;
 import de.telekom.smartcredentials.core.model.request.Method;
 import de.telekom.smartcredentials.core.model.request.NetworkConnectionType;
+import de.telekom.smartcredentials.networking.di.ObjectGraphCreatorNetworking;
 import de.telekom.smartcredentials.networking.itemdatamodel.RequestParamsBuilder;
-import de.telekom.smartcredentials.networking.request.generic.GenericHttpHandler;
-import de.telekom.smartcredentials.networking.request.generic.GenericService;
 import de.telekom.smartcredentials.core.plugins.callbacks.ServicePluginCallback;
-import okhttp3.CertificatePinner;
 import okhttp3.Dns;
 
 @SuppressWarnings("unused")
@@ -76,10 +74,8 @@ public class ActionCallService extends SmartCredentialsAction {
         }
 
         ServicePluginCallback requestCallback = getServicePluginCallback(callback);
-        GenericService service = new GenericService(new CertificatePinner.Builder());
-        GenericHttpHandler genericHttpHandler = new GenericHttpHandler(service);
-
-        genericHttpHandler.performRequest(context, generateRequestParams(), requestCallback);
+        ObjectGraphCreatorNetworking.getInstance().provideSharedHttpHandler()
+                .performRequest(context, generateRequestParams(), requestCallback);
 
     }
 
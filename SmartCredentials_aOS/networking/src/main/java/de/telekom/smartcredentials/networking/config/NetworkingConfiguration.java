@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.config;
+
+import androidx.annotation.NonNull;
+
+import de.telekom.smartcredentials.networking.request.pipeline.RequestPipeline;
+import de.telekom.smartcredentials.networking.request.pipeline.RetryPolicy;
+
+/**
+ * Tunes how the networking module sends generic requests: the {@link RetryPolicy} applied to
+ * requests failing with a transient error and how many requests may run at the same time against
+ * a single host. Both default to the values of {@link RequestPipeline}.
+ */
+public class NetworkingConfiguration {
+
+    private final RetryPolicy mRetryPolicy;
+    private final int mMaxRequestsPerHost;
+
+    private NetworkingConfiguration(ConfigurationBuilder builder) {
+        mRetryPolicy = builder.retryPolicy;
+        mMaxRequestsPerHost = builder.maxRequestsPerHost;
+    }
+
+    @NonNull
+    public RetryPolicy getRetryPolicy() {
+        return mRetryPolicy;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return mMaxRequestsPerHost;
+    }
+
+    public static class ConfigurationBuilder {
+        private RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+        private int maxRequestsPerHost = RequestPipeline.DEFAULT_MAX_REQUESTS_PER_HOST;
+
+        /**
+         * @param retryPolicy policy for retrying failed requests; {@link RetryPolicy#NONE} disables
+         *                    retries
+         */
+        public ConfigurationBuilder setRetryPolicy(@NonNull RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * @param maxRequestsPerHost number of requests which may run at the same time against a
+         *                           single host; further requests wait for one of them to finish
+         */
+        public ConfigurationBuilder setMaxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        public NetworkingConfiguration build() {
+            if (retryPolicy == null) {
+                throw new IllegalArgumentException("retryPolicy must not be null");
+            }
+            if (maxRequestsPerHost < 1) {
+                throw new IllegalArgumentException("maxRequestsPerHost must be positive");
+            }
+            return new NetworkingConfiguration(this);
+        }
+    }
+}
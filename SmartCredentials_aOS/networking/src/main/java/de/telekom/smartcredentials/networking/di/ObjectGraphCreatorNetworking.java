@@ -19,9 +19,13 @@ package de.telekom.smartcredentials.networking.di;
 import androidx.annotation.NonNull;
 
 import de.telekom.smartcredentials.core.controllers.CoreController;
+import de.telekom.smartcredentials.core.handlers.HttpHandler;
+import de.telekom.smartcredentials.networking.config.NetworkingConfiguration;
 import de.telekom.smartcredentials.networking.controllers.NetworkingController;
 import de.telekom.smartcredentials.networking.request.generic.GenericHttpHandler;
 import de.telekom.smartcredentials.networking.request.generic.GenericService;
+import de.telekom.smartcredentials.networking.request.pipeline.RequestPipeline;
+import de.telekom.smartcredentials.networking.request.utils.HttpClientRegistry;
 import okhttp3.CertificatePinner;
 
 /**
@@ -31,11 +35,14 @@ public class ObjectGraphCreatorNetworking {
 
     private static ObjectGraphCreatorNetworking sInstance;
 
+    private NetworkingConfiguration mConfiguration = new NetworkingConfiguration.ConfigurationBuilder().build();
+    private HttpHandler mSharedHttpHandler;
+
     private ObjectGraphCreatorNetworking() {
         // required empty constructor
     }
 
-    public static ObjectGraphCreatorNetworking getInstance() {
+    public static synchronized ObjectGraphCreatorNetworking getInstance() {
         if (sInstance == null) {
             sInstance = new ObjectGraphCreatorNetworking();
         }
@@ -43,12 +50,33 @@ public class ObjectGraphCreatorNetworking {
     }
 
     @NonNull
-    public NetworkingController provideApiControllerNetworking(CoreController coreController) {
-        return new NetworkingController(coreController,
-                new GenericHttpHandler(new GenericService(new CertificatePinner.Builder())));
+    public synchronized NetworkingController provideApiControllerNetworking(CoreController coreController,
+                                                                           NetworkingConfiguration configuration) {
+        mConfiguration = configuration;
+        mSharedHttpHandler = null;
+        return new NetworkingController(coreController, createHttpHandler());
+    }
+
+    /**
+     * @return handler shared by the actions, so that repeated calls reuse the registered HTTP
+     * clients; it follows the configuration the module was last initialized with
+     */
+    @NonNull
+    public synchronized HttpHandler provideSharedHttpHandler() {
+        if (mSharedHttpHandler == null) {
+            mSharedHttpHandler = createHttpHandler();
+        }
+        return mSharedHttpHandler;
+    }
+
+    private HttpHandler createHttpHandler() {
+        return new RequestPipeline(new GenericHttpHandler(new GenericService(new CertificatePinner.Builder())),
+                mConfiguration.getRetryPolicy(), mConfiguration.getMaxRequestsPerHost());
     }
 
-    public static void destroy() {
+    public static synchronized void destroy() {
+        GenericService.releaseNetworkBindings();
+        HttpClientRegistry.clear();
         sInstance = null;
     }
 }
@@ -23,6 +23,7 @@ import de.telekom.smartcredentials.core.api.NetworkingApi;
 import de.telekom.smartcredentials.core.blacklisting.SmartCredentialsModuleSet;
 import de.telekom.smartcredentials.core.controllers.CoreController;
 import de.telekom.smartcredentials.core.exceptions.InvalidCoreApiException;
+import de.telekom.smartcredentials.networking.config.NetworkingConfiguration;
 import de.telekom.smartcredentials.networking.controllers.NetworkingController;
 import de.telekom.smartcredentials.networking.di.ObjectGraphCreatorNetworking;
 
@@ -39,6 +40,12 @@ public class SmartCredentialsNetworkingFactory {
 
     @NonNull
     public static synchronized NetworkingApi initSmartCredentialsNetworkingModule(@NonNull final CoreApi coreApi) {
+        return initSmartCredentialsNetworkingModule(coreApi, new NetworkingConfiguration.ConfigurationBuilder().build());
+    }
+
+    @NonNull
+    public static synchronized NetworkingApi initSmartCredentialsNetworkingModule(@NonNull final CoreApi coreApi,
+                                                                                  @NonNull final NetworkingConfiguration configuration) {
         CoreController coreController;
 
         if (coreApi instanceof CoreController) {
@@ -47,7 +54,7 @@ public class SmartCredentialsNetworkingFactory {
             throw new InvalidCoreApiException(SmartCredentialsModuleSet.NETWORKING_MODULE.getModuleName());
         }
         sNetworkingController = ObjectGraphCreatorNetworking.getInstance()
-                .provideApiControllerNetworking(coreController);
+                .provideApiControllerNetworking(coreController, configuration);
         return sNetworkingController;
     }
 
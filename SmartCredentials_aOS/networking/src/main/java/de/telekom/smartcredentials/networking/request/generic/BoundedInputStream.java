@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.request.generic;
+
+import androidx.annotation.NonNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream failing with an {@link IOException} as soon as more than the allowed number of bytes
+ * were read from it, so that a response not announcing its size still cannot grow unbounded.
+ */
+class BoundedInputStream extends FilterInputStream {
+
+    static final String LIMIT_EXCEEDED_MESSAGE = "Response body exceeds %d bytes";
+
+    private final long mMaxBytes;
+    private long mCount;
+
+    BoundedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        mMaxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        if (value != -1) {
+            count(1);
+        }
+        return value;
+    }
+
+    @Override
+    public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long bytes) throws IOException {
+        mCount += bytes;
+        if (mCount > mMaxBytes) {
+            throw new IOException(String.format(LIMIT_EXCEEDED_MESSAGE, mMaxBytes));
+        }
+    }
+}
@@ -18,7 +18,12 @@ package de.telekom.smartcredentials.networking.request.generic;
 
 import androidx.annotation.NonNull;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+
+import de.telekom.smartcredentials.core.networking.StreamedResponse;
+import de.telekom.smartcredentials.core.networking.StreamingServiceCallback;
 
 import de.telekom.smartcredentials.core.plugins.callbacks.ServicePluginCallback;
 import de.telekom.smartcredentials.networking.request.models.FailedRequest;
@@ -27,22 +32,47 @@ import de.telekom.smartcredentials.core.networking.RequestFailureLevel;
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 import static de.telekom.smartcredentials.networking.request.models.enums.RequestFailure.GENERIC_FAILURE;
+import static de.telekom.smartcredentials.networking.request.models.enums.RequestFailure.RESPONSE_TOO_LARGE;
 
 public class GenericRequestCallback implements Callback {
 
     static final String UNEXPECTED_CODE_MESSAGE = "Unexpected code: ";
+    static final String RESPONSE_TOO_LARGE_MESSAGE = "Response body of %d bytes exceeds the limit of %d bytes";
 
     private final ServicePluginCallback mServicePluginCallback;
+    private final long mMaxResponseBytes;
 
     GenericRequestCallback(ServicePluginCallback servicePluginCallback) {
+        this(servicePluginCallback, 0);
+    }
+
+    /**
+     * @param maxResponseBytes maximum accepted response body size; a value lower or equal to 0
+     *                         means no limit
+     */
+    GenericRequestCallback(ServicePluginCallback servicePluginCallback, long maxResponseBytes) {
         mServicePluginCallback = servicePluginCallback;
+        mMaxResponseBytes = maxResponseBytes;
     }
 
     @Override
     public void onResponse(@NonNull Call call, @NonNull final Response response) {
-        mServicePluginCallback.onResponse(response);
+        ResponseBody body = response.body();
+        long contentLength = body != null ? body.contentLength() : -1;
+        if (mMaxResponseBytes > 0 && contentLength > mMaxResponseBytes) {
+            response.close();
+            notifyRequestFailed(RESPONSE_TOO_LARGE, String.format(RESPONSE_TOO_LARGE_MESSAGE, contentLength, mMaxResponseBytes));
+            return;
+        }
+
+        if (mServicePluginCallback instanceof StreamingServiceCallback) {
+            ((StreamingServiceCallback) mServicePluginCallback).onResponse(toStreamedResponse(response, body, contentLength));
+        } else {
+            mServicePluginCallback.onResponse(response);
+        }
     }
 
     @Override
@@ -50,6 +80,15 @@ public class GenericRequestCallback implements Callback {
         notifyRequestFailed(GENERIC_FAILURE, UNEXPECTED_CODE_MESSAGE + e.getMessage());
     }
 
+    private StreamedResponse toStreamedResponse(Response response, ResponseBody body, long contentLength) {
+        InputStream inputStream = body != null ? body.byteStream() : new ByteArrayInputStream(new byte[0]);
+        if (mMaxResponseBytes > 0) {
+            inputStream = new BoundedInputStream(inputStream, mMaxResponseBytes);
+        }
+        return new StreamedResponse(response.code(), response.message(), response.headers().toMultimap(),
+                contentLength, inputStream);
+    }
+
     void notifyRequestFailed(RequestFailure requestFailure, String message) {
         FailedRequest request = FailedRequest.newInstance(RequestFailureLevel.REQUEST, requestFailure, message);
         mServicePluginCallback.onFailed(request);
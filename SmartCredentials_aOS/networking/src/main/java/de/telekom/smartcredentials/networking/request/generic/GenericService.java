@@ -48,6 +48,32 @@ public class GenericService implements Service {
         mCertificatePinnerBuilder = certificatePinnerBuilder;
     }
 
+    /**
+     * Unregisters the network callbacks kept for the connection types requests were bound to.
+     */
+    public static void releaseNetworkBindings() {
+        NetworkBindingManager.releaseInstance();
+    }
+
+    /**
+     * Android limits the network callbacks a process may register, so the difference between the
+     * two counters is worth monitoring. Both restart from zero once the bindings are released.
+     *
+     * @return number of network requests made to bind requests to a connection type
+     */
+    public static int getNetworkRequestCount() {
+        NetworkBindingManager networkBindingManager = NetworkBindingManager.peekInstance();
+        return networkBindingManager == null ? 0 : networkBindingManager.getRequestCount();
+    }
+
+    /**
+     * @return number of network callbacks unregistered since the bindings were last released
+     */
+    public static int getNetworkUnregisterCount() {
+        NetworkBindingManager networkBindingManager = NetworkBindingManager.peekInstance();
+        return networkBindingManager == null ? 0 : networkBindingManager.getUnregisterCount();
+    }
+
     @Override
     public void prepareSocketFactory(Context context, ConnectionType connectionType, SocketFactoryCallback socketFactoryCallback) {
         GenericSocketFactory.createSocketFactory(context, connectionType, socketFactoryCallback);
@@ -64,7 +90,7 @@ public class GenericService implements Service {
         try {
             buildCallFactory(requestParams, mCertificatePinnerBuilder)
                     .newCall(buildRequest(httpUrl, requestParams))
-                    .enqueue(getCallback(servicePluginCallback));
+                    .enqueue(getCallback(servicePluginCallback, requestParams.getMaxResponseBytes()));
         } catch (IOException | CertificateException | NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
             servicePluginCallback.onFailed(FailedRequest.newInstance(RequestFailureLevel.REQUEST, e, e.getMessage()));
         } catch (IllegalArgumentException e) {
@@ -75,4 +101,8 @@ public class GenericService implements Service {
     Callback getCallback(ServicePluginCallback servicePluginCallback) {
         return new GenericRequestCallback(servicePluginCallback);
     }
+
+    Callback getCallback(ServicePluginCallback servicePluginCallback, long maxResponseBytes) {
+        return new GenericRequestCallback(servicePluginCallback, maxResponseBytes);
+    }
 }
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.request.generic;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.SocketFactory;
+
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+import de.telekom.smartcredentials.networking.request.models.enums.ConnectionType;
+import de.telekom.smartcredentials.networking.request.models.enums.SocketFactoryFailure;
+import de.telekom.smartcredentials.networking.request.socket.SocketFactoryCallback;
+
+import static de.telekom.smartcredentials.networking.request.generic.ConnectionTypeRequest.getNetworkRequest;
+import static de.telekom.smartcredentials.networking.request.models.enums.SocketFactoryFailure.TOO_MANY_REQUESTS;
+
+/**
+ * Keeps a single {@link ConnectivityManager.NetworkCallback} registered per {@link ConnectionType}
+ * and caches the bound network's {@link SocketFactory} while that network is available. Requests
+ * arriving while the network is being acquired are queued and all notified by the same callback,
+ * so a burst of requests costs one {@link ConnectivityManager#requestNetwork} call instead of one
+ * per request. A binding which has not been used for {@link #IDLE_RELEASE_MILLIS} is unregistered,
+ * so that the requested transport is not kept up longer than needed.
+ */
+class NetworkBindingManager {
+
+    static final long IDLE_RELEASE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final String TAG = NetworkBindingManager.class.getSimpleName();
+
+    private static NetworkBindingManager sInstance;
+
+    private final ConnectivityManager mConnectivityManager;
+    private final Handler mHandler;
+    private final Map<ConnectionType, Binding> mBindings = new EnumMap<>(ConnectionType.class);
+    private final AtomicInteger mRequestCount = new AtomicInteger();
+    private final AtomicInteger mUnregisterCount = new AtomicInteger();
+
+    NetworkBindingManager(ConnectivityManager connectivityManager, Handler handler) {
+        mConnectivityManager = connectivityManager;
+        mHandler = handler;
+    }
+
+    static synchronized NetworkBindingManager getInstance(Context context) {
+        if (sInstance == null) {
+            ConnectivityManager connectivityManager = (ConnectivityManager) context.getApplicationContext()
+                    .getSystemService(Context.CONNECTIVITY_SERVICE);
+            sInstance = new NetworkBindingManager(connectivityManager, new Handler(Looper.getMainLooper()));
+        }
+        return sInstance;
+    }
+
+    /**
+     * Releases every binding of the shared instance, if one was created, and drops the instance.
+     */
+    static synchronized void releaseInstance() {
+        if (sInstance != null) {
+            sInstance.releaseAll();
+            sInstance = null;
+        }
+    }
+
+    /**
+     * @return the shared instance, or null if no request was bound to a network since it was
+     * last released
+     */
+    static synchronized NetworkBindingManager peekInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Delivers the {@link SocketFactory} of a network matching the given connection type, either
+     * straight away if one is already bound or once the system makes one available.
+     */
+    void acquire(ConnectionType connectionType, SocketFactoryCallback socketFactoryCallback) {
+        UnavailableNetworkListener unavailableNetworkListener = UnavailableNetworkListener.getInstance();
+        Waiter waiter = null;
+        SocketFactory socketFactory;
+        List<Waiter> failedWaiters;
+        synchronized (mBindings) {
+            Binding binding = mBindings.get(connectionType);
+            if (binding == null) {
+                binding = new Binding(connectionType);
+                mBindings.put(connectionType, binding);
+            }
+            binding.scheduleIdleRelease();
+            socketFactory = binding.mSocketFactory;
+            if (socketFactory == null) {
+                waiter = new Waiter(binding, socketFactoryCallback, unavailableNetworkListener);
+                binding.mWaiters.add(waiter);
+            }
+            if (socketFactory != null || binding.mRegistered || register(binding)) {
+                failedWaiters = null;
+            } else {
+                failedWaiters = drainWaiters(binding);
+                mBindings.remove(connectionType);
+            }
+        }
+
+        if (failedWaiters != null) {
+            notifyFailed(failedWaiters, TOO_MANY_REQUESTS);
+            System.exit(0);
+        } else if (socketFactory != null) {
+            socketFactoryCallback.onSocketFactoryCreated(socketFactory);
+        } else {
+            unavailableNetworkListener.listenNetworkUnavailable(waiter);
+        }
+    }
+
+    /**
+     * Unregisters every network callback and drops all cached socket factories. Requests still
+     * waiting for a network are failed.
+     */
+    void releaseAll() {
+        List<Waiter> waiters = new ArrayList<>();
+        synchronized (mBindings) {
+            for (Binding binding : new ArrayList<>(mBindings.values())) {
+                release(binding);
+                waiters.addAll(drainWaiters(binding));
+            }
+        }
+        notifyFailed(waiters, SocketFactoryFailure.NETWORK_UNAVAILABLE);
+    }
+
+    /**
+     * @return number of {@link ConnectivityManager#requestNetwork} calls made by this instance
+     */
+    int getRequestCount() {
+        return mRequestCount.get();
+    }
+
+    /**
+     * @return number of network callbacks unregistered by this instance
+     */
+    int getUnregisterCount() {
+        return mUnregisterCount.get();
+    }
+
+    int getActiveBindingCount() {
+        synchronized (mBindings) {
+            return mBindings.size();
+        }
+    }
+
+    private boolean register(Binding binding) {
+        try {
+            mConnectivityManager.requestNetwork(getNetworkRequest(binding.mConnectionType), binding);
+            binding.mRegistered = true;
+            mRequestCount.incrementAndGet();
+            return true;
+        } catch (RuntimeException e) {
+            // despite calling unregister for all network callbacks, the system leaked callbacks for this pid.
+            // api <= 26 throws IllegalStateExceptions, android > 26 throws TooManyRequestsExceptions. crashes
+            // were observed on several android 7 and 8 devices. killing the process means we get a new pid
+            // and can request networks again. we keep track of request and unregister counts to learn about
+            // device specific limits. the limit for api <= 26 so far was roughly at ~90 requests/unregister.
+            ApiLoggerResolver.logError(TAG, "requestNetwork failed: requested " + mRequestCount.get()
+                    + ", unregistered: " + mUnregisterCount.get());
+            return false;
+        }
+    }
+
+    private void release(Binding binding) {
+        mHandler.removeCallbacks(binding.mIdleRelease);
+        mBindings.remove(binding.mConnectionType);
+        binding.mNetwork = null;
+        binding.mSocketFactory = null;
+        if (binding.mRegistered) {
+            binding.mRegistered = false;
+            try {
+                mConnectivityManager.unregisterNetworkCallback(binding);
+                mUnregisterCount.incrementAndGet();
+            } catch (IllegalArgumentException e) {
+                ApiLoggerResolver.logError(TAG, "network callback already unregistered");
+            }
+        }
+    }
+
+    /**
+     * Removes the requests waiting on the binding; must be called while holding the bindings lock,
+     * and the returned waiters notified after releasing it.
+     */
+    private static List<Waiter> drainWaiters(Binding binding) {
+        List<Waiter> waiters = new ArrayList<>(binding.mWaiters);
+        binding.mWaiters.clear();
+        return waiters;
+    }
+
+    private static void notifyFailed(List<Waiter> waiters, SocketFactoryFailure failure) {
+        for (Waiter waiter : waiters) {
+            waiter.onSocketFactoryFailed(failure);
+        }
+    }
+
+    class Binding extends ConnectivityManager.NetworkCallback {
+
+        private final ConnectionType mConnectionType;
+        private final List<Waiter> mWaiters = new ArrayList<>();
+        private final Runnable mIdleRelease = this::releaseIfIdle;
+        private boolean mRegistered;
+        private Network mNetwork;
+        private SocketFactory mSocketFactory;
+
+        private Binding(ConnectionType connectionType) {
+            mConnectionType = connectionType;
+        }
+
+        @Override
+        public void onAvailable(Network network) {
+            List<Waiter> waiters;
+            SocketFactory socketFactory = network.getSocketFactory();
+            synchronized (mBindings) {
+                if (!mRegistered) {
+                    return;
+                }
+                mNetwork = network;
+                mSocketFactory = socketFactory;
+                waiters = new ArrayList<>(mWaiters);
+                mWaiters.clear();
+            }
+            for (Waiter waiter : waiters) {
+                waiter.onSocketFactoryCreated(socketFactory);
+            }
+        }
+
+        @Override
+        public void onLost(Network network) {
+            synchronized (mBindings) {
+                if (network.equals(mNetwork)) {
+                    mNetwork = null;
+                    mSocketFactory = null;
+                }
+            }
+        }
+
+        @Override
+        public void onUnavailable() {
+            List<Waiter> waiters;
+            synchronized (mBindings) {
+                release(this);
+                waiters = drainWaiters(this);
+            }
+            notifyFailed(waiters, SocketFactoryFailure.NETWORK_UNAVAILABLE);
+        }
+
+        private void scheduleIdleRelease() {
+            mHandler.removeCallbacks(mIdleRelease);
+            mHandler.postDelayed(mIdleRelease, IDLE_RELEASE_MILLIS);
+        }
+
+        private void releaseIfIdle() {
+            synchronized (mBindings) {
+                if (!mWaiters.isEmpty()) {
+                    scheduleIdleRelease();
+                    return;
+                }
+                if (mBindings.get(mConnectionType) == this) {
+                    release(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Wraps a caller's callback so that it is notified exactly once, either by the bound network
+     * or by the {@link UnavailableNetworkListener} timeout, whichever comes first.
+     */
+    private class Waiter implements SocketFactoryCallback {
+
+        private final Binding mBinding;
+        private final SocketFactoryCallback mSocketFactoryCallback;
+        private final UnavailableNetworkListener mUnavailableNetworkListener;
+        private final AtomicBoolean mDone = new AtomicBoolean();
+
+        private Waiter(Binding binding, SocketFactoryCallback socketFactoryCallback,
+                       UnavailableNetworkListener unavailableNetworkListener) {
+            mBinding = binding;
+            mSocketFactoryCallback = socketFactoryCallback;
+            mUnavailableNetworkListener = unavailableNetworkListener;
+        }
+
+        @Override
+        public void onSocketFactoryCreated(SocketFactory socketFactory) {
+            if (mDone.compareAndSet(false, true)) {
+                mUnavailableNetworkListener.unregister();
+                mSocketFactoryCallback.onSocketFactoryCreated(socketFactory);
+            }
+        }
+
+        @Override
+        public void onSocketFactoryFailed(SocketFactoryFailure socketFactoryFailure) {
+            if (mDone.compareAndSet(false, true)) {
+                mUnavailableNetworkListener.unregister();
+                synchronized (mBindings) {
+                    mBinding.mWaiters.remove(this);
+                }
+                mSocketFactoryCallback.onSocketFactoryFailed(socketFactoryFailure);
+            }
+        }
+    }
+}
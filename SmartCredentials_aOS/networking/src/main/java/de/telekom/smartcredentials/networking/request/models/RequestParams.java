@@ -25,6 +25,7 @@ import javax.net.SocketFactory;
 
 import de.telekom.smartcredentials.networking.request.models.enums.ConnectionType;
 import de.telekom.smartcredentials.networking.request.models.enums.HttpCrud;
+import de.telekom.smartcredentials.networking.request.utils.StreamRequestBody;
 import okhttp3.FormBody;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
@@ -38,11 +39,18 @@ public class RequestParams extends de.telekom.smartcredentials.core.model.reques
 
     public RequestParams(de.telekom.smartcredentials.core.model.request.RequestParams requestParams) {
         super(requestParams);
-        this.mRequestBody = (!TextUtils.isEmpty(getBody())) ? FormBody.create(MediaType.parse(getBodyType()), getBody().getBytes()) : null;
+        this.mRequestBody = createRequestBody();
         this.mHttpCrud = HttpCrud.map(getMethod());
         this.mConnectionType = ConnectionType.map(getNetworkConnectionType());
     }
 
+    private RequestBody createRequestBody() {
+        if (hasRequestBodyStream()) {
+            return new StreamRequestBody(MediaType.parse(getBodyType()), getRequestBodyStream(), getRequestBodyLength());
+        }
+        return (!TextUtils.isEmpty(getBody())) ? FormBody.create(MediaType.parse(getBodyType()), getBody().getBytes()) : null;
+    }
+
     public void setSocketFactory(SocketFactory socketFactory) {
         mSocketFactory = socketFactory;
     }
@@ -19,5 +19,6 @@ package de.telekom.smartcredentials.networking.request.models.enums;
 public enum RequestFailure {
     NULL_PARSED_URL,
     GENERIC_FAILURE,
-    INVALID_PARAMETERS
+    INVALID_PARAMETERS,
+    RESPONSE_TOO_LARGE
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.request.pipeline;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Caps the number of requests running at the same time against a single host. Requests over the
+ * cap are queued in arrival order and started as soon as a running one releases its slot.
+ */
+class HostConcurrencyLimiter {
+
+    private final int mMaxPerHost;
+    private final Map<String, HostSlots> mHosts = new HashMap<>();
+
+    HostConcurrencyLimiter(int maxPerHost) {
+        if (maxPerHost < 1) {
+            throw new IllegalArgumentException("maxPerHost must be positive");
+        }
+        mMaxPerHost = maxPerHost;
+    }
+
+    /**
+     * Runs the task right away if the host has a free slot, otherwise once one is released. Every
+     * started task must be followed by exactly one call to {@link #release(String)}.
+     */
+    void execute(String host, Runnable task) {
+        synchronized (mHosts) {
+            HostSlots slots = mHosts.get(host);
+            if (slots == null) {
+                slots = new HostSlots();
+                mHosts.put(host, slots);
+            }
+            if (slots.mActive >= mMaxPerHost) {
+                slots.mPending.add(task);
+                return;
+            }
+            slots.mActive++;
+        }
+        task.run();
+    }
+
+    void release(String host) {
+        Runnable next;
+        synchronized (mHosts) {
+            HostSlots slots = mHosts.get(host);
+            if (slots == null) {
+                return;
+            }
+            next = slots.mPending.poll();
+            if (next == null) {
+                slots.mActive--;
+                if (slots.mActive == 0) {
+                    mHosts.remove(host);
+                }
+                return;
+            }
+        }
+        next.run();
+    }
+
+    int getActiveCount(String host) {
+        synchronized (mHosts) {
+            HostSlots slots = mHosts.get(host);
+            return slots != null ? slots.mActive : 0;
+        }
+    }
+
+    int getPendingCount(String host) {
+        synchronized (mHosts) {
+            HostSlots slots = mHosts.get(host);
+            return slots != null ? slots.mPending.size() : 0;
+        }
+    }
+
+    private static final class HostSlots {
+        private final Queue<Runnable> mPending = new ArrayDeque<>();
+        private int mActive;
+    }
+}
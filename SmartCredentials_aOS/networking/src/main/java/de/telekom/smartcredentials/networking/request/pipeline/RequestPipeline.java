@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.request.pipeline;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import de.telekom.smartcredentials.core.handlers.HttpHandler;
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+import de.telekom.smartcredentials.core.model.request.FailedRequest;
+import de.telekom.smartcredentials.core.model.request.Method;
+import de.telekom.smartcredentials.core.model.request.RequestParams;
+import de.telekom.smartcredentials.core.networking.RequestFailureLevel;
+import de.telekom.smartcredentials.core.networking.StreamedResponse;
+import de.telekom.smartcredentials.core.networking.StreamingServiceCallback;
+import de.telekom.smartcredentials.core.plugins.callbacks.ServicePluginCallback;
+import de.telekom.smartcredentials.networking.request.models.enums.RequestFailure;
+import de.telekom.smartcredentials.networking.request.models.enums.SocketFactoryFailure;
+import okhttp3.HttpUrl;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * {@link HttpHandler} stage placed in front of the handler actually performing requests. It
+ * <ul>
+ * <li>coalesces identical GET requests while one of them is in flight, so that all callers are
+ * served by a single network call,</li>
+ * <li>retries requests failing with a transient error (network unavailable, I/O error) following
+ * a {@link RetryPolicy},</li>
+ * <li>limits the number of requests running at the same time against a single host.</li>
+ * </ul>
+ * I/O errors are only retried for idempotent methods; a request which never got a network is
+ * retried regardless of its method, since nothing has been sent yet. Requests carrying a body
+ * stream or a trust certificate are never retried, since both streams are read only once.
+ */
+@SuppressWarnings("unchecked")
+public class RequestPipeline implements HttpHandler {
+
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 4;
+
+    private static final String TAG = RequestPipeline.class.getSimpleName();
+    private static final String KEY_SEPARATOR = "\n";
+
+    private static final ScheduledExecutorService sRetryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, TAG);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final HttpHandler mDelegate;
+    private final RetryPolicy mRetryPolicy;
+    private final HostConcurrencyLimiter mHostConcurrencyLimiter;
+    private final Map<String, CoalescedCall> mInFlightCalls = new HashMap<>();
+    private final Random mRandom = new Random();
+
+    public RequestPipeline(HttpHandler delegate) {
+        this(delegate, RetryPolicy.DEFAULT, DEFAULT_MAX_REQUESTS_PER_HOST);
+    }
+
+    public RequestPipeline(HttpHandler delegate, RetryPolicy retryPolicy, int maxRequestsPerHost) {
+        mDelegate = delegate;
+        mRetryPolicy = retryPolicy;
+        mHostConcurrencyLimiter = new HostConcurrencyLimiter(maxRequestsPerHost);
+    }
+
+    @Override
+    public void performRequest(Context context, RequestParams requestParams, ServicePluginCallback servicePluginCallback) {
+        String coalescingKey = getCoalescingKey(requestParams, servicePluginCallback);
+        if (coalescingKey == null) {
+            new Attempt(context, requestParams, servicePluginCallback).start();
+            return;
+        }
+
+        CoalescedCall coalescedCall;
+        synchronized (mInFlightCalls) {
+            coalescedCall = mInFlightCalls.get(coalescingKey);
+            if (coalescedCall != null) {
+                coalescedCall.mCallbacks.add(servicePluginCallback);
+                return;
+            }
+            coalescedCall = new CoalescedCall(coalescingKey, servicePluginCallback);
+            mInFlightCalls.put(coalescingKey, coalescedCall);
+        }
+        new Attempt(context, requestParams, coalescedCall).start();
+    }
+
+    int getInFlightCount() {
+        synchronized (mInFlightCalls) {
+            return mInFlightCalls.size();
+        }
+    }
+
+    /**
+     * Identical GET requests share a key. Requests whose responses cannot be shared, such as
+     * streamed ones, or whose configuration cannot be compared, such as requests carrying
+     * interceptors or a custom trust certificate, get none and are never coalesced.
+     */
+    @Nullable
+    static String getCoalescingKey(RequestParams requestParams, ServicePluginCallback servicePluginCallback) {
+        if (requestParams.getMethod() != Method.GET
+                || servicePluginCallback instanceof StreamingServiceCallback
+                || requestParams.hasRequestBodyStream()
+                || requestParams.hasInterceptors()
+                || requestParams.hasTrustCertificate()) {
+            return null;
+        }
+
+        return requestParams.getNetworkConnectionType() + KEY_SEPARATOR
+                + requestParams.getEndpoint() + KEY_SEPARATOR
+                + sorted(requestParams.getQueryParams()) + KEY_SEPARATOR
+                + sorted(requestParams.getHeaders()) + KEY_SEPARATOR
+                + sorted(requestParams.getPinsCertificatesMap()) + KEY_SEPARATOR
+                + requestParams.followsRedirects() + KEY_SEPARATOR
+                + requestParams.getTimeoutMillis() + KEY_SEPARATOR
+                + requestParams.getMaxResponseBytes() + KEY_SEPARATOR
+                + System.identityHashCode(requestParams.getDns()) + KEY_SEPARATOR
+                + System.identityHashCode(requestParams.getHostnameVerifier());
+    }
+
+    /**
+     * Requests reading one-shot streams cannot be sent again: the request body stream is consumed
+     * by the first attempt and so is the trust certificate, whose absence on a retry would make
+     * the request trust the platform store instead. Must be checked before the first attempt.
+     */
+    static boolean isReplayable(RequestParams requestParams) {
+        return !requestParams.hasRequestBodyStream()
+                && !requestParams.hasTrustCertificate();
+    }
+
+    static boolean isRetryable(RequestParams requestParams, FailedRequest failedRequest) {
+        Object details = failedRequest.getDetails();
+        if (details == SocketFactoryFailure.NETWORK_UNAVAILABLE) {
+            return true;
+        }
+        return details == RequestFailure.GENERIC_FAILURE
+                && requestParams.getMethod() != Method.ADD;
+    }
+
+    private static String sorted(Map<String, ?> map) {
+        return map == null ? "" : new TreeMap<>(map).toString();
+    }
+
+    private static String getHost(RequestParams requestParams) {
+        HttpUrl httpUrl = HttpUrl.parse(requestParams.getEndpoint());
+        return httpUrl != null ? httpUrl.host() : "";
+    }
+
+    /**
+     * A single request going through the pipeline, possibly spanning several network attempts.
+     */
+    private class Attempt {
+
+        private final Context mContext;
+        private final RequestParams mRequestParams;
+        private final ServicePluginCallback mCallback;
+        private final String mHost;
+        private final boolean mReplayable;
+        private int mAttempt;
+
+        private Attempt(Context context, RequestParams requestParams, ServicePluginCallback callback) {
+            mContext = context;
+            mRequestParams = requestParams;
+            mCallback = callback;
+            mHost = getHost(requestParams);
+            mReplayable = isReplayable(requestParams);
+        }
+
+        private void start() {
+            mHostConcurrencyLimiter.execute(mHost, this::perform);
+        }
+
+        private void perform() {
+            mAttempt++;
+            ServicePluginCallback attemptCallback = mCallback instanceof StreamingServiceCallback
+                    ? new StreamingAttemptCallback(this) : new AttemptCallback(this);
+            try {
+                mDelegate.performRequest(mContext, mRequestParams, attemptCallback);
+            } catch (RuntimeException e) {
+                // perform may run on the retry scheduler or inside another request's release, where
+                // a thrown exception would never reach this caller
+                ApiLoggerResolver.logError(TAG, "request to " + mHost + " failed: " + e.getMessage());
+                FailedRequest failedRequest = de.telekom.smartcredentials.networking.request.models.FailedRequest
+                        .newInstance(RequestFailureLevel.REQUEST, RequestFailure.GENERIC_FAILURE, e.getMessage());
+                try {
+                    mCallback.onFailed(failedRequest);
+                } finally {
+                    mHostConcurrencyLimiter.release(mHost);
+                }
+            }
+        }
+
+        private void onResponse(Object response) {
+            try {
+                mCallback.onResponse(response);
+            } finally {
+                mHostConcurrencyLimiter.release(mHost);
+            }
+        }
+
+        private void onFailed(FailedRequest failedRequest) {
+            if (mReplayable && mRetryPolicy.canRetry(mAttempt) && isRetryable(mRequestParams, failedRequest)) {
+                mHostConcurrencyLimiter.release(mHost);
+                long delay = mRetryPolicy.getDelayMillis(mAttempt, mRandom);
+                ApiLoggerResolver.logInfo(TAG + ": retrying " + mHost + " in " + delay + "ms after attempt " + mAttempt);
+                sRetryScheduler.schedule(this::start, delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+            try {
+                mCallback.onFailed(failedRequest);
+            } finally {
+                mHostConcurrencyLimiter.release(mHost);
+            }
+        }
+    }
+
+    private static class AttemptCallback extends ServicePluginCallback {
+
+        private final Attempt mAttempt;
+
+        private AttemptCallback(Attempt attempt) {
+            mAttempt = attempt;
+        }
+
+        @Override
+        public void onResponse(Object response) {
+            mAttempt.onResponse(response);
+        }
+
+        @Override
+        public void onFailed(FailedRequest message) {
+            mAttempt.onFailed(message);
+        }
+    }
+
+    private static class StreamingAttemptCallback extends StreamingServiceCallback {
+
+        private final Attempt mAttempt;
+
+        private StreamingAttemptCallback(Attempt attempt) {
+            mAttempt = attempt;
+        }
+
+        @Override
+        public void onResponse(StreamedResponse response) {
+            mAttempt.onResponse(response);
+        }
+
+        @Override
+        public void onFailed(FailedRequest<RequestFailureLevel> message) {
+            mAttempt.onFailed(message);
+        }
+    }
+
+    /**
+     * Fans the outcome of one network call out to every caller which asked for the same resource
+     * while it was in flight. When there is more than one caller, the body is buffered once and
+     * every caller gets its own copy of the response.
+     */
+    private class CoalescedCall extends ServicePluginCallback {
+
+        private final String mKey;
+        private final List<ServicePluginCallback> mCallbacks = new ArrayList<>();
+
+        private CoalescedCall(String key, ServicePluginCallback callback) {
+            mKey = key;
+            mCallbacks.add(callback);
+        }
+
+        @Override
+        public void onResponse(Object response) {
+            List<ServicePluginCallback> callbacks = complete();
+            if (callbacks.size() == 1 || !(response instanceof Response)) {
+                for (ServicePluginCallback callback : callbacks) {
+                    callback.onResponse(response);
+                }
+                return;
+            }
+
+            Response okHttpResponse = (Response) response;
+            ResponseBody body = okHttpResponse.body();
+            byte[] bytes;
+            try {
+                bytes = body != null ? body.bytes() : new byte[0];
+            } catch (IOException e) {
+                FailedRequest failedRequest = de.telekom.smartcredentials.networking.request.models.FailedRequest
+                        .newInstance(RequestFailureLevel.REQUEST, RequestFailure.GENERIC_FAILURE, e.getMessage());
+                for (ServicePluginCallback callback : callbacks) {
+                    callback.onFailed(failedRequest);
+                }
+                return;
+            }
+            for (ServicePluginCallback callback : callbacks) {
+                callback.onResponse(okHttpResponse.newBuilder()
+                        .body(ResponseBody.create(bytes, body != null ? body.contentType() : null))
+                        .build());
+            }
+        }
+
+        @Override
+        public void onFailed(FailedRequest message) {
+            for (ServicePluginCallback callback : complete()) {
+                callback.onFailed(message);
+            }
+        }
+
+        private List<ServicePluginCallback> complete() {
+            synchronized (mInFlightCalls) {
+                mInFlightCalls.remove(mKey);
+                return new ArrayList<>(mCallbacks);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.request.pipeline;
+
+import java.util.Random;
+
+/**
+ * Exponential backoff with jitter used by {@link RequestPipeline} to retry requests failing with
+ * a transient error. The n-th retry waits for a random delay between half and all of
+ * {@code min(maxDelay, initialDelay * 2^(n - 1))}, so that clients failing at the same time do
+ * not retry in lockstep.
+ */
+public class RetryPolicy {
+
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, 500, 8000);
+
+    private final int mMaxAttempts;
+    private final long mInitialDelayMillis;
+    private final long mMaxDelayMillis;
+
+    /**
+     * @param maxAttempts        total number of attempts, including the first one
+     * @param initialDelayMillis upper bound of the delay before the first retry
+     * @param maxDelayMillis     upper bound of the delay before any retry
+     */
+    public RetryPolicy(int maxAttempts, long initialDelayMillis, long maxDelayMillis) {
+        if (maxAttempts < 1 || initialDelayMillis < 0 || maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException("Invalid retry policy");
+        }
+        mMaxAttempts = maxAttempts;
+        mInitialDelayMillis = initialDelayMillis;
+        mMaxDelayMillis = maxDelayMillis;
+    }
+
+    public int getMaxAttempts() {
+        return mMaxAttempts;
+    }
+
+    boolean canRetry(int attempt) {
+        return attempt < mMaxAttempts;
+    }
+
+    /**
+     * @param attempt number of attempts already made, starting at 1
+     * @return delay in milliseconds to wait before the next attempt
+     */
+    long getDelayMillis(int attempt, Random random) {
+        long delay = mInitialDelayMillis;
+        for (int i = 1; i < attempt && delay < mMaxDelayMillis; i++) {
+            delay <<= 1;
+        }
+        delay = Math.min(delay, mMaxDelayMillis);
+        long half = delay / 2;
+        return half + (half > 0 ? (long) (random.nextDouble() * (delay - half + 1)) : 0);
+    }
+}
@@ -17,8 +17,6 @@
 package de.telekom.smartcredentials.networking.request.utils;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
@@ -30,6 +28,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
+import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.X509TrustManager;
 
 import de.telekom.smartcredentials.networking.request.models.RequestParams;
@@ -43,8 +42,6 @@ import okhttp3.OkHttpClient;
 import okhttp3.Request;
 
 import static de.telekom.smartcredentials.networking.model.ParamKey.CERT_PINNER;
-import static de.telekom.smartcredentials.networking.request.utils.SSLSocketProvider.getSslSocketFactory;
-import static de.telekom.smartcredentials.networking.request.utils.TrustManagerProvider.getTrustManager;
 import static de.telekom.smartcredentials.networking.request.utils.UrlBuilder.getUrlWithQueryParams;
 
 public class HttpClientBuilder {
@@ -65,11 +62,24 @@ public class HttpClientBuilder {
     }
 
     public static Call.Factory buildCallFactory(RequestParams requestParams, CertificatePinner.Builder certificatePinnerBuilder) throws IOException, CertificateException, NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
-        OkHttpClient.Builder builder = new OkHttpClient.Builder()
-                .socketFactory(requestParams.getSocketFactory())
-                .followRedirects(requestParams.followsRedirects())
-                .followSslRedirects(requestParams.followsRedirects());
+        TrustMaterialCache.TrustMaterial trustMaterial = TrustMaterialCache.get(requestParams.getTrustCertificate());
+        X509TrustManager trustManager = trustMaterial != null ? trustMaterial.getTrustManager() : null;
+        SSLSocketFactory sslSocketFactory = trustMaterial != null ? trustMaterial.getSslSocketFactory() : null;
+
+        HttpClientRegistry.ClientKey key = new HttpClientRegistry.ClientKey(requestParams.getSocketFactory(),
+                requestParams.getDns(), requestParams.getPinsCertificatesMap(), sslSocketFactory, trustManager,
+                requestParams.getHostnameVerifier(), requestParams.followsRedirects(),
+                requestParams.getTimeoutMillis(), requestParams.getHttpMethod());
+        OkHttpClient client = HttpClientRegistry.getClient(key, builder ->
+                configureTransport(builder, requestParams, certificatePinnerBuilder, sslSocketFactory, trustManager));
+
+        if (!requestParams.hasHeaders() && !requestParams.hasInterceptors()) {
+            return client;
+        }
 
+        // headers and interceptors belong to a single request, so they go on a derived client
+        // sharing the connection pool and dispatcher of the registered one
+        OkHttpClient.Builder builder = client.newBuilder();
         if (requestParams.hasHeaders()) {
             builder.addInterceptor(chain -> {
                 Request.Builder requestBuilder = chain.request().newBuilder();
@@ -79,9 +89,20 @@ public class HttpClientBuilder {
                 return chain.proceed(requestBuilder.build());
             });
         }
-        setTimeout(requestParams.getTimeoutMillis(), requestParams.getHttpMethod(), builder);
         setInterceptors(requestParams, builder);
 
+        return builder.build();
+    }
+
+    private static OkHttpClient.Builder configureTransport(OkHttpClient.Builder builder, RequestParams requestParams,
+                                                           CertificatePinner.Builder certificatePinnerBuilder,
+                                                           SSLSocketFactory sslSocketFactory, X509TrustManager x509TrustManager) {
+        builder.socketFactory(requestParams.getSocketFactory())
+                .followRedirects(requestParams.followsRedirects())
+                .followSslRedirects(requestParams.followsRedirects());
+
+        setTimeout(requestParams.getTimeoutMillis(), requestParams.getHttpMethod(), builder);
+
         if (requestParams.getDns() != null) {
             builder.dns((Dns) requestParams.getDns());
         }
@@ -90,17 +111,13 @@ public class HttpClientBuilder {
             builder.certificatePinner(getCertificatePinner(requestParams.getPinsCertificatesMap(), certificatePinnerBuilder));
         }
 
-        InputStreamReader reader = new InputStreamReader(requestParams.getTrustCertificate());
-        if (reader.ready()) {
-            InputStream certificateInputStream = requestParams.getTrustCertificate();
-            X509TrustManager x509TrustManager = getTrustManager(certificateInputStream);
-
-            builder.sslSocketFactory(getSslSocketFactory(x509TrustManager), x509TrustManager);
+        if (sslSocketFactory != null) {
+            builder.sslSocketFactory(sslSocketFactory, x509TrustManager);
         }
 
         builder.hostnameVerifier(requestParams.getHostnameVerifier());
 
-        return builder.build();
+        return builder;
     }
 
     public static Request buildRequest(HttpUrl httpUrl, RequestParams requestParams) {
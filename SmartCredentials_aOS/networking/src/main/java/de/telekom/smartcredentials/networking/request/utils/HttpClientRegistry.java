@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.request.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.net.SocketFactory;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.X509TrustManager;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Keeps the {@link OkHttpClient}s used for generic requests. Every client is derived from a single
+ * root client through {@link OkHttpClient#newBuilder()}, so all of them share the same connection
+ * pool and dispatcher, and clients with the same transport configuration are reused between
+ * requests. At most {@link #MAX_CLIENTS} configurations are kept, least recently used first out.
+ */
+public final class HttpClientRegistry {
+
+    static final int MAX_CLIENTS = 16;
+
+    private static OkHttpClient sRootClient;
+
+    private static final Map<ClientKey, OkHttpClient> sClients =
+            new LinkedHashMap<ClientKey, OkHttpClient>(MAX_CLIENTS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ClientKey, OkHttpClient> eldest) {
+                    return size() > MAX_CLIENTS;
+                }
+            };
+
+    private HttpClientRegistry() {
+        // utility class
+    }
+
+    /**
+     * @return the client every registered client is derived from
+     */
+    @NonNull
+    public static synchronized OkHttpClient getRootClient() {
+        if (sRootClient == null) {
+            sRootClient = new OkHttpClient();
+        }
+        return sRootClient;
+    }
+
+    @NonNull
+    static synchronized OkHttpClient getClient(ClientKey key, ClientFactory factory) {
+        OkHttpClient client = sClients.get(key);
+        if (client == null) {
+            client = factory.create(getRootClient().newBuilder()).build();
+            sClients.put(key, client);
+        }
+        return client;
+    }
+
+    static synchronized int size() {
+        return sClients.size();
+    }
+
+    /**
+     * Drops every registered client and the trust material they were built with, and closes idle
+     * pooled connections.
+     */
+    public static synchronized void clear() {
+        sClients.clear();
+        TrustMaterialCache.clear();
+        if (sRootClient != null) {
+            sRootClient.connectionPool().evictAll();
+        }
+    }
+
+    interface ClientFactory {
+        OkHttpClient.Builder create(OkHttpClient.Builder builder);
+    }
+
+    /**
+     * Transport configuration of a client. Socket factories, DNS, trust material and hostname
+     * verifiers are compared by identity, like OkHttp does when matching pooled connections.
+     */
+    static final class ClientKey {
+
+        private final SocketFactory mSocketFactory;
+        private final Object mDns;
+        private final Map<String, List<String>> mPins;
+        private final SSLSocketFactory mSslSocketFactory;
+        private final X509TrustManager mTrustManager;
+        private final HostnameVerifier mHostnameVerifier;
+        private final boolean mFollowsRedirects;
+        private final long mTimeoutMillis;
+        private final String mTimeoutMethod;
+
+        ClientKey(SocketFactory socketFactory, Object dns, Map<String, List<String>> pins,
+                  SSLSocketFactory sslSocketFactory, X509TrustManager trustManager,
+                  HostnameVerifier hostnameVerifier, boolean followsRedirects,
+                  long timeoutMillis, String httpMethod) {
+            mSocketFactory = socketFactory;
+            mDns = dns;
+            mPins = pins == null ? null : new HashMap<>(pins);
+            mSslSocketFactory = sslSocketFactory;
+            mTrustManager = trustManager;
+            mHostnameVerifier = hostnameVerifier;
+            mFollowsRedirects = followsRedirects;
+            mTimeoutMillis = timeoutMillis;
+            // the method only matters when it selects which timeout is applied
+            mTimeoutMethod = timeoutMillis > 0 ? httpMethod : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ClientKey)) {
+                return false;
+            }
+            ClientKey other = (ClientKey) o;
+            return mSocketFactory == other.mSocketFactory
+                    && mDns == other.mDns
+                    && mSslSocketFactory == other.mSslSocketFactory
+                    && mTrustManager == other.mTrustManager
+                    && mHostnameVerifier == other.mHostnameVerifier
+                    && mFollowsRedirects == other.mFollowsRedirects
+                    && mTimeoutMillis == other.mTimeoutMillis
+                    && Objects.equals(mTimeoutMethod, other.mTimeoutMethod)
+                    && Objects.equals(mPins, other.mPins);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(mSocketFactory), System.identityHashCode(mDns),
+                    System.identityHashCode(mSslSocketFactory), System.identityHashCode(mTrustManager),
+                    System.identityHashCode(mHostnameVerifier), mFollowsRedirects, mTimeoutMillis,
+                    mTimeoutMethod, mPins);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.request.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * {@link RequestBody} copying its content from an {@link InputStream} directly into the request,
+ * segment by segment. The stream can only be consumed once, so the body is one-shot and is not
+ * retried by OkHttp.
+ */
+public class StreamRequestBody extends RequestBody {
+
+    private final MediaType mMediaType;
+    private final InputStream mInputStream;
+    private final long mContentLength;
+
+    public StreamRequestBody(@Nullable MediaType mediaType, @NonNull InputStream inputStream, long contentLength) {
+        mMediaType = mediaType;
+        mInputStream = inputStream;
+        mContentLength = contentLength;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return mMediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        return mContentLength;
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return true;
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        try (Source source = Okio.source(mInputStream)) {
+            sink.writeAll(source);
+        }
+    }
+}
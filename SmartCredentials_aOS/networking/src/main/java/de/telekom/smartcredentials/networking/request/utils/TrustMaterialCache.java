@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.request.utils;
+
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.X509TrustManager;
+
+import static de.telekom.smartcredentials.networking.request.utils.SSLSocketProvider.getSslSocketFactory;
+import static de.telekom.smartcredentials.networking.request.utils.TrustManagerProvider.getTrustManager;
+
+/**
+ * Caches the {@link X509TrustManager} and {@link SSLSocketFactory} built for a trust certificate,
+ * keyed by the SHA-256 fingerprint of the certificate bytes, so that repeated requests pinned to
+ * the same certificate only read the stream instead of parsing it and initialising a new
+ * SSLContext. Returning the same instances also lets {@link HttpClientRegistry} reuse the client.
+ */
+final class TrustMaterialCache {
+
+    static final int MAX_ENTRIES = 8;
+
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 4 * 1024;
+
+    private static final Map<String, TrustMaterial> sTrustMaterials =
+            new LinkedHashMap<String, TrustMaterial>(MAX_ENTRIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TrustMaterial> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    private TrustMaterialCache() {
+        // utility class
+    }
+
+    /**
+     * Reads and closes the given stream.
+     *
+     * @return the trust material for the certificate, or null if the stream is missing or empty
+     */
+    @Nullable
+    static TrustMaterial get(@Nullable InputStream certificateInputStream) throws IOException,
+            CertificateException, NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+        if (certificateInputStream == null) {
+            return null;
+        }
+
+        byte[] certificate = readAndClose(certificateInputStream);
+        if (certificate.length == 0) {
+            return null;
+        }
+
+        String fingerprint = getFingerprint(certificate);
+        synchronized (sTrustMaterials) {
+            TrustMaterial trustMaterial = sTrustMaterials.get(fingerprint);
+            if (trustMaterial != null) {
+                return trustMaterial;
+            }
+        }
+
+        X509TrustManager trustManager = getTrustManager(new ByteArrayInputStream(certificate));
+        TrustMaterial trustMaterial = new TrustMaterial(trustManager, getSslSocketFactory(trustManager));
+        synchronized (sTrustMaterials) {
+            // keep the first instance if another thread built the same material meanwhile
+            TrustMaterial existing = sTrustMaterials.get(fingerprint);
+            if (existing != null) {
+                return existing;
+            }
+            sTrustMaterials.put(fingerprint, trustMaterial);
+        }
+        return trustMaterial;
+    }
+
+    static void clear() {
+        synchronized (sTrustMaterials) {
+            sTrustMaterials.clear();
+        }
+    }
+
+    static int size() {
+        synchronized (sTrustMaterials) {
+            return sTrustMaterials.size();
+        }
+    }
+
+    private static byte[] readAndClose(InputStream inputStream) throws IOException {
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private static String getFingerprint(byte[] certificate) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM).digest(certificate);
+        StringBuilder fingerprint = new StringBuilder(digest.length * 2);
+        for (byte value : digest) {
+            fingerprint.append(Character.forDigit((value >> 4) & 0xF, 16))
+                    .append(Character.forDigit(value & 0xF, 16));
+        }
+        return fingerprint.toString();
+    }
+
+    static final class TrustMaterial {
+
+        private final X509TrustManager mTrustManager;
+        private final SSLSocketFactory mSslSocketFactory;
+
+        TrustMaterial(X509TrustManager trustManager, SSLSocketFactory sslSocketFactory) {
+            mTrustManager = trustManager;
+            mSslSocketFactory = sslSocketFactory;
+        }
+
+        X509TrustManager getTrustManager() {
+            return mTrustManager;
+        }
+
+        SSLSocketFactory getSslSocketFactory() {
+            return mSslSocketFactory;
+        }
+    }
+}
@@ -19,12 +19,18 @@ package de.telekom.smartcredentials.networking.request.generic;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+
+import de.telekom.smartcredentials.core.networking.StreamedResponse;
+import de.telekom.smartcredentials.core.networking.StreamingServiceCallback;
 
 import de.telekom.smartcredentials.core.plugins.callbacks.ServicePluginCallback;
 import de.telekom.smartcredentials.networking.request.models.FailedRequest;
@@ -36,10 +42,15 @@ import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 import okhttp3.internal.http.RealResponseBody;
+import okio.Buffer;
 import okio.BufferedSource;
 
 import static de.telekom.smartcredentials.networking.request.generic.GenericRequestCallback.UNEXPECTED_CODE_MESSAGE;
 import static de.telekom.smartcredentials.networking.request.models.enums.RequestFailure.GENERIC_FAILURE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.when;
 
@@ -122,4 +133,76 @@ public class GenericRequestCallbackTest {
 
         verify(mServicePluginCallback).onFailed(request);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void onResponseFailsIfAnnouncedBodyExceedsLimit() {
+        GenericRequestCallback genericRequestCallback = new GenericRequestCallback(mServicePluginCallback, 4);
+        Response response = mResponseBuilder
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create("0123456789", null))
+                .build();
+
+        genericRequestCallback.onResponse(mCall, response);
+
+        ArgumentCaptor<FailedRequest> captor = ArgumentCaptor.forClass(FailedRequest.class);
+        verify(mServicePluginCallback).onFailed(captor.capture());
+        assertEquals(RequestFailure.RESPONSE_TOO_LARGE, captor.getValue().getDetails());
+        verify(mServicePluginCallback, never()).onResponse(any());
+    }
+
+    @Test
+    public void onResponseDeliversStreamedResponseToStreamingCallback() throws IOException {
+        StreamingServiceCallback streamingCallback = Mockito.mock(StreamingServiceCallback.class);
+        GenericRequestCallback genericRequestCallback = new GenericRequestCallback(streamingCallback, 64);
+        Response response = mResponseBuilder
+                .code(200)
+                .message("OK")
+                .header("X-Test", "value")
+                .body(ResponseBody.create("0123456789", null))
+                .build();
+
+        genericRequestCallback.onResponse(mCall, response);
+
+        ArgumentCaptor<StreamedResponse> captor = ArgumentCaptor.forClass(StreamedResponse.class);
+        verify(streamingCallback).onResponse(captor.capture());
+        StreamedResponse streamedResponse = captor.getValue();
+        assertEquals(200, streamedResponse.getCode());
+        assertEquals(10, streamedResponse.getContentLength());
+        assertEquals("value", streamedResponse.getHeaders().get("X-Test").get(0));
+        assertEquals("0123456789", readFully(streamedResponse.getBody()));
+        streamedResponse.close();
+    }
+
+    @Test
+    public void streamedBodyWithoutContentLengthStopsAtLimit() throws IOException {
+        StreamingServiceCallback streamingCallback = Mockito.mock(StreamingServiceCallback.class);
+        GenericRequestCallback genericRequestCallback = new GenericRequestCallback(streamingCallback, 4);
+        Response response = mResponseBuilder
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(new Buffer().writeUtf8("0123456789"), null, -1))
+                .build();
+
+        genericRequestCallback.onResponse(mCall, response);
+
+        ArgumentCaptor<StreamedResponse> captor = ArgumentCaptor.forClass(StreamedResponse.class);
+        verify(streamingCallback).onResponse(captor.capture());
+        try (StreamedResponse streamedResponse = captor.getValue()) {
+            readFully(streamedResponse.getBody());
+            fail("expected the size limit to be enforced");
+        } catch (IOException e) {
+            assertEquals(String.format(BoundedInputStream.LIMIT_EXCEEDED_MESSAGE, 4), e.getMessage());
+        }
+    }
+
+    private static String readFully(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[3];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toString("UTF-8");
+    }
+}
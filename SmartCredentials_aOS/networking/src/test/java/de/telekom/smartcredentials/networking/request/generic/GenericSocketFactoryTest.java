@@ -17,9 +17,6 @@
 package de.telekom.smartcredentials.networking.request.generic;
 
 import android.content.Context;
-import android.net.ConnectivityManager;
-import android.net.Network;
-import android.net.NetworkRequest;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -38,25 +35,20 @@ import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.when;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({PermissionsUtil.class, ConnectionTypeRequest.class,
-        UnavailableNetworkListener.class})
+@PrepareForTest({PermissionsUtil.class})
 public class GenericSocketFactoryTest {
 
     private Context mContext;
     private ConnectionType mConnectionType;
     private SocketFactoryCallback mSocketFactoryCallback;
-    private UnavailableNetworkListener mUnavailableNetworkListener;
 
     @Before
     public void setUp() {
         PowerMockito.mockStatic(PermissionsUtil.class);
-        PowerMockito.mockStatic(ConnectionTypeRequest.class);
-        PowerMockito.mockStatic(UnavailableNetworkListener.class);
 
         mContext = Mockito.mock(Context.class);
         mConnectionType = ConnectionType.WIFI;
         mSocketFactoryCallback = Mockito.mock(SocketFactoryCallback.class);
-        mUnavailableNetworkListener = Mockito.mock(UnavailableNetworkListener.class);
     }
 
     @Test
@@ -69,57 +61,18 @@ public class GenericSocketFactoryTest {
     }
 
 
-    @PrepareForTest({PermissionsUtil.class, ConnectionTypeRequest.class,
-            UnavailableNetworkListener.class, GenericSocketFactory.NetworkCallback.class})
+    @PrepareForTest({PermissionsUtil.class, NetworkBindingManager.class})
     @Test
-    public void createSocketFactoryRequestsNetwork() {
-        PowerMockito.mockStatic(GenericSocketFactory.NetworkCallback.class);
+    public void createSocketFactoryAcquiresNetworkBinding() {
+        PowerMockito.mockStatic(NetworkBindingManager.class);
 
         when(PermissionsUtil.checkRequiresWriteSettingsPermission(mContext)).thenReturn(false);
 
-        ConnectivityManager connectivityManager = Mockito.mock(ConnectivityManager.class);
-        when(mContext.getSystemService(Context.CONNECTIVITY_SERVICE)).thenReturn(connectivityManager);
-
-        NetworkRequest networkRequest = Mockito.mock(NetworkRequest.class);
-        when(ConnectionTypeRequest.getNetworkRequest(mConnectionType)).thenReturn(networkRequest);
-
-        when(UnavailableNetworkListener.getInstance()).thenReturn(mUnavailableNetworkListener);
-
-        GenericSocketFactory.NetworkCallback networkCallback =
-                Mockito.mock(GenericSocketFactory.NetworkCallback.class);
-        when(GenericSocketFactory.NetworkCallback.getInstance(mSocketFactoryCallback, mUnavailableNetworkListener))
-                .thenReturn(networkCallback);
+        NetworkBindingManager networkBindingManager = Mockito.mock(NetworkBindingManager.class);
+        when(NetworkBindingManager.getInstance(mContext)).thenReturn(networkBindingManager);
 
         GenericSocketFactory.createSocketFactory(mContext, mConnectionType, mSocketFactoryCallback);
 
-        verify(connectivityManager).requestNetwork(networkRequest, networkCallback);
-        verify(mUnavailableNetworkListener).listenNetworkUnavailable(mSocketFactoryCallback);
-    }
-
-    @Test
-    public void callingOnAvailableOnNetworkCallbackNotifiesSocketCreated() {
-        GenericSocketFactory.NetworkCallback networkCallback =
-                GenericSocketFactory.NetworkCallback.getInstance(mSocketFactoryCallback, mUnavailableNetworkListener);
-        GenericSocketFactory.connectivityManager = Mockito.mock(ConnectivityManager.class);
-
-        Network network = Mockito.mock(Network.class);
-        networkCallback.onAvailable(network);
-
-        verify(mUnavailableNetworkListener).unregister();
-        verify(mSocketFactoryCallback).onSocketFactoryCreated(network.getSocketFactory());
-        verify(GenericSocketFactory.connectivityManager).unregisterNetworkCallback(networkCallback);
-    }
-
-    @Test
-    public void callingOnUnavailableOnNetworkCallbackNotifiesSocketFailed() {
-        GenericSocketFactory.NetworkCallback networkCallback =
-                GenericSocketFactory.NetworkCallback.getInstance(mSocketFactoryCallback, mUnavailableNetworkListener);
-        GenericSocketFactory.connectivityManager = Mockito.mock(ConnectivityManager.class);
-
-        networkCallback.onUnavailable();
-
-        verify(mUnavailableNetworkListener).unregister();
-        verify(mSocketFactoryCallback).onSocketFactoryFailed(SocketFactoryFailure.NETWORK_UNAVAILABLE);
-        verify(GenericSocketFactory.connectivityManager).unregisterNetworkCallback(networkCallback);
+        verify(networkBindingManager).acquire(mConnectionType, mSocketFactoryCallback);
     }
-}
\ No newline at end of file
+}
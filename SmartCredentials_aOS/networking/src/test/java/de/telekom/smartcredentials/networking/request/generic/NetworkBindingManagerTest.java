@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.request.generic;
+
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkRequest;
+import android.os.Handler;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import javax.net.SocketFactory;
+
+import de.telekom.smartcredentials.networking.request.models.enums.ConnectionType;
+import de.telekom.smartcredentials.networking.request.models.enums.SocketFactoryFailure;
+import de.telekom.smartcredentials.networking.request.socket.SocketFactoryCallback;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ConnectionTypeRequest.class, UnavailableNetworkListener.class})
+public class NetworkBindingManagerTest {
+
+    private ConnectivityManager mConnectivityManager;
+    private NetworkRequest mNetworkRequest;
+    private UnavailableNetworkListener mUnavailableNetworkListener;
+    private NetworkBindingManager mNetworkBindingManager;
+
+    @Before
+    public void setUp() {
+        PowerMockito.mockStatic(ConnectionTypeRequest.class);
+        PowerMockito.mockStatic(UnavailableNetworkListener.class);
+
+        mConnectivityManager = Mockito.mock(ConnectivityManager.class);
+        mNetworkRequest = Mockito.mock(NetworkRequest.class);
+        mUnavailableNetworkListener = Mockito.mock(UnavailableNetworkListener.class);
+        when(ConnectionTypeRequest.getNetworkRequest(any(ConnectionType.class))).thenReturn(mNetworkRequest);
+        when(UnavailableNetworkListener.getInstance()).thenReturn(mUnavailableNetworkListener);
+
+        mNetworkBindingManager = new NetworkBindingManager(mConnectivityManager, Mockito.mock(Handler.class));
+    }
+
+    @Test
+    public void acquireRequestsNetworkOnceForConcurrentRequests() {
+        SocketFactoryCallback first = Mockito.mock(SocketFactoryCallback.class);
+        SocketFactoryCallback second = Mockito.mock(SocketFactoryCallback.class);
+
+        mNetworkBindingManager.acquire(ConnectionType.WIFI, first);
+        mNetworkBindingManager.acquire(ConnectionType.WIFI, second);
+
+        verify(mConnectivityManager, times(1)).requestNetwork(eq(mNetworkRequest), any(ConnectivityManager.NetworkCallback.class));
+        assertEquals(1, mNetworkBindingManager.getRequestCount());
+        assertEquals(1, mNetworkBindingManager.getActiveBindingCount());
+    }
+
+    @Test
+    public void onAvailableNotifiesAllWaitingRequests() {
+        SocketFactoryCallback first = Mockito.mock(SocketFactoryCallback.class);
+        SocketFactoryCallback second = Mockito.mock(SocketFactoryCallback.class);
+        SocketFactory socketFactory = Mockito.mock(SocketFactory.class);
+        Network network = Mockito.mock(Network.class);
+        when(network.getSocketFactory()).thenReturn(socketFactory);
+
+        mNetworkBindingManager.acquire(ConnectionType.WIFI, first);
+        mNetworkBindingManager.acquire(ConnectionType.WIFI, second);
+        captureNetworkCallback().onAvailable(network);
+
+        verify(first).onSocketFactoryCreated(socketFactory);
+        verify(second).onSocketFactoryCreated(socketFactory);
+        verify(mUnavailableNetworkListener, times(2)).unregister();
+        verify(mConnectivityManager, never()).unregisterNetworkCallback(any(ConnectivityManager.NetworkCallback.class));
+    }
+
+    @Test
+    public void acquireReusesSocketFactoryOfAvailableNetwork() {
+        SocketFactory socketFactory = Mockito.mock(SocketFactory.class);
+        Network network = Mockito.mock(Network.class);
+        when(network.getSocketFactory()).thenReturn(socketFactory);
+
+        mNetworkBindingManager.acquire(ConnectionType.MOBILE, Mockito.mock(SocketFactoryCallback.class));
+        captureNetworkCallback().onAvailable(network);
+
+        SocketFactoryCallback callback = Mockito.mock(SocketFactoryCallback.class);
+        mNetworkBindingManager.acquire(ConnectionType.MOBILE, callback);
+
+        verify(callback).onSocketFactoryCreated(socketFactory);
+        verify(mUnavailableNetworkListener, times(1)).listenNetworkUnavailable(any(SocketFactoryCallback.class));
+        verify(mConnectivityManager, times(1)).requestNetwork(eq(mNetworkRequest), any(ConnectivityManager.NetworkCallback.class));
+        assertEquals(1, mNetworkBindingManager.getRequestCount());
+    }
+
+    @Test
+    public void acquireWaitsForNewNetworkAfterLost() {
+        Network network = Mockito.mock(Network.class);
+
+        mNetworkBindingManager.acquire(ConnectionType.WIFI, Mockito.mock(SocketFactoryCallback.class));
+        ConnectivityManager.NetworkCallback networkCallback = captureNetworkCallback();
+        networkCallback.onAvailable(network);
+        networkCallback.onLost(network);
+
+        SocketFactoryCallback callback = Mockito.mock(SocketFactoryCallback.class);
+        mNetworkBindingManager.acquire(ConnectionType.WIFI, callback);
+
+        verify(callback, never()).onSocketFactoryCreated(any());
+        verify(mUnavailableNetworkListener, times(2)).listenNetworkUnavailable(any(SocketFactoryCallback.class));
+        verify(mConnectivityManager, times(1)).requestNetwork(eq(mNetworkRequest), any(ConnectivityManager.NetworkCallback.class));
+        assertEquals(1, mNetworkBindingManager.getRequestCount());
+    }
+
+    @Test
+    public void onUnavailableFailsWaitingRequestsAndUnregisters() {
+        SocketFactoryCallback callback = Mockito.mock(SocketFactoryCallback.class);
+
+        mNetworkBindingManager.acquire(ConnectionType.WIFI, callback);
+        ConnectivityManager.NetworkCallback networkCallback = captureNetworkCallback();
+        networkCallback.onUnavailable();
+
+        verify(callback).onSocketFactoryFailed(SocketFactoryFailure.NETWORK_UNAVAILABLE);
+        verify(mConnectivityManager).unregisterNetworkCallback(networkCallback);
+        assertEquals(1, mNetworkBindingManager.getUnregisterCount());
+        assertEquals(0, mNetworkBindingManager.getActiveBindingCount());
+    }
+
+    @Test
+    public void timedOutRequestIsNotNotifiedTwice() {
+        SocketFactoryCallback callback = Mockito.mock(SocketFactoryCallback.class);
+
+        mNetworkBindingManager.acquire(ConnectionType.WIFI, callback);
+        ArgumentCaptor<SocketFactoryCallback> captor = ArgumentCaptor.forClass(SocketFactoryCallback.class);
+        verify(mUnavailableNetworkListener).listenNetworkUnavailable(captor.capture());
+        captor.getValue().onSocketFactoryFailed(SocketFactoryFailure.NETWORK_UNAVAILABLE);
+        captureNetworkCallback().onAvailable(Mockito.mock(Network.class));
+
+        verify(callback).onSocketFactoryFailed(SocketFactoryFailure.NETWORK_UNAVAILABLE);
+        verify(callback, never()).onSocketFactoryCreated(any());
+    }
+
+    @Test
+    public void releaseAllUnregistersEveryBindingAndFailsWaitingRequests() {
+        SocketFactoryCallback wifiCallback = Mockito.mock(SocketFactoryCallback.class);
+        SocketFactoryCallback mobileCallback = Mockito.mock(SocketFactoryCallback.class);
+        mNetworkBindingManager.acquire(ConnectionType.WIFI, wifiCallback);
+        mNetworkBindingManager.acquire(ConnectionType.MOBILE, mobileCallback);
+
+        mNetworkBindingManager.releaseAll();
+
+        verify(mConnectivityManager, times(2)).unregisterNetworkCallback(any(ConnectivityManager.NetworkCallback.class));
+        assertEquals(2, mNetworkBindingManager.getUnregisterCount());
+        verify(wifiCallback).onSocketFactoryFailed(SocketFactoryFailure.NETWORK_UNAVAILABLE);
+        verify(mobileCallback).onSocketFactoryFailed(SocketFactoryFailure.NETWORK_UNAVAILABLE);
+        assertEquals(0, mNetworkBindingManager.getActiveBindingCount());
+    }
+
+    @Test
+    public void failedRequestCanAcquireAgainFromCallback() throws Exception {
+        SocketFactoryCallback retry = Mockito.mock(SocketFactoryCallback.class);
+        SocketFactoryCallback callback = new SocketFactoryCallback() {
+            @Override
+            public void onSocketFactoryCreated(SocketFactory socketFactory) {
+            }
+
+            @Override
+            public void onSocketFactoryFailed(SocketFactoryFailure socketFactoryFailure) {
+                // a caller retrying from another thread must not be blocked by the failing binding
+                Thread thread = new Thread(() -> mNetworkBindingManager.acquire(ConnectionType.MOBILE, retry));
+                thread.start();
+                try {
+                    thread.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        mNetworkBindingManager.acquire(ConnectionType.WIFI, callback);
+        captureNetworkCallback().onUnavailable();
+
+        verify(mConnectivityManager, times(2)).requestNetwork(eq(mNetworkRequest), any(ConnectivityManager.NetworkCallback.class));
+    }
+
+    private ConnectivityManager.NetworkCallback captureNetworkCallback() {
+        ArgumentCaptor<ConnectivityManager.NetworkCallback> captor =
+                ArgumentCaptor.forClass(ConnectivityManager.NetworkCallback.class);
+        verify(mConnectivityManager).requestNetwork(eq(mNetworkRequest), captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.request.pipeline;
+
+import android.content.Context;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import de.telekom.smartcredentials.core.handlers.HttpHandler;
+import de.telekom.smartcredentials.core.model.request.Method;
+import de.telekom.smartcredentials.core.model.request.RequestParams;
+import de.telekom.smartcredentials.core.networking.RequestFailureLevel;
+import de.telekom.smartcredentials.core.plugins.callbacks.ServicePluginCallback;
+import de.telekom.smartcredentials.networking.request.models.FailedRequest;
+import de.telekom.smartcredentials.networking.request.models.enums.RequestFailure;
+import de.telekom.smartcredentials.networking.request.models.enums.SocketFactoryFailure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@SuppressWarnings("unchecked")
+public class RequestPipelineTest {
+
+    private static final String ENDPOINT = "https://test.com/items";
+
+    private Context mContext;
+    private RecordingHttpHandler mDelegate;
+
+    @Before
+    public void setUp() {
+        mContext = Mockito.mock(Context.class);
+        mDelegate = new RecordingHttpHandler();
+    }
+
+    @Test
+    public void identicalGetRequestsAreCoalesced() {
+        RequestPipeline pipeline = new RequestPipeline(mDelegate, RetryPolicy.NONE, 4);
+        ServicePluginCallback first = Mockito.mock(ServicePluginCallback.class);
+        ServicePluginCallback second = Mockito.mock(ServicePluginCallback.class);
+        Object response = new Object();
+
+        pipeline.performRequest(mContext, buildParams(Method.GET), first);
+        pipeline.performRequest(mContext, buildParams(Method.GET), second);
+        assertEquals(1, mDelegate.mCallbacks.size());
+
+        mDelegate.mCallbacks.get(0).onResponse(response);
+
+        verify(first).onResponse(response);
+        verify(second).onResponse(response);
+        assertEquals(0, pipeline.getInFlightCount());
+    }
+
+    @Test
+    public void postRequestsAreNotCoalesced() {
+        RequestPipeline pipeline = new RequestPipeline(mDelegate, RetryPolicy.NONE, 4);
+
+        pipeline.performRequest(mContext, buildParams(Method.ADD), Mockito.mock(ServicePluginCallback.class));
+        pipeline.performRequest(mContext, buildParams(Method.ADD), Mockito.mock(ServicePluginCallback.class));
+
+        assertEquals(2, mDelegate.mCallbacks.size());
+    }
+
+    @Test
+    public void coalescingKeyDependsOnHeaders() {
+        ServicePluginCallback callback = Mockito.mock(ServicePluginCallback.class);
+        RequestParams withHeader = new RequestParams.Builder()
+                .setEndpoint(ENDPOINT)
+                .setHeaders(Collections.singletonMap("Authorization", "token"))
+                .build();
+
+        String plainKey = RequestPipeline.getCoalescingKey(buildParams(Method.GET), callback);
+        String headerKey = RequestPipeline.getCoalescingKey(withHeader, callback);
+
+        assertNotNull(plainKey);
+        assertFalse(plainKey.equals(headerKey));
+        assertNull(RequestPipeline.getCoalescingKey(buildParams(Method.DELETE), callback));
+    }
+
+    @Test
+    public void unavailableNetworkIsRetried() throws InterruptedException {
+        RequestPipeline pipeline = new RequestPipeline(mDelegate, new RetryPolicy(2, 0, 0), 4);
+        ServicePluginCallback callback = Mockito.mock(ServicePluginCallback.class);
+        Object response = new Object();
+
+        pipeline.performRequest(mContext, buildParams(Method.ADD), callback);
+        mDelegate.mCallbacks.get(0).onFailed(FailedRequest.newInstance(RequestFailureLevel.SOCKET_CREATION,
+                SocketFactoryFailure.NETWORK_UNAVAILABLE));
+
+        assertTrue(mDelegate.awaitSecondRequest());
+        mDelegate.mCallbacks.get(1).onResponse(response);
+
+        verify(callback).onResponse(response);
+        verify(callback, never()).onFailed(Mockito.any());
+    }
+
+    @Test
+    public void ioErrorOnPostIsNotRetried() {
+        RequestPipeline pipeline = new RequestPipeline(mDelegate, new RetryPolicy(3, 0, 0), 4);
+        ServicePluginCallback callback = Mockito.mock(ServicePluginCallback.class);
+        FailedRequest failedRequest = FailedRequest.newInstance(RequestFailureLevel.REQUEST, RequestFailure.GENERIC_FAILURE);
+
+        pipeline.performRequest(mContext, buildParams(Method.ADD), callback);
+        mDelegate.mCallbacks.get(0).onFailed(failedRequest);
+
+        verify(callback).onFailed(failedRequest);
+        assertEquals(1, mDelegate.mCallbacks.size());
+    }
+
+    @Test
+    public void failureIsReportedOnceRetriesAreExhausted() throws InterruptedException {
+        RequestPipeline pipeline = new RequestPipeline(mDelegate, new RetryPolicy(2, 0, 0), 4);
+        ServicePluginCallback callback = Mockito.mock(ServicePluginCallback.class);
+        FailedRequest failedRequest = FailedRequest.newInstance(RequestFailureLevel.REQUEST, RequestFailure.GENERIC_FAILURE);
+
+        pipeline.performRequest(mContext, buildParams(Method.GET), callback);
+        mDelegate.mCallbacks.get(0).onFailed(failedRequest);
+        assertTrue(mDelegate.awaitSecondRequest());
+        mDelegate.mCallbacks.get(1).onFailed(failedRequest);
+
+        verify(callback, timeout(1000)).onFailed(failedRequest);
+        assertEquals(2, mDelegate.mCallbacks.size());
+    }
+
+    @Test
+    public void requestWithTrustCertificateIsNotRetried() {
+        RequestPipeline pipeline = new RequestPipeline(mDelegate, new RetryPolicy(3, 0, 0), 4);
+        ServicePluginCallback callback = Mockito.mock(ServicePluginCallback.class);
+        FailedRequest failedRequest = FailedRequest.newInstance(RequestFailureLevel.SOCKET_CREATION,
+                SocketFactoryFailure.NETWORK_UNAVAILABLE);
+        RequestParams requestParams = new RequestParams.Builder()
+                .setEndpoint(ENDPOINT)
+                .setTrustCertificate(new ByteArrayInputStream(new byte[]{1, 2, 3}))
+                .build();
+
+        pipeline.performRequest(mContext, requestParams, callback);
+        mDelegate.mCallbacks.get(0).onFailed(failedRequest);
+
+        verify(callback).onFailed(failedRequest);
+        assertEquals(1, mDelegate.mCallbacks.size());
+    }
+
+    @Test
+    public void requestWithTrustCertificateNotReportingItsSizeIsNotCoalesced() {
+        ByteArrayInputStream certificate = new ByteArrayInputStream(new byte[]{1, 2, 3});
+        RequestParams requestParams = new RequestParams.Builder()
+                .setEndpoint(ENDPOINT)
+                .setTrustCertificate(new InputStream() {
+                    @Override
+                    public int read() {
+                        return certificate.read();
+                    }
+                })
+                .build();
+
+        assertNull(RequestPipeline.getCoalescingKey(requestParams, Mockito.mock(ServicePluginCallback.class)));
+        assertFalse(RequestPipeline.isReplayable(requestParams));
+    }
+
+    @Test
+    public void exceptionOnRetryIsReportedToCaller() {
+        ServicePluginCallback callback = Mockito.mock(ServicePluginCallback.class);
+        HttpHandler delegate = new HttpHandler() {
+            private int mCalls;
+
+            @Override
+            public void performRequest(Context context, RequestParams requestParams, ServicePluginCallback servicePluginCallback) {
+                if (mCalls++ > 0) {
+                    throw new IllegalStateException("client closed");
+                }
+                servicePluginCallback.onFailed(FailedRequest.newInstance(RequestFailureLevel.SOCKET_CREATION,
+                        SocketFactoryFailure.NETWORK_UNAVAILABLE));
+            }
+        };
+        RequestPipeline pipeline = new RequestPipeline(delegate, new RetryPolicy(2, 0, 0), 4);
+
+        pipeline.performRequest(mContext, buildParams(Method.GET), callback);
+
+        verify(callback, timeout(1000)).onFailed(Mockito.any());
+        verify(callback, never()).onResponse(Mockito.any());
+    }
+
+    @Test
+    public void callerIsNotifiedBeforeQueuedRequestRuns() {
+        ServicePluginCallback first = Mockito.mock(ServicePluginCallback.class);
+        ServicePluginCallback second = Mockito.mock(ServicePluginCallback.class);
+        Object response = new Object();
+        List<ServicePluginCallback> callbacks = new CopyOnWriteArrayList<>();
+        HttpHandler delegate = (context, requestParams, servicePluginCallback) -> {
+            if (!callbacks.isEmpty()) {
+                throw new IllegalStateException("client closed");
+            }
+            callbacks.add(servicePluginCallback);
+        };
+        RequestPipeline pipeline = new RequestPipeline(delegate, RetryPolicy.NONE, 1);
+
+        pipeline.performRequest(mContext, buildParams(Method.ADD), first);
+        pipeline.performRequest(mContext, buildParams(Method.ADD), second);
+        callbacks.get(0).onResponse(response);
+
+        verify(first).onResponse(response);
+        verify(second).onFailed(Mockito.any());
+    }
+
+    @Test
+    public void requestsOverHostCapWaitForAFreeSlot() {
+        RequestPipeline pipeline = new RequestPipeline(mDelegate, RetryPolicy.NONE, 1);
+
+        pipeline.performRequest(mContext, buildParams(Method.ADD), Mockito.mock(ServicePluginCallback.class));
+        pipeline.performRequest(mContext, buildParams(Method.ADD), Mockito.mock(ServicePluginCallback.class));
+        assertEquals(1, mDelegate.mCallbacks.size());
+
+        mDelegate.mCallbacks.get(0).onResponse(new Object());
+
+        assertEquals(2, mDelegate.mCallbacks.size());
+    }
+
+    @Test
+    public void retryDelayGrowsExponentiallyWithinJitterBounds() {
+        RetryPolicy retryPolicy = new RetryPolicy(5, 100, 300);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20; i++) {
+            long first = retryPolicy.getDelayMillis(1, random);
+            long second = retryPolicy.getDelayMillis(2, random);
+            long capped = retryPolicy.getDelayMillis(4, random);
+            assertTrue(first >= 50 && first <= 100);
+            assertTrue(second >= 100 && second <= 200);
+            assertTrue(capped >= 150 && capped <= 300);
+        }
+    }
+
+    private static RequestParams buildParams(Method method) {
+        return new RequestParams.Builder()
+                .setEndpoint(ENDPOINT)
+                .setMethod(method)
+                .build();
+    }
+
+    private static class RecordingHttpHandler implements HttpHandler {
+
+        private final List<ServicePluginCallback> mCallbacks = new CopyOnWriteArrayList<>();
+        private final CountDownLatch mSecondRequest = new CountDownLatch(2);
+
+        @Override
+        public void performRequest(Context context, RequestParams requestParams, ServicePluginCallback servicePluginCallback) {
+            mCallbacks.add(servicePluginCallback);
+            mSecondRequest.countDown();
+        }
+
+        private boolean awaitSecondRequest() throws InterruptedException {
+            return mSecondRequest.await(1, TimeUnit.SECONDS);
+        }
+    }
+}
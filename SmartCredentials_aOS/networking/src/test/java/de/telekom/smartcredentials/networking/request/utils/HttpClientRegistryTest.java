@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.request.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import javax.net.SocketFactory;
+
+import okhttp3.Dns;
+import okhttp3.OkHttpClient;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class HttpClientRegistryTest {
+
+    @After
+    public void tearDown() {
+        HttpClientRegistry.clear();
+    }
+
+    @Test
+    public void getClientReusesClientForSameConfiguration() {
+        OkHttpClient first = HttpClientRegistry.getClient(newKey(1000, "GET"), builder -> builder);
+        OkHttpClient second = HttpClientRegistry.getClient(newKey(1000, "GET"), builder -> builder);
+
+        assertSame(first, second);
+        assertEquals(1, HttpClientRegistry.size());
+    }
+
+    @Test
+    public void getClientCreatesNewClientForDifferentConfiguration() {
+        OkHttpClient first = HttpClientRegistry.getClient(newKey(1000, "GET"), builder -> builder);
+        OkHttpClient second = HttpClientRegistry.getClient(newKey(2000, "GET"), builder -> builder);
+
+        assertNotSame(first, second);
+        assertEquals(2, HttpClientRegistry.size());
+    }
+
+    @Test
+    public void clientsShareConnectionPoolAndDispatcherOfRootClient() {
+        OkHttpClient client = HttpClientRegistry.getClient(newKey(1000, "POST"), builder -> builder);
+        OkHttpClient root = HttpClientRegistry.getRootClient();
+
+        assertSame(root.connectionPool(), client.connectionPool());
+        assertSame(root.dispatcher(), client.dispatcher());
+    }
+
+    @Test
+    public void methodIsIgnoredWhenNoTimeoutIsSet() {
+        OkHttpClient first = HttpClientRegistry.getClient(newKey(0, "GET"), builder -> builder);
+        OkHttpClient second = HttpClientRegistry.getClient(newKey(0, "POST"), builder -> builder);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    public void getClientEvictsLeastRecentlyUsedClients() {
+        for (int index = 0; index <= HttpClientRegistry.MAX_CLIENTS; index++) {
+            HttpClientRegistry.getClient(newKey(index + 1, "GET"), builder -> builder);
+        }
+
+        assertEquals(HttpClientRegistry.MAX_CLIENTS, HttpClientRegistry.size());
+    }
+
+    private static HttpClientRegistry.ClientKey newKey(long timeoutMillis, String method) {
+        return new HttpClientRegistry.ClientKey(SocketFactory.getDefault(), Dns.SYSTEM,
+                Collections.singletonMap("host", Collections.singletonList("pin")), null, null,
+                null, true, timeoutMillis, method);
+    }
+}
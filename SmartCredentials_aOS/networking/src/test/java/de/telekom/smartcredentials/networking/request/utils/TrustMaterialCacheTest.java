@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.networking.request.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TrustMaterialCacheTest {
+
+    private static final String CERTIFICATE =
+            "-----BEGIN CERTIFICATE-----\n" +
+            "MIIB/DCCAWWgAwIBAgIUaAOZ7pn3oeeNfZpV99dVMdi9WAwwDQYJKoZIhvcNAQEL\n" +
+            "BQAwDzENMAsGA1UEAwwEdGVzdDAgFw0yNjEwMTgwMTU2MTdaGA8yMTI2MDkyNDAx\n" +
+            "NTYxN1owDzENMAsGA1UEAwwEdGVzdDCBnzANBgkqhkiG9w0BAQEFAAOBjQAwgYkC\n" +
+            "gYEAwVbj+VSyrUHJBmevcQPR/JDsICaWsSRcndicSFHOrtPNbDu4qfZWuub4SW+2\n" +
+            "0qcjQul/7jBlH5ftjcoC1kGRS0TEiWCZbV1CFr2UaEC6HDCumGfKmBhYSgHd6nOn\n" +
+            "dasb4S4w3dRoPoiz3XIvNyuhhkPTTQwcEwdlXOhGVbV6/PECAwEAAaNTMFEwHQYD\n" +
+            "VR0OBBYEFDvSQeH5FRS9yeMjg1o+gCV6VdVYMB8GA1UdIwQYMBaAFDvSQeH5FRS9\n" +
+            "yeMjg1o+gCV6VdVYMA8GA1UdEwEB/wQFMAMBAf8wDQYJKoZIhvcNAQELBQADgYEA\n" +
+            "m8LUihMXmYy3d4qPaCoryl1Ib2GyZmfiqXyFJvU0h2z9j5uIOnpVAwfbmmGyhLat\n" +
+            "ceBjEKuOJTRXpa6tfYxHLLUvF90VRFvE2IGEeUHN0M0zsxQDg7EKHUueTcj5t/ZR\n" +
+            "p3GyFT72QDgSFMqZDZIPgNDZfqPAfRQEcons+w8DDTA=\n" +
+            "-----END CERTIFICATE-----\n";
+
+    @After
+    public void tearDown() {
+        TrustMaterialCache.clear();
+    }
+
+    @Test
+    public void getReturnsSameTrustMaterialForSameCertificate() throws Exception {
+        TrustMaterialCache.TrustMaterial first = TrustMaterialCache.get(certificateStream());
+        TrustMaterialCache.TrustMaterial second = TrustMaterialCache.get(certificateStream());
+
+        assertNotNull(first);
+        assertNotNull(first.getTrustManager());
+        assertNotNull(first.getSslSocketFactory());
+        assertSame(first, second);
+        assertEquals(1, TrustMaterialCache.size());
+    }
+
+    @Test
+    public void getReturnsNullForEmptyStream() throws Exception {
+        assertNull(TrustMaterialCache.get(new ByteArrayInputStream(new byte[0])));
+        assertEquals(0, TrustMaterialCache.size());
+    }
+
+    @Test
+    public void getReturnsNullForMissingStream() throws Exception {
+        assertNull(TrustMaterialCache.get(null));
+    }
+
+    @Test
+    public void clearingHttpClientsAlsoDropsTrustMaterial() throws Exception {
+        TrustMaterialCache.get(certificateStream());
+
+        HttpClientRegistry.clear();
+
+        assertEquals(0, TrustMaterialCache.size());
+    }
+
+    private static InputStream certificateStream() {
+        return new ByteArrayInputStream(CERTIFICATE.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -52,8 +52,10 @@ public abstract class OTPHandler {
             mOTPTask.releaseRef();
             mOTPTask.cancel(true);
         }
-        mHandler.removeCallbacks(mOTPRunnable);
-        mOTPRunnable = null;
+        if (mOTPRunnable != null) {
+            mHandler.removeCallbacks(mOTPRunnable);
+            mOTPRunnable = null;
+        }
         ApiLoggerResolver.logInfo("OTP generation stopped");
     }
 
@@ -75,7 +77,7 @@ public abstract class OTPHandler {
     }
 
     protected void startGeneratingOTP(OTPCallback otpCallback, String defaultAlgorithm) {
-        mOTPCallback = otpCallback;
+        setOTPCallback(otpCallback);
         runOTPRunnable(0, defaultAlgorithm);
         ApiLoggerResolver.logInfo("OTP generation requested");
     }
@@ -85,13 +87,25 @@ public abstract class OTPHandler {
         mHandler.postDelayed(mOTPRunnable, delay);
     }
 
+    protected void setOTPCallback(OTPCallback otpCallback) {
+        mOTPCallback = otpCallback;
+    }
+
     protected abstract void notifyOTPGenerated(String otpValue);
 
-    protected abstract void performNextStep();
+    /**
+     * Called on the main thread after a value requested through
+     * {@link #startGeneratingOTP(OTPCallback, String)} has been delivered, to decide what happens
+     * next. Does nothing by default; handlers which schedule their values themselves, like the TOTP
+     * one, do not go through this path.
+     */
+    protected void performNextStep() {
+        // no next step by default
+    }
 
     protected abstract String getTag();
 
-    private void onFailed(OTPPluginError otpPluginError, Exception e) {
+    protected void onFailed(OTPPluginError otpPluginError, Exception e) {
         if (mOTPCallback != null) {
             mOTPCallback.onFailed(otpPluginError);
         }
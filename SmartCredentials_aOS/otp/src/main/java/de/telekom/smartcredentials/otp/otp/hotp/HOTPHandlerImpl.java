@@ -16,12 +16,18 @@
 
 package de.telekom.smartcredentials.otp.otp.hotp;
 
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
 import de.telekom.smartcredentials.core.otp.HOTPCallback;
 import de.telekom.smartcredentials.core.otp.HOTPHandler;
+import de.telekom.smartcredentials.core.otp.HOTPResyncCallback;
+import de.telekom.smartcredentials.core.otp.HOTPWindowCallback;
+import de.telekom.smartcredentials.core.otp.OTPPluginError;
 import de.telekom.smartcredentials.otp.otp.OTPHandler;
 
 public class HOTPHandlerImpl extends OTPHandler implements HOTPHandler {
 
+    static final int MAX_WINDOW_SIZE = 1000;
+
     private static final String TAG = "HOTPHandler";
 
     HOTPCallback mOTPCallback;
@@ -32,6 +38,25 @@ public class HOTPHandlerImpl extends OTPHandler implements HOTPHandler {
         startGeneratingOTP(otpCallback, defaultMacAlgorithm);
     }
 
+    @Override
+    public void generateHOTPWindow(int windowSize, HOTPWindowCallback otpCallback, String defaultMacAlgorithm) {
+        checkWindow(windowSize);
+        new HOTPWindowTask(mOTPGenerator, windowSize, defaultMacAlgorithm, otpCallback).execute();
+    }
+
+    @Override
+    public void resynchronize(String otpValue, int lookAheadWindow, HOTPResyncCallback resyncCallback,
+                              String defaultMacAlgorithm) {
+        checkWindow(lookAheadWindow);
+        if (otpValue == null) {
+            ApiLoggerResolver.logError(TAG, OTPPluginError.INVALID_OTP_VALUE.getDesc());
+            resyncCallback.onFailed(OTPPluginError.INVALID_OTP_VALUE);
+            return;
+        }
+        new HOTPResyncTask(mOTPGenerator, otpValue, lookAheadWindow, defaultMacAlgorithm,
+                resyncCallback, mOtpUpdateCallback).execute();
+    }
+
     @Override
     public String getTag() {
         return TAG;
@@ -51,4 +76,10 @@ public class HOTPHandlerImpl extends OTPHandler implements HOTPHandler {
     protected void performNextStep() {
         stop();
     }
+
+    private static void checkWindow(int windowSize) {
+        if (windowSize < 1 || windowSize > MAX_WINDOW_SIZE) {
+            throw new IllegalArgumentException("Window size must be between 1 and " + MAX_WINDOW_SIZE);
+        }
+    }
 }
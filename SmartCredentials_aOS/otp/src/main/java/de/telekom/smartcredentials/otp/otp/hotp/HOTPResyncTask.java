@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.otp.otp.hotp;
+
+import android.os.AsyncTask;
+
+import de.telekom.smartcredentials.core.exceptions.EncryptionException;
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+import de.telekom.smartcredentials.core.otp.HOTPResyncCallback;
+import de.telekom.smartcredentials.core.otp.OTPPluginError;
+import de.telekom.smartcredentials.core.security.Base32String;
+import de.telekom.smartcredentials.otp.otp.OTPUpdateCallback;
+import de.telekom.smartcredentials.otp.otp.utils.OTPGenerator;
+
+class HOTPResyncTask extends AsyncTask<Void, Void, Long> {
+
+    private static final String TAG = "HOTPResyncTask";
+
+    private final OTPGenerator mOTPGenerator;
+    private final String mOtpValue;
+    private final int mLookAheadWindow;
+    private final String mDefaultAlgorithm;
+    private final HOTPResyncCallback mCallback;
+    private final OTPUpdateCallback mOtpUpdateCallback;
+    private OTPPluginError mError;
+
+    HOTPResyncTask(OTPGenerator otpGenerator, String otpValue, int lookAheadWindow, String defaultAlgorithm,
+                   HOTPResyncCallback callback, OTPUpdateCallback otpUpdateCallback) {
+        mOTPGenerator = otpGenerator;
+        mOtpValue = otpValue;
+        mLookAheadWindow = lookAheadWindow;
+        mDefaultAlgorithm = defaultAlgorithm;
+        mCallback = callback;
+        mOtpUpdateCallback = otpUpdateCallback;
+    }
+
+    @Override
+    protected Long doInBackground(Void... voids) {
+        try {
+            return mOTPGenerator.resynchronize(mOtpValue, mLookAheadWindow, mDefaultAlgorithm);
+        } catch (Base32String.DecodingException e) {
+            mError = OTPPluginError.DECODING_ERROR;
+            ApiLoggerResolver.logError(TAG, e.getMessage());
+        } catch (EncryptionException e) {
+            mError = OTPPluginError.ALGORITHM_ERROR;
+            ApiLoggerResolver.logError(TAG, e.getMessage());
+        }
+        return -1L;
+    }
+
+    @Override
+    protected void onPostExecute(Long counter) {
+        if (mError != null) {
+            mCallback.onFailed(mError);
+        } else if (counter < 0) {
+            mCallback.onNoMatch();
+        } else {
+            if (mOtpUpdateCallback != null) {
+                mOtpUpdateCallback.onUpdated(mOTPGenerator.getTokenRequest());
+            }
+            mCallback.onResynchronized(counter);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.otp.otp.hotp;
+
+import android.os.AsyncTask;
+
+import java.util.List;
+
+import de.telekom.smartcredentials.core.exceptions.EncryptionException;
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+import de.telekom.smartcredentials.core.otp.HOTPWindowCallback;
+import de.telekom.smartcredentials.core.otp.OTPPluginError;
+import de.telekom.smartcredentials.core.security.Base32String;
+import de.telekom.smartcredentials.otp.otp.utils.OTPGenerator;
+
+class HOTPWindowTask extends AsyncTask<Void, Void, List<String>> {
+
+    private static final String TAG = "HOTPWindowTask";
+
+    private final OTPGenerator mOTPGenerator;
+    private final int mWindowSize;
+    private final String mDefaultAlgorithm;
+    private final HOTPWindowCallback mCallback;
+    private OTPPluginError mError;
+
+    HOTPWindowTask(OTPGenerator otpGenerator, int windowSize, String defaultAlgorithm, HOTPWindowCallback callback) {
+        mOTPGenerator = otpGenerator;
+        mWindowSize = windowSize;
+        mDefaultAlgorithm = defaultAlgorithm;
+        mCallback = callback;
+    }
+
+    @Override
+    protected List<String> doInBackground(Void... voids) {
+        try {
+            return mOTPGenerator.getOTPWindow(mWindowSize, mDefaultAlgorithm);
+        } catch (Base32String.DecodingException e) {
+            mError = OTPPluginError.DECODING_ERROR;
+            ApiLoggerResolver.logError(TAG, e.getMessage());
+        } catch (EncryptionException e) {
+            mError = OTPPluginError.ALGORITHM_ERROR;
+            ApiLoggerResolver.logError(TAG, e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    protected void onPostExecute(List<String> window) {
+        if (mError != null) {
+            mCallback.onFailed(mError);
+        } else {
+            mCallback.onOTPGenerated(window);
+        }
+    }
+}
@@ -16,9 +16,11 @@
 
 package de.telekom.smartcredentials.otp.otp.totp;
 
-import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+import de.telekom.smartcredentials.core.exceptions.EncryptionException;
 import de.telekom.smartcredentials.core.model.token.TokenResponse;
+import de.telekom.smartcredentials.core.otp.OTPPluginError;
 import de.telekom.smartcredentials.core.otp.TOTPCallback;
+import de.telekom.smartcredentials.core.security.Base32String;
 import de.telekom.smartcredentials.core.otp.TOTPHandler;
 import de.telekom.smartcredentials.otp.otp.OTPHandler;
 
@@ -26,29 +28,35 @@ public class TOTPHandlerImpl extends OTPHandler implements TOTPHandler {
 
     private static final String TAG = "TOTPHandler";
 
-    private boolean mGenerateNextOTP;
+    private final TOTPScheduler mScheduler;
+    private volatile boolean mGenerateNextOTP;
     private String mDefaultMacAlgorithm;
     private TOTPCallback mOTPCallback;
 
+    public TOTPHandlerImpl() {
+        this(TOTPScheduler.getInstance());
+    }
+
+    TOTPHandlerImpl(TOTPScheduler scheduler) {
+        mScheduler = scheduler;
+    }
+
     @Override
     public void startGeneratingTOTP(TOTPCallback otpCallback, String defaultMacAlgorithm) {
         mOTPCallback = otpCallback;
         mDefaultMacAlgorithm = defaultMacAlgorithm;
         mGenerateNextOTP = true;
-        startGeneratingOTP(otpCallback, defaultMacAlgorithm);
+        setOTPCallback(otpCallback);
+        mScheduler.register(this);
     }
 
     @Override
     public void stop() {
+        mScheduler.unregister(this);
         super.stop();
         mGenerateNextOTP = false;
     }
 
-    @Override
-    protected void runOTPRunnable(long delay, String defaultAlgorithm) {
-        super.runOTPRunnable(delay, defaultAlgorithm);
-    }
-
     @Override
     protected String getTag() {
         return TAG;
@@ -61,19 +69,45 @@ public class TOTPHandlerImpl extends OTPHandler implements TOTPHandler {
         }
     }
 
-    @Override
-    protected void performNextStep() {
-        if (generateNextOTP()) {
-            long remainingValidPeriod = Math.max(getExpirationTime() - System.currentTimeMillis(), 0);
-            runOTPRunnable(remainingValidPeriod, mDefaultMacAlgorithm);
-            ApiLoggerResolver.logInfo("Scheduled OTPGenerator to run in " + remainingValidPeriod + " milliseconds.");
-        } else {
-            stop();
+    long getValidPeriodMillis() {
+        return mValidPeriodMillis;
+    }
+
+    /**
+     * Computes the value for the given time window; called by {@link TOTPScheduler} on its own
+     * thread. A negative counter keeps the generator's own counter.
+     *
+     * @return the value or null if the handler was stopped
+     */
+    String generateOTP(long counter) throws Base32String.DecodingException, EncryptionException {
+        if (!mGenerateNextOTP) {
+            return null;
         }
+        if (counter >= 0) {
+            mOTPGenerator.setCounter(counter);
+        }
+        return mOTPGenerator.getOTP(mDefaultMacAlgorithm);
     }
 
-    private boolean generateNextOTP() {
-        return mGenerateNextOTP && mValidPeriodMillis > 0;
+    /**
+     * Delivers a value computed by {@link TOTPScheduler}; called on the main thread.
+     */
+    void deliverOTP(String otpValue) {
+        if (mGenerateNextOTP) {
+            notifyOTPGenerated(otpValue);
+        }
+    }
+
+    /**
+     * Reports a value which {@link TOTPScheduler} failed to compute and stops the generation;
+     * called on the main thread.
+     */
+    void deliverFailure(Exception e) {
+        if (mGenerateNextOTP) {
+            mGenerateNextOTP = false;
+            onFailed(e instanceof Base32String.DecodingException
+                    ? OTPPluginError.DECODING_ERROR : OTPPluginError.ALGORITHM_ERROR, e);
+        }
     }
 
     private long getExpirationTime() {
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.otp.otp.totp;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import de.telekom.smartcredentials.core.exceptions.EncryptionException;
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+import de.telekom.smartcredentials.core.security.Base32String;
+
+/**
+ * Drives every running {@link TOTPHandlerImpl} from a single background thread. Handlers are
+ * grouped by validity period and each group wakes up once per period boundary, computes the values
+ * of all its handlers in one batch and delivers them on the main thread with a single post.
+ */
+class TOTPScheduler {
+
+    private static final String TAG = "TOTPScheduler";
+    // wake up slightly after the boundary so that the clock is already in the new window
+    private static final long BOUNDARY_SLACK_MILLIS = 20;
+
+    private static TOTPScheduler sInstance;
+
+    private final ScheduledExecutorService mExecutor;
+    private final Handler mMainHandler;
+    private final Map<Long, PeriodGroup> mGroups = new HashMap<>();
+
+    private TOTPScheduler() {
+        this(Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, TAG);
+            thread.setDaemon(true);
+            return thread;
+        }), new Handler(Looper.getMainLooper()));
+    }
+
+    TOTPScheduler(ScheduledExecutorService executor, Handler mainHandler) {
+        mExecutor = executor;
+        mMainHandler = mainHandler;
+    }
+
+    static synchronized TOTPScheduler getInstance() {
+        if (sInstance == null) {
+            sInstance = new TOTPScheduler();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Computes the current value of the handler right away and then once per validity period,
+     * together with all other handlers sharing that period.
+     */
+    void register(TOTPHandlerImpl handler) {
+        long period = handler.getValidPeriodMillis();
+        if (period > 0) {
+            synchronized (mGroups) {
+                PeriodGroup group = mGroups.get(period);
+                if (group == null) {
+                    group = new PeriodGroup(period);
+                    mGroups.put(period, group);
+                }
+                group.mHandlers.add(handler);
+                if (group.mFuture == null) {
+                    scheduleNextBoundary(group);
+                }
+            }
+        }
+        mExecutor.execute(() -> generate(Collections.singletonList(handler), period));
+    }
+
+    void unregister(TOTPHandlerImpl handler) {
+        synchronized (mGroups) {
+            PeriodGroup group = mGroups.get(handler.getValidPeriodMillis());
+            if (group == null || !group.mHandlers.remove(handler) || !group.mHandlers.isEmpty()) {
+                return;
+            }
+            group.mFuture.cancel(false);
+            mGroups.remove(group.mPeriod);
+        }
+    }
+
+    int getGroupCount() {
+        synchronized (mGroups) {
+            return mGroups.size();
+        }
+    }
+
+    private void scheduleNextBoundary(PeriodGroup group) {
+        long delay = group.mPeriod - System.currentTimeMillis() % group.mPeriod + BOUNDARY_SLACK_MILLIS;
+        group.mFuture = mExecutor.schedule(() -> onBoundary(group), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void onBoundary(PeriodGroup group) {
+        List<TOTPHandlerImpl> handlers;
+        synchronized (mGroups) {
+            if (mGroups.get(group.mPeriod) != group) {
+                return;
+            }
+            handlers = new ArrayList<>(group.mHandlers);
+            scheduleNextBoundary(group);
+        }
+        generate(handlers, group.mPeriod);
+    }
+
+    private void generate(List<TOTPHandlerImpl> handlers, long period) {
+        long counter = period > 0 ? System.currentTimeMillis() / period : -1;
+        List<TOTPHandlerImpl> generated = new ArrayList<>(handlers.size());
+        List<String> values = new ArrayList<>(handlers.size());
+        List<TOTPHandlerImpl> failed = new ArrayList<>();
+        List<Exception> failures = new ArrayList<>();
+        for (TOTPHandlerImpl handler : handlers) {
+            try {
+                String value = handler.generateOTP(counter);
+                if (value != null) {
+                    generated.add(handler);
+                    values.add(value);
+                } else {
+                    unregister(handler);
+                }
+            } catch (Base32String.DecodingException | EncryptionException e) {
+                ApiLoggerResolver.logError(TAG, "Failed to generate TOTP value: " + e.getMessage());
+                unregister(handler);
+                failed.add(handler);
+                failures.add(e);
+            }
+        }
+
+        if (generated.isEmpty() && failed.isEmpty()) {
+            return;
+        }
+        ApiLoggerResolver.logInfo(TAG + ": generated " + generated.size() + " TOTP values for period " + period);
+        mMainHandler.post(() -> {
+            for (int i = 0; i < generated.size(); i++) {
+                generated.get(i).deliverOTP(values.get(i));
+            }
+            for (int i = 0; i < failed.size(); i++) {
+                failed.get(i).deliverFailure(failures.get(i));
+            }
+        });
+    }
+
+    private static final class PeriodGroup {
+
+        private final long mPeriod;
+        private final Set<TOTPHandlerImpl> mHandlers = new LinkedHashSet<>();
+        private ScheduledFuture<?> mFuture;
+
+        private PeriodGroup(long period) {
+            mPeriod = period;
+        }
+    }
+}
@@ -16,86 +16,198 @@
 
 package de.telekom.smartcredentials.otp.otp.utils;
 
-import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+
 import de.telekom.smartcredentials.core.api.SecurityApi;
 import de.telekom.smartcredentials.core.exceptions.EncryptionException;
+import de.telekom.smartcredentials.core.model.otp.OTPType;
 import de.telekom.smartcredentials.core.security.Base32String;
 import de.telekom.smartcredentials.core.storage.TokenRequest;
 import de.telekom.smartcredentials.otp.di.ObjectGraphCreatorOtp;
 
+/**
+ * Generates OTP values for a single token. The token parameters, the decoded secret and the
+ * initialised {@link Mac} are kept for the generator's life, so producing a value only hashes the
+ * counter and formats the result without decrypting the token or looking up a crypto provider.
+ */
 public class OTPGenerator {
 
     private static final int[] DIGITS_POWER = {1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000};
+    private static final int COUNTER_LENGTH = 8;
+    private static final int MAX_OTP_LENGTH = 10;
 
     private final Set<String> mAcceptedMacAlgorithms;
     private final SecurityApi mSecurityApi;
     private final TokenRequest mTokenRequest;
+    private final int mDigitsCount;
+    private final boolean mAddChecksum;
+    private final int mTruncationOffset;
+    private final boolean mPersistsCounter;
+    private final byte[] mCounterBytes = new byte[COUNTER_LENGTH];
+    private final char[] mOtpChars = new char[MAX_OTP_LENGTH];
     private long mCounter;
 
+    private String mDefaultMacAlgorithm;
+    private Mac mMac;
+    private byte[] mHash;
+
     public OTPGenerator(SecurityApi securityApi, TokenRequest tokenRequest) throws EncryptionException {
         mSecurityApi = securityApi;
         mTokenRequest = tokenRequest;
         mCounter = tokenRequest.getCounter();
+        mDigitsCount = tokenRequest.getOtpValueDigitsCount();
+        mAddChecksum = tokenRequest.addChecksum();
+        mTruncationOffset = tokenRequest.getTruncationOffset();
+        // the TOTP counter is derived from the clock, only HOTP tokens need to store it
+        mPersistsCounter = tokenRequest.getOtpType() != OTPType.TOTP;
         mAcceptedMacAlgorithms = ObjectGraphCreatorOtp.getInstance().getAcceptedAlgorithms();
     }
 
-    public long getCounter() {
+    public synchronized long getCounter() {
         return mCounter;
     }
 
-    public String getOTP(String defaultMacAlgorithm) throws Base32String.DecodingException, EncryptionException {
-        long counter = mCounter;
-        ByteBuffer text = ByteBuffer.allocate(8).putLong(0, counter);
+    /**
+     * Moves the generator to the given counter, used to align TOTP generators with the current
+     * time window before computing a value.
+     */
+    public synchronized void setCounter(long counter) {
+        mCounter = counter;
+    }
 
-        String result = Integer.toString(computeOtp(text, defaultMacAlgorithm));
-        while (result.length() < mTokenRequest.getOtpValueDigitsCount()) {
-            result = "0".concat(result);
-        }
+    public synchronized String getOTP(String defaultMacAlgorithm) throws Base32String.DecodingException, EncryptionException {
+        String result = formatOtp(computeOtp(mCounter, defaultMacAlgorithm));
 
         mCounter++;
-        mTokenRequest.setCounter(mCounter);
+        if (mPersistsCounter) {
+            mTokenRequest.setCounter(mCounter);
+        }
 
         return result;
     }
 
+    /**
+     * Computes the values of the current counter and of the following {@code windowSize - 1}
+     * counters in one pass, without advancing the counter.
+     */
+    public synchronized List<String> getOTPWindow(int windowSize, String defaultMacAlgorithm) throws Base32String.DecodingException, EncryptionException {
+        List<String> window = new ArrayList<>(windowSize);
+        for (int i = 0; i < windowSize; i++) {
+            window.add(formatOtp(computeOtp(mCounter + i, defaultMacAlgorithm)));
+        }
+        return window;
+    }
+
+    /**
+     * Looks for the counter producing the given value among the current counter and the following
+     * {@code lookAheadWindow - 1} counters. On a match the generator moves right after it and the
+     * new counter is stored once.
+     *
+     * @return the matching counter or -1 if none of the counters produced the value
+     */
+    public synchronized long resynchronize(String otpValue, int lookAheadWindow, String defaultMacAlgorithm) throws Base32String.DecodingException, EncryptionException {
+        byte[] expected = otpValue.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < lookAheadWindow; i++) {
+            long counter = mCounter + i;
+            byte[] candidate = formatOtp(computeOtp(counter, defaultMacAlgorithm)).getBytes(StandardCharsets.US_ASCII);
+            if (MessageDigest.isEqual(expected, candidate)) {
+                mCounter = counter + 1;
+                if (mPersistsCounter) {
+                    mTokenRequest.setCounter(mCounter);
+                }
+                return counter;
+            }
+        }
+        return -1;
+    }
+
     public TokenRequest getTokenRequest() {
         return mTokenRequest;
     }
 
-    int computeOtp(ByteBuffer text, String defaultMacAlgorithm) throws Base32String.DecodingException, EncryptionException {
-        int otp = getBinary(text, defaultMacAlgorithm) % DIGITS_POWER[mTokenRequest.getOtpValueDigitsCount()];
-        if (mTokenRequest.addChecksum()) {
-            otp = (otp * 10) + mSecurityApi.calculateChecksum(otp, mTokenRequest.getOtpValueDigitsCount());
+    synchronized int computeOtp(long counter, String defaultMacAlgorithm) throws Base32String.DecodingException, EncryptionException {
+        int otp = getBinary(counter, defaultMacAlgorithm) % DIGITS_POWER[mDigitsCount];
+        if (mAddChecksum) {
+            otp = (otp * 10) + mSecurityApi.calculateChecksum(otp, mDigitsCount);
         }
         return otp;
     }
 
-    int getBinary(ByteBuffer text, String defaultMacAlgorithm) throws Base32String.DecodingException, EncryptionException {
-        String algorithm = mTokenRequest.getAlgorithm(defaultMacAlgorithm);
-
-        if (mAcceptedMacAlgorithms.contains(algorithm)) {
-            byte[] hash = mSecurityApi.hmac_sha("Hmac" + algorithm.toUpperCase(), Base32String.decode(mTokenRequest.getKey()), text.array());
-            int offset = getOffset(hash);
+    int getBinary(long counter, String defaultMacAlgorithm) throws Base32String.DecodingException, EncryptionException {
+        Mac mac = getMac(defaultMacAlgorithm);
+        for (int i = COUNTER_LENGTH - 1; i >= 0; i--) {
+            mCounterBytes[i] = (byte) counter;
+            counter >>>= 8;
+        }
 
-            return ((hash[offset] & 0x7f) << 0x18)
-                    | ((hash[offset + 1] & 0xff) << 0x10)
-                    | ((hash[offset + 2] & 0xff) << 0x08)
-                    | (hash[offset + 3] & 0xff);
-        } else {
-            throw new EncryptionException(algorithm + " is not a supported MAC algorithm for OTP generation.");
+        try {
+            mac.update(mCounterBytes);
+            mac.doFinal(mHash, 0);
+        } catch (ShortBufferException e) {
+            throw new EncryptionException(e.getMessage(), e);
         }
+
+        int offset = getOffset(mHash);
+        return ((mHash[offset] & 0x7f) << 0x18)
+                | ((mHash[offset + 1] & 0xff) << 0x10)
+                | ((mHash[offset + 2] & 0xff) << 0x08)
+                | (mHash[offset + 3] & 0xff);
     }
 
-    int getOffset(byte[] hash) throws EncryptionException {
+    int getOffset(byte[] hash) {
         if (hash != null && hash.length > 0) {
             int offset = hash[hash.length - 1] & 0xf;
-            if ((0 <= mTokenRequest.getTruncationOffset()) && (mTokenRequest.getTruncationOffset() < (hash.length - 4))) {
-                offset = mTokenRequest.getTruncationOffset();
+            if ((0 <= mTruncationOffset) && (mTruncationOffset < (hash.length - 4))) {
+                offset = mTruncationOffset;
             }
             return offset;
         }
         return 0;
     }
+
+    /**
+     * Left pads the value with zeros up to the configured number of digits, writing the digits
+     * straight into a reused buffer.
+     */
+    String formatOtp(int otp) {
+        int length = Math.max(mDigitsCount, digitCount(otp));
+        int value = otp;
+        for (int i = length - 1; i >= 0; i--) {
+            mOtpChars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(mOtpChars, 0, length);
+    }
+
+    private Mac getMac(String defaultMacAlgorithm) throws Base32String.DecodingException, EncryptionException {
+        if (mMac != null && Objects.equals(defaultMacAlgorithm, mDefaultMacAlgorithm)) {
+            return mMac;
+        }
+
+        String algorithm = mTokenRequest.getAlgorithm(defaultMacAlgorithm);
+        if (!mAcceptedMacAlgorithms.contains(algorithm)) {
+            throw new EncryptionException(algorithm + " is not a supported MAC algorithm for OTP generation.");
+        }
+        mMac = mSecurityApi.getHmac("Hmac" + algorithm.toUpperCase(), Base32String.decode(mTokenRequest.getKey()));
+        mHash = new byte[mMac.getMacLength()];
+        mDefaultMacAlgorithm = defaultMacAlgorithm;
+        return mMac;
+    }
+
+    private static int digitCount(int value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.otp.otp.hotp;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import de.telekom.smartcredentials.core.otp.HOTPResyncCallback;
+import de.telekom.smartcredentials.core.otp.HOTPWindowCallback;
+import de.telekom.smartcredentials.core.otp.OTPPluginError;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class HOTPHandlerImplTest {
+
+    private static final String ALGORITHM = "SHA256";
+
+    private HOTPHandlerImpl mHandler;
+
+    @Before
+    public void setUp() {
+        mHandler = new HOTPHandlerImpl();
+    }
+
+    @Test
+    public void resynchronizeReportsMissingValue() {
+        HOTPResyncCallback callback = Mockito.mock(HOTPResyncCallback.class);
+
+        mHandler.resynchronize(null, 10, callback, ALGORITHM);
+
+        verify(callback).onFailed(OTPPluginError.INVALID_OTP_VALUE);
+        verify(callback, never()).onNoMatch();
+        verify(callback, never()).onResynchronized(anyLong());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void resynchronizeRejectsEmptyWindow() {
+        mHandler.resynchronize("123456", 0, Mockito.mock(HOTPResyncCallback.class), ALGORITHM);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void resynchronizeRejectsTooLargeWindow() {
+        mHandler.resynchronize("123456", HOTPHandlerImpl.MAX_WINDOW_SIZE + 1,
+                Mockito.mock(HOTPResyncCallback.class), ALGORITHM);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void generateHOTPWindowRejectsEmptyWindow() {
+        mHandler.generateHOTPWindow(0, Mockito.mock(HOTPWindowCallback.class), ALGORITHM);
+    }
+}
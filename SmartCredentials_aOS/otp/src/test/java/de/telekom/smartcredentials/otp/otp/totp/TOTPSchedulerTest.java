@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.otp.otp.totp;
+
+import android.os.Handler;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import de.telekom.smartcredentials.core.exceptions.EncryptionException;
+import de.telekom.smartcredentials.core.model.token.TokenResponse;
+import de.telekom.smartcredentials.core.otp.OTPPluginError;
+import de.telekom.smartcredentials.core.otp.TOTPCallback;
+import de.telekom.smartcredentials.core.security.Base32String;
+import de.telekom.smartcredentials.otp.otp.utils.OTPGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Handler.class)
+public class TOTPSchedulerTest {
+
+    private static final long PERIOD_MILLIS = 30_000;
+    private static final String ALGORITHM = "SHA256";
+
+    private ScheduledExecutorService mExecutor;
+    private ScheduledFuture<?> mFuture;
+    private TOTPScheduler mScheduler;
+
+    @Before
+    public void setUp() {
+        mExecutor = Mockito.mock(ScheduledExecutorService.class);
+        mFuture = Mockito.mock(ScheduledFuture.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(mExecutor).execute(any(Runnable.class));
+        doAnswer(invocation -> mFuture).when(mExecutor).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+
+        Handler mainHandler = PowerMockito.mock(Handler.class);
+        when(mainHandler.post(any(Runnable.class))).thenAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return true;
+        });
+        mScheduler = new TOTPScheduler(mExecutor, mainHandler);
+    }
+
+    @Test
+    public void startDeliversFirstValueAndSchedulesBoundary() throws Exception {
+        OTPGenerator generator = mockGenerator("123456");
+        TOTPCallback callback = Mockito.mock(TOTPCallback.class);
+
+        new TestHandler(mScheduler, generator).startGeneratingTOTP(callback, ALGORITHM);
+
+        ArgumentCaptor<TokenResponse> response = ArgumentCaptor.forClass(TokenResponse.class);
+        verify(callback).onOTPGenerated(response.capture());
+        assertEquals("123456", response.getValue().getValue());
+        verify(generator).setCounter(anyLong());
+        verify(mExecutor, times(1)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+        assertEquals(1, mScheduler.getGroupCount());
+    }
+
+    @Test
+    public void boundaryGeneratesValuesOfAllHandlersOfPeriod() throws Exception {
+        TOTPCallback firstCallback = Mockito.mock(TOTPCallback.class);
+        TOTPCallback secondCallback = Mockito.mock(TOTPCallback.class);
+        new TestHandler(mScheduler, mockGenerator("111111")).startGeneratingTOTP(firstCallback, ALGORITHM);
+        new TestHandler(mScheduler, mockGenerator("222222")).startGeneratingTOTP(secondCallback, ALGORITHM);
+
+        runBoundary();
+
+        verify(firstCallback, times(2)).onOTPGenerated(any(TokenResponse.class));
+        verify(secondCallback, times(2)).onOTPGenerated(any(TokenResponse.class));
+        assertEquals(1, mScheduler.getGroupCount());
+    }
+
+    @Test
+    public void stoppedHandlerReceivesNoValues() throws Exception {
+        TOTPCallback callback = Mockito.mock(TOTPCallback.class);
+        TestHandler handler = new TestHandler(mScheduler, mockGenerator("123456"));
+        handler.startGeneratingTOTP(callback, ALGORITHM);
+
+        handler.stop();
+        runBoundary();
+
+        verify(callback, times(1)).onOTPGenerated(any(TokenResponse.class));
+        verify(mFuture).cancel(false);
+        assertEquals(0, mScheduler.getGroupCount());
+    }
+
+    @Test
+    public void generationFailureIsReportedAndStopsHandler() throws Exception {
+        OTPGenerator generator = Mockito.mock(OTPGenerator.class);
+        when(generator.getOTP(anyString())).thenThrow(new EncryptionException("unsupported"));
+        TOTPCallback callback = Mockito.mock(TOTPCallback.class);
+
+        new TestHandler(mScheduler, generator).startGeneratingTOTP(callback, ALGORITHM);
+
+        verify(callback).onFailed(OTPPluginError.ALGORITHM_ERROR);
+        verify(callback, never()).onOTPGenerated(any(TokenResponse.class));
+        assertEquals(0, mScheduler.getGroupCount());
+    }
+
+    @Test
+    public void decodingFailureIsReportedOnce() throws Exception {
+        OTPGenerator generator = Mockito.mock(OTPGenerator.class);
+        when(generator.getOTP(anyString())).thenThrow(Mockito.mock(Base32String.DecodingException.class));
+        TOTPCallback callback = Mockito.mock(TOTPCallback.class);
+        TestHandler handler = new TestHandler(mScheduler, generator);
+        handler.startGeneratingTOTP(callback, ALGORITHM);
+
+        handler.deliverFailure(new EncryptionException("late"));
+
+        verify(callback, times(1)).onFailed(any(OTPPluginError.class));
+        verify(callback).onFailed(OTPPluginError.DECODING_ERROR);
+    }
+
+    private void runBoundary() {
+        ArgumentCaptor<Runnable> boundary = ArgumentCaptor.forClass(Runnable.class);
+        verify(mExecutor).schedule(boundary.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        boundary.getValue().run();
+    }
+
+    private static OTPGenerator mockGenerator(String value) throws Exception {
+        OTPGenerator generator = Mockito.mock(OTPGenerator.class);
+        when(generator.getOTP(anyString())).thenReturn(value);
+        return generator;
+    }
+
+    private static class TestHandler extends TOTPHandlerImpl {
+
+        private TestHandler(TOTPScheduler scheduler, OTPGenerator generator) {
+            super(scheduler);
+            mOTPGenerator = generator;
+            mValidPeriodMillis = PERIOD_MILLIS;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.otp.otp.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import de.telekom.smartcredentials.core.api.SecurityApi;
+import de.telekom.smartcredentials.core.model.otp.OTPType;
+import de.telekom.smartcredentials.core.security.MacAlgorithm;
+import de.telekom.smartcredentials.core.storage.TokenRequest;
+import de.telekom.smartcredentials.otp.di.ObjectGraphCreatorOtp;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OTPGeneratorTest {
+
+    // RFC 4226 test secret "12345678901234567890" and the values of its first counters
+    private static final String KEY = "GEZDGNBVGY3TQOJQGEZDGNBVGY3TQOJQ";
+    private static final String[] RFC_4226_VALUES = {"755224", "287082", "359152", "969429", "338314"};
+    private static final String SHA1 = "SHA1";
+
+    private SecurityApi mSecurityApi;
+    private TokenRequest mTokenRequest;
+
+    @Before
+    public void setUp() throws Exception {
+        mSecurityApi = Mockito.mock(SecurityApi.class);
+        when(mSecurityApi.getHmac(anyString(), any(byte[].class))).thenAnswer(invocation -> {
+            Mac mac = Mac.getInstance(invocation.getArgument(0));
+            mac.init(new SecretKeySpec(invocation.getArgument(1), "RAW"));
+            return mac;
+        });
+        ObjectGraphCreatorOtp.getInstance().init(mSecurityApi, null, null);
+        ObjectGraphCreatorOtp.getInstance().addAcceptedMacAlgorithms(Collections.singletonList(SHA1));
+
+        mTokenRequest = Mockito.mock(TokenRequest.class);
+        when(mTokenRequest.getKey()).thenReturn(KEY);
+        when(mTokenRequest.getOtpValueDigitsCount()).thenReturn(6);
+        when(mTokenRequest.getTruncationOffset()).thenReturn(-1);
+        when(mTokenRequest.getOtpType()).thenReturn(OTPType.HOTP);
+        when(mTokenRequest.getAlgorithm(any())).thenAnswer(invocation -> {
+            String algorithm = invocation.getArgument(0);
+            return algorithm != null ? algorithm : SHA1;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        ObjectGraphCreatorOtp.destroy();
+    }
+
+    @Test
+    public void getOTPProducesRfc4226ValuesAndStoresCounter() throws Exception {
+        OTPGenerator generator = new OTPGenerator(mSecurityApi, mTokenRequest);
+
+        for (int i = 0; i < RFC_4226_VALUES.length; i++) {
+            assertEquals(RFC_4226_VALUES[i], generator.getOTP(SHA1));
+            verify(mTokenRequest).setCounter(i + 1);
+        }
+        assertEquals(RFC_4226_VALUES.length, generator.getCounter());
+    }
+
+    @Test
+    public void getOTPReusesMacForSameAlgorithm() throws Exception {
+        OTPGenerator generator = new OTPGenerator(mSecurityApi, mTokenRequest);
+
+        generator.getOTP(SHA1);
+        generator.getOTP(SHA1);
+        generator.getOTPWindow(3, SHA1);
+
+        verify(mSecurityApi, times(1)).getHmac(anyString(), any(byte[].class));
+        verify(mTokenRequest, times(1)).getKey();
+    }
+
+    @Test
+    public void getOTPReusesMacWithoutDefaultAlgorithm() throws Exception {
+        OTPGenerator generator = new OTPGenerator(mSecurityApi, mTokenRequest);
+
+        assertEquals(RFC_4226_VALUES[0], generator.getOTP(null));
+        assertEquals(RFC_4226_VALUES[1], generator.getOTP(null));
+
+        verify(mSecurityApi, times(1)).getHmac(anyString(), any(byte[].class));
+    }
+
+    @Test
+    public void getOTPCreatesMacWhenAlgorithmChanges() throws Exception {
+        OTPGenerator generator = new OTPGenerator(mSecurityApi, mTokenRequest);
+
+        generator.getOTP(SHA1);
+        generator.getOTP(MacAlgorithm.SHA256);
+        generator.getOTP(MacAlgorithm.SHA256);
+
+        verify(mSecurityApi).getHmac("HmacSHA1", new byte[]{'1', '2', '3', '4', '5', '6', '7', '8', '9', '0',
+                '1', '2', '3', '4', '5', '6', '7', '8', '9', '0'});
+        verify(mSecurityApi).getHmac(Mockito.eq("HmacSHA256"), any(byte[].class));
+    }
+
+    @Test
+    public void getOTPWindowUsesReusedCounterBufferWithoutAdvancing() throws Exception {
+        when(mTokenRequest.getCounter()).thenReturn(1L);
+        OTPGenerator generator = new OTPGenerator(mSecurityApi, mTokenRequest);
+
+        assertEquals(Arrays.asList(RFC_4226_VALUES).subList(1, 5), generator.getOTPWindow(4, SHA1));
+        assertEquals(Arrays.asList(RFC_4226_VALUES).subList(1, 5), generator.getOTPWindow(4, SHA1));
+        assertEquals(1, generator.getCounter());
+    }
+
+    @Test
+    public void resynchronizeMovesCounterAfterMatchInWindow() throws Exception {
+        OTPGenerator generator = new OTPGenerator(mSecurityApi, mTokenRequest);
+
+        assertEquals(3, generator.resynchronize(RFC_4226_VALUES[3], 5, SHA1));
+
+        assertEquals(4, generator.getCounter());
+        verify(mTokenRequest, times(1)).setCounter(4);
+        assertEquals(RFC_4226_VALUES[4], generator.getOTP(SHA1));
+    }
+
+    @Test
+    public void resynchronizeKeepsCounterWhenValueIsOutsideWindow() throws Exception {
+        OTPGenerator generator = new OTPGenerator(mSecurityApi, mTokenRequest);
+
+        assertEquals(-1, generator.resynchronize(RFC_4226_VALUES[3], 3, SHA1));
+        assertEquals(-1, generator.resynchronize("000000", 5, SHA1));
+
+        assertEquals(0, generator.getCounter());
+        verify(mTokenRequest, never()).setCounter(anyLong());
+    }
+
+    @Test
+    public void resynchronizeMatchesFirstCounterOfWindow() throws Exception {
+        when(mTokenRequest.getCounter()).thenReturn(2L);
+        OTPGenerator generator = new OTPGenerator(mSecurityApi, mTokenRequest);
+
+        assertEquals(2, generator.resynchronize(RFC_4226_VALUES[2], 1, SHA1));
+        assertEquals(3, generator.getCounter());
+    }
+
+    @Test
+    public void formatOtpPadsShorterValueAfterLongerOne() throws Exception {
+        OTPGenerator generator = new OTPGenerator(mSecurityApi, mTokenRequest);
+
+        assertEquals("12345678", generator.formatOtp(12345678));
+        assertEquals("000042", generator.formatOtp(42));
+        assertEquals("000000", generator.formatOtp(0));
+    }
+}
@@ -17,24 +17,55 @@
 package de.telekom.smartcredentials.persistentlogging.controllers;
 
 import java.io.File;
+import java.util.List;
 
 import de.telekom.smartcredentials.core.api.LoggingApi;
-import de.telekom.smartcredentials.persistentlogging.writer.LogWriter;
+import de.telekom.smartcredentials.core.model.logging.LogRotationPolicy;
+import de.telekom.smartcredentials.persistentlogging.rotation.LogRotator;
+import de.telekom.smartcredentials.persistentlogging.writer.AsyncLogWriter;
 
 /**
  * Created by Alex.Graur@endava.com at 11/8/2019
  */
 public class LoggingController implements LoggingApi {
 
-    private final LogWriter mLogWriter;
+    private final LogRotator mLogRotator;
+    private final AsyncLogWriter mAsyncLogWriter;
 
     public LoggingController() {
-        mLogWriter = new LogWriter();
+        mLogRotator = new LogRotator();
+        mAsyncLogWriter = new AsyncLogWriter(mLogRotator);
     }
 
+    /**
+     * Goes through the writer thread as well, so that a file is never written by two threads while
+     * the rotator renames it.
+     */
     @Override
     public void persistLog(File rootDirectory, String directory, String filename, boolean appendDate, String extension, String log) {
         File directoryFile = new File(rootDirectory, directory);
-        mLogWriter.write(directoryFile, filename, appendDate, extension, log);
+        mAsyncLogWriter.writeAndFlush(directoryFile, filename, appendDate, extension, log);
+    }
+
+    @Override
+    public void persistLogAsync(File rootDirectory, String directory, String filename, boolean appendDate, String extension, String log) {
+        File directoryFile = new File(rootDirectory, directory);
+        mAsyncLogWriter.write(directoryFile, filename, appendDate, extension, log);
+    }
+
+    @Override
+    public void flushLogs() {
+        mAsyncLogWriter.flush();
+    }
+
+    @Override
+    public void setLogRotationPolicy(LogRotationPolicy policy) {
+        mLogRotator.setPolicy(policy);
+    }
+
+    @Override
+    public List<File> getLogFiles(File rootDirectory, String directory, long sinceMillis) {
+        mAsyncLogWriter.flush();
+        return mLogRotator.getFilesSince(new File(rootDirectory, directory), sinceMillis);
     }
 }
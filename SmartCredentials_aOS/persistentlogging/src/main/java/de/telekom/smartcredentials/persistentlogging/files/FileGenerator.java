@@ -27,5 +27,16 @@ public abstract class FileGenerator {
         return new File(directoryFile, provideFileName(filename, extension));
     }
 
+    /**
+     * Returns the file holding the logs written at the given time.
+     */
+    public File generateFile(File directoryFile, String filename, String extension, long timeMillis) {
+        return new File(directoryFile, provideFileName(filename, extension, timeMillis));
+    }
+
     public abstract String provideFileName(String filename, String extension);
+
+    public String provideFileName(String filename, String extension, long timeMillis) {
+        return provideFileName(filename, extension);
+    }
 }
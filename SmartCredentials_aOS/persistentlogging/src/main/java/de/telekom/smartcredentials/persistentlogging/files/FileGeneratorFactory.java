@@ -21,11 +21,14 @@ package de.telekom.smartcredentials.persistentlogging.files;
  */
 public class FileGeneratorFactory {
 
+    private static final FileGenerator FILE_GENERATOR_WITH_DATE = new FileGeneratorWithDate();
+    private static final FileGenerator FILE_GENERATOR_WITHOUT_DATE = new FileGeneratorWithoutDate();
+
     public FileGenerator getFileGenerator(boolean appendDate) {
         if (appendDate) {
-            return new FileGeneratorWithDate();
+            return FILE_GENERATOR_WITH_DATE;
         } else {
-            return new FileGeneratorWithoutDate();
+            return FILE_GENERATOR_WITHOUT_DATE;
         }
     }
 }
@@ -26,11 +26,60 @@ import java.util.Locale;
  */
 public class FileGeneratorWithDate extends FileGenerator {
 
+    private static final String DATE_PATTERN = "yyyy-MM-dd";
+
+    private static volatile DateStamp sDateStamp;
+
     @Override
     public String provideFileName(String filename, String extension) {
-        Date date = Calendar.getInstance().getTime();
-        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        String formattedDate = format.format(date);
-        return filename + "_" + formattedDate + extension;
+        return provideFileName(filename, extension, System.currentTimeMillis());
+    }
+
+    @Override
+    public String provideFileName(String filename, String extension, long timeMillis) {
+        return filename + "_" + getFormattedDate(timeMillis) + extension;
+    }
+
+    /**
+     * Returns the formatted day of the given time. The formatted value is cached until the day
+     * ends, so that the date is formatted once per day instead of once per log line.
+     */
+    static String getFormattedDate(long timeMillis) {
+        DateStamp dateStamp = sDateStamp;
+        if (dateStamp == null || !dateStamp.contains(timeMillis)) {
+            dateStamp = DateStamp.forTime(timeMillis);
+            sDateStamp = dateStamp;
+        }
+        return dateStamp.mFormattedDate;
+    }
+
+    private static final class DateStamp {
+
+        private final String mFormattedDate;
+        private final long mStartMillis;
+        private final long mEndMillis;
+
+        private DateStamp(String formattedDate, long startMillis, long endMillis) {
+            mFormattedDate = formattedDate;
+            mStartMillis = startMillis;
+            mEndMillis = endMillis;
+        }
+
+        private static DateStamp forTime(long timeMillis) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTimeInMillis(timeMillis);
+            calendar.set(Calendar.HOUR_OF_DAY, 0);
+            calendar.set(Calendar.MINUTE, 0);
+            calendar.set(Calendar.SECOND, 0);
+            calendar.set(Calendar.MILLISECOND, 0);
+            long startMillis = calendar.getTimeInMillis();
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+            String formattedDate = new SimpleDateFormat(DATE_PATTERN, Locale.getDefault()).format(new Date(timeMillis));
+            return new DateStamp(formattedDate, startMillis, calendar.getTimeInMillis());
+        }
+
+        private boolean contains(long timeMillis) {
+            return timeMillis >= mStartMillis && timeMillis < mEndMillis;
+        }
     }
 }
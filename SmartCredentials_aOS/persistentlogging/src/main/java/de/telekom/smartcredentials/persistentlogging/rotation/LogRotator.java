@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.persistentlogging.rotation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+import de.telekom.smartcredentials.core.model.logging.LogRotationPolicy;
+import de.telekom.smartcredentials.persistentlogging.rotation.LogSegmentIndex.ActiveFile;
+import de.telekom.smartcredentials.persistentlogging.rotation.LogSegmentIndex.Segment;
+
+/**
+ * Applies a {@link LogRotationPolicy} to the files written by the log writers. A log file is
+ * closed as a segment by renaming it to {@code <file name>.<time of its last write>} when it
+ * grows over the size limit, when the file name of its target changes with the date, or when it
+ * was last written before the current day and nothing writes to it anymore. Compressing segments
+ * and deleting expired ones runs on a single background thread, while the in-memory
+ * {@link LogSegmentIndex} of each directory lets {@link #getFilesSince} answer without listing
+ * or opening files.
+ * <p>
+ * Files are renamed while they may still be open, so every file of a rotator must be written by a
+ * single writer, which closes its handle when {@link #onWritten} reports a rotation.
+ */
+public class LogRotator {
+
+    private static final String TAG = "LogRotator";
+    private static final String KEY_SEPARATOR = "\n";
+    private static final String SEGMENT_SEPARATOR = ".";
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int DATE_LENGTH = "yyyy-MM-dd".length();
+    private static final String DATE_SEPARATOR = "_";
+    private static final String ERROR_CLOSE_SEGMENT = "Failed to close log segment %s";
+    private static final String ERROR_COMPRESS_SEGMENT = "Failed to compress log segment %s";
+    private static final String ERROR_DELETE_SEGMENT = "Failed to delete log segment %s";
+
+    private final Object mLock = new Object();
+    private final Map<File, LogSegmentIndex> mIndexes = new HashMap<>();
+    private final Map<String, File> mCurrentFiles = new HashMap<>();
+    private final Executor mExecutor;
+
+    private volatile LogRotationPolicy mPolicy = LogRotationPolicy.NONE;
+
+    public LogRotator() {
+        this(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, TAG);
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }));
+    }
+
+    LogRotator(Executor executor) {
+        mExecutor = executor;
+    }
+
+    /**
+     * Identifies the target of a log line; the file a target resolves to changes with the date
+     * when the date is appended to the file name.
+     */
+    public static String getTargetKey(File directoryFile, String filename, boolean appendDate, String extension) {
+        return directoryFile.getPath() + KEY_SEPARATOR + filename + KEY_SEPARATOR
+                + appendDate + KEY_SEPARATOR + extension;
+    }
+
+    public void setPolicy(LogRotationPolicy policy) {
+        List<File> directories;
+        synchronized (mLock) {
+            mPolicy = policy == null ? LogRotationPolicy.NONE : policy;
+            for (LogSegmentIndex index : mIndexes.values()) {
+                index.resetStaleChecks();
+            }
+            directories = new ArrayList<>(mIndexes.keySet());
+        }
+        if (mPolicy.isEnabled()) {
+            for (File directoryFile : directories) {
+                mExecutor.execute(() -> removeExpiredSegments(directoryFile));
+            }
+        }
+    }
+
+    /**
+     * Records a write to a log file and closes it as a segment if the policy requires it. Must be
+     * called by the writer after every write, from the thread which wrote.
+     *
+     * @param targetKey key of the target, see {@link #getTargetKey}
+     * @param filename  file name of the target, without date and extension
+     * @param extension extension of the target
+     * @return <code>true</code> if the written file was closed as a segment, in which case the
+     * caller has to close any handle it keeps open on it
+     */
+    public boolean onWritten(String targetKey, File directoryFile, String filename, String extension,
+                             File logFile, long fileSize) {
+        LogRotationPolicy policy = mPolicy;
+        boolean rotated = false;
+        boolean changed = false;
+        synchronized (mLock) {
+            LogSegmentIndex index = getIndex(directoryFile);
+            index.onWritten(logFile, fileSize, System.currentTimeMillis());
+            File previousFile = mCurrentFiles.put(targetKey, logFile);
+            if (!policy.isEnabled()) {
+                return false;
+            }
+
+            if (previousFile != null && !previousFile.equals(logFile)) {
+                changed = closeSegment(index, previousFile, policy);
+            }
+            if (index.markStaleChecked(targetKey)) {
+                closeStaleFiles(index, filename, extension, policy);
+                changed = true;
+            }
+            if (policy.getMaxFileBytes() > 0 && fileSize >= policy.getMaxFileBytes()) {
+                rotated = closeSegment(index, logFile, policy);
+                changed |= rotated;
+            }
+        }
+        if (changed) {
+            mExecutor.execute(() -> removeExpiredSegments(directoryFile));
+        }
+        return rotated;
+    }
+
+    /**
+     * Returns the log files of the directory which may hold logs written at or after the given
+     * time, oldest first. Closed segments are named {@code <file name>.<time of last write>}
+     * and end with {@code .gz} once compressed; a returned segment may be replaced by its
+     * compressed copy in background, so callers should read the files right away.
+     */
+    public List<File> getFilesSince(File directoryFile, long sinceMillis) {
+        synchronized (mLock) {
+            return getIndex(directoryFile).getFilesSince(sinceMillis);
+        }
+    }
+
+    private LogSegmentIndex getIndex(File directoryFile) {
+        LogSegmentIndex index = mIndexes.get(directoryFile);
+        if (index == null) {
+            index = LogSegmentIndex.load(directoryFile);
+            mIndexes.put(directoryFile, index);
+        }
+        return index;
+    }
+
+    // closes the files of the target left behind by a previous day or process, and compresses the
+    // segments a previous process had no time to compress; other files of the directory are kept
+    private void closeStaleFiles(LogSegmentIndex index, String filename, String extension, LogRotationPolicy policy) {
+        long startOfDayMillis = getStartOfDayMillis();
+        for (Map.Entry<File, ActiveFile> entry : index.getActiveFiles().entrySet()) {
+            if (entry.getValue().mLastWriteMillis < startOfDayMillis
+                    && isFileOfTarget(entry.getKey().getName(), filename, extension)
+                    && !mCurrentFiles.containsValue(entry.getKey())) {
+                closeSegment(index, entry.getKey(), policy);
+            }
+        }
+        if (index.markSegmentsChecked() && policy.compressesSegments()) {
+            for (Segment segment : index.getUncompressedSegments()) {
+                mExecutor.execute(() -> compress(index, segment));
+            }
+        }
+    }
+
+    private boolean closeSegment(LogSegmentIndex index, File logFile, LogRotationPolicy policy) {
+        ActiveFile activeFile = index.removeActiveFile(logFile);
+        if (activeFile == null || !logFile.exists()) {
+            return false;
+        }
+        long closedMillis = activeFile.mLastWriteMillis;
+        File segmentFile = getSegmentFile(logFile, closedMillis);
+        while (segmentFile.exists() || getCompressedFile(segmentFile).exists()) {
+            segmentFile = getSegmentFile(logFile, ++closedMillis);
+        }
+        if (!logFile.renameTo(segmentFile)) {
+            ApiLoggerResolver.logError(TAG, String.format(ERROR_CLOSE_SEGMENT, logFile.getName()));
+            return false;
+        }
+
+        Segment segment = new Segment(segmentFile, closedMillis, activeFile.mSize);
+        index.addSegment(segment);
+        if (policy.compressesSegments()) {
+            mExecutor.execute(() -> compress(index, segment));
+        }
+        return true;
+    }
+
+    private void compress(LogSegmentIndex index, Segment segment) {
+        synchronized (mLock) {
+            if (!index.containsSegment(segment)) {
+                return;
+            }
+        }
+
+        File compressedFile = getCompressedFile(segment.mFile);
+        File temporaryFile = new File(compressedFile.getPath() + LogSegmentIndex.TEMPORARY_SUFFIX);
+        try (InputStream inputStream = new FileInputStream(segment.mFile);
+             OutputStream outputStream = new GZIPOutputStream(new FileOutputStream(temporaryFile), BUFFER_SIZE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            ApiLoggerResolver.logError(TAG, String.format(ERROR_COMPRESS_SEGMENT, segment.mFile.getName()));
+            deleteFile(temporaryFile);
+            return;
+        }
+
+        boolean replaced;
+        synchronized (mLock) {
+            replaced = temporaryFile.renameTo(compressedFile) && index.replaceSegment(segment,
+                    new Segment(compressedFile, segment.mClosedMillis, compressedFile.length()));
+        }
+        if (replaced) {
+            deleteFile(segment.mFile);
+        } else {
+            ApiLoggerResolver.logError(TAG, String.format(ERROR_COMPRESS_SEGMENT, segment.mFile.getName()));
+            deleteFile(temporaryFile);
+            deleteFile(compressedFile);
+        }
+    }
+
+    private void removeExpiredSegments(File directoryFile) {
+        LogRotationPolicy policy = mPolicy;
+        List<Segment> expired;
+        synchronized (mLock) {
+            LogSegmentIndex index = mIndexes.get(directoryFile);
+            if (index == null) {
+                return;
+            }
+            expired = index.removeExpiredSegments(policy, System.currentTimeMillis());
+        }
+        for (Segment segment : expired) {
+            deleteFile(segment.mFile);
+        }
+    }
+
+    private static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            ApiLoggerResolver.logError(TAG, String.format(ERROR_DELETE_SEGMENT, file.getName()));
+        }
+    }
+
+    // matches <filename><extension> and <filename>_<yyyy-MM-dd><extension>
+    private static boolean isFileOfTarget(String name, String filename, String extension) {
+        if (!name.startsWith(filename) || !name.endsWith(extension)) {
+            return false;
+        }
+        int middleLength = name.length() - filename.length() - extension.length();
+        return middleLength == 0 || (middleLength == DATE_SEPARATOR.length() + DATE_LENGTH
+                && name.startsWith(DATE_SEPARATOR, filename.length()));
+    }
+
+    private static File getSegmentFile(File logFile, long closedMillis) {
+        return new File(logFile.getParentFile(), logFile.getName() + SEGMENT_SEPARATOR + closedMillis);
+    }
+
+    private static File getCompressedFile(File segmentFile) {
+        return new File(segmentFile.getPath() + LogSegmentIndex.COMPRESSED_SUFFIX);
+    }
+
+    private static long getStartOfDayMillis() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.persistentlogging.rotation;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import de.telekom.smartcredentials.core.model.logging.LogRotationPolicy;
+
+/**
+ * In-memory index of the log files of one directory: the closed segments ordered by the time they
+ * were closed and the files still being written. The directory is listed once, when the index is
+ * loaded; afterwards it is kept up to date by {@link LogRotator}, which guards every access.
+ */
+final class LogSegmentIndex {
+
+    static final String COMPRESSED_SUFFIX = ".gz";
+    static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("^.+\\.(\\d{13,})(\\.gz)?$");
+
+    private final List<Segment> mSegments = new ArrayList<>();
+    private final Map<File, ActiveFile> mActiveFiles = new HashMap<>();
+
+    private final Set<String> mStaleCheckedTargets = new HashSet<>();
+    private boolean mSegmentsChecked;
+
+    static LogSegmentIndex load(File directoryFile) {
+        LogSegmentIndex index = new LogSegmentIndex();
+        File[] files = directoryFile.listFiles();
+        if (files == null) {
+            return index;
+        }
+        for (File file : files) {
+            if (!file.isFile()) {
+                continue;
+            }
+            if (file.getName().endsWith(TEMPORARY_SUFFIX)) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+                continue;
+            }
+            Matcher matcher = SEGMENT_PATTERN.matcher(file.getName());
+            if (matcher.matches()) {
+                index.addSegment(new Segment(file, Long.parseLong(matcher.group(1)), file.length()));
+            } else {
+                index.mActiveFiles.put(file, new ActiveFile(file.lastModified(), file.length()));
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return <code>true</code> the first time it is called for the target since the last reset
+     */
+    boolean markStaleChecked(String targetKey) {
+        return mStaleCheckedTargets.add(targetKey);
+    }
+
+    /**
+     * @return <code>true</code> the first time it is called since the last reset
+     */
+    boolean markSegmentsChecked() {
+        boolean firstCheck = !mSegmentsChecked;
+        mSegmentsChecked = true;
+        return firstCheck;
+    }
+
+    void resetStaleChecks() {
+        mStaleCheckedTargets.clear();
+        mSegmentsChecked = false;
+    }
+
+    void onWritten(File file, long size, long timeMillis) {
+        ActiveFile activeFile = mActiveFiles.get(file);
+        if (activeFile == null) {
+            mActiveFiles.put(file, new ActiveFile(timeMillis, size));
+        } else {
+            activeFile.mLastWriteMillis = timeMillis;
+            activeFile.mSize = size;
+        }
+    }
+
+    ActiveFile removeActiveFile(File file) {
+        return mActiveFiles.remove(file);
+    }
+
+    Map<File, ActiveFile> getActiveFiles() {
+        return new HashMap<>(mActiveFiles);
+    }
+
+    void addSegment(Segment segment) {
+        int position = mSegments.size();
+        while (position > 0 && mSegments.get(position - 1).mClosedMillis > segment.mClosedMillis) {
+            position--;
+        }
+        mSegments.add(position, segment);
+    }
+
+    boolean replaceSegment(Segment segment, Segment replacement) {
+        int position = mSegments.indexOf(segment);
+        if (position < 0) {
+            return false;
+        }
+        mSegments.set(position, replacement);
+        return true;
+    }
+
+    boolean containsSegment(Segment segment) {
+        return mSegments.contains(segment);
+    }
+
+    List<Segment> getUncompressedSegments() {
+        List<Segment> segments = new ArrayList<>();
+        for (Segment segment : mSegments) {
+            if (!segment.isCompressed()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Removes and returns the oldest segments breaking the age or total size limit of the policy.
+     * Segments are ordered by age, so the walk stops at the first one allowed to stay.
+     */
+    List<Segment> removeExpiredSegments(LogRotationPolicy policy, long nowMillis) {
+        long totalBytes = 0;
+        for (Segment segment : mSegments) {
+            totalBytes += segment.mSize;
+        }
+        for (ActiveFile activeFile : mActiveFiles.values()) {
+            totalBytes += activeFile.mSize;
+        }
+
+        long maxAgeMillis = policy.getMaxAgeMillis();
+        long maxTotalBytes = policy.getMaxTotalBytes();
+        List<Segment> expired = new ArrayList<>();
+        while (!mSegments.isEmpty()) {
+            Segment oldest = mSegments.get(0);
+            boolean tooOld = maxAgeMillis > 0 && oldest.mClosedMillis < nowMillis - maxAgeMillis;
+            boolean overSize = maxTotalBytes > 0 && totalBytes > maxTotalBytes;
+            if (!tooOld && !overSize) {
+                break;
+            }
+            mSegments.remove(0);
+            totalBytes -= oldest.mSize;
+            expired.add(oldest);
+        }
+        return expired;
+    }
+
+    /**
+     * Returns the files which may hold logs written at or after the given time, oldest first.
+     * Only the tail of the segment list is visited, as older segments were closed before it.
+     */
+    List<File> getFilesSince(long sinceMillis) {
+        List<File> files = new ArrayList<>();
+        for (int i = mSegments.size() - 1; i >= 0 && mSegments.get(i).mClosedMillis >= sinceMillis; i--) {
+            files.add(mSegments.get(i).mFile);
+        }
+        Collections.reverse(files);
+
+        List<Map.Entry<File, ActiveFile>> activeFiles = new ArrayList<>();
+        for (Map.Entry<File, ActiveFile> entry : mActiveFiles.entrySet()) {
+            if (entry.getValue().mLastWriteMillis >= sinceMillis) {
+                activeFiles.add(entry);
+            }
+        }
+        Collections.sort(activeFiles, (first, second) ->
+                Long.compare(first.getValue().mLastWriteMillis, second.getValue().mLastWriteMillis));
+        for (Map.Entry<File, ActiveFile> entry : activeFiles) {
+            files.add(entry.getKey());
+        }
+        return files;
+    }
+
+    static final class Segment {
+
+        final File mFile;
+        final long mClosedMillis;
+        final long mSize;
+
+        Segment(File file, long closedMillis, long size) {
+            mFile = file;
+            mClosedMillis = closedMillis;
+            mSize = size;
+        }
+
+        boolean isCompressed() {
+            return mFile.getName().endsWith(COMPRESSED_SUFFIX);
+        }
+    }
+
+    static final class ActiveFile {
+
+        long mLastWriteMillis;
+        long mSize;
+
+        ActiveFile(long lastWriteMillis, long size) {
+            mLastWriteMillis = lastWriteMillis;
+            mSize = size;
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.persistentlogging.writer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+import de.telekom.smartcredentials.persistentlogging.files.FileGeneratorFactory;
+import de.telekom.smartcredentials.persistentlogging.rotation.LogRotator;
+
+/**
+ * Persists logs from a single background thread. Logs are queued in a bounded ring buffer; when
+ * the buffer is full the oldest queued line is dropped, except for lines written with
+ * {@link #writeAndFlush}. The writer thread group-commits the queued
+ * lines once enough text is pending, the buffer is half full or the oldest line waited for
+ * {@link #FLUSH_INTERVAL_MILLIS}. All lines of a file are written with one call on a
+ * {@link FileChannel} which is kept open across commits and only reopened when the date appended
+ * to the file name changes or the {@link LogRotator} closed the file as a segment. The date of a
+ * line is taken when it is queued, so a commit after midnight still writes the lines of the
+ * previous day to the file of that day. Being the only
+ * thread writing the files of its rotator, it never appends to a file the rotator renamed.
+ */
+public class AsyncLogWriter {
+
+    static final int DEFAULT_CAPACITY = 2048;
+    static final int FLUSH_THRESHOLD_CHARS = 16 * 1024;
+    static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    private static final String TAG = "AsyncLogWriter";
+    private static final int MAX_OPEN_CHANNELS = 8;
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator", "\n");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String ERROR_CREATE_DIRECTORY = "Failed to create directory %s";
+    private static final String ERROR_WRITE_LOG = "Failed to write log in file %s";
+    private static final String ERROR_DROPPED_LOGS = "Dropped %d log lines, the log buffer is full";
+
+    private final FileGeneratorFactory mFileGeneratorFactory;
+    private final LogRotator mLogRotator;
+    private final Object mLock = new Object();
+    private final LogEntry[] mRing;
+    private final Map<String, OpenFile> mOpenFiles = new LinkedHashMap<String, OpenFile>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, OpenFile> eldest) {
+            if (size() > MAX_OPEN_CHANNELS) {
+                eldest.getValue().close();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private int mHead;
+    private int mSize;
+    private int mPendingChars;
+    private long mOldestPendingMillis;
+    private long mEnqueuedCount;
+    private long mWrittenCount;
+    // queued lines removed from the buffer without being written
+    private long mDiscardedCount;
+    private long mDroppedCount;
+    private boolean mFlushRequested;
+    private boolean mClosed;
+    private Thread mWriterThread;
+
+    public AsyncLogWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public AsyncLogWriter(LogRotator logRotator) {
+        this(DEFAULT_CAPACITY, logRotator);
+    }
+
+    public AsyncLogWriter(int capacity) {
+        this(capacity, new LogRotator());
+    }
+
+    public AsyncLogWriter(int capacity, LogRotator logRotator) {
+        mFileGeneratorFactory = new FileGeneratorFactory();
+        mLogRotator = logRotator;
+        mRing = new LogEntry[capacity];
+    }
+
+    public void write(File directoryFile, String filename, boolean appendDate,
+                      String extension, String log) {
+        synchronized (mLock) {
+            if (mClosed) {
+                return;
+            }
+            enqueue(new LogEntry(directoryFile, filename, appendDate, extension, log, false,
+                    System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Writes the log on the writer thread and blocks until it was written. Unlike
+     * {@link #write}, the log is never dropped: when the buffer is full the call waits for the
+     * writer to make room.
+     */
+    public void writeAndFlush(File directoryFile, String filename, boolean appendDate,
+                              String extension, String log) {
+        synchronized (mLock) {
+            while (mSize == mRing.length && !mClosed) {
+                mFlushRequested = true;
+                mLock.notifyAll();
+                try {
+                    mLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (mClosed) {
+                return;
+            }
+            enqueue(new LogEntry(directoryFile, filename, appendDate, extension, log, true,
+                    System.currentTimeMillis()));
+        }
+        flush();
+    }
+
+    // drops the oldest queued line when the buffer is full, unless it must not be dropped, in which
+    // case the new line is dropped instead
+    private void enqueue(LogEntry entry) {
+        if (mSize == mRing.length) {
+            mDroppedCount++;
+            if (mRing[mHead].mDurable) {
+                return;
+            }
+            mPendingChars -= mRing[mHead].mLog.length();
+            mRing[mHead] = null;
+            mHead = (mHead + 1) % mRing.length;
+            mSize--;
+            mDiscardedCount++;
+        }
+        if (mSize == 0) {
+            mOldestPendingMillis = entry.mTimeMillis;
+        }
+        mRing[(mHead + mSize) % mRing.length] = entry;
+        mSize++;
+        mEnqueuedCount++;
+        mPendingChars += entry.mLog.length();
+        ensureWriterStarted();
+        if (mSize == 1 || isCommitDue()) {
+            mLock.notifyAll();
+        }
+    }
+
+    /**
+     * Blocks until every log queued before this call has been written or dropped.
+     */
+    public void flush() {
+        synchronized (mLock) {
+            long target = mEnqueuedCount;
+            mFlushRequested = true;
+            mLock.notifyAll();
+            while (mWrittenCount + mDiscardedCount < target && mWriterThread != null) {
+                try {
+                    mLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the pending logs, closes all files and stops the writer thread.
+     */
+    public void close() {
+        flush();
+        synchronized (mLock) {
+            mClosed = true;
+            mLock.notifyAll();
+        }
+    }
+
+    long getWrittenCount() {
+        synchronized (mLock) {
+            return mWrittenCount;
+        }
+    }
+
+    // commit early once enough text is pending or the buffer is half full, to avoid dropping lines
+    private boolean isCommitDue() {
+        return mPendingChars >= FLUSH_THRESHOLD_CHARS || mSize >= mRing.length / 2;
+    }
+
+    private void ensureWriterStarted() {
+        if (mWriterThread == null) {
+            mWriterThread = new Thread(this::runWriter, TAG);
+            mWriterThread.setDaemon(true);
+            mWriterThread.setPriority(Thread.MIN_PRIORITY);
+            mWriterThread.start();
+        }
+    }
+
+    private void runWriter() {
+        try {
+            List<LogEntry> batch;
+            while ((batch = awaitBatch()) != null) {
+                commit(batch);
+                synchronized (mLock) {
+                    mWrittenCount += batch.size();
+                    mLock.notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeOpenFiles();
+            synchronized (mLock) {
+                mWriterThread = null;
+                mLock.notifyAll();
+            }
+        }
+    }
+
+    private List<LogEntry> awaitBatch() throws InterruptedException {
+        long dropped;
+        List<LogEntry> batch;
+        synchronized (mLock) {
+            while (true) {
+                if (mSize == 0) {
+                    if (mClosed) {
+                        return null;
+                    }
+                    mFlushRequested = false;
+                    mLock.wait();
+                    continue;
+                }
+                long waitMillis = mOldestPendingMillis + FLUSH_INTERVAL_MILLIS - System.currentTimeMillis();
+                if (mFlushRequested || mClosed || isCommitDue() || waitMillis <= 0) {
+                    break;
+                }
+                mLock.wait(waitMillis);
+            }
+
+            batch = new ArrayList<>(mSize);
+            for (int i = 0; i < mSize; i++) {
+                int index = (mHead + i) % mRing.length;
+                batch.add(mRing[index]);
+                mRing[index] = null;
+            }
+            mHead = 0;
+            mSize = 0;
+            mPendingChars = 0;
+            mFlushRequested = false;
+            dropped = mDroppedCount;
+            mDroppedCount = 0;
+        }
+
+        if (dropped > 0) {
+            ApiLoggerResolver.logError(TAG, String.format(ERROR_DROPPED_LOGS, dropped));
+        }
+        return batch;
+    }
+
+    private void commit(List<LogEntry> batch) {
+        // grouped by file rather than by target, the lines of one target can span two dates
+        Map<File, StringBuilder> contents = new LinkedHashMap<>();
+        Map<File, LogEntry> targets = new LinkedHashMap<>();
+        for (LogEntry entry : batch) {
+            File logFile = mFileGeneratorFactory.getFileGenerator(entry.mAppendDate)
+                    .generateFile(entry.mDirectoryFile, entry.mFilename, entry.mExtension, entry.mTimeMillis);
+            StringBuilder content = contents.get(logFile);
+            if (content == null) {
+                content = new StringBuilder();
+                contents.put(logFile, content);
+                targets.put(logFile, entry);
+            }
+            content.append(entry.mLog).append(LINE_SEPARATOR);
+        }
+
+        for (Map.Entry<File, StringBuilder> content : contents.entrySet()) {
+            File logFile = content.getKey();
+            LogEntry target = targets.get(logFile);
+            String key = target.getTargetKey();
+            try {
+                OpenFile openFile = getOpenFile(key, target.mDirectoryFile, logFile);
+                if (openFile == null) {
+                    continue;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(content.getValue().toString().getBytes(UTF_8));
+                while (buffer.hasRemaining()) {
+                    openFile.mSize += openFile.mChannel.write(buffer);
+                }
+                if (mLogRotator.onWritten(key, target.mDirectoryFile, target.mFilename,
+                        target.mExtension, logFile, openFile.mSize)) {
+                    mOpenFiles.remove(key);
+                    openFile.close();
+                }
+            } catch (IOException e) {
+                ApiLoggerResolver.logError(TAG, String.format(ERROR_WRITE_LOG, target.mFilename));
+                OpenFile openFile = mOpenFiles.remove(key);
+                if (openFile != null) {
+                    openFile.close();
+                }
+            }
+        }
+    }
+
+    private OpenFile getOpenFile(String key, File directoryFile, File logFile) throws IOException {
+        OpenFile openFile = mOpenFiles.get(key);
+        if (openFile != null && openFile.mFile.equals(logFile)) {
+            return openFile;
+        }
+        if (openFile != null) {
+            mOpenFiles.remove(key);
+            openFile.close();
+        }
+        if (!directoryFile.exists() && !directoryFile.mkdirs()) {
+            ApiLoggerResolver.logError(TAG, String.format(ERROR_CREATE_DIRECTORY, directoryFile.getName()));
+            return null;
+        }
+        FileChannel channel = new FileOutputStream(logFile, true).getChannel();
+        openFile = new OpenFile(logFile, channel, channel.size());
+        mOpenFiles.put(key, openFile);
+        return openFile;
+    }
+
+    private void closeOpenFiles() {
+        Iterator<OpenFile> iterator = mOpenFiles.values().iterator();
+        while (iterator.hasNext()) {
+            iterator.next().close();
+            iterator.remove();
+        }
+    }
+
+    private static final class LogEntry {
+
+        private final File mDirectoryFile;
+        private final String mFilename;
+        private final boolean mAppendDate;
+        private final String mExtension;
+        private final String mLog;
+        private final boolean mDurable;
+        private final long mTimeMillis;
+
+        private LogEntry(File directoryFile, String filename, boolean appendDate, String extension,
+                         String log, boolean durable, long timeMillis) {
+            mDirectoryFile = directoryFile;
+            mFilename = filename;
+            mAppendDate = appendDate;
+            mExtension = extension;
+            mLog = log;
+            mDurable = durable;
+            mTimeMillis = timeMillis;
+        }
+
+        private String getTargetKey() {
+            return LogRotator.getTargetKey(mDirectoryFile, mFilename, mAppendDate, mExtension);
+        }
+    }
+
+    private static final class OpenFile {
+
+        private final File mFile;
+        private final FileChannel mChannel;
+        private long mSize;
+
+        private OpenFile(File file, FileChannel channel, long size) {
+            mFile = file;
+            mChannel = channel;
+            mSize = size;
+        }
+
+        private void close() {
+            try {
+                mChannel.close();
+            } catch (IOException e) {
+                ApiLoggerResolver.logError(TAG, "Failed to close " + mFile.getName());
+            }
+        }
+    }
+}
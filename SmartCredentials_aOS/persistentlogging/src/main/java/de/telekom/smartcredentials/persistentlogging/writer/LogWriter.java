@@ -27,7 +27,12 @@ import de.telekom.smartcredentials.persistentlogging.files.FileGeneratorFactory;
 
 /**
  * Created by Alex.Graur@endava.com at 2/19/2020
+ *
+ * @deprecated the module persists logs through {@link AsyncLogWriter}, which also rotates the
+ * files; this writer opens the file for every line and bypasses the rotation. It is no longer
+ * used and will be removed.
  */
+@Deprecated
 public class LogWriter {
 
     private static final String TAG = "LogWriter";
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.persistentlogging.files;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.assertEquals;
+
+public class FileGeneratorWithDateTest {
+
+    private final FileGenerator mFileGenerator = new FileGeneratorWithDate();
+
+    @Test
+    public void provideFileNameUsesDateOfGivenTime() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2020, Calendar.MAY, 21, 23, 59, 59);
+
+        assertEquals("app_2020-05-21.log",
+                mFileGenerator.provideFileName("app", ".log", calendar.getTimeInMillis()));
+        calendar.add(Calendar.SECOND, 1);
+        assertEquals("app_2020-05-22.log",
+                mFileGenerator.provideFileName("app", ".log", calendar.getTimeInMillis()));
+    }
+}
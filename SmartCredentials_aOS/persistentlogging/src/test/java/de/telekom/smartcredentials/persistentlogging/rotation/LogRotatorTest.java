@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.persistentlogging.rotation;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import de.telekom.smartcredentials.core.model.logging.LogRotationPolicy;
+import de.telekom.smartcredentials.persistentlogging.writer.AsyncLogWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class LogRotatorTest {
+
+    private static final String FILENAME = "app";
+    private static final String EXTENSION = ".log";
+
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    private File mDirectory;
+    private LogRotator mLogRotator;
+
+    @Before
+    public void setUp() throws IOException {
+        mDirectory = mTemporaryFolder.newFolder("logs");
+        mLogRotator = new LogRotator(Runnable::run);
+    }
+
+    @Test
+    public void fileReachingSizeLimitIsClosedAsSegment() throws IOException {
+        mLogRotator.setPolicy(new LogRotationPolicy.Builder()
+                .setMaxFileBytes(10)
+                .setCompressSegments(false)
+                .build());
+        File logFile = createFile(FILENAME + EXTENSION, "more than ten bytes");
+
+        boolean rotated = mLogRotator.onWritten(getTargetKey(), mDirectory, FILENAME, EXTENSION,
+                logFile, logFile.length());
+
+        assertTrue(rotated);
+        assertFalse(logFile.exists());
+        List<File> files = mLogRotator.getFilesSince(mDirectory, 0);
+        assertEquals(1, files.size());
+        assertTrue(files.get(0).exists());
+        assertTrue(files.get(0).getName().startsWith(FILENAME + EXTENSION + "."));
+    }
+
+    @Test
+    public void closedSegmentIsReplacedByCompressedCopy() throws IOException {
+        mLogRotator.setPolicy(new LogRotationPolicy.Builder()
+                .setMaxFileBytes(10)
+                .build());
+        File logFile = createFile(FILENAME + EXTENSION, "more than ten bytes");
+
+        mLogRotator.onWritten(getTargetKey(), mDirectory, FILENAME, EXTENSION, logFile, logFile.length());
+
+        List<File> files = mLogRotator.getFilesSince(mDirectory, 0);
+        assertEquals(1, files.size());
+        assertTrue(files.get(0).getName().endsWith(LogSegmentIndex.COMPRESSED_SUFFIX));
+        assertEquals(1, readLines(files.get(0)));
+        assertEquals(1, listFiles().length);
+    }
+
+    @Test
+    public void staleFilesOfOtherTargetsAreKept() throws IOException {
+        long lastYear = System.currentTimeMillis() - 365L * 24 * 60 * 60 * 1000;
+        File staleLogFile = createFile(FILENAME + "_2020-01-01" + EXTENSION, "old log");
+        File otherFile = createFile("notes.txt", "not a log");
+        assertTrue(staleLogFile.setLastModified(lastYear));
+        assertTrue(otherFile.setLastModified(lastYear));
+        mLogRotator.setPolicy(new LogRotationPolicy.Builder()
+                .setMaxFileBytes(1024)
+                .setCompressSegments(false)
+                .build());
+        File logFile = createFile(FILENAME + "_2099-01-01" + EXTENSION, "new log");
+
+        mLogRotator.onWritten(getTargetKey(), mDirectory, FILENAME, EXTENSION, logFile, logFile.length());
+
+        assertFalse(staleLogFile.exists());
+        assertTrue(otherFile.exists());
+        assertTrue(logFile.exists());
+    }
+
+    @Test
+    public void noLineIsLostWhenConcurrentWritesRotateFiles() throws Exception {
+        mLogRotator.setPolicy(new LogRotationPolicy.Builder()
+                .setMaxFileBytes(256)
+                .build());
+        AsyncLogWriter writer = new AsyncLogWriter(1024, mLogRotator);
+        int linesPerThread = 200;
+
+        Thread syncWriter = new Thread(() -> {
+            for (int i = 0; i < linesPerThread; i++) {
+                writer.writeAndFlush(mDirectory, FILENAME, false, EXTENSION, "sync line " + i);
+            }
+        });
+        Thread asyncWriter = new Thread(() -> {
+            for (int i = 0; i < linesPerThread; i++) {
+                writer.write(mDirectory, FILENAME, false, EXTENSION, "async line " + i);
+            }
+        });
+        syncWriter.start();
+        asyncWriter.start();
+        syncWriter.join();
+        asyncWriter.join();
+        writer.flush();
+
+        int lines = 0;
+        File[] files = listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            lines += readLines(file);
+        }
+        assertEquals(2 * linesPerThread, lines);
+        assertTrue(files.length > 1);
+    }
+
+    private String getTargetKey() {
+        return LogRotator.getTargetKey(mDirectory, FILENAME, false, EXTENSION);
+    }
+
+    private File createFile(String name, String content) throws IOException {
+        File file = new File(mDirectory, name);
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write((content + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    private File[] listFiles() {
+        return mDirectory.listFiles();
+    }
+
+    private static int readLines(File file) throws IOException {
+        InputStream inputStream = new FileInputStream(file);
+        if (file.getName().endsWith(LogSegmentIndex.COMPRESSED_SUFFIX)) {
+            inputStream = new GZIPInputStream(inputStream);
+        }
+        int lines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            while (reader.readLine() != null) {
+                lines++;
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.persistentlogging.writer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import de.telekom.smartcredentials.persistentlogging.rotation.LogRotator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncLogWriterTest {
+
+    private static final String FILENAME = "app";
+    private static final String EXTENSION = ".log";
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    private File mDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        mDirectory = mTemporaryFolder.newFolder("logs");
+    }
+
+    @Test
+    public void flushWritesQueuedLinesInOrder() throws IOException {
+        AsyncLogWriter writer = new AsyncLogWriter();
+
+        writer.write(mDirectory, FILENAME, false, EXTENSION, "first");
+        writer.write(mDirectory, FILENAME, false, EXTENSION, "second");
+        writer.writeAndFlush(mDirectory, FILENAME, false, EXTENSION, "third");
+
+        assertEquals(Arrays.asList("first", "second", "third"), readLines());
+        assertEquals(3, writer.getWrittenCount());
+        writer.close();
+    }
+
+    @Test
+    public void droppedLinesAreNotCountedAsWritten() throws Exception {
+        BlockingLogRotator logRotator = new BlockingLogRotator();
+        AsyncLogWriter writer = new AsyncLogWriter(2, logRotator);
+        writer.write(mDirectory, FILENAME, false, EXTENSION, "first");
+        Thread flusher = new Thread(writer::flush);
+        flusher.start();
+        assertTrue(logRotator.mBlocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        for (int i = 2; i <= 5; i++) {
+            writer.write(mDirectory, FILENAME, false, EXTENSION, "line" + i);
+        }
+        logRotator.mRelease.countDown();
+        flusher.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        writer.flush();
+
+        assertEquals(Arrays.asList("first", "line4", "line5"), readLines());
+        assertEquals(3, writer.getWrittenCount());
+        writer.close();
+    }
+
+    @Test
+    public void writeAfterCloseIsIgnored() throws IOException {
+        AsyncLogWriter writer = new AsyncLogWriter();
+        writer.writeAndFlush(mDirectory, FILENAME, false, EXTENSION, "first");
+
+        writer.close();
+        writer.write(mDirectory, FILENAME, false, EXTENSION, "second");
+        writer.flush();
+
+        assertEquals(Arrays.asList("first"), readLines());
+    }
+
+    private List<String> readLines() throws IOException {
+        return Files.readAllLines(new File(mDirectory, FILENAME + EXTENSION).toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static class BlockingLogRotator extends LogRotator {
+
+        private final CountDownLatch mBlocked = new CountDownLatch(1);
+        private final CountDownLatch mRelease = new CountDownLatch(1);
+
+        @Override
+        public boolean onWritten(String targetKey, File directoryFile, String filename, String extension,
+                                 File logFile, long fileSize) {
+            if (mBlocked.getCount() > 0) {
+                mBlocked.countDown();
+                try {
+                    mRelease.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.onWritten(targetKey, directoryFile, filename, extension, logFile, fileSize);
+        }
+    }
+}
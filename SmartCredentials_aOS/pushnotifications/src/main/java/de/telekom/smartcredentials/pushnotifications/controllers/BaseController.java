@@ -20,9 +20,12 @@ import androidx.annotation.NonNull;
 
 import com.google.android.gms.tasks.OnFailureListener;
 import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.messaging.FirebaseMessaging;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import de.telekom.smartcredentials.core.api.PushNotificationsApi;
 import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
@@ -30,10 +33,12 @@ import de.telekom.smartcredentials.core.pushnotifications.callbacks.PushNotifica
 import de.telekom.smartcredentials.core.pushnotifications.callbacks.PushNotificationsCallback;
 import de.telekom.smartcredentials.core.pushnotifications.callbacks.PushNotificationsMessageCallback;
 import de.telekom.smartcredentials.core.pushnotifications.callbacks.PushNotificationsTokenCallback;
+import de.telekom.smartcredentials.core.pushnotifications.models.PushNotificationsError;
 import de.telekom.smartcredentials.core.responses.SmartCredentialsApiResponse;
 import de.telekom.smartcredentials.core.responses.SmartCredentialsResponse;
 import de.telekom.smartcredentials.pushnotifications.di.ObjectGraphCreatorPushNotifications;
 import de.telekom.smartcredentials.pushnotifications.enums.PushNotificationsMessages;
+import de.telekom.smartcredentials.pushnotifications.models.TopicError;
 import de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository;
 
 /**
@@ -94,6 +99,79 @@ public abstract class BaseController implements PushNotificationsApi {
         return new SmartCredentialsResponse<>();
     }
 
+    @Override
+    public SmartCredentialsApiResponse<Void> subscribeToTopics(List<String> topics, PushNotificationsCallback callback) {
+        if (topics == null || topics.isEmpty()) {
+            reportNoTopics(callback);
+            return new SmartCredentialsResponse<>();
+        }
+
+        List<Task<Void>> tasks = new ArrayList<>();
+        for (String topic : topics) {
+            tasks.add(FirebaseMessaging.getInstance().subscribeToTopic(topic));
+        }
+        whenAllTopicsHandled(topics, tasks, PushNotificationsMessages.SUCCESSFULLY_SUBSCRIBED_TO,
+                PushNotificationsMessages.UNSUCCESSFULLY_SUBSCRIBED_TO, callback);
+        return new SmartCredentialsResponse<>();
+    }
+
+    @Override
+    public SmartCredentialsApiResponse<Void> unsubscribeFromTopics(List<String> topics, PushNotificationsCallback callback) {
+        if (topics == null || topics.isEmpty()) {
+            reportNoTopics(callback);
+            return new SmartCredentialsResponse<>();
+        }
+
+        List<Task<Void>> tasks = new ArrayList<>();
+        for (String topic : topics) {
+            tasks.add(FirebaseMessaging.getInstance().unsubscribeFromTopic(topic));
+        }
+        whenAllTopicsHandled(topics, tasks, PushNotificationsMessages.SUCCESSFULLY_UNSUBSCRIBED_TO,
+                PushNotificationsMessages.UNSUCCESSFULLY_UNSUBSCRIBED_TO, callback);
+        return new SmartCredentialsResponse<>();
+    }
+
+    private void reportNoTopics(PushNotificationsCallback callback) {
+        ApiLoggerResolver.logError(getClass().getSimpleName(), PushNotificationsMessages.NO_TOPICS.getMessage());
+        callback.onFailure(PushNotificationsMessages.NO_TOPICS.getMessage(), new ArrayList<>());
+    }
+
+    /**
+     * Reports the outcome of a batch of topic tasks through a single callback call, once every
+     * task completed; on failure the errors hold the topic and cause of every task that failed.
+     */
+    private void whenAllTopicsHandled(List<String> topics, List<Task<Void>> tasks,
+                                      PushNotificationsMessages successMessage,
+                                      PushNotificationsMessages failureMessage,
+                                      PushNotificationsCallback callback) {
+        Tasks.whenAll(tasks).addOnCompleteListener(task -> {
+            List<String> failedTopics = new ArrayList<>();
+            List<PushNotificationsError> errors = new ArrayList<>();
+            for (int index = 0; index < tasks.size(); index++) {
+                Task<Void> topicTask = tasks.get(index);
+                if (!topicTask.isSuccessful()) {
+                    failedTopics.add(topics.get(index));
+                    errors.add(new TopicError(topics.get(index), topicTask.getException()));
+                }
+            }
+
+            if (failedTopics.isEmpty()) {
+                String message = successMessage.getMessage() + topics + " topics";
+                ApiLoggerResolver.logMethodAccess(getClass().getSimpleName(), message);
+                if (successMessage == PushNotificationsMessages.SUCCESSFULLY_SUBSCRIBED_TO
+                        && !mStorageRepository.getPushNotificationsConfigBoolean(
+                        PushNotificationsStorageRepository.KEY_SUBSCRIPTION_STATE)) {
+                    ApiLoggerResolver.logInfo(PushNotificationsMessages.SUBSCRIBE_FOR_NOTIFICATIONS.getMessage());
+                }
+                callback.onSuccess(message);
+            } else {
+                String message = failureMessage.getMessage() + failedTopics + " topics";
+                ApiLoggerResolver.logMethodAccess(getClass().getSimpleName(), message);
+                callback.onFailure(message, errors);
+            }
+        });
+    }
+
     @Override
     public SmartCredentialsResponse<Void> retrieveToken(PushNotificationRetrieveTokenCallback callback) {
         FirebaseMessaging.getInstance().getToken().addOnCompleteListener(task -> {
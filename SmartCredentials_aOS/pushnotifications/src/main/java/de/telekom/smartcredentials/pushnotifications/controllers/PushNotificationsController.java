@@ -16,6 +16,8 @@
 
 package de.telekom.smartcredentials.pushnotifications.controllers;
 
+import java.util.List;
+
 import de.telekom.smartcredentials.core.api.PushNotificationsApi;
 import de.telekom.smartcredentials.core.blacklisting.SmartCredentialsFeatureSet;
 import de.telekom.smartcredentials.core.controllers.CoreController;
@@ -113,6 +115,42 @@ public class PushNotificationsController implements PushNotificationsApi {
         return mControllerFactory.getController().unsubscribeFromTopic(topic, callback);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SmartCredentialsApiResponse<Void> subscribeToTopics(List<String> topics, PushNotificationsCallback callback) {
+        if (mCoreController.isSecurityCompromised()) {
+            mCoreController.handleSecurityCompromised();
+            return new SmartCredentialsResponse<>(new RootedThrowable());
+        }
+
+        if (mCoreController.isDeviceRestricted(SmartCredentialsFeatureSet.SUBSCRIBE_TO_TOPIC)) {
+            String errorMessage = SmartCredentialsFeatureSet.SUBSCRIBE_TO_TOPIC.getNotSupportedDesc();
+            return new SmartCredentialsResponse<>(new FeatureNotSupportedThrowable(errorMessage));
+        }
+
+        return mControllerFactory.getController().subscribeToTopics(topics, callback);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SmartCredentialsApiResponse<Void> unsubscribeFromTopics(List<String> topics, PushNotificationsCallback callback) {
+        if (mCoreController.isSecurityCompromised()) {
+            mCoreController.handleSecurityCompromised();
+            return new SmartCredentialsResponse<>(new RootedThrowable());
+        }
+
+        if (mCoreController.isDeviceRestricted(SmartCredentialsFeatureSet.UNSUBSCRIBE_FROM_TOPIC)) {
+            String errorMessage = SmartCredentialsFeatureSet.UNSUBSCRIBE_FROM_TOPIC.getNotSupportedDesc();
+            return new SmartCredentialsResponse<>(new FeatureNotSupportedThrowable(errorMessage));
+        }
+
+        return mControllerFactory.getController().unsubscribeFromTopics(topics, callback);
+    }
+
     /**
      * {@inheritDoc}
      */
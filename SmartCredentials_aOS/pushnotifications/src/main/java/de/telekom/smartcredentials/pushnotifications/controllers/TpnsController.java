@@ -31,7 +31,6 @@ import de.telekom.smartcredentials.pushnotifications.di.ObjectGraphCreatorPushNo
 import de.telekom.smartcredentials.pushnotifications.enums.PushNotificationsMessages;
 import de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository;
 import de.telekom.smartcredentials.pushnotifications.rest.RetrofitClient;
-import de.telekom.smartcredentials.pushnotifications.rest.http.HttpClientFactory;
 import de.telekom.smartcredentials.pushnotifications.rest.models.TpnsRequestBody;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
@@ -46,7 +45,7 @@ public class TpnsController extends BaseController {
     private final CompositeDisposable mCompositeDisposable;
 
     TpnsController() {
-        mRetrofitClient = new RetrofitClient(new HttpClientFactory());
+        mRetrofitClient = ObjectGraphCreatorPushNotifications.getInstance().provideTpnsRetrofitClient();
         mCompositeDisposable = new CompositeDisposable();
     }
 
@@ -111,7 +110,7 @@ public class TpnsController extends BaseController {
                 String url = mRetrofitClient.getTpnsUrl(mStorageRepository.getPushNotificationsConfigBoolean(
                         PushNotificationsStorageRepository.KEY_TPNS_PRODUCTION_STATE));
                 mCompositeDisposable.add(
-                        mRetrofitClient.createTpnsService(url)
+                        mRetrofitClient.getTpnsService(url)
                                 .register(registrationBody)
                                 .subscribeOn(Schedulers.io())
                                 .observeOn(AndroidSchedulers.mainThread())
@@ -148,7 +147,7 @@ public class TpnsController extends BaseController {
                 String url = mRetrofitClient.getTpnsUrl(mStorageRepository.getPushNotificationsConfigBoolean(
                         PushNotificationsStorageRepository.KEY_TPNS_PRODUCTION_STATE));
                 mCompositeDisposable.add(
-                        mRetrofitClient.createTpnsService(url)
+                        mRetrofitClient.getTpnsService(url)
                                 .unregister(requestBody.getApplicationKey(), requestBody.getDeviceId())
                                 .subscribeOn(Schedulers.io())
                                 .observeOn(AndroidSchedulers.mainThread())
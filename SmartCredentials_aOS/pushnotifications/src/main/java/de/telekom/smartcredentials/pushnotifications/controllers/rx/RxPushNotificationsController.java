@@ -16,6 +16,7 @@
 
 package de.telekom.smartcredentials.pushnotifications.controllers.rx;
 
+import java.util.List;
 import java.util.Objects;
 
 import de.telekom.smartcredentials.core.api.rx.RxPushNotificationsApi;
@@ -24,10 +25,12 @@ import de.telekom.smartcredentials.pushnotifications.controllers.PushNotificatio
 import de.telekom.smartcredentials.pushnotifications.rx.MessageReceivedObservable;
 import de.telekom.smartcredentials.pushnotifications.rx.SubscribeCompletable;
 import de.telekom.smartcredentials.pushnotifications.rx.SubscribeToTopicCompletable;
+import de.telekom.smartcredentials.pushnotifications.rx.SubscribeToTopicsCompletable;
 import de.telekom.smartcredentials.pushnotifications.rx.TokenRefreshedObservable;
 import de.telekom.smartcredentials.pushnotifications.rx.TokenRetrievedSingle;
 import de.telekom.smartcredentials.pushnotifications.rx.UnsubscribeCompletable;
 import de.telekom.smartcredentials.pushnotifications.rx.UnsubscribeFromTopicCompletable;
+import de.telekom.smartcredentials.pushnotifications.rx.UnsubscribeFromTopicsCompletable;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
 import io.reactivex.Single;
@@ -75,6 +78,22 @@ public class RxPushNotificationsController implements RxPushNotificationsApi {
         return Completable.create(new UnsubscribeFromTopicCompletable(controller, topic));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Completable subscribeToTopics(List<String> topics) {
+        return Completable.create(new SubscribeToTopicsCompletable(controller, topics));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Completable unsubscribeFromTopics(List<String> topics) {
+        return Completable.create(new UnsubscribeFromTopicsCompletable(controller, topics));
+    }
+
     /**
      * {@inheritDoc}
      */
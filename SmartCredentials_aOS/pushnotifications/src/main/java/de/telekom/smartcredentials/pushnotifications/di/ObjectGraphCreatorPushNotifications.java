@@ -23,10 +23,13 @@ import de.telekom.smartcredentials.core.blacklisting.SmartCredentialsModuleSet;
 import de.telekom.smartcredentials.core.controllers.CoreController;
 import de.telekom.smartcredentials.core.pushnotifications.enums.ServiceType;
 import de.telekom.smartcredentials.core.pushnotifications.enums.TpnsEnvironment;
+import de.telekom.smartcredentials.core.pushnotifications.enums.TpnsLogLevel;
 import de.telekom.smartcredentials.pushnotifications.controllers.rx.RxPushNotificationsController;
 import de.telekom.smartcredentials.pushnotifications.handlers.PushNotificationsHandler;
 import de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository;
 import de.telekom.smartcredentials.pushnotifications.controllers.PushNotificationsController;
+import de.telekom.smartcredentials.pushnotifications.rest.RetrofitClient;
+import de.telekom.smartcredentials.pushnotifications.rest.http.HttpClientFactory;
 import de.telekom.smartcredentials.pushnotifications.rest.models.TpnsRequestBody;
 
 import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_AUTO_SUBSCRIBE;
@@ -42,6 +45,7 @@ public class ObjectGraphCreatorPushNotifications {
     private static ObjectGraphCreatorPushNotifications sInstance;
     private PushNotificationsController mController;
     private StorageApi mStorageApi;
+    private TpnsLogLevel mTpnsLogLevel = TpnsLogLevel.NONE;
 
     private ObjectGraphCreatorPushNotifications() {
         // required empty constructor
@@ -92,6 +96,10 @@ public class ObjectGraphCreatorPushNotifications {
         }
     }
 
+    public void setTpnsLogLevel(TpnsLogLevel logLevel) {
+        mTpnsLogLevel = logLevel;
+    }
+
     private StorageApi getStorageApi() {
         if (mStorageApi == null) {
             throw new RuntimeException(SmartCredentialsModuleSet.STORAGE_MODULE + " from "
@@ -104,6 +112,10 @@ public class ObjectGraphCreatorPushNotifications {
         return PushNotificationsStorageRepository.getInstance(getStorageApi());
     }
 
+    public RetrofitClient provideTpnsRetrofitClient() {
+        return RetrofitClient.getInstance(new HttpClientFactory(), mTpnsLogLevel);
+    }
+
     public TpnsRequestBody provideTpnsRequestBody(){
         return new TpnsRequestBody();
     }
@@ -113,6 +125,7 @@ public class ObjectGraphCreatorPushNotifications {
     }
 
     public static void destroy() {
+        PushNotificationsStorageRepository.flushInstance();
         sInstance = null;
     }
 }
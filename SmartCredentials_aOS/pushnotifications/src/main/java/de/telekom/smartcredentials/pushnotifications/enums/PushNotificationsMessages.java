@@ -33,6 +33,9 @@ public enum PushNotificationsMessages {
     NOT_SUBSCRIBED("Not Subscribed to push notifications"),
     SUCCESSFULLY_SUBSCRIBED_TO("Successfully subscribed to "),
     SUCCESSFULLY_UNSUBSCRIBED_TO("Successfully unsubscribed from "),
+    UNSUCCESSFULLY_SUBSCRIBED_TO("Could not subscribe to "),
+    UNSUCCESSFULLY_UNSUBSCRIBED_TO("Could not unsubscribe from "),
+    NO_TOPICS("No topics were given"),
     SUBSCRIBE_FOR_NOTIFICATIONS("Please use the subscribe method in order to receive notifications about this topic");
 
     String mMessage;
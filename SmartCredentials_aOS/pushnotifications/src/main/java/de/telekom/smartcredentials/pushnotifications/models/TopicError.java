@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.pushnotifications.models;
+
+import de.telekom.smartcredentials.core.pushnotifications.models.PushNotificationsError;
+
+/**
+ * Failure of a single topic from a batch topic change; the field holds the topic.
+ */
+public class TopicError extends PushNotificationsError {
+
+    private final String mTopic;
+    private final String mMessage;
+    private final String mErrorCode;
+
+    public TopicError(String topic, Exception cause) {
+        mTopic = topic;
+        mMessage = cause != null ? cause.getLocalizedMessage() : null;
+        mErrorCode = cause != null ? cause.getClass().getSimpleName() : null;
+    }
+
+    @Override
+    public String getField() {
+        return mTopic;
+    }
+
+    @Override
+    public String getMessage() {
+        return mMessage;
+    }
+
+    @Override
+    public String getErrorCode() {
+        return mErrorCode;
+    }
+}
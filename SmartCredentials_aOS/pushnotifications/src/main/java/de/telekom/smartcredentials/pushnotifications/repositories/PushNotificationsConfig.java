@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.pushnotifications.repositories;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_AUTO_SUBSCRIBE;
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_DEVICE_ID;
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_SERVICE_TYPE;
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_SUBSCRIPTION_STATE;
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_TPNS_APPLICATION_KEY;
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_TPNS_PRODUCTION_STATE;
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_TPNS_REGISTRATION_STATE;
+
+/**
+ * Immutable snapshot of the push notifications configuration. Every change produces a new
+ * snapshot, so readers never lock and never see a partially applied change.
+ */
+public final class PushNotificationsConfig {
+
+    static final PushNotificationsConfig EMPTY = new PushNotificationsConfig(Collections.emptyMap());
+
+    private static final String TAG = "PushNotificationsConfig";
+
+    private final Map<String, Object> mValues;
+
+    private PushNotificationsConfig(Map<String, Object> values) {
+        mValues = values;
+    }
+
+    static PushNotificationsConfig from(JSONObject identifier) {
+        Map<String, Object> values = new HashMap<>();
+        Iterator<String> keys = identifier.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            values.put(key, identifier.opt(key));
+        }
+        return new PushNotificationsConfig(values);
+    }
+
+    PushNotificationsConfig with(String key, Object value) {
+        Map<String, Object> values = new HashMap<>(mValues);
+        values.put(key, value);
+        return new PushNotificationsConfig(values);
+    }
+
+    JSONObject toJson() {
+        JSONObject identifier = new JSONObject();
+        for (Map.Entry<String, Object> entry : mValues.entrySet()) {
+            try {
+                identifier.put(entry.getKey(), entry.getValue());
+            } catch (JSONException e) {
+                ApiLoggerResolver.logError(TAG, e.getMessage());
+            }
+        }
+        return identifier;
+    }
+
+    /**
+     * @return the value of the key as a {@link String}, or an empty string if it is not set
+     */
+    public String getString(String key) {
+        Object value = mValues.get(key);
+        return value == null || value == JSONObject.NULL ? "" : String.valueOf(value);
+    }
+
+    /**
+     * @return the value of the key as a boolean, or <code>false</code> if it is not set
+     */
+    public boolean getBoolean(String key) {
+        Object value = mValues.get(key);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return value instanceof String && Boolean.parseBoolean((String) value);
+    }
+
+    public boolean isSubscribed() {
+        return getBoolean(KEY_SUBSCRIPTION_STATE);
+    }
+
+    public boolean isTpnsRegistered() {
+        return getBoolean(KEY_TPNS_REGISTRATION_STATE);
+    }
+
+    public boolean isTpnsProduction() {
+        return getBoolean(KEY_TPNS_PRODUCTION_STATE);
+    }
+
+    public boolean isAutoSubscribe() {
+        return getBoolean(KEY_AUTO_SUBSCRIBE);
+    }
+
+    public String getServiceType() {
+        return getString(KEY_SERVICE_TYPE);
+    }
+
+    public String getDeviceId() {
+        return getString(KEY_DEVICE_ID);
+    }
+
+    public String getTpnsApplicationKey() {
+        return getString(KEY_TPNS_APPLICATION_KEY);
+    }
+}
@@ -16,9 +16,15 @@
 
 package de.telekom.smartcredentials.pushnotifications.repositories;
 
-import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 import de.telekom.smartcredentials.core.api.StorageApi;
 import de.telekom.smartcredentials.core.context.ItemContext;
 import de.telekom.smartcredentials.core.context.ItemContextFactory;
@@ -26,10 +32,18 @@ import de.telekom.smartcredentials.core.filter.SmartCredentialsFilter;
 import de.telekom.smartcredentials.core.filter.SmartCredentialsFilterFactory;
 import de.telekom.smartcredentials.core.itemdatamodel.ItemEnvelope;
 import de.telekom.smartcredentials.core.itemdatamodel.ItemEnvelopeFactory;
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
 import de.telekom.smartcredentials.core.responses.SmartCredentialsApiResponse;
 
 /**
  * Created by gabriel.blaj@endava.com at 5/18/2020
+ * <p>
+ * The encrypted configuration item is read once and kept in memory as a
+ * {@link PushNotificationsConfig} snapshot which serves every read. Changes replace the snapshot
+ * right away and are persisted in background {@link #WRITE_BEHIND_DELAY_MILLIS} later, so that
+ * consecutive changes are encrypted and saved together; {@link #flush()} persists them at once.
+ * Changes of {@link #KEY_DEVICE_ID} are persisted before the save returns, since the id is
+ * registered at TPNS right after it is generated and must not be lost with the process.
  */
 public class PushNotificationsStorageRepository {
 
@@ -44,13 +58,30 @@ public class PushNotificationsStorageRepository {
     public final static String KEY_AUTO_SUBSCRIBE = "auto_subscribe";
     private final static String KEY_PUSH_NOTIFICATIONS_CONFIG_ID = "smartcredentials_push_notifications_config";
     private final static String KEY_PUSH_NOTIFICATIONS_CONFIG_TYPE = "push_notifications_config";
+    private final static String TAG = "PushNotificationsStorageRepository";
+    static final long WRITE_BEHIND_DELAY_MILLIS = 200;
+    private final static Set<String> WRITE_THROUGH_KEYS = Collections.singleton(KEY_DEVICE_ID);
 
+    private final Object mLock = new Object();
+    private final ScheduledExecutorService mPersistExecutor;
     private StorageApi mStorageApi;
     private ItemContext mItemContext;
+    private ItemEnvelope mConfigItem;
+    private volatile PushNotificationsConfig mConfig;
+    private boolean mPersistPending;
 
     private PushNotificationsStorageRepository(StorageApi storageApi) {
+        this(storageApi, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, TAG);
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    PushNotificationsStorageRepository(StorageApi storageApi, ScheduledExecutorService persistExecutor) {
         mStorageApi = storageApi;
         mItemContext = ItemContextFactory.createEncryptedSensitiveItemContext(KEY_PUSH_NOTIFICATIONS_CONFIG_TYPE);
+        mPersistExecutor = persistExecutor;
     }
 
     public static PushNotificationsStorageRepository getInstance(StorageApi storageApi) {
@@ -60,63 +91,101 @@ public class PushNotificationsStorageRepository {
         return INSTANCE;
     }
 
-    public void saveConfigurationValue(String key, String value) {
-        ItemEnvelope pushNotificationsConfig = getPushNotificationsConfigItem();
-        JSONObject identifier = pushNotificationsConfig.getIdentifier();
-        try {
-            identifier.put(key, value);
-        } catch (JSONException e) {
-            e.printStackTrace();
+    /**
+     * Persists the pending changes of the shared instance, if one was created, before the module
+     * is torn down.
+     */
+    public static void flushInstance() {
+        PushNotificationsStorageRepository instance = INSTANCE;
+        if (instance != null) {
+            instance.flush();
+        }
+    }
+
+    /**
+     * @return the current configuration, loaded from storage on the first call only
+     */
+    public PushNotificationsConfig getConfig() {
+        PushNotificationsConfig config = mConfig;
+        if (config == null) {
+            synchronized (mLock) {
+                if (mConfig == null) {
+                    mConfigItem = getPushNotificationsConfigItem();
+                    JSONObject identifier = mConfigItem.getIdentifier();
+                    mConfig = identifier == null ? PushNotificationsConfig.EMPTY : PushNotificationsConfig.from(identifier);
+                }
+                config = mConfig;
+            }
         }
-        pushNotificationsConfig.setIdentifier(identifier);
-        mStorageApi.putItem(pushNotificationsConfig, mItemContext);
+        return config;
+    }
+
+    public void saveConfigurationValue(String key, String value) {
+        updateConfig(key, value);
     }
 
     public void saveConfigurationValue(String key, boolean value) {
-        ItemEnvelope pushNotificationsConfig = getPushNotificationsConfigItem();
-        JSONObject identifier = pushNotificationsConfig.getIdentifier();
+        updateConfig(key, value);
+    }
+
+    /**
+     * Blocks until the pending changes have been persisted.
+     */
+    public void flush() {
         try {
-            identifier.put(key, value);
-        } catch (JSONException e) {
-            e.printStackTrace();
+            mPersistExecutor.submit(this::persist).get();
+        } catch (ExecutionException e) {
+            ApiLoggerResolver.logError(TAG, "Failed to persist push notifications config");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void updateConfig(String key, Object value) {
+        synchronized (mLock) {
+            mConfig = getConfig().with(key, value);
+            if (!mPersistPending) {
+                mPersistPending = true;
+                mPersistExecutor.schedule(this::persist, WRITE_BEHIND_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (WRITE_THROUGH_KEYS.contains(key)) {
+            flush();
         }
-        pushNotificationsConfig.setIdentifier(identifier);
-        mStorageApi.putItem(pushNotificationsConfig, mItemContext);
     }
 
+    private void persist() {
+        ItemEnvelope configItem;
+        synchronized (mLock) {
+            if (!mPersistPending) {
+                return;
+            }
+            mPersistPending = false;
+            configItem = mConfigItem;
+            configItem.setIdentifier(mConfig.toJson());
+        }
+        mStorageApi.putItem(configItem, mItemContext);
+    }
 
     private ItemEnvelope getPushNotificationsConfigItem() {
         SmartCredentialsFilter filter = SmartCredentialsFilterFactory
                 .createSensitiveItemFilter(KEY_PUSH_NOTIFICATIONS_CONFIG_ID, KEY_PUSH_NOTIFICATIONS_CONFIG_TYPE);
-        ItemContext itemContext = ItemContextFactory
-                .createEncryptedSensitiveItemContext(KEY_PUSH_NOTIFICATIONS_CONFIG_TYPE);
         SmartCredentialsApiResponse<ItemEnvelope> response = mStorageApi.getItemDetailsById(filter);
         if (response.isSuccessful()) {
             return response.getData();
         } else {
             ItemEnvelope itemEnvelope = ItemEnvelopeFactory
                     .createItemEnvelope(KEY_PUSH_NOTIFICATIONS_CONFIG_ID, new JSONObject());
-            mStorageApi.putItem(itemEnvelope, itemContext);
+            mStorageApi.putItem(itemEnvelope, mItemContext);
             return itemEnvelope;
         }
     }
 
     public String getPushNotificationsConfigString(String key) {
-        try {
-            return getPushNotificationsConfigItem().getIdentifier().getString(key);
-        } catch (JSONException e) {
-            e.printStackTrace();
-        }
-        return "";
+        return getConfig().getString(key);
     }
 
     public boolean getPushNotificationsConfigBoolean(String key) {
-        try {
-            return getPushNotificationsConfigItem().getIdentifier().getBoolean(key);
-        } catch (JSONException e) {
-            e.printStackTrace();
-        }
-        return false;
+        return getConfig().getBoolean(key);
     }
-
 }
@@ -18,33 +18,61 @@ package de.telekom.smartcredentials.pushnotifications.rest;
 
 import com.google.gson.Gson;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import de.telekom.smartcredentials.core.pushnotifications.enums.TpnsLogLevel;
 import de.telekom.smartcredentials.pushnotifications.rest.http.HttpClientFactory;
 import de.telekom.smartcredentials.pushnotifications.rest.service.TpnsService;
+import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
 import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 /**
  * Created by gabriel.blaj@endava.com at 5/18/2020
+ * <p>
+ * Process-wide TPNS client: one {@link OkHttpClient}, so connections are reused across register
+ * and unregister calls, and one {@link TpnsService} per TPNS environment.
  */
 public class RetrofitClient {
 
     private final static String TEST_URL = "https://tpns-preprod.molutions.de/";
     private final static String PRODUCTION_URL = "https://tpns.molutions.de/";
 
-    private HttpClientFactory mHttpClientFactory;
+    private static RetrofitClient sInstance;
+
+    private final TpnsLogLevel mLogLevel;
+    private final OkHttpClient mOkHttpClient;
+    private final Map<String, TpnsService> mTpnsServices = new HashMap<>();
+
+    private RetrofitClient(HttpClientFactory httpClientFactory, TpnsLogLevel logLevel) {
+        mLogLevel = logLevel;
+        mOkHttpClient = httpClientFactory.createHttpClient(logLevel);
+    }
 
-    public RetrofitClient(HttpClientFactory httpClientFactory) {
-        mHttpClientFactory = httpClientFactory;
+    /**
+     * Returns the shared client, which is only built again when the log level changes.
+     */
+    public static synchronized RetrofitClient getInstance(HttpClientFactory httpClientFactory, TpnsLogLevel logLevel) {
+        if (sInstance == null || sInstance.mLogLevel != logLevel) {
+            sInstance = new RetrofitClient(httpClientFactory, logLevel);
+        }
+        return sInstance;
     }
 
-    public TpnsService createTpnsService(String url) {
-        return new Retrofit.Builder()
-                .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
-                .addConverterFactory(GsonConverterFactory.create(new Gson()))
-                .client(mHttpClientFactory.createHttpClient())
-                .baseUrl(url)
-                .build().create(TpnsService.class);
+    public synchronized TpnsService getTpnsService(String url) {
+        TpnsService tpnsService = mTpnsServices.get(url);
+        if (tpnsService == null) {
+            tpnsService = new Retrofit.Builder()
+                    .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
+                    .addConverterFactory(GsonConverterFactory.create(new Gson()))
+                    .client(mOkHttpClient)
+                    .baseUrl(url)
+                    .build().create(TpnsService.class);
+            mTpnsServices.put(url, tpnsService);
+        }
+        return tpnsService;
     }
 
     public String getTpnsUrl(boolean isInProduction) {
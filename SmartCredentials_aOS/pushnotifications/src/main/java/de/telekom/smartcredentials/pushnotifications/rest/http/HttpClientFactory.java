@@ -16,6 +16,7 @@
 
 package de.telekom.smartcredentials.pushnotifications.rest.http;
 
+import de.telekom.smartcredentials.core.pushnotifications.enums.TpnsLogLevel;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 
@@ -24,12 +25,18 @@ import okhttp3.logging.HttpLoggingInterceptor;
  */
 public class HttpClientFactory {
 
-    public OkHttpClient createHttpClient() {
-        HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-        logging.setLevel(HttpLoggingInterceptor.Level.BODY);
-        return new OkHttpClient().newBuilder()
-                .addInterceptor(logging)
-                .build();
+    /**
+     * Builds the TPNS {@link OkHttpClient}; no logging interceptor is added for
+     * {@link TpnsLogLevel#NONE}, so nothing is buffered or formatted for the log.
+     */
+    public OkHttpClient createHttpClient(TpnsLogLevel logLevel) {
+        OkHttpClient.Builder builder = new OkHttpClient().newBuilder();
+        if (logLevel != null && logLevel != TpnsLogLevel.NONE) {
+            HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
+            logging.setLevel(HttpLoggingInterceptor.Level.valueOf(logLevel.name()));
+            builder.addInterceptor(logging);
+        }
+        return builder.build();
     }
 
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.pushnotifications.rx;
+
+import java.util.List;
+
+import de.telekom.smartcredentials.core.pushnotifications.callbacks.PushNotificationsCallback;
+import de.telekom.smartcredentials.core.pushnotifications.models.PushNotificationsError;
+import de.telekom.smartcredentials.pushnotifications.controllers.PushNotificationsController;
+import io.reactivex.CompletableEmitter;
+import io.reactivex.CompletableOnSubscribe;
+
+/**
+ * Subscribes to several topics at once and completes after all of them were handled.
+ */
+public class SubscribeToTopicsCompletable implements CompletableOnSubscribe {
+
+    private final PushNotificationsController mController;
+    private final List<String> mTopics;
+
+    public SubscribeToTopicsCompletable(PushNotificationsController controller, List<String> topics) {
+        mController = controller;
+        mTopics = topics;
+    }
+
+    @Override
+    public void subscribe(CompletableEmitter emitter) {
+        mController.subscribeToTopics(mTopics, new PushNotificationsCallback() {
+            @Override
+            public void onSuccess(String message) {
+                emitter.onComplete();
+            }
+
+            @Override
+            public void onFailure(String message, List<PushNotificationsError> errors) {
+                emitter.onError(new Exception(message));
+            }
+        });
+    }
+}
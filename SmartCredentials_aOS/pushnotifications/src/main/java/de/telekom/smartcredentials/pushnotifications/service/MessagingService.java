@@ -25,6 +25,7 @@ import de.telekom.smartcredentials.pushnotifications.di.ObjectGraphCreatorPushNo
 import de.telekom.smartcredentials.pushnotifications.factory.SmartCredentialsPushNotificationsFactory;
 import de.telekom.smartcredentials.pushnotifications.handlers.PushNotificationsHandler;
 import de.telekom.smartcredentials.pushnotifications.models.FirebaseRemoteMessage;
+import de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsConfig;
 import de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
@@ -59,22 +60,21 @@ public class MessagingService extends FirebaseMessagingService {
 
     @Override
     public void onNewToken(@NotNull String token) {
-        if (mStorageRepository.getPushNotificationsConfigBoolean(PushNotificationsStorageRepository.KEY_AUTO_SUBSCRIBE)) {
+        PushNotificationsConfig config = mStorageRepository.getConfig();
+        if (config.isAutoSubscribe()) {
             mCompositeDisposable.add(SmartCredentialsPushNotificationsFactory.getRxPushNotificationsApi().subscribeAllNotifications()
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .subscribe());
         }
-        if (mStorageRepository.getPushNotificationsConfigBoolean(
-                PushNotificationsStorageRepository.KEY_SUBSCRIPTION_STATE)) {
+        if (config.isSubscribed()) {
             mHandler.onNewToken(token);
         }
     }
 
     @Override
     public void onMessageReceived(@NotNull RemoteMessage remoteMessage) {
-        if (mStorageRepository.getPushNotificationsConfigBoolean(
-                PushNotificationsStorageRepository.KEY_SUBSCRIPTION_STATE)) {
+        if (mStorageRepository.getConfig().isSubscribed()) {
             mHandler.onMessageReceived(new FirebaseRemoteMessage(remoteMessage));
         }
     }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.pushnotifications.repositories;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_AUTO_SUBSCRIBE;
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_DEVICE_ID;
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_SUBSCRIPTION_STATE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class PushNotificationsConfigTest {
+
+    @Test
+    public void emptyConfigReturnsDefaults() {
+        PushNotificationsConfig config = PushNotificationsConfig.EMPTY;
+
+        assertEquals("", config.getDeviceId());
+        assertFalse(config.isSubscribed());
+        assertFalse(config.isAutoSubscribe());
+    }
+
+    @Test
+    public void fromReadsStoredValues() throws Exception {
+        JSONObject identifier = new JSONObject()
+                .put(KEY_DEVICE_ID, "device")
+                .put(KEY_SUBSCRIPTION_STATE, true)
+                .put(KEY_AUTO_SUBSCRIBE, "true");
+
+        PushNotificationsConfig config = PushNotificationsConfig.from(identifier);
+
+        assertEquals("device", config.getDeviceId());
+        assertTrue(config.isSubscribed());
+        assertTrue(config.isAutoSubscribe());
+    }
+
+    @Test
+    public void withReturnsNewSnapshotAndKeepsOriginal() {
+        PushNotificationsConfig original = PushNotificationsConfig.EMPTY.with(KEY_DEVICE_ID, "first");
+
+        PushNotificationsConfig changed = original.with(KEY_DEVICE_ID, "second");
+
+        assertNotSame(original, changed);
+        assertEquals("first", original.getDeviceId());
+        assertEquals("second", changed.getDeviceId());
+    }
+
+    @Test
+    public void toJsonRoundTrips() {
+        PushNotificationsConfig config = PushNotificationsConfig.EMPTY
+                .with(KEY_DEVICE_ID, "device")
+                .with(KEY_SUBSCRIPTION_STATE, true);
+
+        PushNotificationsConfig copy = PushNotificationsConfig.from(config.toJson());
+
+        assertEquals("device", copy.getDeviceId());
+        assertTrue(copy.isSubscribed());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.pushnotifications.repositories;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import de.telekom.smartcredentials.core.api.StorageApi;
+import de.telekom.smartcredentials.core.context.ItemContext;
+import de.telekom.smartcredentials.core.filter.SmartCredentialsFilter;
+import de.telekom.smartcredentials.core.itemdatamodel.ItemEnvelope;
+import de.telekom.smartcredentials.core.responses.SmartCredentialsApiResponse;
+
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_AUTO_SUBSCRIBE;
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_DEVICE_ID;
+import static de.telekom.smartcredentials.pushnotifications.repositories.PushNotificationsStorageRepository.KEY_SUBSCRIPTION_STATE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PushNotificationsStorageRepositoryTest {
+
+    private StorageApi mStorageApi;
+    private ItemEnvelope mConfigItem;
+    private ScheduledExecutorService mExecutor;
+    private PushNotificationsStorageRepository mRepository;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        mStorageApi = Mockito.mock(StorageApi.class);
+        mConfigItem = Mockito.mock(ItemEnvelope.class);
+        when(mConfigItem.getIdentifier()).thenReturn(new JSONObject());
+        SmartCredentialsApiResponse<ItemEnvelope> response = Mockito.mock(SmartCredentialsApiResponse.class);
+        when(response.isSuccessful()).thenReturn(true);
+        when(response.getData()).thenReturn(mConfigItem);
+        when(mStorageApi.getItemDetailsById(any(SmartCredentialsFilter.class))).thenReturn(response);
+
+        mExecutor = Executors.newSingleThreadScheduledExecutor();
+        mRepository = new PushNotificationsStorageRepository(mStorageApi, mExecutor);
+    }
+
+    @After
+    public void tearDown() {
+        mExecutor.shutdownNow();
+    }
+
+    @Test
+    public void configIsLoadedOnce() {
+        mRepository.getPushNotificationsConfigString(KEY_DEVICE_ID);
+        mRepository.getPushNotificationsConfigBoolean(KEY_SUBSCRIPTION_STATE);
+        mRepository.getConfig();
+
+        verify(mStorageApi, times(1)).getItemDetailsById(any(SmartCredentialsFilter.class));
+    }
+
+    @Test
+    public void changesAreServedBeforeTheyArePersisted() {
+        mRepository.saveConfigurationValue(KEY_SUBSCRIPTION_STATE, true);
+
+        assertTrue(mRepository.getPushNotificationsConfigBoolean(KEY_SUBSCRIPTION_STATE));
+        verify(mStorageApi, never()).putItem(any(ItemEnvelope.class), any(ItemContext.class));
+    }
+
+    @Test
+    public void consecutiveChangesArePersistedTogether() {
+        mRepository.saveConfigurationValue(KEY_SUBSCRIPTION_STATE, true);
+        mRepository.saveConfigurationValue(KEY_AUTO_SUBSCRIBE, true);
+
+        mRepository.flush();
+
+        verify(mStorageApi, times(1)).putItem(any(ItemEnvelope.class), any(ItemContext.class));
+        JSONObject identifier = captureIdentifier();
+        assertTrue(identifier.optBoolean(KEY_SUBSCRIPTION_STATE));
+        assertTrue(identifier.optBoolean(KEY_AUTO_SUBSCRIBE));
+    }
+
+    @Test
+    public void deviceIdIsPersistedBeforeSaveReturns() {
+        mRepository.saveConfigurationValue(KEY_DEVICE_ID, "device");
+
+        verify(mStorageApi, times(1)).putItem(any(ItemEnvelope.class), any(ItemContext.class));
+        assertEquals("device", captureIdentifier().optString(KEY_DEVICE_ID));
+    }
+
+    private JSONObject captureIdentifier() {
+        ArgumentCaptor<JSONObject> identifier = ArgumentCaptor.forClass(JSONObject.class);
+        verify(mConfigItem).setIdentifier(identifier.capture());
+        return identifier.getValue();
+    }
+}
@@ -21,6 +21,8 @@ import android.content.Context;
 import java.security.Key;
 import java.security.PublicKey;
 
+import javax.crypto.Mac;
+
 import de.telekom.smartcredentials.core.api.SecurityApi;
 import de.telekom.smartcredentials.core.blacklisting.SmartCredentialsFeatureSet;
 import de.telekom.smartcredentials.core.controllers.CoreController;
@@ -122,6 +124,11 @@ public class SecurityController implements SecurityApi {
         return HmacManager.hmac_sha(crypto, keyBytes, text);
     }
 
+    @Override
+    public Mac getHmac(String crypto, byte[] keyBytes) throws EncryptionException {
+        return HmacManager.getHmac(crypto, keyBytes);
+    }
+
     @Override
     public EncryptionStrategy getEncryptionStrategy() {
         return mEncryptionStrategy;
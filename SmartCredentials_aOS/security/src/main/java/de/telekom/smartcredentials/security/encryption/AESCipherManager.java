@@ -18,6 +18,9 @@ package de.telekom.smartcredentials.security.encryption;
 
 import android.util.Base64;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
@@ -27,7 +30,7 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
-import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 
 import de.telekom.smartcredentials.core.security.KeyStoreManagerException;
@@ -40,6 +43,13 @@ public class AESCipherManager extends CipherManager {
     static final int BASE64_FLAG = Base64.DEFAULT;
     private static final String CIPHER_ALGORITHM = "AES/CBC/PKCS7Padding";
 
+    /**
+     * Cipher instances are not thread safe, so every thread keeps its own instance and re-initialises
+     * it for each operation. The returned {@link AESCipher} must be used on the thread that obtained it
+     * and before the next call to {@link #obtainEncryptionCipher} or {@link #obtainDecryptionCypher}.
+     */
+    private static final ThreadLocal<Cipher> sCipher = new ThreadLocal<>();
+
     private final SmartCredentialsKeyStoreKeyProvider mSmartCredentialsKeyStoreKeyProvider;
 
     public AESCipherManager(SmartCredentialsKeyStoreKeyProvider smartCredentialsKeyStoreKeyProvider,
@@ -50,22 +60,51 @@ public class AESCipherManager extends CipherManager {
 
     AESCipher obtainEncryptionCipher(String repositoryAlias) throws InvalidKeyException, KeyStoreProviderException,
             KeyStoreManagerException, NoSuchPaddingException, NoSuchAlgorithmException {
-        SecretKey secretKey = mSmartCredentialsKeyStoreKeyProvider.getKeyStoreSecretKey(buildAlias(repositoryAlias));
-        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+        String alias = buildAlias(repositoryAlias);
+        Cipher cipher = getCipher();
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, mSmartCredentialsKeyStoreKeyProvider.getKeyStoreSecretKey(alias));
+        } catch (InvalidKeyException e) {
+            // the cached key handle may be stale, reload it once from the key store
+            mSmartCredentialsKeyStoreKeyProvider.invalidateKey(alias);
+            cipher.init(Cipher.ENCRYPT_MODE, mSmartCredentialsKeyStoreKeyProvider.getKeyStoreSecretKey(alias));
+        }
         return new AESCipher(cipher, cipher.getIV());
     }
 
     AESCipher obtainDecryptionCypher(String iv, String repositoryAlias) throws NoSuchPaddingException, NoSuchAlgorithmException,
             KeyStoreManagerException, InvalidKeyException, KeyStoreProviderException, InvalidAlgorithmParameterException {
-        SecretKey secretKey = mSmartCredentialsKeyStoreKeyProvider.getKeyStoreSecretKey(buildAlias(repositoryAlias));
+        Cipher cipher = initDecryptionCipher(Base64.decode(iv, BASE64_FLAG), repositoryAlias);
+        return new AESCipher(cipher, iv.getBytes(Charset.defaultCharset()));
+    }
 
-        byte[] ivBytes = Base64.decode(iv, BASE64_FLAG);
+    AESCipher obtainDecryptionCypher(byte[] ivBytes, String repositoryAlias) throws NoSuchPaddingException, NoSuchAlgorithmException,
+            KeyStoreManagerException, InvalidKeyException, KeyStoreProviderException, InvalidAlgorithmParameterException {
+        return new AESCipher(initDecryptionCipher(ivBytes, repositoryAlias), ivBytes);
+    }
 
-        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(ivBytes));
+    private Cipher initDecryptionCipher(byte[] ivBytes, String repositoryAlias) throws NoSuchPaddingException, NoSuchAlgorithmException,
+            KeyStoreManagerException, InvalidKeyException, KeyStoreProviderException, InvalidAlgorithmParameterException {
+        String alias = buildAlias(repositoryAlias);
+        IvParameterSpec ivParameterSpec = new IvParameterSpec(ivBytes);
+
+        Cipher cipher = getCipher();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, mSmartCredentialsKeyStoreKeyProvider.getKeyStoreSecretKey(alias), ivParameterSpec);
+        } catch (InvalidKeyException e) {
+            mSmartCredentialsKeyStoreKeyProvider.invalidateKey(alias);
+            cipher.init(Cipher.DECRYPT_MODE, mSmartCredentialsKeyStoreKeyProvider.getKeyStoreSecretKey(alias), ivParameterSpec);
+        }
+        return cipher;
+    }
 
-        return new AESCipher(cipher, iv.getBytes(Charset.defaultCharset()));
+    private static Cipher getCipher() throws NoSuchPaddingException, NoSuchAlgorithmException {
+        Cipher cipher = sCipher.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+            sCipher.set(cipher);
+        }
+        return cipher;
     }
 
     @Override
@@ -89,5 +128,10 @@ public class AESCipherManager extends CipherManager {
         byte[] getFinalBytes(byte[] toEncryptBytes) throws BadPaddingException, IllegalBlockSizeException {
             return mCipher.doFinal(toEncryptBytes);
         }
+
+        long transform(InputStream inputStream, OutputStream outputStream) throws IOException,
+                BadPaddingException, IllegalBlockSizeException, ShortBufferException {
+            return StreamConverter.transform(inputStream, outputStream, mCipher);
+        }
     }
 }
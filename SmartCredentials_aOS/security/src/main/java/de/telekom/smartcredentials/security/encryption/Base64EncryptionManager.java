@@ -16,6 +16,9 @@
 
 package de.telekom.smartcredentials.security.encryption;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+
 import de.telekom.smartcredentials.core.exceptions.EncryptionException;
 
 public class Base64EncryptionManager implements EncryptionManager {
@@ -46,6 +49,16 @@ public class Base64EncryptionManager implements EncryptionManager {
         return selectedEncryptionManager.decrypt(stringToDecrypt);
     }
 
+    @Override
+    public void encrypt(InputStream toEncrypt, OutputStream encrypted, boolean isSensitive) throws EncryptionException {
+        getBase64EncryptionManager().encrypt(toEncrypt, encrypted, isSensitive);
+    }
+
+    @Override
+    public void decrypt(InputStream toDecrypt, OutputStream decrypted) throws EncryptionException {
+        getBase64EncryptionManager().decrypt(toDecrypt, decrypted);
+    }
+
     private EncryptionManager getBase64EncryptionManager() {
         if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.M) {
             return mBase64EncryptionManagerAboveAPI23;
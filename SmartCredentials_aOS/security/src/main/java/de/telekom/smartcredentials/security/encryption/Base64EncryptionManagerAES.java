@@ -22,6 +22,8 @@ import android.util.Base64;
 import androidx.annotation.NonNull;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.security.InvalidAlgorithmParameterException;
@@ -31,6 +33,7 @@ import java.security.NoSuchAlgorithmException;
 import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 
 import de.telekom.smartcredentials.core.exceptions.EncryptionException;
 import de.telekom.smartcredentials.core.exceptions.InvalidAlgorithmException;
@@ -42,11 +45,26 @@ import static de.telekom.smartcredentials.core.security.EncryptionError.DECRYPTI
 import static de.telekom.smartcredentials.core.security.EncryptionError.ENCRYPTION_EXCEPTION_TEXT;
 import static de.telekom.smartcredentials.security.encryption.AESCipherManager.BASE64_FLAG;
 
+/**
+ * AES based {@link EncryptionManager}. Encrypted values have the form
+ * {@code #<version><alias tag><base64 cipher text>cipherIV=<base64 IV>}, where the tag identifies the
+ * key store alias used for encryption: {@code S} for sensitive and {@code N} for non-sensitive
+ * values. Values written before the tag was introduced do not have the prefix and are decrypted by
+ * trying every known alias, including the temporary one only found in such values. Streamed payloads use the same header
+ * followed by the IV length, the raw IV and the raw cipher text.
+ */
 public class Base64EncryptionManagerAES implements EncryptionManager {
 
     static final String BASE64_CHAR_SET = "UTF-8";
     static final String IV_SEPARATOR = "cipherIV=";
+    static final char FORMAT_PREFIX = '#';
+    static final char FORMAT_VERSION = '1';
+    static final char ALIAS_TAG_SENSITIVE = 'S';
+    static final char ALIAS_TAG_NON_SENSITIVE = 'N';
+    private static final int FORMAT_HEADER_LENGTH = 3;
+    private static final int STREAM_HEADER_LENGTH = FORMAT_HEADER_LENGTH + 1;
     private static final String MISSING_IV_MESSAGE = "IV not set in encrypted text";
+    private static final String UNKNOWN_FORMAT_MESSAGE = "Unknown encrypted text format";
     private static final String TEMPORARY_REPOSITORY_ALIAS = "SmartCredentialsGeneratedKeyStore";
 
     private final AESCipherManager mAESCipherManager;
@@ -57,17 +75,7 @@ public class Base64EncryptionManagerAES implements EncryptionManager {
 
     @Override
     public String encrypt(String toEncrypt) throws EncryptionException {
-        if (TextUtils.isEmpty(toEncrypt)) {
-            return toEncrypt;
-        }
-
-        try {
-            return encrypt(toEncrypt, RepositoryAliasNative.getAliasSensitive());
-        } catch (InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException
-                | IOException | KeyStoreManagerException | KeyStoreProviderException
-                | BadPaddingException | IllegalBlockSizeException e) {
-            throw new EncryptionException(ENCRYPTION_EXCEPTION_TEXT + e.getMessage(), e);
-        }
+        return encrypt(toEncrypt, true);
     }
 
     @Override
@@ -76,9 +84,9 @@ public class Base64EncryptionManagerAES implements EncryptionManager {
             return toEncrypt;
         }
 
+        char aliasTag = isSensitive ? ALIAS_TAG_SENSITIVE : ALIAS_TAG_NON_SENSITIVE;
         try {
-            return encrypt(toEncrypt, isSensitive ? RepositoryAliasNative.getAliasSensitive() :
-                    RepositoryAliasNative.getAliasNonSensitive());
+            return encrypt(toEncrypt, aliasTag, getRepositoryAlias(aliasTag));
         } catch (InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException
                 | IOException | KeyStoreManagerException | KeyStoreProviderException
                 | BadPaddingException | IllegalBlockSizeException e) {
@@ -86,13 +94,14 @@ public class Base64EncryptionManagerAES implements EncryptionManager {
         }
     }
 
-    private String encrypt(String toEncrypt, String repositoryAlias) throws NoSuchAlgorithmException, NoSuchPaddingException, KeyStoreProviderException, KeyStoreManagerException, InvalidKeyException, UnsupportedEncodingException, BadPaddingException, IllegalBlockSizeException {
+    private String encrypt(String toEncrypt, char aliasTag, String repositoryAlias) throws NoSuchAlgorithmException, NoSuchPaddingException, KeyStoreProviderException, KeyStoreManagerException, InvalidKeyException, UnsupportedEncodingException, BadPaddingException, IllegalBlockSizeException {
         AESCipherManager.AESCipher aesCipher = mAESCipherManager.obtainEncryptionCipher(repositoryAlias);
 
         String encodedIV = new String(Base64.encode(aesCipher.getIV(), BASE64_FLAG), Charset.defaultCharset());
         byte[] cipherTextFinalBytes = aesCipher.getFinalBytes(toEncrypt.getBytes(BASE64_CHAR_SET));
 
-        return new String(Base64.encode(cipherTextFinalBytes, BASE64_FLAG), Charset.defaultCharset())
+        return String.valueOf(FORMAT_PREFIX) + FORMAT_VERSION + aliasTag
+                + new String(Base64.encode(cipherTextFinalBytes, BASE64_FLAG), Charset.defaultCharset())
                 + IV_SEPARATOR
                 + encodedIV;
     }
@@ -103,6 +112,82 @@ public class Base64EncryptionManagerAES implements EncryptionManager {
             return encryptedText;
         }
 
+        if (isTagged(encryptedText)) {
+            return decryptTagged(encryptedText);
+        }
+        return decryptLegacy(encryptedText);
+    }
+
+    @Override
+    public void encrypt(InputStream toEncrypt, OutputStream encrypted, boolean isSensitive) throws EncryptionException {
+        char aliasTag = isSensitive ? ALIAS_TAG_SENSITIVE : ALIAS_TAG_NON_SENSITIVE;
+        try {
+            AESCipherManager.AESCipher aesCipher = mAESCipherManager.obtainEncryptionCipher(getRepositoryAlias(aliasTag));
+            byte[] iv = aesCipher.getIV();
+
+            encrypted.write(FORMAT_PREFIX);
+            encrypted.write(FORMAT_VERSION);
+            encrypted.write(aliasTag);
+            encrypted.write(iv.length);
+            encrypted.write(iv);
+            aesCipher.transform(toEncrypt, encrypted);
+        } catch (InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException
+                | IOException | KeyStoreManagerException | KeyStoreProviderException
+                | BadPaddingException | IllegalBlockSizeException | ShortBufferException e) {
+            throw new EncryptionException(ENCRYPTION_EXCEPTION_TEXT + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void decrypt(InputStream toDecrypt, OutputStream decrypted) throws EncryptionException {
+        try {
+            byte[] header = new byte[STREAM_HEADER_LENGTH];
+            if (StreamConverter.readFully(toDecrypt, header, STREAM_HEADER_LENGTH) < STREAM_HEADER_LENGTH
+                    || header[0] != FORMAT_PREFIX || header[1] != FORMAT_VERSION) {
+                throw new InvalidAlgorithmException(DECRYPTION_EXCEPTION_TEXT + "\n " + UNKNOWN_FORMAT_MESSAGE);
+            }
+
+            byte[] iv = new byte[header[3] & 0xFF];
+            if (StreamConverter.readFully(toDecrypt, iv, iv.length) < iv.length) {
+                throw new InvalidAlgorithmException(DECRYPTION_EXCEPTION_TEXT + "\n " + MISSING_IV_MESSAGE);
+            }
+
+            mAESCipherManager.obtainDecryptionCypher(iv, getRepositoryAlias((char) header[2]))
+                    .transform(toDecrypt, decrypted);
+        } catch (NoSuchAlgorithmException | BadPaddingException | IllegalBlockSizeException | InvalidAlgorithmParameterException
+                | KeyStoreProviderException | InvalidKeyException | KeyStoreManagerException | NoSuchPaddingException
+                | IOException | ShortBufferException e) {
+            throw new EncryptionException(DECRYPTION_EXCEPTION_TEXT + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Checks whether the given value was produced by this manager before the alias tag was added
+     * to the format, meaning it should be re-encrypted to avoid the alias fallback chain on reads.
+     *
+     * @param encryptedText value read from storage
+     * @return true if the value is an untagged AES cipher text
+     */
+    public boolean isLegacyCipherText(String encryptedText) {
+        return !TextUtils.isEmpty(encryptedText)
+                && !isTagged(encryptedText)
+                && encryptedText.contains(IV_SEPARATOR);
+    }
+
+    private String decryptTagged(String encryptedText) throws EncryptionException {
+        if (encryptedText.length() <= FORMAT_HEADER_LENGTH || encryptedText.charAt(1) != FORMAT_VERSION) {
+            throw new InvalidAlgorithmException(DECRYPTION_EXCEPTION_TEXT + "\n " + UNKNOWN_FORMAT_MESSAGE);
+        }
+
+        String repositoryAlias = getRepositoryAlias(encryptedText.charAt(2));
+        try {
+            return decrypt(encryptedText.substring(FORMAT_HEADER_LENGTH), repositoryAlias);
+        } catch (NoSuchAlgorithmException | BadPaddingException | IllegalBlockSizeException | InvalidAlgorithmParameterException | KeyStoreProviderException | InvalidKeyException | KeyStoreManagerException | NoSuchPaddingException | UnsupportedEncodingException e) {
+            throw new EncryptionException(DECRYPTION_EXCEPTION_TEXT + e.getMessage(), e);
+        }
+    }
+
+    private String decryptLegacy(String encryptedText) throws EncryptionException {
         try {
             String sensitiveAlias = RepositoryAliasNative.getAliasSensitive();
             return decrypt(encryptedText, sensitiveAlias);
@@ -139,4 +224,20 @@ public class Base64EncryptionManagerAES implements EncryptionManager {
         byte[] bytesDecrypted = aesCipher.getFinalBytes(cipherText);
         return new String(bytesDecrypted, BASE64_CHAR_SET);
     }
-}
\ No newline at end of file
+
+    static boolean isTagged(@NonNull String encryptedText) {
+        // '#' is not part of the Base64 alphabet, so it can never start a legacy value
+        return encryptedText.charAt(0) == FORMAT_PREFIX;
+    }
+
+    private static String getRepositoryAlias(char aliasTag) throws EncryptionException {
+        switch (aliasTag) {
+            case ALIAS_TAG_SENSITIVE:
+                return RepositoryAliasNative.getAliasSensitive();
+            case ALIAS_TAG_NON_SENSITIVE:
+                return RepositoryAliasNative.getAliasNonSensitive();
+            default:
+                throw new InvalidAlgorithmException(DECRYPTION_EXCEPTION_TEXT + "\n " + UNKNOWN_FORMAT_MESSAGE);
+        }
+    }
+}
@@ -20,19 +20,27 @@ import android.text.TextUtils;
 import android.util.Base64;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 
+import javax.crypto.BadPaddingException;
+import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 
 import de.telekom.smartcredentials.core.exceptions.EncryptionException;
+import de.telekom.smartcredentials.core.exceptions.InvalidAlgorithmException;
 import de.telekom.smartcredentials.core.security.KeyStoreManagerException;
 import de.telekom.smartcredentials.security.repositories.RepositoryAliasNative;
 
 import static de.telekom.smartcredentials.core.security.EncryptionError.DECRYPTION_EXCEPTION_TEXT;
 import static de.telekom.smartcredentials.core.security.EncryptionError.ENCRYPTION_EXCEPTION_TEXT;
 import static de.telekom.smartcredentials.core.security.EncryptionError.PUBLIC_KEY_EXCEPTION_TEXT;
+import static de.telekom.smartcredentials.security.encryption.Base64EncryptionManagerAES.ALIAS_TAG_NON_SENSITIVE;
+import static de.telekom.smartcredentials.security.encryption.Base64EncryptionManagerAES.ALIAS_TAG_SENSITIVE;
 import static de.telekom.smartcredentials.security.keystore.SmartCredentialsKeyStoreKeyProvider.KEY_SIZE;
 
 public class Base64EncryptionManagerRSA implements EncryptionManager {
@@ -45,6 +53,8 @@ public class Base64EncryptionManagerRSA implements EncryptionManager {
 
     private static final String BASE4_CHAR_SET = "UTF-8";
 
+    private static final String UNKNOWN_FORMAT_MESSAGE = "Unknown encrypted stream format";
+
     private final RSACipherManager mRSACipherManager;
 
     public Base64EncryptionManagerRSA(RSACipherManager rsaCipherManager) {
@@ -113,6 +123,48 @@ public class Base64EncryptionManagerRSA implements EncryptionManager {
         return new String(decryptedBytes, 0, decryptedBytes.length, BASE4_CHAR_SET);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The payload starts with a single byte telling which key was used, followed by the encrypted
+     * blocks.
+     */
+    @Override
+    public void encrypt(InputStream toEncrypt, OutputStream encrypted, boolean isSensitive) throws EncryptionException {
+        try {
+            String repositoryAlias = isSensitive ? RepositoryAliasNative.getAliasSensitive() :
+                    RepositoryAliasNative.getAliasNonSensitive();
+            SmartCredentialsCipherWrapper smartCredentialsCipherWrapper = mRSACipherManager.getEncryptionCipherWrapper(repositoryAlias);
+
+            encrypted.write(isSensitive ? ALIAS_TAG_SENSITIVE : ALIAS_TAG_NON_SENSITIVE);
+            mRSACipherManager.transformBlocks(toEncrypt, encrypted, smartCredentialsCipherWrapper, MAX_BYTES_LENGTH_TO_ENCRYPT);
+        } catch (InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException | IOException
+                | KeyStoreManagerException | BadPaddingException | IllegalBlockSizeException | ShortBufferException e) {
+            throw new EncryptionException(ENCRYPTION_EXCEPTION_TEXT + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void decrypt(InputStream toDecrypt, OutputStream decrypted) throws EncryptionException {
+        try {
+            int aliasTag = toDecrypt.read();
+            String repositoryAlias;
+            if (aliasTag == ALIAS_TAG_SENSITIVE) {
+                repositoryAlias = RepositoryAliasNative.getAliasSensitive();
+            } else if (aliasTag == ALIAS_TAG_NON_SENSITIVE) {
+                repositoryAlias = RepositoryAliasNative.getAliasNonSensitive();
+            } else {
+                throw new InvalidAlgorithmException(DECRYPTION_EXCEPTION_TEXT + "\n " + UNKNOWN_FORMAT_MESSAGE);
+            }
+
+            mRSACipherManager.transformBlocks(toDecrypt, decrypted,
+                    mRSACipherManager.getDecryptionCipherWrapper(repositoryAlias), RSA_KEY_LENGTH);
+        } catch (InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException | IOException
+                | KeyStoreManagerException | BadPaddingException | IllegalBlockSizeException | ShortBufferException e) {
+            throw new EncryptionException(DECRYPTION_EXCEPTION_TEXT + e.getMessage(), e);
+        }
+    }
+
     public PublicKey getPublicKey(String alias) throws EncryptionException {
         try {
             return mRSACipherManager.getKeyStorePrivateEntryPublicKey(alias);
@@ -16,6 +16,9 @@
 
 package de.telekom.smartcredentials.security.encryption;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+
 import de.telekom.smartcredentials.core.exceptions.EncryptionException;
 
 public interface EncryptionManager {
@@ -26,4 +29,16 @@ public interface EncryptionManager {
 
     String decrypt(String toDecrypt) throws EncryptionException;
 
+    /**
+     * Encrypts everything readable from the input stream into the output stream, using fixed size
+     * buffers so that large payloads are processed with constant memory. Streams are not closed.
+     */
+    void encrypt(InputStream toEncrypt, OutputStream encrypted, boolean isSensitive) throws EncryptionException;
+
+    /**
+     * Decrypts a payload written by {@link #encrypt(InputStream, OutputStream, boolean)} into the
+     * output stream. Streams are not closed.
+     */
+    void decrypt(InputStream toDecrypt, OutputStream decrypted) throws EncryptionException;
+
 }
@@ -28,12 +28,19 @@ import de.telekom.smartcredentials.core.exceptions.EncryptionException;
 public class HmacManager {
 
     public static byte[] hmac_sha(String crypto, byte[] keyBytes, byte[] text) throws EncryptionException {
+        return getHmac(crypto, keyBytes).doFinal(text);
+    }
+
+    /**
+     * Returns a {@link Mac} initialised with the given key. The instance resets itself after every
+     * {@link Mac#doFinal()}, so it can be reused for any number of messages signed with that key.
+     */
+    public static Mac getHmac(String crypto, byte[] keyBytes) throws EncryptionException {
         try {
-            Mac hmac;
-            hmac = Mac.getInstance(crypto);
+            Mac hmac = Mac.getInstance(crypto);
             SecretKeySpec macKey = new SecretKeySpec(keyBytes, "RAW");
             hmac.init(macKey);
-            return hmac.doFinal(text);
+            return hmac;
         } catch (InvalidKeyException | NoSuchAlgorithmException e) {
             throw new EncryptionException(e.getMessage(), e);
         }
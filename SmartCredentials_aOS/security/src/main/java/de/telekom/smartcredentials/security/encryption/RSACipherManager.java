@@ -19,7 +19,10 @@ package de.telekom.smartcredentials.security.encryption;
 import android.content.Context;
 import android.security.KeyPairGeneratorSpec;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
@@ -31,8 +34,11 @@ import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.util.Calendar;
 
+import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 import javax.security.auth.x500.X500Principal;
 
 import de.telekom.smartcredentials.core.exceptions.EncryptionException;
@@ -40,7 +46,6 @@ import de.telekom.smartcredentials.core.security.KeyStoreManagerException;
 import de.telekom.smartcredentials.security.keystore.KeyStoreManager;
 import de.telekom.smartcredentials.security.utils.Constants;
 
-import static de.telekom.smartcredentials.security.encryption.StreamConverter.append;
 import static de.telekom.smartcredentials.security.encryption.StreamConverter.getByteArrayInputStream;
 import static de.telekom.smartcredentials.security.encryption.StreamConverter.getOutputStreamBytes;
 import static de.telekom.smartcredentials.security.utils.Constants.ANDROID_KEY_STORE;
@@ -85,35 +90,39 @@ public class RSACipherManager extends CipherManager {
     byte[] getMultiBlockBytes(byte[] initialBytes, SmartCredentialsCipherWrapper smartCredentialsCipherWrapper, int length)
             throws IOException, NoSuchPaddingException, NoSuchAlgorithmException, InvalidKeyException {
 
-        byte[] multiBlockBytes = new byte[0];
+        ByteArrayOutputStream multiBlockBytes = new ByteArrayOutputStream(initialBytes.length + length);
         int fromByteIndex = 0;
         int toByteIndex = Math.min(length, initialBytes.length);
 
         while (fromByteIndex < initialBytes.length) {
-            multiBlockBytes = getBlockWithAppendedBytes(multiBlockBytes, initialBytes, fromByteIndex, toByteIndex, smartCredentialsCipherWrapper);
+            multiBlockBytes.write(getBlockBytes(initialBytes, fromByteIndex, toByteIndex, smartCredentialsCipherWrapper));
 
             fromByteIndex = toByteIndex;
             toByteIndex = Math.min(toByteIndex + length, initialBytes.length);
         }
 
-        return multiBlockBytes;
+        return multiBlockBytes.toByteArray();
+    }
+
+    void transformBlocks(InputStream inputStream, OutputStream outputStream,
+                         SmartCredentialsCipherWrapper smartCredentialsCipherWrapper, int length)
+            throws IOException, NoSuchPaddingException, NoSuchAlgorithmException, InvalidKeyException,
+            BadPaddingException, IllegalBlockSizeException, ShortBufferException {
+        StreamConverter.transformBlocks(inputStream, outputStream, smartCredentialsCipherWrapper.getCipher(), length);
     }
 
     private KeyStore.PrivateKeyEntry getKeyStorePrivateEntry(String alias) throws KeyStoreManagerException {
         return mKeyStoreManager.getPrivateKeyEntry(alias);
     }
 
-    private byte[] getBlockWithAppendedBytes(byte[] blockBytesToAppendTo, byte[] initialBytes,
-                                             int fromInitialBytesIndex, int toInitialBytesIndex,
-                                             SmartCredentialsCipherWrapper smartCredentialsCipherWrapper) throws NoSuchPaddingException,
+    private byte[] getBlockBytes(byte[] initialBytes, int fromInitialBytesIndex, int toInitialBytesIndex,
+                                 SmartCredentialsCipherWrapper smartCredentialsCipherWrapper) throws NoSuchPaddingException,
             NoSuchAlgorithmException, InvalidKeyException, IOException {
 
         byte[] split = java.util.Arrays.copyOfRange(initialBytes, fromInitialBytesIndex, toInitialBytesIndex);
-        byte[] toAppendBytes = smartCredentialsCipherWrapper.getOpMode() == Cipher.ENCRYPT_MODE
+        return smartCredentialsCipherWrapper.getOpMode() == Cipher.ENCRYPT_MODE
                 ? getOutputStreamBytes(split, smartCredentialsCipherWrapper.getCipher())
                 : getByteArrayInputStream(split, smartCredentialsCipherWrapper.getCipher());
-
-        return append(blockBytesToAppendTo, toAppendBytes);
     }
 
     SmartCredentialsCipherWrapper getDecryptionCipherWrapper(String metaAlias) throws KeyStoreManagerException {
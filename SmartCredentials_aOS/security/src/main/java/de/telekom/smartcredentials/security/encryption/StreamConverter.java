@@ -19,14 +19,24 @@ package de.telekom.smartcredentials.security.encryption;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
 
+import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.CipherInputStream;
 import javax.crypto.CipherOutputStream;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.ShortBufferException;
 
 class StreamConverter {
 
+    static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final ThreadLocal<byte[]> sInputBuffer = new ThreadLocal<>();
+    private static final ThreadLocal<byte[]> sOutputBuffer = new ThreadLocal<>();
+
     static byte[] getOutputStreamBytes(byte[] toEncryptBytes, Cipher cipher) throws IOException {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         CipherOutputStream cipherOutputStream = new CipherOutputStream(outputStream, cipher);
@@ -40,31 +50,110 @@ class StreamConverter {
         ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(encryptedTextBytes);
 
         CipherInputStream cipherInputStream = new CipherInputStream(byteArrayInputStream, cipher);
-        byte[] inputStreamBytes = getBytesFromCipherInputStream(cipherInputStream);
+        byte[] inputStreamBytes = getBytesFromCipherInputStream(cipherInputStream, encryptedTextBytes.length);
         cipherInputStream.close();
 
         return inputStreamBytes;
     }
 
-    static byte[] append(byte[] prefix, byte[] suffix) {
-        byte[] toReturn = new byte[prefix.length + suffix.length];
-        System.arraycopy(prefix, 0, toReturn, 0, prefix.length);
-        System.arraycopy(suffix, 0, toReturn, prefix.length, suffix.length);
-        return toReturn;
+    /**
+     * Runs everything readable from the input stream through an initialised cipher and writes the
+     * result to the output stream, finishing with {@link Cipher#doFinal}. Memory usage does not
+     * depend on the payload size: the same per-thread buffers are reused for every call, and are
+     * zeroed before it returns so that no plaintext outlives the call.
+     *
+     * @return the number of bytes written to the output stream
+     */
+    static long transform(InputStream inputStream, OutputStream outputStream, Cipher cipher)
+            throws IOException, BadPaddingException, IllegalBlockSizeException, ShortBufferException {
+        byte[] inputBuffer = getBuffer(sInputBuffer, BUFFER_SIZE);
+        try {
+            long written = 0;
+            int read;
+            while ((read = inputStream.read(inputBuffer)) != -1) {
+                byte[] outputBuffer = getBuffer(sOutputBuffer, cipher.getOutputSize(read));
+                int produced = cipher.update(inputBuffer, 0, read, outputBuffer, 0);
+                outputStream.write(outputBuffer, 0, produced);
+                written += produced;
+            }
+            byte[] outputBuffer = getBuffer(sOutputBuffer, cipher.getOutputSize(0));
+            int produced = cipher.doFinal(outputBuffer, 0);
+            outputStream.write(outputBuffer, 0, produced);
+            return written + produced;
+        } finally {
+            clearBuffers();
+        }
+    }
+
+    /**
+     * Same as {@link #transform(InputStream, OutputStream, Cipher)} for block ciphers without a
+     * streaming mode (RSA): every chunk of {@code blockLength} input bytes is processed with its own
+     * {@link Cipher#doFinal} call.
+     *
+     * @return the number of bytes written to the output stream
+     */
+    static long transformBlocks(InputStream inputStream, OutputStream outputStream, Cipher cipher, int blockLength)
+            throws IOException, BadPaddingException, IllegalBlockSizeException, ShortBufferException {
+        byte[] inputBuffer = getBuffer(sInputBuffer, Math.max(BUFFER_SIZE, blockLength));
+        try {
+            long written = 0;
+            int read;
+            while ((read = readFully(inputStream, inputBuffer, blockLength)) > 0) {
+                byte[] outputBuffer = getBuffer(sOutputBuffer, cipher.getOutputSize(read));
+                int produced = cipher.doFinal(inputBuffer, 0, read, outputBuffer, 0);
+                outputStream.write(outputBuffer, 0, produced);
+                written += produced;
+            }
+            return written;
+        } finally {
+            clearBuffers();
+        }
+    }
+
+    static int readFully(InputStream inputStream, byte[] buffer, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int read = inputStream.read(buffer, total, length - total);
+            if (read == -1) {
+                break;
+            }
+            total += read;
+        }
+        return total;
     }
 
-    private static byte[] getBytesFromCipherInputStream(CipherInputStream cipherInputStream) throws IOException {
-        ArrayList<Byte> values = new ArrayList<>();
-        int nextByte;
-        while ((nextByte = cipherInputStream.read()) != -1) {
-            values.add((byte) nextByte);
+    private static byte[] getBuffer(ThreadLocal<byte[]> holder, int minimumSize) {
+        byte[] buffer = holder.get();
+        if (buffer == null || buffer.length < minimumSize) {
+            clear(buffer);
+            buffer = new byte[Math.max(minimumSize, BUFFER_SIZE)];
+            holder.set(buffer);
         }
+        return buffer;
+    }
 
-        byte[] bytes = new byte[values.size()];
-        for (int i = 0; i < bytes.length; i++) {
-            bytes[i] = values.get(i);
+    private static void clearBuffers() {
+        clear(sInputBuffer.get());
+        clear(sOutputBuffer.get());
+    }
+
+    private static void clear(byte[] buffer) {
+        if (buffer != null) {
+            Arrays.fill(buffer, (byte) 0);
         }
+    }
 
-        return bytes;
+    private static byte[] getBytesFromCipherInputStream(CipherInputStream cipherInputStream, int expectedSize) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(expectedSize);
+        byte[] buffer = getBuffer(sInputBuffer, BUFFER_SIZE);
+        try {
+            int read;
+            while ((read = cipherInputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            clear(buffer);
+        }
     }
 }
@@ -27,6 +27,8 @@ import java.security.InvalidAlgorithmParameterException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
@@ -42,25 +44,57 @@ public class SmartCredentialsKeyStoreKeyProvider implements KeyStoreKeyProvider
     public static final int KEY_SIZE = 256;
     private static final String AES_ALGORITHM = "AES";
 
+    /**
+     * Key handles are shared between provider instances because all of them point to the same
+     * AndroidKeyStore, so a deletion through one instance must be visible to the others.
+     */
+    private static final Map<String, SecretKey> sSecretKeys = new ConcurrentHashMap<>();
+
     private final Context mContext;
     private final KeyStoreManager mKeyStoreManager;
 
     public SmartCredentialsKeyStoreKeyProvider(Context context) {
+        this(context, new KeyStoreManager());
+    }
+
+    SmartCredentialsKeyStoreKeyProvider(Context context, KeyStoreManager keyStoreManager) {
         mContext = context;
-        mKeyStoreManager = new KeyStoreManager();
+        mKeyStoreManager = keyStoreManager;
     }
 
     @Override
     public SecretKey getKeyStoreSecretKey(String alias) throws KeyStoreManagerException, KeyStoreProviderException {
+        SecretKey secretKey = sSecretKeys.get(alias);
+        if (secretKey != null) {
+            return secretKey;
+        }
+
         generateKeyForAlias(alias);
-        return mKeyStoreManager.getKeyStoreSecretKey(alias);
+        secretKey = mKeyStoreManager.getKeyStoreSecretKey(alias);
+        if (secretKey != null) {
+            sSecretKeys.put(alias, secretKey);
+        }
+        return secretKey;
     }
 
     @Override
     public void deleteEntry(String keyAlias) throws KeyStoreException, KeyStoreManagerException {
+        sSecretKeys.remove(keyAlias);
         mKeyStoreManager.deleteEntry(keyAlias);
     }
 
+    /**
+     * Drops the cached key handle for the given alias without touching the AndroidKeyStore entry,
+     * so that the next lookup reloads it.
+     */
+    public void invalidateKey(String alias) {
+        sSecretKeys.remove(alias);
+    }
+
+    static void clearKeyCache() {
+        sSecretKeys.clear();
+    }
+
     private void generateKeyForAlias(String alias) throws KeyStoreProviderException {
         try {
             if (mKeyStoreManager.checkKeyStoreContainsAlias(alias)) {
@@ -102,4 +102,10 @@ public class EncryptionStrategyAdapter implements EncryptionStrategy {
     public PublicKey getPublicKey(String alias) throws EncryptionException {
         return mBase64EncryptionManagerRSA.getPublicKey(alias);
     }
+
+    @Override
+    public boolean isLegacyEncrypted(String encryptedText) {
+        return android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.M
+                && mBase64EncryptionManagerAES.isLegacyCipherText(encryptedText);
+    }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2020 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.security.encryption;
+
+import android.text.TextUtils;
+import android.util.Base64;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+
+import de.telekom.smartcredentials.core.exceptions.InvalidAlgorithmException;
+import de.telekom.smartcredentials.security.repositories.RepositoryAliasNative;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.crypto.*", "javax.security.*"})
+@PrepareForTest({Base64.class, TextUtils.class, RepositoryAliasNative.class})
+@SuppressStaticInitializationFor("de.telekom.smartcredentials.security.repositories.RepositoryAliasNative")
+public class Base64EncryptionManagerAESTest {
+
+    private static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
+    private static final String SENSITIVE_ALIAS = "sensitive";
+    private static final String NON_SENSITIVE_ALIAS = "nonSensitive";
+    private static final String TEMPORARY_ALIAS = "SmartCredentialsGeneratedKeyStore";
+    private static final String PLAIN_TEXT = "secret value";
+
+    private final Map<String, SecretKey> mKeys = new HashMap<>();
+    private Base64EncryptionManagerAES mEncryptionManager;
+
+    @Before
+    public void setUp() throws Exception {
+        PowerMockito.mockStatic(Base64.class, TextUtils.class, RepositoryAliasNative.class);
+        when(Base64.encode(any(byte[].class), anyInt())).thenAnswer(invocation ->
+                java.util.Base64.getEncoder().encode((byte[]) invocation.getArgument(0)));
+        when(Base64.decode(any(byte[].class), anyInt())).thenAnswer(invocation ->
+                java.util.Base64.getDecoder().decode((byte[]) invocation.getArgument(0)));
+        when(Base64.decode(anyString(), anyInt())).thenAnswer(invocation ->
+                java.util.Base64.getDecoder().decode((String) invocation.getArgument(0)));
+        when(TextUtils.isEmpty(any())).thenAnswer(invocation -> {
+            CharSequence text = invocation.getArgument(0);
+            return text == null || text.length() == 0;
+        });
+        when(RepositoryAliasNative.getAliasSensitive()).thenReturn(SENSITIVE_ALIAS);
+        when(RepositoryAliasNative.getAliasNonSensitive()).thenReturn(NON_SENSITIVE_ALIAS);
+
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        for (String alias : new String[]{SENSITIVE_ALIAS, NON_SENSITIVE_ALIAS, TEMPORARY_ALIAS}) {
+            mKeys.put(alias, keyGenerator.generateKey());
+        }
+
+        AESCipherManager cipherManager = Mockito.mock(AESCipherManager.class);
+        when(cipherManager.obtainEncryptionCipher(anyString())).thenAnswer(invocation -> {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, mKeys.get((String) invocation.getArgument(0)));
+            return new AESCipherManager.AESCipher(cipher, cipher.getIV());
+        });
+        when(cipherManager.obtainDecryptionCypher(anyString(), anyString())).thenAnswer(invocation -> {
+            byte[] iv = java.util.Base64.getDecoder().decode((String) invocation.getArgument(0));
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, mKeys.get((String) invocation.getArgument(1)),
+                    new IvParameterSpec(iv));
+            return new AESCipherManager.AESCipher(cipher, iv);
+        });
+        mEncryptionManager = new Base64EncryptionManagerAES(cipherManager);
+    }
+
+    @Test
+    public void sensitiveValueIsTaggedAndRoundTrips() throws Exception {
+        String encrypted = mEncryptionManager.encrypt(PLAIN_TEXT, true);
+
+        assertTrue(encrypted.startsWith("#1S"));
+        assertEquals(PLAIN_TEXT, mEncryptionManager.decrypt(encrypted));
+    }
+
+    @Test
+    public void nonSensitiveValueIsTaggedAndRoundTrips() throws Exception {
+        String encrypted = mEncryptionManager.encrypt(PLAIN_TEXT, false);
+
+        assertTrue(encrypted.startsWith("#1N"));
+        assertEquals(PLAIN_TEXT, mEncryptionManager.decrypt(encrypted));
+    }
+
+    @Test
+    public void taggedValueIsNotLegacy() throws Exception {
+        assertFalse(mEncryptionManager.isLegacyCipherText(mEncryptionManager.encrypt(PLAIN_TEXT, true)));
+    }
+
+    @Test
+    public void legacyValuesAreDecryptedWithEveryKnownAlias() throws Exception {
+        for (String alias : new String[]{SENSITIVE_ALIAS, NON_SENSITIVE_ALIAS, TEMPORARY_ALIAS}) {
+            String legacy = encryptLegacy(PLAIN_TEXT, alias);
+
+            assertTrue(mEncryptionManager.isLegacyCipherText(legacy));
+            assertEquals(PLAIN_TEXT, mEncryptionManager.decrypt(legacy));
+        }
+    }
+
+    @Test
+    public void plainOrEmptyValuesAreNotLegacy() {
+        assertFalse(mEncryptionManager.isLegacyCipherText(null));
+        assertFalse(mEncryptionManager.isLegacyCipherText(""));
+        assertFalse(mEncryptionManager.isLegacyCipherText(PLAIN_TEXT));
+    }
+
+    @Test(expected = InvalidAlgorithmException.class)
+    public void unknownAliasTagIsRejected() throws Exception {
+        String encrypted = mEncryptionManager.encrypt(PLAIN_TEXT, true);
+
+        mEncryptionManager.decrypt("#1T" + encrypted.substring(3));
+    }
+
+    @Test(expected = InvalidAlgorithmException.class)
+    public void unknownFormatVersionIsRejected() throws Exception {
+        String encrypted = mEncryptionManager.encrypt(PLAIN_TEXT, true);
+
+        mEncryptionManager.decrypt("#2" + encrypted.substring(2));
+    }
+
+    /**
+     * Builds a value in the format written before the alias tag was introduced.
+     */
+    private String encryptLegacy(String plainText, String alias) throws Exception {
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, mKeys.get(alias));
+        byte[] cipherText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+        return java.util.Base64.getEncoder().encodeToString(cipherText)
+                + Base64EncryptionManagerAES.IV_SEPARATOR
+                + java.util.Base64.getEncoder().encodeToString(cipher.getIV());
+    }
+}
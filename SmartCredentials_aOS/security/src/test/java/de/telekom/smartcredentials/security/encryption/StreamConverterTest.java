@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.security.encryption;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class StreamConverterTest {
+
+    private static final String AES_TRANSFORMATION = "AES/CBC/PKCS5Padding";
+    private static final String RSA_TRANSFORMATION = "RSA/ECB/PKCS1Padding";
+
+    private byte[] mPayload;
+
+    @Before
+    public void setUp() {
+        // not a multiple of the buffer or block size, to exercise partial reads
+        mPayload = new byte[3 * StreamConverter.BUFFER_SIZE + 123];
+        new Random(42).nextBytes(mPayload);
+    }
+
+    @Test
+    public void transformEncryptsAndDecryptsLargePayload() throws Exception {
+        SecretKey key = KeyGenerator.getInstance("AES").generateKey();
+        Cipher encryptCipher = Cipher.getInstance(AES_TRANSFORMATION);
+        encryptCipher.init(Cipher.ENCRYPT_MODE, key);
+
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        long written = StreamConverter.transform(new ByteArrayInputStream(mPayload), encrypted, encryptCipher);
+        assertEquals(encrypted.size(), written);
+
+        Cipher decryptCipher = Cipher.getInstance(AES_TRANSFORMATION);
+        decryptCipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(encryptCipher.getIV()));
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        StreamConverter.transform(new ByteArrayInputStream(encrypted.toByteArray()), decrypted, decryptCipher);
+
+        assertArrayEquals(mPayload, decrypted.toByteArray());
+    }
+
+    @Test
+    public void transformBlocksEncryptsAndDecryptsMultipleRsaBlocks() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        byte[] payload = new byte[2 * Base64EncryptionManagerRSA.MAX_BYTES_LENGTH_TO_ENCRYPT + 17];
+        new Random(7).nextBytes(payload);
+
+        Cipher encryptCipher = Cipher.getInstance(RSA_TRANSFORMATION);
+        encryptCipher.init(Cipher.ENCRYPT_MODE, keyPair.getPublic());
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        StreamConverter.transformBlocks(new ByteArrayInputStream(payload), encrypted, encryptCipher,
+                Base64EncryptionManagerRSA.MAX_BYTES_LENGTH_TO_ENCRYPT);
+        assertEquals(3 * Base64EncryptionManagerRSA.RSA_KEY_LENGTH, encrypted.size());
+
+        Cipher decryptCipher = Cipher.getInstance(RSA_TRANSFORMATION);
+        decryptCipher.init(Cipher.DECRYPT_MODE, keyPair.getPrivate());
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        StreamConverter.transformBlocks(new ByteArrayInputStream(encrypted.toByteArray()), decrypted, decryptCipher,
+                Base64EncryptionManagerRSA.RSA_KEY_LENGTH);
+
+        assertArrayEquals(payload, decrypted.toByteArray());
+    }
+
+    @Test
+    public void getByteArrayInputStreamReadsWholeCipherStream() throws Exception {
+        SecretKey key = KeyGenerator.getInstance("AES").generateKey();
+        Cipher encryptCipher = Cipher.getInstance(AES_TRANSFORMATION);
+        encryptCipher.init(Cipher.ENCRYPT_MODE, key);
+        byte[] encrypted = StreamConverter.getOutputStreamBytes(mPayload, encryptCipher);
+
+        Cipher decryptCipher = Cipher.getInstance(AES_TRANSFORMATION);
+        decryptCipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(encryptCipher.getIV()));
+
+        assertArrayEquals(mPayload, StreamConverter.getByteArrayInputStream(encrypted, decryptCipher));
+    }
+
+    @Test
+    public void transformZeroesBuffersAfterUse() throws Exception {
+        SecretKey key = KeyGenerator.getInstance("AES").generateKey();
+        Cipher encryptCipher = Cipher.getInstance(AES_TRANSFORMATION);
+        encryptCipher.init(Cipher.ENCRYPT_MODE, key);
+        byte[] encrypted = StreamConverter.getOutputStreamBytes(mPayload, encryptCipher);
+
+        Cipher decryptCipher = Cipher.getInstance(AES_TRANSFORMATION);
+        decryptCipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(encryptCipher.getIV()));
+        BufferCapturingInputStream inputStream = new BufferCapturingInputStream(encrypted);
+        BufferCapturingOutputStream outputStream = new BufferCapturingOutputStream();
+        StreamConverter.transform(inputStream, outputStream, decryptCipher);
+
+        assertArrayEquals(mPayload, outputStream.toByteArray());
+        assertZeroed(inputStream.mBuffer);
+        assertZeroed(outputStream.mBuffer);
+    }
+
+    private static void assertZeroed(byte[] buffer) {
+        assertNotNull(buffer);
+        assertArrayEquals(new byte[buffer.length], buffer);
+    }
+
+    private static class BufferCapturingInputStream extends ByteArrayInputStream {
+
+        private byte[] mBuffer;
+
+        BufferCapturingInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public int read(byte[] buffer) throws IOException {
+            mBuffer = buffer;
+            return super.read(buffer);
+        }
+    }
+
+    private static class BufferCapturingOutputStream extends ByteArrayOutputStream {
+
+        private byte[] mBuffer;
+
+        @Override
+        public synchronized void write(byte[] buffer, int offset, int length) {
+            mBuffer = buffer;
+            super.write(buffer, offset, length);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.security.keystore;
+
+import android.content.Context;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.crypto.SecretKey;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SmartCredentialsKeyStoreKeyProviderTest {
+
+    private static final String ALIAS = "alias";
+
+    private KeyStoreManager mKeyStoreManager;
+    private SmartCredentialsKeyStoreKeyProvider mKeyProvider;
+
+    @Before
+    public void setUp() throws Exception {
+        SmartCredentialsKeyStoreKeyProvider.clearKeyCache();
+        mKeyStoreManager = mock(KeyStoreManager.class);
+        mKeyProvider = new SmartCredentialsKeyStoreKeyProvider(mock(Context.class), mKeyStoreManager);
+        when(mKeyStoreManager.checkKeyStoreContainsAlias(ALIAS)).thenReturn(true);
+    }
+
+    @After
+    public void tearDown() {
+        SmartCredentialsKeyStoreKeyProvider.clearKeyCache();
+    }
+
+    @Test
+    public void getKeyStoreSecretKeyLoadsKeyOnlyOnce() throws Exception {
+        SecretKey secretKey = mock(SecretKey.class);
+        when(mKeyStoreManager.getKeyStoreSecretKey(ALIAS)).thenReturn(secretKey);
+
+        assertSame(secretKey, mKeyProvider.getKeyStoreSecretKey(ALIAS));
+        assertSame(secretKey, mKeyProvider.getKeyStoreSecretKey(ALIAS));
+
+        verify(mKeyStoreManager, times(1)).checkKeyStoreContainsAlias(ALIAS);
+        verify(mKeyStoreManager, times(1)).getKeyStoreSecretKey(ALIAS);
+    }
+
+    @Test
+    public void deleteEntryInvalidatesCachedKey() throws Exception {
+        SecretKey oldKey = mock(SecretKey.class);
+        SecretKey newKey = mock(SecretKey.class);
+        when(mKeyStoreManager.getKeyStoreSecretKey(ALIAS)).thenReturn(oldKey, newKey);
+
+        assertSame(oldKey, mKeyProvider.getKeyStoreSecretKey(ALIAS));
+        mKeyProvider.deleteEntry(ALIAS);
+
+        verify(mKeyStoreManager).deleteEntry(ALIAS);
+        assertSame(newKey, mKeyProvider.getKeyStoreSecretKey(ALIAS));
+    }
+
+    @Test
+    public void invalidateKeyForcesReload() throws Exception {
+        SecretKey oldKey = mock(SecretKey.class);
+        SecretKey newKey = mock(SecretKey.class);
+        when(mKeyStoreManager.getKeyStoreSecretKey(ALIAS)).thenReturn(oldKey, newKey);
+
+        assertSame(oldKey, mKeyProvider.getKeyStoreSecretKey(ALIAS));
+        mKeyProvider.invalidateKey(ALIAS);
+
+        assertSame(newKey, mKeyProvider.getKeyStoreSecretKey(ALIAS));
+    }
+}
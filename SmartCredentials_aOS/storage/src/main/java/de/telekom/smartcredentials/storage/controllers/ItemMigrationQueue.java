@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.storage.controllers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import de.telekom.smartcredentials.core.exceptions.EncryptionException;
+import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
+import de.telekom.smartcredentials.core.model.DomainModelException;
+import de.telekom.smartcredentials.core.model.item.ItemDomainModel;
+
+/**
+ * Serial background queue that saves again items which were read in a legacy encryption format
+ * (RSA on devices supporting AES, or untagged AES cipher text). The same item is queued at most
+ * once until its migration has completed, so repeated reads do not pile up redundant writes.
+ * <p>
+ * A migration writes back a copy taken when the item was read, so it must never land after a
+ * newer write. Every other write to the repository goes through {@link #write}, which drops the
+ * pending migrations and rejects the ones of reads started before it. Such writes run
+ * concurrently with each other; a migration encrypts without any lock and only excludes them
+ * while it checks that it is still pending and saves the item. Items skipped this way are
+ * migrated the next time they are read.
+ */
+class ItemMigrationQueue {
+
+    private static final String TAG = "ItemMigrationQueue";
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    interface Migration {
+
+        /**
+         * Encrypts the item again, in place, with the current format.
+         */
+        void encrypt(ItemDomainModel decryptedItem) throws EncryptionException;
+
+        /**
+         * Saves the encrypted item; never runs concurrently with a {@link #write}.
+         */
+        int save(ItemDomainModel encryptedItem);
+    }
+
+    interface Write {
+        int run();
+    }
+
+    private final Migration mMigration;
+    private final Executor mExecutor;
+    private final Object mLock = new Object();
+    private final ReadWriteLock mWriteLock = new ReentrantReadWriteLock();
+    private final Map<String, Object> mPendingTickets = new HashMap<>();
+    private long mWriteCount;
+    private boolean mShutdown;
+
+    ItemMigrationQueue(Migration migration) {
+        this(migration, createExecutor());
+    }
+
+    ItemMigrationQueue(Migration migration, Executor executor) {
+        mMigration = migration;
+        mExecutor = executor;
+    }
+
+    private static ExecutorService createExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, TAG);
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * @return the number of writes done so far; must be read before reading items which may be
+     * handed to {@link #enqueue}
+     */
+    long getWriteCount() {
+        synchronized (mLock) {
+            return mWriteCount;
+        }
+    }
+
+    /**
+     * Runs a repository write which is not a migration, dropping every pending migration. Only
+     * waits for a migration which is saving an item, never for another write.
+     */
+    int write(Write write) {
+        mWriteLock.readLock().lock();
+        try {
+            synchronized (mLock) {
+                mWriteCount++;
+                mPendingTickets.clear();
+            }
+            return write.run();
+        } finally {
+            mWriteLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param decryptedItem copy of the item holding decrypted data; it is encrypted and written
+     *                      on the queue thread, so it must not be shared with the caller
+     * @param writeCount    value of {@link #getWriteCount()} before the item was read
+     */
+    void enqueue(ItemDomainModel decryptedItem, long writeCount) {
+        String key;
+        try {
+            key = decryptedItem.getUniqueKey();
+        } catch (DomainModelException e) {
+            ApiLoggerResolver.logError(TAG, e.getMessage());
+            return;
+        }
+        Object ticket = new Object();
+        synchronized (mLock) {
+            if (mShutdown || writeCount != mWriteCount || mPendingTickets.containsKey(key)) {
+                return;
+            }
+            mPendingTickets.put(key, ticket);
+        }
+        try {
+            mExecutor.execute(() -> migrate(key, ticket, decryptedItem));
+        } catch (RejectedExecutionException e) {
+            ApiLoggerResolver.logError(TAG, "Migration queue shut down, legacy item not migrated");
+            release(key, ticket);
+        }
+    }
+
+    /**
+     * Stops the queue; items read afterwards are no longer migrated.
+     */
+    void shutdown() {
+        synchronized (mLock) {
+            mShutdown = true;
+            mPendingTickets.clear();
+        }
+        if (mExecutor instanceof ExecutorService) {
+            ((ExecutorService) mExecutor).shutdown();
+        }
+    }
+
+    private void migrate(String key, Object ticket, ItemDomainModel decryptedItem) {
+        try {
+            if (!isPending(key, ticket)) {
+                return;
+            }
+            mMigration.encrypt(decryptedItem);
+
+            mWriteLock.writeLock().lock();
+            try {
+                // a write since the check above dropped the ticket, and none can start until saved
+                if (!isPending(key, ticket)) {
+                    return;
+                }
+                mMigration.save(decryptedItem);
+            } finally {
+                mWriteLock.writeLock().unlock();
+            }
+            ApiLoggerResolver.logInfo("Migrated legacy encrypted item");
+        } catch (EncryptionException | RuntimeException e) {
+            ApiLoggerResolver.logError(TAG, "Failed to migrate legacy encrypted item: " + e.getMessage());
+        } finally {
+            release(key, ticket);
+        }
+    }
+
+    private boolean isPending(String key, Object ticket) {
+        synchronized (mLock) {
+            return mPendingTickets.get(key) == ticket;
+        }
+    }
+
+    private void release(String key, Object ticket) {
+        synchronized (mLock) {
+            if (mPendingTickets.get(key) == ticket) {
+                mPendingTickets.remove(key);
+            }
+        }
+    }
+}
@@ -24,11 +24,19 @@ import com.google.gson.Gson;
 
 import org.json.JSONException;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import de.telekom.smartcredentials.core.api.StorageApi;
+import de.telekom.smartcredentials.core.api.rx.RxStorageApi;
 import de.telekom.smartcredentials.core.blacklisting.SmartCredentialsFeatureSet;
 import de.telekom.smartcredentials.core.context.ItemContext;
 import de.telekom.smartcredentials.core.controllers.CoreController;
@@ -56,6 +64,7 @@ import de.telekom.smartcredentials.core.strategies.EncryptionStrategy;
 import de.telekom.smartcredentials.storage.domain.converters.ModelConverter;
 import de.telekom.smartcredentials.storage.exceptions.RepositoryException;
 import io.reactivex.Observable;
+import io.reactivex.Scheduler;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.schedulers.Schedulers;
@@ -64,13 +73,24 @@ import static de.telekom.smartcredentials.core.controllers.CoreController.UID_EX
 import static de.telekom.smartcredentials.core.model.ModelValidator.checkParamNotNull;
 import static de.telekom.smartcredentials.core.model.ModelValidator.getValidatedMetadata;
 
-public class StorageController implements StorageApi, SecurityCompromisedObserver {
+public class StorageController implements StorageApi, RxStorageApi, SecurityCompromisedObserver {
+
+    private static final int DECRYPTION_POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final long DECRYPTION_KEEP_ALIVE_SECONDS = 30;
+
+    /**
+     * Bounded pool shared by all bulk reads; decryption is CPU and key store bound, so more
+     * threads than cores would only add contention.
+     */
+    private static final ExecutorService sDecryptionExecutor = createDecryptionExecutor();
+    private static final Scheduler sDecryptionScheduler = Schedulers.from(sDecryptionExecutor);
 
     private final CoreController mCoreController;
     private final Repository mRepository;
     private final EncryptionStrategy mEncryptionStrategy;
     private final Gson mGson;
     private final CompositeDisposable mCompositeDisposable;
+    private final ItemMigrationQueue mMigrationQueue;
 
     public StorageController(CoreController coreController, Repository repository, EncryptionStrategy encryptionStrategy, Gson gson) {
         mCoreController = coreController;
@@ -78,9 +98,32 @@ public class StorageController implements StorageApi, SecurityCompromisedObserve
         mEncryptionStrategy = encryptionStrategy;
         mGson = gson;
         mCompositeDisposable = new CompositeDisposable();
+        mMigrationQueue = new ItemMigrationQueue(new ItemMigrationQueue.Migration() {
+            @Override
+            public void encrypt(ItemDomainModel decryptedItem) throws EncryptionException {
+                ItemDomainMetadata metadata = getValidatedMetadata(decryptedItem);
+                decryptedItem.encryptData(mEncryptionStrategy, isSensitive(metadata));
+            }
+
+            @Override
+            public int save(ItemDomainModel encryptedItem) {
+                return mRepository.updateItem(encryptedItem);
+            }
+        });
         mCoreController.attach(this);
     }
 
+    private static ExecutorService createDecryptionExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(DECRYPTION_POOL_SIZE, DECRYPTION_POOL_SIZE,
+                DECRYPTION_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "StorageDecryption");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -106,7 +149,45 @@ public class StorageController implements StorageApi, SecurityCompromisedObserve
                 return new SmartCredentialsResponse<>(e);
             }
         }
-        return new SmartCredentialsResponse<>(mRepository.saveData(itemDomainModel));
+        return new SmartCredentialsResponse<>(mMigrationQueue.write(() -> mRepository.saveData(itemDomainModel)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SmartCredentialsApiResponse<Integer> putItems(List<ItemDomainModel> itemDomainModels) {
+        ApiLoggerResolver.logMethodAccess(getClass().getSimpleName(), "putItems");
+        if (mCoreController.isSecurityCompromised()) {
+            mCoreController.handleSecurityCompromised();
+            return new SmartCredentialsResponse<>(new RootedThrowable());
+        }
+
+        if (mCoreController.isDeviceRestricted(SmartCredentialsFeatureSet.STORAGE)) {
+            String errorMessage = SmartCredentialsFeatureSet.STORAGE.getNotSupportedDesc();
+            return new SmartCredentialsResponse<>(new FeatureNotSupportedThrowable(errorMessage));
+        }
+
+        try {
+            checkParamNotNull(itemDomainModels);
+            // encrypt copies, so that a failure leaves none of the caller's items encrypted
+            List<ItemDomainModel> itemsToSave = new ArrayList<>(itemDomainModels.size());
+            for (ItemDomainModel itemDomainModel : itemDomainModels) {
+                checkParamNotNull(itemDomainModel);
+                validateItemDomainModel(itemDomainModel);
+                ItemDomainMetadata metadata = getValidatedMetadata(itemDomainModel);
+                ItemDomainModel itemToSave = new ItemDomainModel(itemDomainModel);
+                if (metadata.isDataEncrypted()) {
+                    itemToSave.encryptData(mEncryptionStrategy, isSensitive(metadata));
+                }
+                itemsToSave.add(itemToSave);
+            }
+            return new SmartCredentialsResponse<>(mMigrationQueue.write(() -> mRepository.saveData(itemsToSave)));
+        } catch (DomainModelException e) {
+            return new SmartCredentialsResponse<>(new EnvelopeException(EnvelopeExceptionReason.map(e.getMessage())));
+        } catch (EncryptionException | RepositoryException e) {
+            return new SmartCredentialsResponse<>(e);
+        }
     }
 
     /**
@@ -142,7 +223,7 @@ public class StorageController implements StorageApi, SecurityCompromisedObserve
         if (metadata.isDataEncrypted()) {
             itemDomainModel.partiallyEncrypt(mEncryptionStrategy, isSensitive(metadata));
         }
-        return mRepository.saveData(itemDomainModel);
+        return mMigrationQueue.write(() -> mRepository.saveData(itemDomainModel));
     }
 
     /**
@@ -154,13 +235,14 @@ public class StorageController implements StorageApi, SecurityCompromisedObserve
         if (metadata.isDataEncrypted()) {
             itemDomainModel.encryptData(mEncryptionStrategy, isSensitive(metadata));
         }
-        return mRepository.updateItem(itemDomainModel);
+        return mMigrationQueue.write(() -> mRepository.updateItem(itemDomainModel));
     }
 
     private List<ItemDomainModel> retrieveItemsFilteredByType(ItemDomainModel itemDomainModel) throws EncryptionException {
+        long writeCount = mMigrationQueue.getWriteCount();
         List<ItemDomainModel> itemDomainModelList = mRepository.retrieveItemsFilteredByType(itemDomainModel);
         if (itemDomainModelList != null) {
-            return decrypt(itemDomainModelList);
+            return decrypt(itemDomainModelList, writeCount);
         }
         return Collections.emptyList();
     }
@@ -181,11 +263,12 @@ public class StorageController implements StorageApi, SecurityCompromisedObserve
             return new SmartCredentialsResponse<>(new FeatureNotSupportedThrowable(errorMessage));
         }
 
+        long writeCount = mMigrationQueue.getWriteCount();
         ItemDomainModel retrievedItemDomainModel = mRepository.retrieveFilteredItemSummaryByUniqueIdAndType(itemDomainModel);
 
         if (retrievedItemDomainModel != null) {
             try {
-                return new SmartCredentialsResponse<>(decrypt(retrievedItemDomainModel));
+                return new SmartCredentialsResponse<>(decrypt(retrievedItemDomainModel, writeCount));
             } catch (EncryptionException e) {
                 return new SmartCredentialsResponse<>(e);
             }
@@ -194,17 +277,18 @@ public class StorageController implements StorageApi, SecurityCompromisedObserve
     }
 
     private ItemDomainModel retrieveItemDetailsByUniqueIdAndType(ItemDomainModel itemDomainModel) throws EncryptionException {
+        long writeCount = mMigrationQueue.getWriteCount();
         ItemDomainModel retrievedItemDomainModel = mRepository.retrieveFilteredItemDetailsByUniqueIdAndType(itemDomainModel);
 
         if (retrievedItemDomainModel != null) {
-            return decrypt(retrievedItemDomainModel);
+            return decrypt(retrievedItemDomainModel, writeCount);
         }
 
         return null;
     }
 
     private void clearStorage() {
-        mCompositeDisposable.add(Observable.defer(() -> Observable.just(mRepository.deleteAllData()))
+        mCompositeDisposable.add(Observable.defer(() -> Observable.just(mMigrationQueue.write(mRepository::deleteAllData)))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(count -> ApiLoggerResolver.logEvent(String.format(Locale.GERMANY, "Deleted %d rows", count)),
@@ -233,29 +317,62 @@ public class StorageController implements StorageApi, SecurityCompromisedObserve
         return new SmartCredentialsResponse<>(ModelConverter.toTokenRequest(encryptedDataItemDomainModel, mGson, mEncryptionStrategy, isSensitive(itemDomainModel.getMetadata())));
     }
 
-    private List<ItemDomainModel> decrypt(List<ItemDomainModel> itemDomainModelList) throws EncryptionException {
+    private List<ItemDomainModel> decrypt(List<ItemDomainModel> itemDomainModelList, long writeCount) throws EncryptionException {
+        if (itemDomainModelList.size() <= 1) {
+            for (ItemDomainModel item : itemDomainModelList) {
+                decrypt(item, writeCount);
+            }
+            return itemDomainModelList;
+        }
+
+        List<Future<ItemDomainModel>> futures = new ArrayList<>(itemDomainModelList.size());
         for (ItemDomainModel item : itemDomainModelList) {
-            ItemDomainMetadata metadata = getValidatedMetadata(item);
-            if (metadata.isDataEncrypted()) {
-                try {
-                    item.decryptData(mEncryptionStrategy);
-                } catch (InvalidAlgorithmException exception) {
-                    item.decryptData(mEncryptionStrategy, EncryptionAlgorithm.RSA_2048);
-                    updateItem(new ItemDomainModel(item));
-                }
+            futures.add(sDecryptionExecutor.submit(() -> decrypt(item, writeCount)));
+        }
+        try {
+            for (Future<ItemDomainModel> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof EncryptionException) {
+                throw (EncryptionException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new EncryptionException((Exception) cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EncryptionException(e);
+        } finally {
+            for (Future<ItemDomainModel> future : futures) {
+                future.cancel(false);
             }
         }
         return itemDomainModelList;
     }
 
-    private ItemDomainModel decrypt(ItemDomainModel itemDomainModel) throws EncryptionException {
+    /**
+     * Decrypts the item in place. Items stored in a legacy format are handed, as a copy, to the
+     * migration queue to be encrypted and saved again in background.
+     *
+     * @param writeCount write count of the migration queue taken before the item was read
+     */
+    private ItemDomainModel decrypt(ItemDomainModel itemDomainModel, long writeCount) throws EncryptionException {
         if (getValidatedMetadata(itemDomainModel).isDataEncrypted()) {
+            boolean needsMigration = itemDomainModel.isLegacyEncrypted(mEncryptionStrategy);
             try {
-                return itemDomainModel.decryptData(mEncryptionStrategy);
+                itemDomainModel.decryptData(mEncryptionStrategy);
             } catch (InvalidAlgorithmException ex) {
                 itemDomainModel.decryptData(mEncryptionStrategy, EncryptionAlgorithm.RSA_2048);
-                updateItem(new ItemDomainModel(itemDomainModel));
-                return itemDomainModel;
+                needsMigration = true;
+            }
+            if (needsMigration) {
+                mMigrationQueue.enqueue(new ItemDomainModel(itemDomainModel), writeCount);
             }
         }
         return itemDomainModel;
@@ -298,6 +415,36 @@ public class StorageController implements StorageApi, SecurityCompromisedObserve
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Observable<ItemEnvelope> observeAllItemsByItemType(@NonNull SmartCredentialsFilter smartCredentialsFilter) {
+        ApiLoggerResolver.logMethodAccess(getClass().getSimpleName(), "observeAllItemsByItemType");
+        return Observable.defer(() -> {
+            if (mCoreController.isSecurityCompromised()) {
+                mCoreController.handleSecurityCompromised();
+                return Observable.<ItemEnvelope>error(new RootedThrowable());
+            }
+
+            if (mCoreController.isDeviceRestricted(SmartCredentialsFeatureSet.STORAGE)) {
+                String errorMessage = SmartCredentialsFeatureSet.STORAGE.getNotSupportedDesc();
+                return Observable.<ItemEnvelope>error(new FeatureNotSupportedThrowable(errorMessage));
+            }
+
+            long writeCount = mMigrationQueue.getWriteCount();
+            List<ItemDomainModel> items = mRepository.retrieveItemsFilteredByType(
+                    smartCredentialsFilter.toItemDomainModel(mCoreController.getUserId()));
+            if (items == null) {
+                return Observable.<ItemEnvelope>empty();
+            }
+            return Observable.fromIterable(items)
+                    .concatMapEager(item -> Observable.fromCallable(
+                            () -> de.telekom.smartcredentials.core.converters.ModelConverter.toItemEnvelope(decrypt(item, writeCount)))
+                            .subscribeOn(sDecryptionScheduler), DECRYPTION_POOL_SIZE, Observable.bufferSize());
+        }).subscribeOn(Schedulers.io());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -432,7 +579,40 @@ public class StorageController implements StorageApi, SecurityCompromisedObserve
         }
 
         try {
-            int count = mRepository.deleteItem(smartCredentialsFilter.toItemDomainModel(mCoreController.getUserId()));
+            ItemDomainModel itemDomainModel = smartCredentialsFilter.toItemDomainModel(mCoreController.getUserId());
+            int count = mMigrationQueue.write(() -> mRepository.deleteItem(itemDomainModel));
+            return new SmartCredentialsResponse<>(count);
+        } catch (DomainModelException e) {
+            return new SmartCredentialsResponse<>(new EnvelopeException(EnvelopeExceptionReason.map(e.getMessage())));
+        } catch (EnvelopeException | RepositoryException ex) {
+            return new SmartCredentialsResponse<>(ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SmartCredentialsApiResponse<Integer> deleteItems(@NonNull List<SmartCredentialsFilter> smartCredentialsFilters) {
+        ApiLoggerResolver.logMethodAccess(getClass().getSimpleName(), "deleteItems");
+        if (mCoreController.isSecurityCompromised()) {
+            mCoreController.handleSecurityCompromised();
+            return new SmartCredentialsResponse<>(new RootedThrowable());
+        }
+
+        if (mCoreController.isDeviceRestricted(SmartCredentialsFeatureSet.STORAGE)) {
+            String errorMessage = SmartCredentialsFeatureSet.STORAGE.getNotSupportedDesc();
+            return new SmartCredentialsResponse<>(new FeatureNotSupportedThrowable(errorMessage));
+        }
+
+        try {
+            checkParamNotNull(smartCredentialsFilters);
+            List<ItemDomainModel> itemDomainModels = new ArrayList<>(smartCredentialsFilters.size());
+            for (SmartCredentialsFilter smartCredentialsFilter : smartCredentialsFilters) {
+                checkParamNotNull(smartCredentialsFilter);
+                itemDomainModels.add(smartCredentialsFilter.toItemDomainModel(mCoreController.getUserId()));
+            }
+            int count = mMigrationQueue.write(() -> mRepository.deleteItems(itemDomainModels));
             return new SmartCredentialsResponse<>(count);
         } catch (DomainModelException e) {
             return new SmartCredentialsResponse<>(new EnvelopeException(EnvelopeExceptionReason.map(e.getMessage())));
@@ -458,7 +638,8 @@ public class StorageController implements StorageApi, SecurityCompromisedObserve
         }
 
         try {
-            int count = mRepository.deleteItemsByType(smartCredentialsFilter.toItemDomainModel(mCoreController.getUserId()));
+            ItemDomainModel itemDomainModel = smartCredentialsFilter.toItemDomainModel(mCoreController.getUserId());
+            int count = mMigrationQueue.write(() -> mRepository.deleteItemsByType(itemDomainModel));
             return new SmartCredentialsResponse<>(count);
         } catch (DomainModelException e) {
             return new SmartCredentialsResponse<>(new EnvelopeException(EnvelopeExceptionReason.map(e.getMessage())));
@@ -474,6 +655,7 @@ public class StorageController implements StorageApi, SecurityCompromisedObserve
 
     public void detach() {
         mCompositeDisposable.clear();
+        mMigrationQueue.shutdown();
         mCoreController.detach(this);
     }
 
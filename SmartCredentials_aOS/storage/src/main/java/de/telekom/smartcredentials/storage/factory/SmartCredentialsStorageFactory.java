@@ -22,6 +22,7 @@ import androidx.annotation.NonNull;
 import de.telekom.smartcredentials.core.api.CoreApi;
 import de.telekom.smartcredentials.core.api.SecurityApi;
 import de.telekom.smartcredentials.core.api.StorageApi;
+import de.telekom.smartcredentials.core.api.rx.RxStorageApi;
 import de.telekom.smartcredentials.core.blacklisting.SmartCredentialsModuleSet;
 import de.telekom.smartcredentials.core.controllers.CoreController;
 import de.telekom.smartcredentials.core.exceptions.InvalidCoreApiException;
@@ -67,6 +68,15 @@ public class SmartCredentialsStorageFactory {
         return sStorageController;
     }
 
+    @NonNull
+    @SuppressWarnings("unused")
+    public static synchronized RxStorageApi getRxStorageApi() {
+        if (sStorageController == null) {
+            throw new RuntimeException(MODULE_NOT_INITIALIZED_EXCEPTION);
+        }
+        return sStorageController;
+    }
+
     public static void clear() {
         ObjectGraphCreatorStorage.destroy();
         sStorageController.detach();
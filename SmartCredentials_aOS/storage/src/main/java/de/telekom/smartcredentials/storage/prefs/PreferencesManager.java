@@ -20,15 +20,18 @@ import android.content.SharedPreferences;
 import android.text.TextUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 public class PreferencesManager {
 
     private final SharedPreferences mSharedPreferences;
+    private final SharedPreferencesKeyIndex mKeyIndex;
 
     public PreferencesManager(SharedPreferences sharedPreferences) {
         mSharedPreferences = sharedPreferences;
+        mKeyIndex = SharedPreferencesKeyIndex.forPreferences(sharedPreferences);
     }
 
     void remove(String uniqueKey) {
@@ -37,6 +40,7 @@ public class PreferencesManager {
                     .edit()
                     .remove(uniqueKey)
                     .apply();
+            mKeyIndex.remove(uniqueKey);
         }
     }
 
@@ -46,35 +50,107 @@ public class PreferencesManager {
                     .edit()
                     .putString(uniqueKey, data)
                     .apply();
+            mKeyIndex.add(uniqueKey);
         }
     }
 
+    /**
+     * Saves all the given key/data pairs in a single transaction.
+     *
+     * @param items data to be saved, mapped by key
+     */
+    void saveAll(Map<String, String> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        SharedPreferences.Editor editor = mSharedPreferences.edit();
+        for (Map.Entry<String, String> item : items.entrySet()) {
+            editor.putString(item.getKey(), item.getValue());
+        }
+        editor.apply();
+        mKeyIndex.addAll(items.keySet());
+    }
+
+    /**
+     * Removes all the given keys in a single transaction.
+     *
+     * @param uniqueKeys keys to be removed
+     * @return number of keys that were stored before removal
+     */
+    int removeAll(Collection<String> uniqueKeys) {
+        SharedPreferences.Editor editor = mSharedPreferences.edit();
+        List<String> removedKeys = new ArrayList<>();
+        for (String uniqueKey : uniqueKeys) {
+            if (uniqueKey != null && mKeyIndex.contains(uniqueKey)) {
+                editor.remove(uniqueKey);
+                removedKeys.add(uniqueKey);
+            }
+        }
+        if (removedKeys.isEmpty()) {
+            return 0;
+        }
+
+        editor.apply();
+        mKeyIndex.removeAll(removedKeys);
+        return removedKeys.size();
+    }
+
     void update(String uniqueKey, String data) {
         if (uniqueKey != null) {
             mSharedPreferences
                     .edit()
                     .putString(uniqueKey, data)
                     .apply();
+            if (data != null) {
+                mKeyIndex.add(uniqueKey);
+            } else {
+                mKeyIndex.remove(uniqueKey);
+            }
         }
     }
 
     List<String> getItemsMatchingType(String keyToMatch) {
         List<String> values = new ArrayList<>();
-
-        Map<String, ?> allPrefs = mSharedPreferences.getAll();
-        if (allPrefs.isEmpty()) {
+        if (TextUtils.isEmpty(keyToMatch)) {
             return values;
         }
 
-        for (String key : allPrefs.keySet()) {
-            if (!TextUtils.isEmpty(keyToMatch) && key.startsWith(keyToMatch)) {
-                values.add(mSharedPreferences.getString(key, ""));
+        for (String key : mKeyIndex.keysStartingWith(keyToMatch)) {
+            String value = mSharedPreferences.getString(key, null);
+            if (value != null) {
+                values.add(value);
             }
         }
 
         return values;
     }
 
+    /**
+     * Removes, in a single transaction, all the items whose key starts with the given prefix.
+     *
+     * @param keyToMatch prefix of the keys to be removed
+     * @return number of removed items
+     */
+    int removeItemsMatchingType(String keyToMatch) {
+        if (TextUtils.isEmpty(keyToMatch)) {
+            return 0;
+        }
+
+        List<String> keys = mKeyIndex.keysStartingWith(keyToMatch);
+        if (keys.isEmpty()) {
+            return 0;
+        }
+
+        SharedPreferences.Editor editor = mSharedPreferences.edit();
+        for (String key : keys) {
+            editor.remove(key);
+        }
+        editor.apply();
+        mKeyIndex.removeAll(keys);
+        return keys.size();
+    }
+
     String getItem(String uniqueKey) {
         if (uniqueKey != null && mSharedPreferences.contains(uniqueKey)) {
             return mSharedPreferences.getString(uniqueKey, "");
@@ -83,8 +159,7 @@ public class PreferencesManager {
     }
 
     int getItemsCount() {
-        Map all = mSharedPreferences.getAll();
-        return all != null ? all.size() : 0;
+        return mKeyIndex.size();
     }
 
     void clearAll() {
@@ -92,5 +167,6 @@ public class PreferencesManager {
                 .edit()
                 .clear()
                 .apply();
+        mKeyIndex.clear();
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.storage.prefs;
+
+import android.content.SharedPreferences;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+
+/**
+ * Sorted in-memory index of the keys stored in a {@link SharedPreferences} file. The index is
+ * loaded from the preferences once and then kept in sync by {@link PreferencesManager}, so that
+ * prefix queries and counts do not need to materialize all the stored values.
+ * <p>
+ * A single index is kept per {@link SharedPreferences} instance, so that all the managers
+ * writing to the same file share it.
+ */
+class SharedPreferencesKeyIndex {
+
+    private static final char MAX_CHAR = Character.MAX_VALUE;
+    private static final Map<SharedPreferences, SharedPreferencesKeyIndex> sIndexes = new WeakHashMap<>();
+
+    private final SharedPreferences mSharedPreferences;
+    private TreeSet<String> mKeys;
+
+    private SharedPreferencesKeyIndex(SharedPreferences sharedPreferences) {
+        mSharedPreferences = sharedPreferences;
+    }
+
+    static SharedPreferencesKeyIndex forPreferences(SharedPreferences sharedPreferences) {
+        synchronized (sIndexes) {
+            SharedPreferencesKeyIndex index = sIndexes.get(sharedPreferences);
+            if (index == null) {
+                index = new SharedPreferencesKeyIndex(sharedPreferences);
+                sIndexes.put(sharedPreferences, index);
+            }
+            return index;
+        }
+    }
+
+    synchronized void add(String key) {
+        getKeys().add(key);
+    }
+
+    synchronized void addAll(Collection<String> keys) {
+        getKeys().addAll(keys);
+    }
+
+    synchronized void remove(String key) {
+        getKeys().remove(key);
+    }
+
+    synchronized void removeAll(Collection<String> keys) {
+        getKeys().removeAll(keys);
+    }
+
+    synchronized void clear() {
+        getKeys().clear();
+    }
+
+    synchronized boolean contains(String key) {
+        return getKeys().contains(key);
+    }
+
+    synchronized int size() {
+        return getKeys().size();
+    }
+
+    /**
+     * Returns a snapshot of the keys starting with the given prefix; none for a null prefix.
+     */
+    synchronized List<String> keysStartingWith(String prefix) {
+        if (prefix == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(getKeys().subSet(prefix, true, prefix + MAX_CHAR, true));
+    }
+
+    private TreeSet<String> getKeys() {
+        if (mKeys == null) {
+            mKeys = new TreeSet<>();
+            Map<String, ?> allPrefs = mSharedPreferences.getAll();
+            if (allPrefs != null) {
+                mKeys.addAll(allPrefs.keySet());
+            }
+        }
+        return mKeys;
+    }
+}
@@ -22,7 +22,9 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import de.telekom.smartcredentials.core.logger.ApiLoggerResolver;
@@ -63,6 +65,25 @@ public abstract class SharedPreferencesRepo {
         return Objects.equals(mPreferencesManager.getItem(itemDomainModel.getUniqueKey()), data) ? 1 : 0;
     }
 
+    public int saveData(List<ItemDomainModel> itemDomainModels) throws JSONException {
+        checkParamNotNull(itemDomainModels);
+
+        Map<String, String> items = new LinkedHashMap<>();
+        for (ItemDomainModel itemDomainModel : itemDomainModels) {
+            checkParamNotNull(itemDomainModel);
+            JSONObject jsonObject = ModelConverter.getItemJSONObject(itemDomainModel, mGson);
+            if (jsonObject == null) {
+                // fail the whole batch before anything is written, like the database transaction
+                ApiLoggerResolver.logError(TAG, ERR_CONVERTING_TO_JSON);
+                throw new JSONException(ERR_CONVERTING_TO_JSON);
+            }
+            items.put(itemDomainModel.getUniqueKey(), jsonObject.toString());
+        }
+
+        mPreferencesManager.saveAll(items);
+        return items.size();
+    }
+
     public int updateItem(ItemDomainModel itemDomainModel) throws JSONException {
         JSONObject jsonObject = ModelConverter.getItemJSONObject(itemDomainModel, mGson);
         if (jsonObject == null) {
@@ -101,14 +122,19 @@ public abstract class SharedPreferencesRepo {
         return itemsCountBeforeDelete - mPreferencesManager.getItemsCount();
     }
 
-    public int deleteItemByType(ItemDomainModel itemDomainModel) throws JSONException {
-        ItemDomainMetadata metadata = getValidatedMetadata(itemDomainModel);
+    public int deleteItems(List<ItemDomainModel> itemDomainModels) {
+        checkParamNotNull(itemDomainModels);
 
-        int itemsCountBeforeDelete = mPreferencesManager.getItemsCount();
-        List<ItemDomainModel> itemDomainModelList = retrieveItemsFilteredByType(metadata);
-        for (ItemDomainModel itemDomainModel1 : itemDomainModelList) {
-            deleteItem(itemDomainModel1);
+        List<String> uniqueKeys = new ArrayList<>(itemDomainModels.size());
+        for (ItemDomainModel itemDomainModel : itemDomainModels) {
+            checkParamNotNull(itemDomainModel);
+            uniqueKeys.add(itemDomainModel.getUniqueKey());
         }
-        return itemsCountBeforeDelete - mPreferencesManager.getItemsCount();
+        return mPreferencesManager.removeAll(uniqueKeys);
+    }
+
+    public int deleteItemByType(ItemDomainModel itemDomainModel) throws JSONException {
+        ItemDomainMetadata metadata = getValidatedMetadata(itemDomainModel);
+        return mPreferencesManager.removeItemsMatchingType(metadata.getUniqueKeyPrefix());
     }
 }
@@ -19,6 +19,8 @@ package de.telekom.smartcredentials.storage.repositories;
 import android.database.sqlite.SQLiteConstraintException;
 import android.text.TextUtils;
 
+import androidx.room.RoomDatabase;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -42,10 +44,13 @@ public class NonSensitiveDataRepository implements Repository {
 
     private final ItemDao mItemsDao;
     private final ItemPrivateDataDao mItemPrivateDataDao;
+    private final RoomDatabase mDatabase;
 
-    NonSensitiveDataRepository(ItemDao itemDao, ItemPrivateDataDao itemPrivateDataDao) {
+    NonSensitiveDataRepository(ItemDao itemDao, ItemPrivateDataDao itemPrivateDataDao,
+                               RoomDatabase database) {
         mItemsDao = itemDao;
         mItemPrivateDataDao = itemPrivateDataDao;
+        mDatabase = database;
     }
 
     @Override
@@ -67,6 +72,43 @@ public class NonSensitiveDataRepository implements Repository {
         }
     }
 
+    @Override
+    public int saveData(List<ItemDomainModel> itemDomainModels) {
+        checkParamNotNull(itemDomainModels);
+
+        List<Item> items = new ArrayList<>(itemDomainModels.size());
+        List<ItemPrivateData> privateDataList = new ArrayList<>(itemDomainModels.size());
+        for (ItemDomainModel itemDomainModel : itemDomainModels) {
+            checkParamNotNull(itemDomainModel);
+            Item item = ModelConverter.getItemSummary(itemDomainModel);
+            ItemPrivateData itemPrivateData = ModelConverter.getItemPrivateData(itemDomainModel);
+            if (item != null && itemPrivateData != null) {
+                items.add(item);
+                privateDataList.add(itemPrivateData);
+            }
+        }
+        if (items.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return mDatabase.runInTransaction(() -> {
+                long[] privateDataRowIds = mItemPrivateDataDao.insertAll(
+                        privateDataList.toArray(new ItemPrivateData[0]));
+                long[] itemRowIds = mItemsDao.insertAll(items.toArray(new Item[0]));
+                int savedItemsCount = 0;
+                for (int index = 0; index < itemRowIds.length; index++) {
+                    if (privateDataRowIds[index] > -1 && itemRowIds[index] > -1) {
+                        savedItemsCount++;
+                    }
+                }
+                return savedItemsCount;
+            });
+        } catch (SQLiteConstraintException ex) {
+            throw new RepositoryException(NonSensitiveDataRepository.class.getSimpleName() + ex.getMessage(), ex);
+        }
+    }
+
     @Override
     public int updateItem(ItemDomainModel itemDomainModel) {
         Item item = ModelConverter.getItemSummary(itemDomainModel);
@@ -128,6 +170,19 @@ public class NonSensitiveDataRepository implements Repository {
         return 0;
     }
 
+    @Override
+    public int deleteItems(List<ItemDomainModel> itemDomainModels) {
+        checkParamNotNull(itemDomainModels);
+
+        return mDatabase.runInTransaction(() -> {
+            int deletedItemsCount = 0;
+            for (ItemDomainModel itemDomainModel : itemDomainModels) {
+                deletedItemsCount += deleteItem(itemDomainModel);
+            }
+            return deletedItemsCount;
+        });
+    }
+
     @Override
     public int deleteItemsByType(ItemDomainModel itemDomainModel) {
         checkParamNotNull(itemDomainModel);
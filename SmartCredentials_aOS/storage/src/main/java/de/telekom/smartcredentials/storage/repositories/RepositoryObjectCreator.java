@@ -55,7 +55,8 @@ public class RepositoryObjectCreator {
     @Provides
     @NonNull
     public NonSensitiveDataRepository provideNonSensitiveDataRepo() {
-        return new NonSensitiveDataRepository(mAppDatabase.getItemsDao(), mAppDatabase.getPrivateDataDao());
+        return new NonSensitiveDataRepository(mAppDatabase.getItemsDao(), mAppDatabase.getPrivateDataDao(),
+                mAppDatabase);
     }
 
     @Provides
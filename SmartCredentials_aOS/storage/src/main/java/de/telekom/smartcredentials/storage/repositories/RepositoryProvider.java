@@ -16,6 +16,7 @@
 
 package de.telekom.smartcredentials.storage.repositories;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import de.telekom.smartcredentials.core.model.item.ContentType;
@@ -48,6 +49,26 @@ public class RepositoryProvider implements Repository {
         return selectedRepository.saveData(itemDomainModel);
     }
 
+    @Override
+    public int saveData(List<ItemDomainModel> itemDomainModels) {
+        checkParamNotNull(itemDomainModels);
+
+        List<ItemDomainModel> sensitiveItems = new ArrayList<>();
+        List<ItemDomainModel> nonSensitiveItems = new ArrayList<>();
+        splitByRepository(itemDomainModels, sensitiveItems, nonSensitiveItems);
+
+        int savedItemsCount = 0;
+        if (!nonSensitiveItems.isEmpty()) {
+            ApiLoggerResolver.logMethodAccess(mNonSensitiveDataRepository.getTag(), "putItems");
+            savedItemsCount += mNonSensitiveDataRepository.saveData(nonSensitiveItems);
+        }
+        if (!sensitiveItems.isEmpty()) {
+            ApiLoggerResolver.logMethodAccess(mSensitiveDataRepository.getTag(), "putItems");
+            savedItemsCount += mSensitiveDataRepository.saveData(sensitiveItems);
+        }
+        return savedItemsCount;
+    }
+
     @Override
     public int updateItem(ItemDomainModel itemDomainModel) {
         checkParamNotNull(itemDomainModel);
@@ -107,6 +128,26 @@ public class RepositoryProvider implements Repository {
         return selectedRepository.deleteItem(itemDomainModel);
     }
 
+    @Override
+    public int deleteItems(List<ItemDomainModel> itemDomainModels) {
+        checkParamNotNull(itemDomainModels);
+
+        List<ItemDomainModel> sensitiveItems = new ArrayList<>();
+        List<ItemDomainModel> nonSensitiveItems = new ArrayList<>();
+        splitByRepository(itemDomainModels, sensitiveItems, nonSensitiveItems);
+
+        int deletedItemsCount = 0;
+        if (!nonSensitiveItems.isEmpty()) {
+            ApiLoggerResolver.logMethodAccess(mNonSensitiveDataRepository.getTag(), "deleteItems");
+            deletedItemsCount += mNonSensitiveDataRepository.deleteItems(nonSensitiveItems);
+        }
+        if (!sensitiveItems.isEmpty()) {
+            ApiLoggerResolver.logMethodAccess(mSensitiveDataRepository.getTag(), "deleteItems");
+            deletedItemsCount += mSensitiveDataRepository.deleteItems(sensitiveItems);
+        }
+        return deletedItemsCount;
+    }
+
     @Override
     public int deleteItemsByType(ItemDomainModel itemDomainModel) {
         checkParamNotNull(itemDomainModel);
@@ -122,6 +163,19 @@ public class RepositoryProvider implements Repository {
         return TAG;
     }
 
+    private void splitByRepository(List<ItemDomainModel> itemDomainModels,
+                                   List<ItemDomainModel> sensitiveItems,
+                                   List<ItemDomainModel> nonSensitiveItems) {
+        for (ItemDomainModel itemDomainModel : itemDomainModels) {
+            checkParamNotNull(itemDomainModel);
+            if (selectRepository(itemDomainModel.getMetadata()) == mNonSensitiveDataRepository) {
+                nonSensitiveItems.add(itemDomainModel);
+            } else {
+                sensitiveItems.add(itemDomainModel);
+            }
+        }
+    }
+
     private Repository selectRepository(ItemDomainMetadata metadata) {
         checkParamNotNull(metadata);
 
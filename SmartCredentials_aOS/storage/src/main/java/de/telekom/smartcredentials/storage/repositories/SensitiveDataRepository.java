@@ -53,6 +53,16 @@ class SensitiveDataRepository implements Repository {
         }.transformException();
     }
 
+    @Override
+    public int saveData(final List<ItemDomainModel> itemDomainModels) {
+        return new JSONExceptionResolver<Integer>() {
+            @Override
+            Integer throwableMethod() throws JSONException {
+                return mSharedPreferencesRepoFiveFourteen.saveData(itemDomainModels);
+            }
+        }.transformException();
+    }
+
     @Override
     public int updateItem(ItemDomainModel itemDomainModel) {
         return new JSONExceptionResolver<Integer>() {
@@ -113,6 +123,11 @@ class SensitiveDataRepository implements Repository {
         return mSharedPreferencesRepoFiveFourteen.deleteItem(itemDomainModel);
     }
 
+    @Override
+    public int deleteItems(List<ItemDomainModel> itemDomainModels) {
+        return mSharedPreferencesRepoFiveFourteen.deleteItems(itemDomainModels);
+    }
+
     @Override
     public int deleteItemsByType(final ItemDomainModel itemDomainModel) {
         return new JSONExceptionResolver<Integer>() {
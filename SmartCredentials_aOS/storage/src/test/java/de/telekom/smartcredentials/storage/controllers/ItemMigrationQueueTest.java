@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2019 Telekom Deutschland AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.telekom.smartcredentials.storage.controllers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import de.telekom.smartcredentials.core.model.item.ItemDomainModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.when;
+
+public class ItemMigrationQueueTest {
+
+    private final List<Runnable> mTasks = new ArrayList<>();
+    private final List<ItemDomainModel> mMigratedItems = new ArrayList<>();
+    private ItemMigrationQueue mMigrationQueue;
+    private ItemDomainModel mItem;
+    private Runnable mDuringEncryption;
+
+    @Before
+    public void setUp() {
+        mMigrationQueue = new ItemMigrationQueue(new TestMigration(), mTasks::add);
+        mItem = Mockito.mock(ItemDomainModel.class);
+        when(mItem.getUniqueKey()).thenReturn("unique_key");
+    }
+
+    @Test
+    public void enqueueIgnoresItemAlreadyPending() {
+        mMigrationQueue.enqueue(mItem, mMigrationQueue.getWriteCount());
+        mMigrationQueue.enqueue(mItem, mMigrationQueue.getWriteCount());
+        assertEquals(1, mTasks.size());
+
+        runTasks();
+
+        assertEquals(1, mMigratedItems.size());
+    }
+
+    @Test
+    public void enqueueAcceptsItemAgainAfterMigration() {
+        mMigrationQueue.enqueue(mItem, mMigrationQueue.getWriteCount());
+        runTasks();
+
+        mMigrationQueue.enqueue(mItem, mMigrationQueue.getWriteCount());
+        runTasks();
+
+        assertEquals(2, mMigratedItems.size());
+    }
+
+    @Test
+    public void writeDropsPendingMigration() {
+        mMigrationQueue.enqueue(mItem, mMigrationQueue.getWriteCount());
+
+        mMigrationQueue.write(() -> 1);
+        runTasks();
+
+        assertEquals(0, mMigratedItems.size());
+    }
+
+    @Test
+    public void itemReadBeforeWriteIsNotMigrated() {
+        long writeCount = mMigrationQueue.getWriteCount();
+
+        mMigrationQueue.write(() -> 1);
+        mMigrationQueue.enqueue(mItem, writeCount);
+
+        assertEquals(0, mTasks.size());
+    }
+
+    @Test
+    public void onlyCopyReadAfterWriteIsMigrated() {
+        ItemDomainModel newerItem = Mockito.mock(ItemDomainModel.class);
+        when(newerItem.getUniqueKey()).thenReturn("unique_key");
+        mMigrationQueue.enqueue(mItem, mMigrationQueue.getWriteCount());
+        mMigrationQueue.write(() -> 1);
+        mMigrationQueue.enqueue(newerItem, mMigrationQueue.getWriteCount());
+
+        runTasks();
+
+        assertEquals(1, mMigratedItems.size());
+        assertEquals(newerItem, mMigratedItems.get(0));
+    }
+
+    @Test
+    public void writeDoesNotWaitForEncryptionAndDropsTheMigration() throws InterruptedException {
+        Thread writer = new Thread(() -> mMigrationQueue.write(() -> 1));
+        mDuringEncryption = () -> {
+            writer.start();
+            try {
+                writer.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        mMigrationQueue.enqueue(mItem, mMigrationQueue.getWriteCount());
+
+        runTasks();
+
+        assertFalse(writer.isAlive());
+        assertEquals(0, mMigratedItems.size());
+    }
+
+    @Test
+    public void enqueueAfterShutdownIsIgnored() {
+        ItemMigrationQueue migrationQueue = new ItemMigrationQueue(new TestMigration());
+        migrationQueue.shutdown();
+
+        migrationQueue.enqueue(mItem, migrationQueue.getWriteCount());
+
+        assertEquals(0, mMigratedItems.size());
+    }
+
+    @Test
+    public void rejectedItemIsAcceptedAgainLater() {
+        List<Runnable> rejected = new ArrayList<>();
+        ItemMigrationQueue migrationQueue = new ItemMigrationQueue(new TestMigration(), task -> {
+            if (rejected.isEmpty()) {
+                rejected.add(task);
+                throw new RejectedExecutionException();
+            }
+            mTasks.add(task);
+        });
+
+        migrationQueue.enqueue(mItem, migrationQueue.getWriteCount());
+        migrationQueue.enqueue(mItem, migrationQueue.getWriteCount());
+        runTasks();
+
+        assertEquals(1, mMigratedItems.size());
+    }
+
+    private void runTasks() {
+        List<Runnable> tasks = new ArrayList<>(mTasks);
+        mTasks.clear();
+        for (Runnable task : tasks) {
+            task.run();
+        }
+    }
+
+    private class TestMigration implements ItemMigrationQueue.Migration {
+
+        @Override
+        public void encrypt(ItemDomainModel decryptedItem) {
+            if (mDuringEncryption != null) {
+                mDuringEncryption.run();
+            }
+        }
+
+        @Override
+        public int save(ItemDomainModel encryptedItem) {
+            mMigratedItems.add(encryptedItem);
+            return 1;
+        }
+    }
+}
@@ -38,6 +38,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -98,17 +99,37 @@ public class PreferencesManagerTest {
     }
 
     @Test
-    public void getItemsCountReturnsTotalNumberOfItems() {
-        int count = mPreferencesManager.getItemsCount();
-        assertEquals(count, 0);
+    public void getItemsCountReturnsZeroWhenPreferencesAreNull() {
+        when(mSharedPreferences.getAll()).thenReturn(null);
+        assertEquals(0, mPreferencesManager.getItemsCount());
+    }
 
+    @Test
+    public void getItemsCountIsLoadedOnceAndKeptInSync() {
         when(mSharedPreferences.getAll()).thenReturn(mMap);
-        count = mPreferencesManager.getItemsCount();
-        assertEquals(count, mMap.size());
+        when(mEditor.putString(anyString(), anyString())).thenReturn(mEditor);
+        when(mEditor.remove(anyString())).thenReturn(mEditor);
+        assertEquals(mMap.size(), mPreferencesManager.getItemsCount());
 
-        when(mSharedPreferences.getAll()).thenReturn(null);
-        count = mPreferencesManager.getItemsCount();
-        assertEquals(count, 0);
+        mPreferencesManager.save(mKey + "2", mData);
+        assertEquals(mMap.size() + 1, mPreferencesManager.getItemsCount());
+
+        mPreferencesManager.remove(mKey);
+        assertEquals(mMap.size(), mPreferencesManager.getItemsCount());
+        verify(mSharedPreferences, times(1)).getAll();
+    }
+
+    @Test
+    public void saveAllPutsAllItemsInOneTransaction() {
+        when(mEditor.putString(anyString(), anyString())).thenReturn(mEditor);
+
+        mPreferencesManager.saveAll(mMap);
+
+        verify(mSharedPreferences, times(1)).edit();
+        verify(mEditor).putString(mKey, mData);
+        verify(mEditor).putString(mOtherKey, mData);
+        verify(mEditor, times(1)).apply();
+        assertEquals(mMap.size(), mPreferencesManager.getItemsCount());
     }
 
     @Test
@@ -124,7 +145,7 @@ public class PreferencesManagerTest {
         String key = mKey + "1";
         map.put(key, mData);
         when(mSharedPreferences.getAll()).thenReturn(map);
-        when(mSharedPreferences.getString(key, "")).thenReturn(mData);
+        when(mSharedPreferences.getString(key, null)).thenReturn(mData);
         List<String> items = mPreferencesManager.getItemsMatchingType(mKey);
         assertNotNull(items);
         assertEquals(1, items.size());
@@ -151,6 +172,23 @@ public class PreferencesManagerTest {
         assertTrue(items.isEmpty());
     }
 
+    @Test
+    public void removeItemsMatchingTypeRemovesOnlyMatchingKeysInOneTransaction() {
+        mMap.put("otherType", mData);
+        when(mSharedPreferences.getAll()).thenReturn(mMap);
+        when(mEditor.remove(anyString())).thenReturn(mEditor);
+
+        int removed = mPreferencesManager.removeItemsMatchingType(mKey);
+
+        assertEquals(2, removed);
+        verify(mSharedPreferences, times(1)).edit();
+        verify(mEditor).remove(mKey);
+        verify(mEditor).remove(mOtherKey);
+        verify(mEditor, never()).remove("otherType");
+        verify(mEditor, times(1)).apply();
+        assertEquals(1, mPreferencesManager.getItemsCount());
+    }
+
     @Test
     public void getItemReturnsNullWhenKeyIsNull() {
         String item = mPreferencesManager.getItem(null);
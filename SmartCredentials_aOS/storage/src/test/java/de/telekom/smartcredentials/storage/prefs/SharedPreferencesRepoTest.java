@@ -22,6 +22,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
 import org.json.JSONException;
+import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -33,6 +34,7 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -45,9 +47,10 @@ import de.telekom.smartcredentials.storage.utils.ModelGenerator;
 import static de.telekom.smartcredentials.core.model.ModelValidator.NULL_PARAMETER_EXCEPTION_MSG;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -77,7 +80,7 @@ public class SharedPreferencesRepoTest {
         thrown.expect(DomainModelException.class);
         thrown.expectMessage(NULL_PARAMETER_EXCEPTION_MSG);
 
-        mSharedPreferencesRepo.saveData(null);
+        mSharedPreferencesRepo.saveData((ItemDomainModel) null);
     }
 
     @Test
@@ -118,6 +121,22 @@ public class SharedPreferencesRepoTest {
         verify(mPreferencesManager, never()).save(anyString(), anyString());
     }
 
+    @PrepareForTest({ModelConverter.class, TextUtils.class})
+    @Test
+    public void saveDataWritesNothingWhenOneItemOfTheBatchCannotBeConverted() throws JSONException {
+        ItemDomainModel invalidItem = ModelGenerator.generateNonEncryptedNonSensitiveItemDomainModel();
+        PowerMockito.mockStatic(ModelConverter.class);
+        when(ModelConverter.getItemJSONObject(mItemDomainModel, mGson)).thenReturn(new JSONObject());
+        when(ModelConverter.getItemJSONObject(invalidItem, mGson)).thenReturn(null);
+
+        try {
+            mSharedPreferencesRepo.saveData(Arrays.asList(mItemDomainModel, invalidItem));
+            fail("JSONException expected");
+        } catch (JSONException e) {
+            verify(mPreferencesManager, never()).saveAll(anyMap());
+        }
+    }
+
     @Test
     public void retrieveFilteredItemsReturnsEmptyListWhenNoMatchingItem() throws JSONException {
         when(mPreferencesManager.getItemsMatchingType(anyString())).thenReturn(new ArrayList<>());
@@ -188,26 +207,14 @@ public class SharedPreferencesRepoTest {
     }
 
     @Test
-    public void deleteItemByTypeCallsMethodOnDaoObjectWhenDomainListNotEmpty() throws JSONException {
-        List<String> items = new ArrayList<>();
-        items.add(Objects.requireNonNull(
-                ModelConverter.getItemJSONObject(mItemDomainModel, mGson)).toString());
-        when(mPreferencesManager.getItemsMatchingType(mItemDomainModel.getMetadata().getUniqueKeyPrefix()))
-                .thenReturn(items);
-
-        mSharedPreferencesRepo.deleteItemByType(mItemDomainModel);
-
-        verify(mPreferencesManager, times(items.size())).remove(mItemDomainModel.getUniqueKey());
-    }
-
-    @Test
-    public void deleteItemByTypeCallsNoMethodOnDaoObjectWhenDomainListEmpty() throws JSONException {
-        when(mPreferencesManager.getItemsMatchingType(mItemDomainModel.getMetadata().getUniqueKeyPrefix()))
-                .thenReturn(new ArrayList<>());
+    public void deleteItemByTypeRemovesItemsMatchingTypePrefix() throws JSONException {
+        String prefix = mItemDomainModel.getMetadata().getUniqueKeyPrefix();
+        when(mPreferencesManager.removeItemsMatchingType(prefix)).thenReturn(2);
 
-        mSharedPreferencesRepo.deleteItemByType(mItemDomainModel);
+        assertEquals(2, mSharedPreferencesRepo.deleteItemByType(mItemDomainModel));
 
-        verify(mPreferencesManager, never()).remove(mItemDomainModel.getUniqueKey());
+        verify(mPreferencesManager).removeItemsMatchingType(prefix);
+        verify(mPreferencesManager, never()).getItemsMatchingType(prefix);
     }
 
     @Test
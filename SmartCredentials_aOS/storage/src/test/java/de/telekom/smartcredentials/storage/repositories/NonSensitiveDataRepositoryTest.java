@@ -19,6 +19,8 @@ package de.telekom.smartcredentials.storage.repositories;
 import android.database.sqlite.SQLiteConstraintException;
 import android.text.TextUtils;
 
+import androidx.room.RoomDatabase;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -31,7 +33,9 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import de.telekom.smartcredentials.core.model.item.ItemDomainModel;
 import de.telekom.smartcredentials.storage.database.dao.ItemDao;
@@ -49,6 +53,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -63,6 +68,7 @@ public class NonSensitiveDataRepositoryTest {
     private static final RepositoryType REPO_TYPE = NonSensitiveDataRepository.REPO_TYPE;
     private ItemDao mItemDao;
     private ItemPrivateDataDao mItemPrivateDataDao;
+    private RoomDatabase mDatabase;
     private NonSensitiveDataRepository mNonSensitiveDataRepository;
     private ItemDomainModel mItemDomainModel;
 
@@ -73,7 +79,11 @@ public class NonSensitiveDataRepositoryTest {
         mItemPrivateDataDao = Mockito.mock(ItemPrivateDataDao.class);
         mItemDomainModel = ModelGenerator.generateNonEncryptedNonSensitiveItemDomainModel();
 
-        mNonSensitiveDataRepository = new NonSensitiveDataRepository(mItemDao, mItemPrivateDataDao);
+        mDatabase = Mockito.mock(RoomDatabase.class);
+        doAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call())
+                .when(mDatabase).runInTransaction(any(Callable.class));
+
+        mNonSensitiveDataRepository = new NonSensitiveDataRepository(mItemDao, mItemPrivateDataDao, mDatabase);
     }
 
     @Test
@@ -88,6 +98,22 @@ public class NonSensitiveDataRepositoryTest {
         verify(mItemPrivateDataDao).insert(itemPrivateDataArgumentCaptor.capture());
     }
 
+    @Test
+    public void saveDataListInsertsAllItemsInOneTransaction() {
+        List<ItemDomainModel> itemDomainModels = Arrays.asList(mItemDomainModel,
+                ModelGenerator.generateNonEncryptedNonSensitiveItemDomainModel());
+        when(mItemDao.insertAll(any())).thenReturn(new long[]{1, 2});
+        when(mItemPrivateDataDao.insertAll(any())).thenReturn(new long[]{1, 2});
+
+        int savedItemsCount = mNonSensitiveDataRepository.saveData(itemDomainModels);
+
+        assertEquals(2, savedItemsCount);
+        verify(mDatabase).runInTransaction(any(Callable.class));
+        verify(mItemDao).insertAll(any());
+        verify(mItemPrivateDataDao).insertAll(any());
+        verify(mItemDao, never()).insert(any());
+    }
+
     @Test
     public void saveDataThrowsRepoExceptionWhenConstraintException() {
         doThrow(new SQLiteConstraintException()).when(mItemDao).insert(any());